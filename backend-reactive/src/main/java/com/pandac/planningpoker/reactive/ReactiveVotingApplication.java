@@ -0,0 +1,13 @@
+package com.pandac.planningpoker.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveVotingApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveVotingApplication.class, args);
+    }
+
+}
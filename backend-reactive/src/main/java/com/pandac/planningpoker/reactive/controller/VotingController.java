@@ -0,0 +1,84 @@
+package com.pandac.planningpoker.reactive.controller;
+
+import com.pandac.planningpoker.reactive.dto.CastVote;
+import com.pandac.planningpoker.reactive.dto.RoomSnapshot;
+import com.pandac.planningpoker.reactive.dto.VoteRequest;
+import com.pandac.planningpoker.reactive.dto.VoteResponse;
+import com.pandac.planningpoker.reactive.dto.VoteReveal;
+import com.pandac.planningpoker.reactive.exception.SessionMembershipException;
+import com.pandac.planningpoker.reactive.security.SessionPrincipal;
+import com.pandac.planningpoker.reactive.service.VotingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The blocking backend's voting endpoints at the same paths, so a proxy can route them here.
+ * A token only works for its own session, as on the backend's STOMP path.
+ */
+@RestController
+@RequestMapping("/api/sessions/{sessionCode}")
+@RequiredArgsConstructor
+public class VotingController {
+
+    private final VotingService votingService;
+
+    @PostMapping("/stories/{storyId}/votes")
+    public Mono<ResponseEntity<CastVote>> castVote(
+            @PathVariable String sessionCode,
+            @PathVariable Long storyId,
+            @Valid @RequestBody VoteRequest request,
+            SessionPrincipal caller) {
+        return requireMember(caller, sessionCode)
+                .then(votingService.castVote(sessionCode, storyId, request))
+                .map(vote -> ResponseEntity.status(HttpStatus.CREATED).body(vote));
+    }
+
+    @GetMapping("/stories/{storyId}/votes")
+    public Mono<List<VoteResponse>> getVotes(
+            @PathVariable String sessionCode,
+            @PathVariable Long storyId,
+            @RequestParam(defaultValue = "false") Boolean revealed,
+            SessionPrincipal caller) {
+        return requireMember(caller, sessionCode).then(votingService.getVotes(sessionCode, storyId, revealed));
+    }
+
+    @PreAuthorize("hasRole('MODERATOR')")
+    @PostMapping("/reveal")
+    public Mono<VoteReveal> revealVotes(@PathVariable String sessionCode, SessionPrincipal caller) {
+        return requireMember(caller, sessionCode).then(votingService.revealVotes(sessionCode));
+    }
+
+    @PreAuthorize("hasRole('MODERATOR')")
+    @PostMapping("/reset-votes")
+    public Mono<ResponseEntity<Void>> resetVotes(@PathVariable String sessionCode, SessionPrincipal caller) {
+        return requireMember(caller, sessionCode)
+                .then(votingService.resetVotes(sessionCode))
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+
+    @GetMapping("/snapshot")
+    public Mono<RoomSnapshot> getSnapshot(@PathVariable String sessionCode, SessionPrincipal caller) {
+        return requireMember(caller, sessionCode).then(votingService.getSnapshot(sessionCode));
+    }
+
+    private static Mono<Void> requireMember(SessionPrincipal caller, String sessionCode) {
+        if (!caller.belongsTo(sessionCode)) {
+            return Mono.error(new SessionMembershipException(
+                    "Access denied: Your token is for session " + caller.getSessionCode() + ", not " + sessionCode));
+        }
+        return Mono.empty();
+    }
+}
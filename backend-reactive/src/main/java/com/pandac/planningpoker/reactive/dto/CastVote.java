@@ -0,0 +1,18 @@
+package com.pandac.planningpoker.reactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/** A cast vote, serialized like the blocking backend's {@code Vote} entity. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CastVote {
+    private Long id;
+    private String estimate;
+    private Integer confidence;
+    private OffsetDateTime votedAt;
+}
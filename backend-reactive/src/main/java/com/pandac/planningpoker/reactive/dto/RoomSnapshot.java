@@ -0,0 +1,29 @@
+package com.pandac.planningpoker.reactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/** Read-only view of a room for the observer tier, field for field the blocking backend's snapshot. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomSnapshot {
+    private String sessionCode;
+    private String sessionName;
+    private Long currentStoryId;
+    private String currentStoryTitle;
+    private String currentStoryStatus;
+    private Boolean votesRevealed;
+    private Long activeVoters;
+    private Long activeObservers;
+    private Long voteCount;
+    private Map<String, Integer> distribution; // only once votes are revealed
+    private Double averageEstimate;
+    private String recommendedEstimate;
+    private String stateHash; // fingerprint of everything above; equal hashes mean nothing changed
+    private OffsetDateTime generatedAt;
+}
@@ -0,0 +1,29 @@
+package com.pandac.planningpoker.reactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VoteResponse {
+    private Long id;
+    private String estimate;
+    private Integer confidence;
+    private OffsetDateTime votedAt;
+    private UserInfo user;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserInfo {
+        private Long id;
+        private String name;
+        private String avatar;
+        private Boolean isModerator;
+        private Boolean isObserver;
+    }
+}
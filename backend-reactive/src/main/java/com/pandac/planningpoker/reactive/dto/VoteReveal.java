@@ -0,0 +1,23 @@
+package com.pandac.planningpoker.reactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VoteReveal {
+    private Long storyId;
+    private List<VoteResponse> votes; // null when summarized — page through GET .../votes instead
+    private Boolean consensus;
+    private Double averageEstimate;
+    private String medianEstimate;
+    private String recommendedEstimate;
+    private Map<String, Integer> distribution; // vote value -> count
+    private Integer totalVotes;
+    private Boolean summarized; // large rooms: statistics only, individual votes on demand
+}
@@ -0,0 +1,64 @@
+package com.pandac.planningpoker.reactive.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Same status codes and {@link ErrorResponse} bodies as the blocking backend. */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler({SessionNotFoundException.class, StoryNotFoundException.class, UserNotFoundException.class})
+    public ResponseEntity<ErrorResponse> handleNotFound(RuntimeException ex, ServerHttpRequest request) {
+        return respond(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(SessionMembershipException.class)
+    public ResponseEntity<ErrorResponse> handleSessionMembership(SessionMembershipException ex, ServerHttpRequest request) {
+        return respond(HttpStatus.FORBIDDEN, "Forbidden", ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(NoActiveStoryException.class)
+    public ResponseEntity<ErrorResponse> handleNoActiveStory(NoActiveStoryException ex, ServerHttpRequest request) {
+        return respond(HttpStatus.CONFLICT, "Conflict", ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(InvalidVoteException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidVote(InvalidVoteException ex, ServerHttpRequest request) {
+        return respond(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationErrors(WebExchangeBindException ex, ServerHttpRequest request) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach(error ->
+                errors.put(((FieldError) error).getField(), error.getDefaultMessage()));
+        return respond(HttpStatus.BAD_REQUEST, "Validation Failed", errors.toString(), request);
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ErrorResponse> handleAccessDenied(AccessDeniedException ex, ServerHttpRequest request) {
+        return respond(HttpStatus.FORBIDDEN, "Forbidden", "Access denied: insufficient permissions", request);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex, ServerHttpRequest request) {
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", ex.getMessage(), request);
+    }
+
+    private static ResponseEntity<ErrorResponse> respond(HttpStatus status, String error, String message,
+                                                         ServerHttpRequest request) {
+        ErrorResponse body = new ErrorResponse(OffsetDateTime.now(), status.value(), error, message,
+                request.getPath().value());
+        return new ResponseEntity<>(body, status);
+    }
+}
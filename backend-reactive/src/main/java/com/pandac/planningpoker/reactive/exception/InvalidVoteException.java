@@ -0,0 +1,7 @@
+package com.pandac.planningpoker.reactive.exception;
+
+public class InvalidVoteException extends RuntimeException {
+    public InvalidVoteException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.pandac.planningpoker.reactive.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a resource (Story, User) does not belong to the expected Session, or the
+ * caller's token is for another session.
+ * Maps to HTTP 403 Forbidden.
+ */
+@ResponseStatus(HttpStatus.FORBIDDEN)
+public class SessionMembershipException extends RuntimeException {
+    public SessionMembershipException(String message) {
+        super(message);
+    }
+}
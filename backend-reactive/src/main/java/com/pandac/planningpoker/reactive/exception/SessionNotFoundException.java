@@ -0,0 +1,7 @@
+package com.pandac.planningpoker.reactive.exception;
+
+public class SessionNotFoundException extends RuntimeException {
+    public SessionNotFoundException(String sessionCode) {
+        super("Session not found: " + sessionCode);
+    }
+}
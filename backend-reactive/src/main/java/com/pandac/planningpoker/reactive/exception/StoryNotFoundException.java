@@ -0,0 +1,7 @@
+package com.pandac.planningpoker.reactive.exception;
+
+public class StoryNotFoundException extends RuntimeException {
+    public StoryNotFoundException(Long storyId) {
+        super("Story not found: " + storyId);
+    }
+}
@@ -0,0 +1,7 @@
+package com.pandac.planningpoker.reactive.exception;
+
+public class UserNotFoundException extends RuntimeException {
+    public UserNotFoundException(Long userId) {
+        super("User not found with ID: " + userId);
+    }
+}
@@ -0,0 +1,5 @@
+package com.pandac.planningpoker.reactive.model;
+
+/** The columns of {@code sessions} the voting hot path reads. */
+public record SessionRow(Long id, String sessionCode, String name, Long currentStoryId, boolean votesRevealed,
+                         boolean allowChangeVote, boolean autoReveal, boolean largeRoom) {}
@@ -0,0 +1,4 @@
+package com.pandac.planningpoker.reactive.model;
+
+/** The columns of {@code stories} the voting hot path reads. */
+public record StoryRow(Long id, Long sessionId, String title, String status) {}
@@ -0,0 +1,5 @@
+package com.pandac.planningpoker.reactive.model;
+
+/** The columns of {@code users} the voting hot path reads. */
+public record UserRow(Long id, Long sessionId, String name, String avatar, boolean active, boolean observer,
+                      boolean moderator) {}
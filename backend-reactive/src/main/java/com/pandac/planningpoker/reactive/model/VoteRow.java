@@ -0,0 +1,7 @@
+package com.pandac.planningpoker.reactive.model;
+
+import java.time.OffsetDateTime;
+
+/** A {@code votes} row, with its voter when read for display. */
+public record VoteRow(Long id, Long storyId, Long userId, String estimate, Integer confidence, OffsetDateTime votedAt,
+                      UserRow user) {}
@@ -0,0 +1,184 @@
+package com.pandac.planningpoker.reactive.repository;
+
+import com.pandac.planningpoker.reactive.model.SessionRow;
+import com.pandac.planningpoker.reactive.model.StoryRow;
+import com.pandac.planningpoker.reactive.model.UserRow;
+import com.pandac.planningpoker.reactive.model.VoteRow;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQL of the voting hot path against the blocking backend's schema ({@code V*__*.sql}). The
+ * round transitions are the same conditional updates as its {@code SessionRepository}, so the
+ * two services can serve one session side by side and still announce each reveal once.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VotingRepository {
+
+    private static final String USER_COLUMNS = "u.id, u.session_id, u.name, u.avatar, u.is_active, u.is_observer, u.is_moderator";
+
+    private final DatabaseClient db;
+
+    // ── Reads ──────────────────────────────────────────────────────────────────
+
+    public Mono<SessionRow> findActiveSession(String sessionCode) {
+        return db.sql("SELECT id, session_code, name, current_story_id, votes_revealed, allow_change_vote, auto_reveal, "
+                        + "large_room FROM sessions WHERE session_code = :code AND is_active = TRUE")
+                .bind("code", sessionCode)
+                .map(row -> new SessionRow(row.get("id", Long.class), row.get("session_code", String.class),
+                        row.get("name", String.class), row.get("current_story_id", Long.class),
+                        flag(row, "votes_revealed"), flag(row, "allow_change_vote"), flag(row, "auto_reveal"),
+                        flag(row, "large_room")))
+                .one();
+    }
+
+    public Mono<StoryRow> findStory(Long storyId) {
+        return db.sql("SELECT id, session_id, title, status FROM stories WHERE id = :id")
+                .bind("id", storyId)
+                .map(row -> new StoryRow(row.get("id", Long.class), row.get("session_id", Long.class),
+                        row.get("title", String.class), row.get("status", String.class)))
+                .one();
+    }
+
+    public Mono<UserRow> findUser(Long userId) {
+        return db.sql("SELECT " + USER_COLUMNS + " FROM users u WHERE u.id = :id")
+                .bind("id", userId)
+                .map(VotingRepository::user)
+                .one();
+    }
+
+    public Mono<VoteRow> findVote(Long storyId, Long userId) {
+        return db.sql("SELECT id, story_id, user_id, estimate, confidence, voted_at FROM votes "
+                        + "WHERE story_id = :storyId AND user_id = :userId")
+                .bind("storyId", storyId)
+                .bind("userId", userId)
+                .map(row -> new VoteRow(row.get("id", Long.class), row.get("story_id", Long.class),
+                        row.get("user_id", Long.class), row.get("estimate", String.class),
+                        row.get("confidence", Integer.class), votedAt(row), null))
+                .one();
+    }
+
+    /** The story's votes with their voters, oldest first. */
+    public Flux<VoteRow> findVotes(Long storyId) {
+        return db.sql("SELECT v.id AS vote_id, v.story_id, v.user_id, v.estimate, v.confidence, v.voted_at, "
+                        + USER_COLUMNS + " FROM votes v JOIN users u ON u.id = v.user_id "
+                        + "WHERE v.story_id = :storyId ORDER BY v.id")
+                .bind("storyId", storyId)
+                .map(row -> new VoteRow(row.get("vote_id", Long.class), row.get("story_id", Long.class),
+                        row.get("user_id", Long.class), row.get("estimate", String.class),
+                        row.get("confidence", Integer.class), votedAt(row), user(row)))
+                .all();
+    }
+
+    public Mono<Long> countVotes(Long storyId) {
+        return db.sql("SELECT COUNT(*) AS votes FROM votes WHERE story_id = :storyId")
+                .bind("storyId", storyId)
+                .map(row -> row.get("votes", Long.class))
+                .one();
+    }
+
+    /** Estimate → number of votes, counted by the database. */
+    public Mono<Map<String, Integer>> countByEstimate(Long storyId) {
+        return db.sql("SELECT estimate, COUNT(*) AS votes FROM votes WHERE story_id = :storyId GROUP BY estimate")
+                .bind("storyId", storyId)
+                .map(row -> Map.entry(row.get("estimate", String.class), row.get("votes", Long.class).intValue()))
+                .all()
+                .collect(LinkedHashMap::new, (distribution, entry) -> distribution.put(entry.getKey(), entry.getValue()));
+    }
+
+    public Mono<Long> countActiveUsers(Long sessionId, boolean observers) {
+        return db.sql("SELECT COUNT(*) AS users FROM users WHERE session_id = :sessionId AND is_active = TRUE "
+                        + "AND is_observer = :observers")
+                .bind("sessionId", sessionId)
+                .bind("observers", observers)
+                .map(row -> row.get("users", Long.class))
+                .one();
+    }
+
+    // ── Writes ─────────────────────────────────────────────────────────────────
+
+    public Mono<Long> insertVote(Long storyId, Long userId, String estimate, Integer confidence, OffsetDateTime votedAt) {
+        DatabaseClient.GenericExecuteSpec insert = db.sql("INSERT INTO votes (story_id, user_id, estimate, confidence, "
+                        + "voted_at) VALUES (:storyId, :userId, :estimate, :confidence, :votedAt)")
+                .bind("storyId", storyId)
+                .bind("userId", userId)
+                .bind("estimate", estimate)
+                .bind("votedAt", votedAt.toLocalDateTime());
+        return bindConfidence(insert, confidence)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    public Mono<Long> updateVote(Long voteId, String estimate, Integer confidence) {
+        DatabaseClient.GenericExecuteSpec update = db.sql("UPDATE votes SET estimate = :estimate, confidence = :confidence "
+                        + "WHERE id = :id")
+                .bind("id", voteId)
+                .bind("estimate", estimate);
+        return bindConfidence(update, confidence).fetch().rowsUpdated();
+    }
+
+    public Mono<Long> deleteVotes(Long storyId) {
+        return db.sql("DELETE FROM votes WHERE story_id = :storyId")
+                .bind("storyId", storyId)
+                .fetch().rowsUpdated();
+    }
+
+    /** Reveals the round only while {@code storyId} is current and still hidden; 1 if this call revealed it. */
+    public Mono<Long> markVotesRevealed(Long sessionId, Long storyId) {
+        return db.sql("UPDATE sessions SET votes_revealed = TRUE "
+                        + "WHERE id = :id AND current_story_id = :storyId AND votes_revealed = FALSE")
+                .bind("id", sessionId)
+                .bind("storyId", storyId)
+                .fetch().rowsUpdated();
+    }
+
+    /** Reopens voting only while {@code storyId} is still the current story. */
+    public Mono<Long> reopenVoting(Long sessionId, Long storyId) {
+        return db.sql("UPDATE sessions SET votes_revealed = FALSE WHERE id = :id AND current_story_id = :storyId")
+                .bind("id", sessionId)
+                .bind("storyId", storyId)
+                .fetch().rowsUpdated();
+    }
+
+    public Mono<Long> updateStoryStatus(Long storyId, String status) {
+        return db.sql("UPDATE stories SET status = :status WHERE id = :id")
+                .bind("id", storyId)
+                .bind("status", status)
+                .fetch().rowsUpdated();
+    }
+
+    // ── Mapping ────────────────────────────────────────────────────────────────
+
+    private static UserRow user(Readable row) {
+        return new UserRow(row.get("id", Long.class), row.get("session_id", Long.class), row.get("name", String.class),
+                row.get("avatar", String.class), flag(row, "is_active"), flag(row, "is_observer"),
+                flag(row, "is_moderator"));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindConfidence(DatabaseClient.GenericExecuteSpec spec,
+                                                                   Integer confidence) {
+        return confidence == null ? spec.bindNull("confidence", Integer.class) : spec.bind("confidence", confidence);
+    }
+
+    /** {@code voted_at} is a zone-less TIMESTAMP written in the server's zone, as Hibernate does. */
+    private static OffsetDateTime votedAt(Readable row) {
+        LocalDateTime votedAt = row.get("voted_at", LocalDateTime.class);
+        return votedAt == null ? null : votedAt.atZone(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+
+    private static boolean flag(Readable row, String column) {
+        return Boolean.TRUE.equals(row.get(column, Boolean.class));
+    }
+}
@@ -0,0 +1,40 @@
+package com.pandac.planningpoker.reactive.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Validates the tokens the blocking backend issues on create/join (same {@code jwt.secret},
+ * same {@code sessionCode}/{@code userId}/{@code role} claims). This service never issues tokens.
+ */
+@Service
+@Slf4j
+public class JwtTokenService {
+
+    private final SecretKey signingKey;
+
+    public JwtTokenService(@Value("${jwt.secret}") String secret) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** The caller the token stands for, or empty if it is invalid, expired or carries an unknown role. */
+    public Optional<SessionPrincipal> parsePrincipal(String token) {
+        try {
+            Claims claims = Jwts.parser().verifyWith(signingKey).build().parseSignedClaims(token).getPayload();
+            return Optional.of(new SessionPrincipal(claims.get("sessionCode", String.class),
+                    claims.get("userId", Long.class), UserRole.fromString(claims.get("role", String.class))));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("JWT validation failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
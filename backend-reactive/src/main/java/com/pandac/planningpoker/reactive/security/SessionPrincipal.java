@@ -0,0 +1,46 @@
+package com.pandac.planningpoker.reactive.security;
+
+import lombok.Getter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Caller of a request, from one parse of the backend-issued JWT. The name stays
+ * {@code sessionCode:userId}, as on the blocking backend.
+ */
+@Getter
+public class SessionPrincipal extends AbstractAuthenticationToken {
+
+    private final String sessionCode;
+    private final Long userId;
+    private final UserRole role;
+
+    public SessionPrincipal(String sessionCode, Long userId, UserRole role) {
+        super(List.of(new SimpleGrantedAuthority(role.getAuthority())));
+        this.sessionCode = sessionCode;
+        this.userId = userId;
+        this.role = role;
+        setAuthenticated(true);
+    }
+
+    public boolean belongsTo(String sessionCode) {
+        return this.sessionCode.equals(sessionCode);
+    }
+
+    @Override
+    public String getName() {
+        return sessionCode + ":" + userId;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return getName();
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.pandac.planningpoker.reactive.security;
+
+/** Roles carried in the {@code role} claim of the backend's session tokens. */
+public enum UserRole {
+    MODERATOR("ROLE_MODERATOR"),
+    PARTICIPANT("ROLE_PARTICIPANT"),
+    OBSERVER("ROLE_OBSERVER");
+
+    private final String authority;
+
+    UserRole(String authority) {
+        this.authority = authority;
+    }
+
+    public String getAuthority() {
+        return authority;
+    }
+
+    /** Parses the role claim the way the backend does (case-insensitive, optional {@code ROLE_} prefix). */
+    public static UserRole fromString(String role) {
+        if (role == null) {
+            throw new IllegalArgumentException("Role cannot be null");
+        }
+        return UserRole.valueOf(role.toUpperCase().replace("ROLE_", ""));
+    }
+}
@@ -0,0 +1,21 @@
+package com.pandac.planningpoker.reactive.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Tells the blocking backend's instances about changes made here, so their STOMP
+ * subscribers see the vote counts and reveals and their caches drop stale sessions.
+ * <p>
+ * Selected by {@code cluster.enabled}: {@link NoopClusterRelay} when this service runs alone,
+ * {@link PostgresClusterRelay} to publish on the backend's {@code LISTEN/NOTIFY} channel.
+ */
+public interface ClusterRelay {
+
+    /** A session event for channel {@code channel} ({@code votes}, {@code reveal}, ...). */
+    Mono<Void> event(String sessionCode, String channel, Map<String, Object> payload);
+
+    /** A cache invalidation of {@code entity} ({@code SESSION}, {@code STORY}, {@code VOTE}). */
+    Mono<Void> invalidation(String entity, Long id, String sessionCode);
+}
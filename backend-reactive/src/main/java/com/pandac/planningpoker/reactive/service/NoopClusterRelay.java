@@ -0,0 +1,23 @@
+package com.pandac.planningpoker.reactive.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/** Default: nothing else serves this database. */
+@Component
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "false", matchIfMissing = true)
+public class NoopClusterRelay implements ClusterRelay {
+
+    @Override
+    public Mono<Void> event(String sessionCode, String channel, Map<String, Object> payload) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> invalidation(String entity, Long id, String sessionCode) {
+        return Mono.empty();
+    }
+}
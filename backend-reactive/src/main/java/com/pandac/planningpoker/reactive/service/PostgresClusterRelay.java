@@ -0,0 +1,84 @@
+package com.pandac.planningpoker.reactive.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes on the blocking backend's cluster channel ({@code cluster.channel}) in its
+ * envelope format, as one more node: events go to the backend instances' STOMP subscribers,
+ * invalidations to their caches in per-(node, session) sequence order.
+ * <p>
+ * {@code pg_notify} runs on the caller's connection, so inside a transaction the notification
+ * is sent on commit and discarded on rollback.
+ */
+@Component
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+@Slf4j
+public class PostgresClusterRelay implements ClusterRelay {
+
+    private final DatabaseClient db;
+    private final ObjectMapper objectMapper;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+
+    @Value("${cluster.channel:planningpoker_events}")
+    private String channel = "planningpoker_events";
+
+    public PostgresClusterRelay(DatabaseClient db, ObjectMapper objectMapper) {
+        this.db = db;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> event(String sessionCode, String eventChannel, Map<String, Object> payload) {
+        return send(new Envelope(nodeId, sessionCode, eventChannel, objectMapper.valueToTree(payload), null));
+    }
+
+    @Override
+    public Mono<Void> invalidation(String entity, Long id, String sessionCode) {
+        long sequence = sequences.computeIfAbsent(sessionCode, k -> new AtomicLong()).incrementAndGet();
+        Map<String, Object> invalidation = new LinkedHashMap<>();
+        invalidation.put("e", entity);
+        if (id != null) {
+            invalidation.put("i", id);
+        }
+        invalidation.put("s", sessionCode);
+        invalidation.put("o", nodeId);
+        invalidation.put("n", sequence);
+        invalidation.put("t", System.currentTimeMillis());
+        return send(new Envelope(nodeId, null, null, null, invalidation));
+    }
+
+    private Mono<Void> send(Envelope envelope) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to encode cluster envelope: {}", e.getMessage());
+            return Mono.empty();
+        }
+        return db.sql("SELECT pg_notify(:channel, :payload)")
+                .bind("channel", channel)
+                .bind("payload", json)
+                .then();
+    }
+
+    /** The backend's {@code PostgresClusterBus.Envelope}; payloads here never need its spill table. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Envelope(String origin, String sessionCode, String channel, JsonNode payload,
+                    Map<String, Object> invalidation) {}
+}
@@ -0,0 +1,46 @@
+package com.pandac.planningpoker.reactive.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reveal statistics, computed exactly as the backend's {@code VoteStatisticsCalculator}:
+ * numeric estimates only for average and median, all estimates for the mode (first of the
+ * most frequent in distribution order) and consensus.
+ */
+record VoteStatistics(Map<String, Integer> distribution, Double average, String median, String mode,
+                      boolean consensus) {
+
+    static VoteStatistics of(Map<String, Integer> distribution) {
+        if (distribution.isEmpty()) {
+            return new VoteStatistics(Collections.emptyMap(), null, null, null, false);
+        }
+        List<Double> numericValues = new ArrayList<>();
+        distribution.forEach((estimate, count) -> {
+            try {
+                numericValues.addAll(Collections.nCopies(count, Double.parseDouble(estimate)));
+            } catch (NumberFormatException ignored) {
+                // Non-numeric estimate — excluded from numeric stats
+            }
+        });
+        Collections.sort(numericValues);
+
+        Double average = null;
+        String median = null;
+        if (!numericValues.isEmpty()) {
+            average = numericValues.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+            int size = numericValues.size();
+            double medianValue = (size % 2 == 0)
+                    ? (numericValues.get(size / 2 - 1) + numericValues.get(size / 2)) / 2.0
+                    : numericValues.get(size / 2);
+            median = String.valueOf(medianValue);
+        }
+        String mode = distribution.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null);
+        return new VoteStatistics(distribution, average, median, mode, distribution.size() == 1);
+    }
+}
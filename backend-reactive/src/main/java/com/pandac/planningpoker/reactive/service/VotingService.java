@@ -0,0 +1,321 @@
+package com.pandac.planningpoker.reactive.service;
+
+import com.pandac.planningpoker.reactive.dto.CastVote;
+import com.pandac.planningpoker.reactive.dto.RoomSnapshot;
+import com.pandac.planningpoker.reactive.dto.VoteRequest;
+import com.pandac.planningpoker.reactive.dto.VoteResponse;
+import com.pandac.planningpoker.reactive.dto.VoteReveal;
+import com.pandac.planningpoker.reactive.exception.InvalidVoteException;
+import com.pandac.planningpoker.reactive.exception.NoActiveStoryException;
+import com.pandac.planningpoker.reactive.exception.SessionMembershipException;
+import com.pandac.planningpoker.reactive.exception.SessionNotFoundException;
+import com.pandac.planningpoker.reactive.exception.StoryNotFoundException;
+import com.pandac.planningpoker.reactive.exception.UserNotFoundException;
+import com.pandac.planningpoker.reactive.model.SessionRow;
+import com.pandac.planningpoker.reactive.model.StoryRow;
+import com.pandac.planningpoker.reactive.model.UserRow;
+import com.pandac.planningpoker.reactive.model.VoteRow;
+import com.pandac.planningpoker.reactive.repository.VotingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The voting hot path of the blocking backend's {@code VoteService} and {@code SessionService},
+ * without a thread per request: same validations and messages, same conditional round
+ * transitions, and the same events and invalidations (through {@link ClusterRelay}).
+ * <p>
+ * There is no per-session mailbox here; concurrent writes to one room are ordered by the
+ * conditional updates in {@link VotingRepository} and the unique vote per (story, user).
+ */
+@Service
+@Slf4j
+public class VotingService {
+
+    private final VotingRepository repository;
+    private final ClusterRelay clusterRelay;
+    private final TransactionalOperator transactionalOperator;
+    // Reads keep one connection for all their queries instead of queueing for the pool per query
+    private final TransactionalOperator readOnlyTransaction;
+
+    public VotingService(VotingRepository repository, ClusterRelay clusterRelay,
+                         ReactiveTransactionManager transactionManager) {
+        this.repository = repository;
+        this.clusterRelay = clusterRelay;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        DefaultTransactionDefinition readOnly = new DefaultTransactionDefinition();
+        readOnly.setReadOnly(true);
+        this.readOnlyTransaction = TransactionalOperator.create(transactionManager, readOnly);
+    }
+
+    public Mono<CastVote> castVote(String sessionCode, Long storyId, VoteRequest request) {
+        Mono<CastVote> cast = activeSession(sessionCode)
+                .flatMap(session -> Mono.zip(story(storyId), user(request.getUserId()))
+                        .flatMap(found -> checkVote(session, found.getT1(), found.getT2()))
+                        .flatMap(voter -> repository.findVote(storyId, voter.id())
+                                .map(Optional::of)
+                                .defaultIfEmpty(Optional.empty())
+                                .flatMap(existing -> writeVote(session, storyId, voter, existing, request))
+                                .flatMap(vote -> afterVote(session, storyId, vote.getId()).thenReturn(vote))));
+        return transactionalOperator.transactional(cast);
+    }
+
+    public Mono<List<VoteResponse>> getVotes(String sessionCode, Long storyId, boolean revealed) {
+        Mono<List<VoteResponse>> votes = activeSession(sessionCode)
+                .flatMap(session -> story(storyId).flatMap(story -> {
+                    requireStoryInSession(story, session);
+                    // The blocking backend answers an early "revealed" read with an empty list too
+                    if (revealed && !session.votesRevealed()) {
+                        return Mono.just(List.<VoteResponse>of());
+                    }
+                    return repository.findVotes(storyId).map(VotingService::toResponse).collectList();
+                }));
+        return readOnlyTransaction.transactional(votes);
+    }
+
+    public Mono<VoteReveal> revealVotes(String sessionCode) {
+        Mono<VoteReveal> reveal = activeSession(sessionCode)
+                .flatMap(session -> currentStory(session, "No current story set for voting")
+                        .flatMap(story -> repository.markVotesRevealed(session.id(), story.id())
+                                .flatMap(updated -> {
+                                    boolean revealedNow = updated == 1;
+                                    Mono<Void> transition = revealedNow
+                                            ? repository.updateStoryStatus(story.id(), "IN_PROGRESS")
+                                                    .then(invalidate("SESSION", session.id(), sessionCode))
+                                                    .then(invalidate("STORY", story.id(), sessionCode))
+                                            : Mono.empty();
+                                    return transition
+                                            .then(buildReveal(session, story.id()))
+                                            .flatMap(built -> (revealedNow
+                                                    ? announceReveal(sessionCode, story.id())
+                                                    : Mono.<Void>empty()).thenReturn(built));
+                                })));
+        return transactionalOperator.transactional(reveal);
+    }
+
+    public Mono<Void> resetVotes(String sessionCode) {
+        Mono<Void> reset = activeSession(sessionCode)
+                .flatMap(session -> currentStory(session, "No current story set")
+                        .flatMap(story -> repository.reopenVoting(session.id(), story.id())
+                                .flatMap(updated -> updated == 0
+                                        ? Mono.error(new NoActiveStoryException("The current story changed; reload the session"))
+                                        : repository.deleteVotes(story.id()))
+                                .then(repository.updateStoryStatus(story.id(), "NOT_ESTIMATED"))
+                                .then(invalidate("SESSION", session.id(), sessionCode))
+                                .then(invalidate("STORY", story.id(), sessionCode))
+                                .then(clusterRelay.event(sessionCode, "reveal",
+                                        Map.of("type", "VOTES_RESET", "storyId", story.id(), "sessionCode", sessionCode)))));
+        return transactionalOperator.transactional(reset);
+    }
+
+    /** Built from the database on every call; the blocking backend's conflation cache is not needed here. */
+    public Mono<RoomSnapshot> getSnapshot(String sessionCode) {
+        Mono<RoomSnapshot> built = activeSession(sessionCode).flatMap(session -> {
+            RoomSnapshot snapshot = new RoomSnapshot();
+            snapshot.setSessionCode(sessionCode);
+            snapshot.setSessionName(session.name());
+            snapshot.setVotesRevealed(session.votesRevealed());
+            snapshot.setGeneratedAt(OffsetDateTime.now());
+            Mono<RoomSnapshot> counted = Mono.zip(repository.countActiveUsers(session.id(), false),
+                            repository.countActiveUsers(session.id(), true))
+                    .map(users -> {
+                        snapshot.setActiveVoters(users.getT1());
+                        snapshot.setActiveObservers(users.getT2());
+                        return snapshot;
+                    });
+            Mono<StoryRow> story = session.currentStoryId() == null ? Mono.empty()
+                    : repository.findStory(session.currentStoryId());
+            return counted
+                    .then(story.flatMap(current -> fillStory(snapshot, session, current)))
+                    .switchIfEmpty(Mono.fromSupplier(() -> {
+                        snapshot.setVoteCount(0L);
+                        return snapshot;
+                    }))
+                    .map(filled -> {
+                        filled.setStateHash(stateHash(filled));
+                        return filled;
+                    });
+        });
+        return readOnlyTransaction.transactional(built);
+    }
+
+    // ── Cast ───────────────────────────────────────────────────────────────────
+
+    private Mono<UserRow> checkVote(SessionRow session, StoryRow story, UserRow user) {
+        requireStoryInSession(story, session);
+        if (!Objects.equals(user.sessionId(), session.id())) {
+            return Mono.error(new SessionMembershipException(
+                    "User " + user.id() + " does not belong to session " + session.sessionCode()));
+        }
+        if (user.observer()) {
+            return Mono.error(new InvalidVoteException("Observers cannot vote"));
+        }
+        if (!user.active()) {
+            return Mono.error(new InvalidVoteException("Inactive users cannot vote"));
+        }
+        return Mono.just(user);
+    }
+
+    private Mono<CastVote> writeVote(SessionRow session, Long storyId, UserRow voter, Optional<VoteRow> existing,
+                                     VoteRequest request) {
+        if (existing.isEmpty()) {
+            OffsetDateTime votedAt = OffsetDateTime.now();
+            return repository.insertVote(storyId, voter.id(), request.getEstimate(), request.getConfidence(), votedAt)
+                    .map(id -> new CastVote(id, request.getEstimate(), request.getConfidence(), votedAt));
+        }
+        if (!session.allowChangeVote() && session.votesRevealed()) {
+            return Mono.error(new InvalidVoteException("Vote changes are not allowed after reveal"));
+        }
+        VoteRow vote = existing.get();
+        return repository.updateVote(vote.id(), request.getEstimate(), request.getConfidence())
+                .thenReturn(new CastVote(vote.id(), request.getEstimate(), request.getConfidence(), vote.votedAt()));
+    }
+
+    /**
+     * Vote count for the room, then auto-reveal once every active voter has voted. Large rooms
+     * get a database count per vote too: the in-memory tally and coalescing broadcaster live in
+     * the blocking backend.
+     */
+    private Mono<Void> afterVote(SessionRow session, Long storyId, Long voteId) {
+        String sessionCode = session.sessionCode();
+        return invalidate("VOTE", voteId, sessionCode)
+                .then(repository.countVotes(storyId))
+                .flatMap(voteCount -> clusterRelay.event(sessionCode, "votes",
+                                Map.of("type", "VOTE_CAST", "storyId", storyId, "voteCount", voteCount.intValue()))
+                        .then(autoReveal(session, storyId, voteCount)));
+    }
+
+    private Mono<Void> autoReveal(SessionRow session, Long storyId, long voteCount) {
+        if (!session.autoReveal() || session.votesRevealed()) {
+            return Mono.empty();
+        }
+        return repository.countActiveUsers(session.id(), false)
+                .filter(voters -> voteCount >= voters)
+                .flatMap(voters -> repository.markVotesRevealed(session.id(), storyId))
+                .filter(updated -> updated == 1)
+                .flatMap(updated -> {
+                    log.debug("Auto-revealed votes for story {} in session {}", storyId, session.sessionCode());
+                    return invalidate("SESSION", session.id(), session.sessionCode())
+                            .then(announceReveal(session.sessionCode(), storyId));
+                });
+    }
+
+    // ── Reveal ─────────────────────────────────────────────────────────────────
+
+    /** Large rooms get statistics only, counted by the database; others every vote as well. */
+    private Mono<VoteReveal> buildReveal(SessionRow session, Long storyId) {
+        if (session.largeRoom()) {
+            return repository.countByEstimate(storyId).map(distribution -> {
+                VoteReveal reveal = reveal(storyId, VoteStatistics.of(distribution));
+                reveal.setTotalVotes(distribution.values().stream().mapToInt(Integer::intValue).sum());
+                reveal.setSummarized(true);
+                return reveal;
+            });
+        }
+        return repository.findVotes(storyId).collectList().map(votes -> {
+            Map<String, Integer> distribution = new LinkedHashMap<>();
+            votes.forEach(vote -> distribution.merge(vote.estimate(), 1, Integer::sum));
+            VoteReveal reveal = reveal(storyId, VoteStatistics.of(distribution));
+            reveal.setVotes(votes.stream().map(VotingService::toResponse).toList());
+            reveal.setTotalVotes(votes.size());
+            reveal.setSummarized(false);
+            return reveal;
+        });
+    }
+
+    private static VoteReveal reveal(Long storyId, VoteStatistics stats) {
+        VoteReveal reveal = new VoteReveal();
+        reveal.setStoryId(storyId);
+        reveal.setConsensus(stats.consensus());
+        reveal.setAverageEstimate(stats.average());
+        reveal.setMedianEstimate(stats.median());
+        reveal.setRecommendedEstimate(stats.mode());
+        reveal.setDistribution(stats.distribution());
+        return reveal;
+    }
+
+    private Mono<Void> announceReveal(String sessionCode, Long storyId) {
+        return clusterRelay.event(sessionCode, "reveal",
+                Map.of("type", "VOTES_REVEALED", "storyId", storyId, "sessionCode", sessionCode));
+    }
+
+    // ── Snapshot ───────────────────────────────────────────────────────────────
+
+    private Mono<RoomSnapshot> fillStory(RoomSnapshot snapshot, SessionRow session, StoryRow story) {
+        snapshot.setCurrentStoryId(story.id());
+        snapshot.setCurrentStoryTitle(story.title());
+        snapshot.setCurrentStoryStatus(story.status());
+        if (!session.votesRevealed()) {
+            return repository.countVotes(story.id()).map(voteCount -> {
+                snapshot.setVoteCount(voteCount);
+                return snapshot;
+            });
+        }
+        return repository.countByEstimate(story.id()).map(distribution -> {
+            VoteStatistics stats = VoteStatistics.of(distribution);
+            snapshot.setVoteCount(distribution.values().stream().mapToLong(Integer::longValue).sum());
+            snapshot.setDistribution(stats.distribution());
+            snapshot.setAverageEstimate(stats.average());
+            snapshot.setRecommendedEstimate(stats.mode());
+            return snapshot;
+        });
+    }
+
+    /** Fingerprint of the room state in a snapshot, ignoring when it was generated. */
+    static String stateHash(RoomSnapshot snapshot) {
+        return Integer.toHexString(Objects.hash(snapshot.getSessionCode(), snapshot.getSessionName(),
+                snapshot.getCurrentStoryId(), snapshot.getCurrentStoryTitle(), snapshot.getCurrentStoryStatus(),
+                snapshot.getVotesRevealed(), snapshot.getActiveVoters(), snapshot.getActiveObservers(),
+                snapshot.getVoteCount(), snapshot.getDistribution(), snapshot.getAverageEstimate(),
+                snapshot.getRecommendedEstimate()));
+    }
+
+    // ── Lookups ────────────────────────────────────────────────────────────────
+
+    private Mono<SessionRow> activeSession(String sessionCode) {
+        return repository.findActiveSession(sessionCode)
+                .switchIfEmpty(Mono.error(() -> new SessionNotFoundException(sessionCode)));
+    }
+
+    private Mono<StoryRow> story(Long storyId) {
+        return repository.findStory(storyId).switchIfEmpty(Mono.error(() -> new StoryNotFoundException(storyId)));
+    }
+
+    private Mono<UserRow> user(Long userId) {
+        return repository.findUser(userId).switchIfEmpty(Mono.error(() -> new UserNotFoundException(userId)));
+    }
+
+    private Mono<StoryRow> currentStory(SessionRow session, String missingMessage) {
+        if (session.currentStoryId() == null) {
+            return Mono.error(new NoActiveStoryException(missingMessage));
+        }
+        return story(session.currentStoryId());
+    }
+
+    private static void requireStoryInSession(StoryRow story, SessionRow session) {
+        if (!Objects.equals(story.sessionId(), session.id())) {
+            throw new SessionMembershipException(
+                    "Story " + story.id() + " does not belong to session " + session.sessionCode());
+        }
+    }
+
+    private Mono<Void> invalidate(String entity, Long id, String sessionCode) {
+        return clusterRelay.invalidation(entity, id, sessionCode);
+    }
+
+    private static VoteResponse toResponse(VoteRow vote) {
+        UserRow user = vote.user();
+        return new VoteResponse(vote.id(), vote.estimate(), vote.confidence(), vote.votedAt(),
+                new VoteResponse.UserInfo(user.id(), user.name(), user.avatar(), user.moderator(), user.observer()));
+    }
+}
@@ -0,0 +1,284 @@
+package com.pandac.planningpoker.reactive.controller;
+
+import com.pandac.planningpoker.reactive.dto.VoteRequest;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class VotingControllerTest {
+
+    @Autowired WebTestClient client;
+    @Autowired DatabaseClient db;
+
+    @Value("${jwt.secret}")
+    String secret;
+
+    private long sessionId;
+    private long storyId;
+    private long moderatorId;
+    private long voterId;
+    private long observerId;
+
+    @BeforeEach
+    void setUp() {
+        execute("DELETE FROM votes");
+        execute("UPDATE sessions SET current_story_id = NULL");
+        execute("DELETE FROM stories");
+        execute("DELETE FROM users");
+        execute("DELETE FROM sessions");
+
+        sessionId = insert("INSERT INTO sessions (session_code, name) VALUES ('ABC123', 'Sprint 42')");
+        insert("INSERT INTO sessions (session_code, name) VALUES ('XYZ789', 'Other')");
+        storyId = insert("INSERT INTO stories (title, session_id) VALUES ('Login page', " + sessionId + ")");
+        execute("UPDATE sessions SET current_story_id = " + storyId + " WHERE id = " + sessionId);
+        moderatorId = insert("INSERT INTO users (name, session_id, is_moderator) VALUES ('Mia', " + sessionId + ", TRUE)");
+        voterId = insert("INSERT INTO users (name, session_id) VALUES ('Vic', " + sessionId + ")");
+        observerId = insert("INSERT INTO users (name, session_id, is_observer) VALUES ('Olga', " + sessionId + ", TRUE)");
+    }
+
+    // ── castVote ────────────────────────────────────────────────────────────
+
+    @Test
+    void castVote_returns201_andChangesTheVoteOnASecondCast() {
+        cast("ABC123", voterId, "5", voterId, "PARTICIPANT").expectStatus().isCreated()
+                .expectBody().jsonPath("$.estimate").isEqualTo("5").jsonPath("$.id").isNumber();
+        cast("ABC123", voterId, "8", voterId, "PARTICIPANT").expectStatus().isCreated();
+
+        assertThat(count("SELECT COUNT(*) AS n FROM votes")).isEqualTo(1);
+        assertThat(db.sql("SELECT estimate FROM votes").map(row -> row.get("estimate", String.class)).one().block())
+                .isEqualTo("8");
+    }
+
+    @Test
+    void castVote_byObserver_returns400() {
+        cast("ABC123", observerId, "5", observerId, "OBSERVER").expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Observers cannot vote");
+    }
+
+    @Test
+    void castVote_withTokenForAnotherSession_returns403() {
+        cast("ABC123", voterId, "5", voterId, "PARTICIPANT", "XYZ789").expectStatus().isForbidden();
+        assertThat(count("SELECT COUNT(*) AS n FROM votes")).isZero();
+    }
+
+    @Test
+    void castVote_withoutToken_returns401() {
+        client.post().uri("/api/sessions/ABC123/stories/{storyId}/votes", storyId)
+                .bodyValue(new VoteRequest(voterId, "5", null))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void castVote_withoutEstimate_returns400() {
+        cast("ABC123", voterId, "", voterId, "PARTICIPANT").expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Validation Failed");
+    }
+
+    @Test
+    void castVote_forUnknownStory_returns404() {
+        client.post().uri("/api/sessions/ABC123/stories/999999/votes")
+                .headers(h -> h.setBearerAuth(token("ABC123", voterId, "PARTICIPANT")))
+                .bodyValue(new VoteRequest(voterId, "5", null))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Story not found: 999999");
+    }
+
+    @Test
+    void castVote_byLastVoter_autoRevealsTheRound() {
+        execute("UPDATE sessions SET auto_reveal = TRUE");
+        cast("ABC123", moderatorId, "3", moderatorId, "MODERATOR").expectStatus().isCreated();
+        assertThat(revealed()).isFalse();
+
+        cast("ABC123", voterId, "5", voterId, "PARTICIPANT").expectStatus().isCreated();
+        assertThat(revealed()).isTrue();
+    }
+
+    @Test
+    void changedVote_afterReveal_returns400_unlessAllowed() {
+        cast("ABC123", voterId, "5", voterId, "PARTICIPANT");
+        execute("UPDATE sessions SET votes_revealed = TRUE, allow_change_vote = FALSE");
+
+        cast("ABC123", voterId, "8", voterId, "PARTICIPANT").expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Vote changes are not allowed after reveal");
+    }
+
+    // ── getVotes ────────────────────────────────────────────────────────────
+
+    @Test
+    void getVotes_revealedBeforeReveal_isEmpty_otherwiseListsVoters() {
+        cast("ABC123", voterId, "5", voterId, "PARTICIPANT");
+
+        client.get().uri("/api/sessions/ABC123/stories/{storyId}/votes?revealed=true", storyId)
+                .headers(h -> h.setBearerAuth(token("ABC123", voterId, "PARTICIPANT")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(0);
+        client.get().uri("/api/sessions/ABC123/stories/{storyId}/votes", storyId)
+                .headers(h -> h.setBearerAuth(token("ABC123", voterId, "PARTICIPANT")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].estimate").isEqualTo("5")
+                .jsonPath("$[0].user.name").isEqualTo("Vic")
+                .jsonPath("$[0].user.isObserver").isEqualTo(false);
+    }
+
+    // ── reveal / reset ──────────────────────────────────────────────────────
+
+    @Test
+    void revealVotes_asModerator_returnsStatistics_andMarksTheStoryInProgress() {
+        cast("ABC123", moderatorId, "3", moderatorId, "MODERATOR");
+        cast("ABC123", voterId, "5", voterId, "PARTICIPANT");
+
+        client.post().uri("/api/sessions/ABC123/reveal")
+                .headers(h -> h.setBearerAuth(token("ABC123", moderatorId, "MODERATOR")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.storyId").isEqualTo((int) storyId)
+                .jsonPath("$.totalVotes").isEqualTo(2)
+                .jsonPath("$.averageEstimate").isEqualTo(4.0)
+                .jsonPath("$.medianEstimate").isEqualTo("4.0")
+                .jsonPath("$.consensus").isEqualTo(false)
+                .jsonPath("$.summarized").isEqualTo(false)
+                .jsonPath("$.votes.length()").isEqualTo(2);
+
+        assertThat(revealed()).isTrue();
+        assertThat(db.sql("SELECT status FROM stories").map(row -> row.get("status", String.class)).one().block())
+                .isEqualTo("IN_PROGRESS");
+    }
+
+    @Test
+    void revealVotes_inLargeRoom_isSummarized() {
+        execute("UPDATE sessions SET large_room = TRUE");
+        cast("ABC123", voterId, "5", voterId, "PARTICIPANT");
+
+        client.post().uri("/api/sessions/ABC123/reveal")
+                .headers(h -> h.setBearerAuth(token("ABC123", moderatorId, "MODERATOR")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.summarized").isEqualTo(true)
+                .jsonPath("$.votes").doesNotExist()
+                .jsonPath("$.distribution.5").isEqualTo(1)
+                .jsonPath("$.consensus").isEqualTo(true);
+    }
+
+    @Test
+    void revealVotes_asParticipant_returns403() {
+        client.post().uri("/api/sessions/ABC123/reveal")
+                .headers(h -> h.setBearerAuth(token("ABC123", voterId, "PARTICIPANT")))
+                .exchange()
+                .expectStatus().isForbidden();
+        assertThat(revealed()).isFalse();
+    }
+
+    @Test
+    void revealVotes_withoutCurrentStory_returns409() {
+        execute("UPDATE sessions SET current_story_id = NULL");
+        client.post().uri("/api/sessions/ABC123/reveal")
+                .headers(h -> h.setBearerAuth(token("ABC123", moderatorId, "MODERATOR")))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.message").isEqualTo("No current story set for voting");
+    }
+
+    @Test
+    void resetVotes_returns204_andReopensTheRound() {
+        cast("ABC123", voterId, "5", voterId, "PARTICIPANT");
+        execute("UPDATE sessions SET votes_revealed = TRUE");
+
+        client.post().uri("/api/sessions/ABC123/reset-votes")
+                .headers(h -> h.setBearerAuth(token("ABC123", moderatorId, "MODERATOR")))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        assertThat(count("SELECT COUNT(*) AS n FROM votes")).isZero();
+        assertThat(revealed()).isFalse();
+    }
+
+    // ── snapshot ────────────────────────────────────────────────────────────
+
+    @Test
+    void snapshot_showsCountsBeforeReveal_andDistributionAfter() {
+        cast("ABC123", voterId, "5", voterId, "PARTICIPANT");
+
+        client.get().uri("/api/sessions/ABC123/snapshot")
+                .headers(h -> h.setBearerAuth(token("ABC123", observerId, "OBSERVER")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.currentStoryTitle").isEqualTo("Login page")
+                .jsonPath("$.activeVoters").isEqualTo(2)
+                .jsonPath("$.activeObservers").isEqualTo(1)
+                .jsonPath("$.voteCount").isEqualTo(1)
+                .jsonPath("$.distribution").doesNotExist();
+
+        execute("UPDATE sessions SET votes_revealed = TRUE");
+        client.get().uri("/api/sessions/ABC123/snapshot")
+                .headers(h -> h.setBearerAuth(token("ABC123", observerId, "OBSERVER")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.distribution.5").isEqualTo(1)
+                .jsonPath("$.recommendedEstimate").isEqualTo("5");
+    }
+
+    // ── Helpers ─────────────────────────────────────────────────────────────
+
+    private WebTestClient.ResponseSpec cast(String sessionCode, long userId, String estimate, long callerId, String role) {
+        return cast(sessionCode, userId, estimate, callerId, role, sessionCode);
+    }
+
+    private WebTestClient.ResponseSpec cast(String sessionCode, long userId, String estimate, long callerId, String role,
+                                            String tokenSession) {
+        return client.post().uri("/api/sessions/{code}/stories/{storyId}/votes", sessionCode, storyId)
+                .headers(h -> h.setBearerAuth(token(tokenSession, callerId, role)))
+                .bodyValue(new VoteRequest(userId, estimate, null))
+                .exchange();
+    }
+
+    /** A token as the blocking backend issues it. */
+    private String token(String sessionCode, long userId, String role) {
+        return Jwts.builder()
+                .claims(Map.of("sessionCode", sessionCode, "userId", userId, "role", role))
+                .subject(sessionCode + ":" + userId)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    private boolean revealed() {
+        return db.sql("SELECT votes_revealed FROM sessions WHERE id = :id").bind("id", sessionId)
+                .map(row -> row.get("votes_revealed", Boolean.class)).one().block();
+    }
+
+    private long count(String sql) {
+        return db.sql(sql).map(row -> row.get("n", Long.class)).one().block();
+    }
+
+    private void execute(String sql) {
+        db.sql(sql).fetch().rowsUpdated().block();
+    }
+
+    private long insert(String sql) {
+        return db.sql(sql).filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class)).one().block();
+    }
+}
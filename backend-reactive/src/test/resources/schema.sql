@@ -0,0 +1,39 @@
+-- The columns of the backend's Flyway schema (V1..V5) the voting hot path touches, for H2.
+CREATE TABLE IF NOT EXISTS sessions (
+    id                  BIGINT AUTO_INCREMENT PRIMARY KEY,
+    session_code        VARCHAR(6)      NOT NULL UNIQUE,
+    name                VARCHAR(255)    NOT NULL,
+    current_story_id    BIGINT,
+    is_active           BOOLEAN         NOT NULL DEFAULT TRUE,
+    votes_revealed      BOOLEAN         NOT NULL DEFAULT FALSE,
+    auto_reveal         BOOLEAN         NOT NULL DEFAULT FALSE,
+    allow_change_vote   BOOLEAN         NOT NULL DEFAULT TRUE,
+    large_room          BOOLEAN         NOT NULL DEFAULT FALSE
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id              BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name            VARCHAR(50)     NOT NULL,
+    avatar          VARCHAR(255),
+    session_id      BIGINT          NOT NULL REFERENCES sessions (id) ON DELETE CASCADE,
+    is_active       BOOLEAN         NOT NULL DEFAULT TRUE,
+    is_observer     BOOLEAN         NOT NULL DEFAULT FALSE,
+    is_moderator    BOOLEAN         NOT NULL DEFAULT FALSE
+);
+
+CREATE TABLE IF NOT EXISTS stories (
+    id              BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title           VARCHAR(200)    NOT NULL,
+    session_id      BIGINT          NOT NULL REFERENCES sessions (id) ON DELETE CASCADE,
+    status          VARCHAR(50)     NOT NULL DEFAULT 'NOT_ESTIMATED'
+);
+
+CREATE TABLE IF NOT EXISTS votes (
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    story_id    BIGINT          NOT NULL REFERENCES stories (id) ON DELETE CASCADE,
+    user_id     BIGINT          NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    estimate    VARCHAR(50)     NOT NULL,
+    confidence  INTEGER,
+    voted_at    TIMESTAMP       NOT NULL,
+    CONSTRAINT uq_votes_story_user UNIQUE (story_id, user_id)
+);
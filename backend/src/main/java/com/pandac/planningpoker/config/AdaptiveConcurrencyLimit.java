@@ -0,0 +1,65 @@
+package com.pandac.planningpoker.config;
+
+/**
+ * Concurrency limit learned from request latency, gradient style. Two exponential averages of
+ * latency are kept: a long-term one (about the last 600 requests), taken as what latency is
+ * without queueing, and a short-term one (about the last 10). Each completed request moves
+ * the limit towards
+ * <pre>
+ *   limit × clamp(tolerance × longRtt / shortRtt, 0.5, 1) + √limit
+ * </pre>
+ * so it grows by about √limit while latency stays within {@code tolerance} of the usual, and
+ * shrinks in proportion once requests start to queue (on the database, on locks, for CPU).
+ * The limit does not grow while under half of it is in use, and the long-term average is
+ * pulled down when latency recovers, so a past overload is not remembered as normal.
+ */
+class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_FACTOR = 2.0 / (10 + 1);
+    private static final double LONG_FACTOR = 2.0 / (600 + 1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+
+    private double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    synchronized int limit() {
+        return (int) limit;
+    }
+
+    /** Long-term latency average, in nanoseconds; 0 before the first sample. */
+    synchronized double baselineNanos() {
+        return longRtt;
+    }
+
+    /** Records a completed request that took {@code rttNanos} while {@code inFlight} requests ran, itself included. */
+    synchronized void onSample(long rttNanos, int inFlight) {
+        if (shortRtt == 0) {
+            shortRtt = longRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) * SHORT_FACTOR;
+        longRtt += (rttNanos - longRtt) * LONG_FACTOR;
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95; // recovering from an overload: forget it faster
+        }
+        if (inFlight < limit / 2) {
+            return; // not using the limit: latency says nothing about a higher one
+        }
+        double gradient = Math.clamp(tolerance * longRtt / shortRtt, 0.5, 1.0);
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.clamp(limit * (1 - smoothing) + target * smoothing, minLimit, maxLimit);
+    }
+}
@@ -0,0 +1,44 @@
+package com.pandac.planningpoker.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Opt-in CBOR and Smile REST encodings, selected by the client's {@code Accept} header
+ * ({@code application/cbor}, {@code application/x-jackson-smile}). JSON stays first in the
+ * converter list and therefore remains the default for {@code *}{@code /*} and missing headers.
+ * <p>
+ * Spring registers default binary converters whenever the dataformats are on the classpath,
+ * but those use a bare mapper; they are replaced here with mappers derived from the
+ * application {@link ObjectMapper} so Hibernate and date handling match the JSON output.
+ */
+@Configuration
+public class BinaryEncodingConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${rest.binary-formats.enabled:true}")
+    private boolean binaryFormatsEnabled = true;
+
+    public BinaryEncodingConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        if (!binaryFormatsEnabled) {
+            return;
+        }
+        converters.add(new MappingJackson2CborHttpMessageConverter(PayloadFormat.CBOR.mapperFrom(objectMapper)));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(PayloadFormat.SMILE.mapperFrom(objectMapper)));
+    }
+}
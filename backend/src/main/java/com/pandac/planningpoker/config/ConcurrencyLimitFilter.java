@@ -0,0 +1,161 @@
+package com.pandac.planningpoker.config;
+
+import com.pandac.planningpoker.security.UserRole;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sheds {@code /api} requests beyond the concurrency this instance currently serves well, so
+ * that when the database slows down requests are refused early instead of piling up on
+ * threads and connections until latency explodes for every room. The limit is learned from
+ * latency by {@link AdaptiveConcurrencyLimit}; refused requests get {@code 503} with a
+ * {@code Retry-After} of 1-3 seconds.
+ * <p>
+ * Not all requests may use the whole limit:
+ * <ul>
+ *   <li>{@link Priority#CRITICAL} - vote casts and moderator changes (any non-GET by a moderator): all of it</li>
+ *   <li>{@link Priority#NORMAL}   - everything else: {@code normal-share} of it</li>
+ *   <li>{@link Priority#LOW}      - analytics, export and import: {@code low-share} of it</li>
+ * </ul>
+ * so the last slots are kept for the actions a room is waiting on. Runs after Spring Security,
+ * which tells moderators apart. Asynchronous requests (reports, SSE, long-polls) count only
+ * while they hold the request thread and give no latency sample.
+ */
+@Component
+@ConditionalOnProperty(name = "concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    enum Priority { CRITICAL, NORMAL, LOW }
+
+    private static final String MODERATOR = UserRole.MODERATOR.getAuthority();
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final double normalShare;
+    private final double lowShare;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+
+    public ConcurrencyLimitFilter(@Value("${concurrency-limit.initial-limit:20}") int initialLimit,
+                                  @Value("${concurrency-limit.min-limit:4}") int minLimit,
+                                  @Value("${concurrency-limit.max-limit:200}") int maxLimit,
+                                  @Value("${concurrency-limit.latency-tolerance:1.5}") double tolerance,
+                                  @Value("${concurrency-limit.normal-share:0.9}") double normalShare,
+                                  @Value("${concurrency-limit.low-share:0.5}") double lowShare,
+                                  MeterRegistry registry) {
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, tolerance, 0.2);
+        this.normalShare = normalShare;
+        this.lowShare = lowShare;
+
+        Gauge.builder("http.concurrency.limit", limit, AdaptiveConcurrencyLimit::limit)
+                .description("Concurrent /api requests currently admitted")
+                .register(registry);
+        Gauge.builder("http.concurrency.in.flight", inFlight, AtomicInteger::get)
+                .description("/api requests holding a request thread")
+                .register(registry);
+        Gauge.builder("http.concurrency.baseline.latency", limit, l -> l.baselineNanos() / 1_000_000)
+                .description("Long-term average /api latency the limit is measured against, in milliseconds")
+                .baseUnit("milliseconds")
+                .register(registry);
+        for (Priority priority : Priority.values()) {
+            rejected.put(priority, Counter.builder("http.concurrency.rejected")
+                    .description("/api requests refused with 503 because the concurrency limit was reached")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(registry));
+        }
+    }
+
+    int limit() {
+        return limit.limit();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !path.startsWith("/api/") || path.equals("/api/health");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain)
+            throws ServletException, IOException {
+
+        Priority priority = classify(request.getMethod(), request.getRequestURI(), isModerator());
+        if (!tryAcquire(priority)) {
+            rejected.get(priority).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ThreadLocalRandom.current().nextInt(1, 4)));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(
+                "{\"error\":\"Service Unavailable\",\"message\":\"Server is overloaded. Please retry shortly.\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int running = inFlight.getAndDecrement();
+            if (!request.isAsyncStarted()) {
+                limit.onSample(System.nanoTime() - start, running);
+            }
+        }
+    }
+
+    static Priority classify(String method, String path, boolean moderator) {
+        if (path.equals("/api/sessions/import") || path.matches("/api/sessions/[^/]+/(export|analytics)")
+                || path.matches("/api/sessions/[^/]+/stories/[^/]+/analytics")) {
+            return Priority.LOW;
+        }
+        boolean read = "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method);
+        if (!read && (moderator || path.matches("/api/sessions/[^/]+/stories/[^/]+/votes"))) {
+            return Priority.CRITICAL;
+        }
+        return Priority.NORMAL;
+    }
+
+    private boolean tryAcquire(Priority priority) {
+        int current = limit.limit();
+        int allowed = switch (priority) {
+            case CRITICAL -> current;
+            case NORMAL -> Math.max(1, (int) (current * normalShare));
+            case LOW -> Math.max(1, (int) (current * lowShare));
+        };
+        for (int running = inFlight.get(); running < allowed; running = inFlight.get()) {
+            if (inFlight.compareAndSet(running, running + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isModerator() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> MODERATOR.equals(authority.getAuthority()));
+    }
+}
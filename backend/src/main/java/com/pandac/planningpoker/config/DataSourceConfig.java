@@ -0,0 +1,52 @@
+package com.pandac.planningpoker.config;
+
+import com.pandac.planningpoker.service.ReportingLane;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+
+/**
+ * Two connection pools on the one database: {@code interactive} ({@code spring.datasource.hikari.*})
+ * for voting and everything else on request threads, and a smaller {@code reporting} pool used
+ * only from {@link ReportingLane} threads, so a long export holds a reporting connection rather
+ * than one a vote is waiting for.
+ * <p>
+ * JPA, Flyway and the transaction manager all see one {@link LaneRoutingDataSource}, which
+ * picks the pool by the thread asking for a connection. Each pool reports its own
+ * {@code hikaricp.connections.*} metrics, tagged {@code pool=interactive|reporting}.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource interactiveDataSource(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(LaneRoutingDataSource.INTERACTIVE);
+        return pool;
+    }
+
+    @Bean
+    public HikariDataSource reportingDataSource(DataSourceProperties properties,
+                                                @Value("${workload.reporting.pool-size:2}") int poolSize,
+                                                @Value("${workload.reporting.connection-timeout-ms:5000}") long connectionTimeoutMs) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(ReportingLane.NAME);
+        pool.setMaximumPoolSize(poolSize);
+        pool.setMinimumIdle(0);
+        pool.setConnectionTimeout(connectionTimeoutMs);
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource interactiveDataSource, HikariDataSource reportingDataSource) {
+        return new LaneRoutingDataSource(interactiveDataSource, reportingDataSource);
+    }
+}
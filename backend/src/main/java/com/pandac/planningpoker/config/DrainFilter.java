@@ -0,0 +1,85 @@
+package com.pandac.planningpoker.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refuses work that would outlive this instance once it is draining for shutdown (see
+ * {@code ShutdownDrainService}):
+ * <ul>
+ *   <li>{@code POST /api/sessions}       - new rooms belong on the next instance</li>
+ *   <li>WebSocket handshakes           - {@code /ws/**}, {@code /ws-native/**}, {@code /ws-room/**}</li>
+ *   <li>{@code /api/sessions/x/events}   - SSE streams and long-polls</li>
+ *   <li>{@code /api/health}              - so the proxy stops routing here</li>
+ * </ul>
+ * with {@code 503} and a {@code Retry-After} picked at random within the reconnect window, so
+ * clients that retry do not all come back in the same second. Requests already in flight and
+ * all other requests are served until the web server shuts down.
+ */
+@Component
+public class DrainFilter extends OncePerRequestFilter {
+
+    private volatile boolean draining;
+    private volatile long reconnectWindowMs;
+
+    /** Starts refusing new rooms and connections; clients are told to retry within {@code reconnectWindowMs}. */
+    public void startDraining(long reconnectWindowMs) {
+        this.reconnectWindowMs = reconnectWindowMs;
+        this.draining = true;
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain)
+            throws ServletException, IOException {
+
+        if (draining && isRefused(request.getMethod(), request.getRequestURI())) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(
+                "{\"error\":\"Service Unavailable\",\"message\":\"Server is restarting. Please reconnect shortly.\"}");
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    static boolean isRefused(String method, String path) {
+        if ("POST".equalsIgnoreCase(method) && "/api/sessions".equals(path)) {
+            return true;
+        }
+        return path.equals("/api/health")
+                || path.startsWith("/ws/") || path.equals("/ws")
+                || path.startsWith("/ws-native")
+                || path.startsWith("/ws-room/")
+                || path.matches("/api/sessions/[^/]+/events(/poll)?");
+    }
+
+    /** Uniform in [1, window] seconds. */
+    long retryAfterSeconds() {
+        long windowSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(reconnectWindowMs));
+        return ThreadLocalRandom.current().nextLong(1, windowSeconds + 1);
+    }
+}
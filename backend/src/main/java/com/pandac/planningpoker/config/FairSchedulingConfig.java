@@ -0,0 +1,122 @@
+package com.pandac.planningpoker.config;
+
+import com.pandac.planningpoker.service.FairScheduler;
+import com.pandac.planningpoker.service.FairScheduler.Placement;
+import com.pandac.planningpoker.service.FairScheduler.WorkClass;
+import com.pandac.planningpoker.service.WebSocketEventPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Fair scheduling between sessions (see {@link FairScheduler}) in two places:
+ * <ul>
+ *   <li>{@code sessionWorkScheduler} - the threads {@code SessionMailbox} runs state changes
+ *       and the hot room reads on;</li>
+ *   <li>{@code outboundScheduler} - the threads delivering STOMP frames to connections, so one
+ *       big room's broadcast (a frame per subscriber) does not hold up a small room's. Each
+ *       connection's frames are delivered one at a time, in the order the broker produced them,
+ *       so a slow client delays only its own.</li>
+ * </ul>
+ * Both share the class weights {@code fair-scheduler.weight.*}, and run on virtual threads with
+ * {@code spring.threads.virtual.enabled}.
+ */
+@Configuration
+public class FairSchedulingConfig {
+
+    public static final String SERVICE = "service";
+    public static final String OUTBOUND = "outbound";
+
+    private static final Set<String> MODERATOR_CHANNELS = Set.of(
+            WebSocketEventPublisher.Channel.REVEAL.suffix(),
+            WebSocketEventPublisher.Channel.STORY.suffix(),
+            WebSocketEventPublisher.Channel.TIMER.suffix());
+
+    @Value("${fair-scheduler.weight.moderator:8}")
+    private int moderatorWeight = 8;
+
+    @Value("${fair-scheduler.weight.vote:2}")
+    private int voteWeight = 2;
+
+    @Value("${fair-scheduler.weight.bulk:1}")
+    private int bulkWeight = 1;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean
+    public FairScheduler sessionWorkScheduler(@Value("${fair-scheduler.service.workers:16}") int workers,
+                                              @Value("${fair-scheduler.service.session-capacity:256}") int sessionCapacity,
+                                              MeterRegistry registry) {
+        return new FairScheduler(SERVICE, workers, weights(), sessionCapacity, false, threads(SERVICE), registry);
+    }
+
+    /** No per-session cap here: a frame the broker has produced cannot be refused, only delivered. */
+    @Bean
+    @ConditionalOnProperty(name = "fair-scheduler.outbound.enabled", havingValue = "true", matchIfMissing = true)
+    public FairScheduler outboundScheduler(@Value("${fair-scheduler.outbound.workers:0}") int workers,
+                                           MeterRegistry registry) {
+        int threads = workers > 0 ? workers : Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+        return new FairScheduler(OUTBOUND, threads, weights(), Integer.MAX_VALUE, true, threads(OUTBOUND), registry);
+    }
+
+    private ThreadFactory threads(String name) {
+        return virtualThreads
+                ? Thread.ofVirtual().name(name + "-", 0).factory()
+                : Thread.ofPlatform().name(name + "-", 0).daemon(true).factory();
+    }
+
+    private Map<WorkClass, Integer> weights() {
+        return Map.of(WorkClass.MODERATOR, moderatorWeight, WorkClass.VOTE, voteWeight, WorkClass.BULK, bulkWeight);
+    }
+
+    /**
+     * Where an outbound-channel task goes: the room of its destination (the connection for
+     * frames outside any room), in order per connection, and by channel - reveal, story and
+     * timer events, drain notices and non-MESSAGE frames (CONNECTED, RECEIPT, ERROR,
+     * heartbeats) as moderator work, vote events as votes, and presence, snapshots and the rest
+     * as bulk.
+     */
+    static Placement placeOutbound(Runnable task) {
+        if (!(task instanceof MessageHandlingRunnable sendTask)) {
+            return new Placement("", WorkClass.BULK);
+        }
+        Message<?> message = sendTask.getMessage();
+        MessageHeaders headers = message.getHeaders();
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        String room = WebSocketEventPublisher.sessionCodeOfTopic(destination);
+        String connection = String.valueOf(SimpMessageHeaderAccessor.getSessionId(headers));
+        String key = room != null ? room : connection;
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            return new Placement(key, connection, WorkClass.MODERATOR);
+        }
+        if (room == null) {
+            return new Placement(key, connection, WorkClass.VOTE); // per-user replies such as vote receipts
+        }
+        if (SimpMessageHeaderAccessor.getFirstNativeHeader(WebSocketEventPublisher.HEADER_SERVER_DRAINING, headers) != null) {
+            return new Placement(key, connection, WorkClass.MODERATOR);
+        }
+        String channel = SimpMessageHeaderAccessor.getFirstNativeHeader(WebSocketEventPublisher.HEADER_EVENT_CHANNEL, headers);
+        if (channel == null) {
+            channel = destination.substring(destination.lastIndexOf('/') + 1); // legacy per-channel topic
+        }
+        if (MODERATOR_CHANNELS.contains(channel)) {
+            return new Placement(key, connection, WorkClass.MODERATOR);
+        }
+        if (WebSocketEventPublisher.Channel.VOTES.suffix().equals(channel)) {
+            return new Placement(key, connection, WorkClass.VOTE);
+        }
+        return new Placement(key, connection, WorkClass.BULK);
+    }
+}
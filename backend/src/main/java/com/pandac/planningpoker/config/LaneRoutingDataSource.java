@@ -0,0 +1,23 @@
+package com.pandac.planningpoker.config;
+
+import com.pandac.planningpoker.service.ReportingLane;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/** Connections from the reporting pool on {@link ReportingLane} threads, the interactive pool everywhere else. */
+class LaneRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String INTERACTIVE = "interactive";
+
+    LaneRoutingDataSource(DataSource interactive, DataSource reporting) {
+        setTargetDataSources(Map.of(INTERACTIVE, interactive, ReportingLane.NAME, reporting));
+        setDefaultTargetDataSource(interactive);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ReportingLane.isCurrentThread() ? ReportingLane.NAME : INTERACTIVE;
+    }
+}
@@ -0,0 +1,126 @@
+package com.pandac.planningpoker.config;
+
+import com.pandac.planningpoker.security.UserRole;
+import com.pandac.planningpoker.service.WebSocketEventPublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Tracks subscriptions to the observer snapshot destination ({@code /topic/session/{code}/snapshot})
+ * on this instance, so snapshots are only built for rooms someone is watching here.
+ * <p>
+ * With {@code websocket.observer-tier.exclusive=true} (the default), connections authenticated as
+ * observers are refused on every other session topic and therefore never receive per-vote or
+ * presence events.
+ */
+@Component
+public class ObserverSubscriptions {
+
+    /** session code → snapshot subscriptions on this instance. */
+    private final Map<String, AtomicInteger> observers = new ConcurrentHashMap<>();
+    /** WebSocket session id → (subscription id → session code). */
+    private final Map<String, Map<String, String>> subscriptions = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> subscribeListeners = new CopyOnWriteArrayList<>();
+
+    @Value("${websocket.observer-tier.exclusive:true}")
+    private boolean exclusive = true;
+
+    private final ChannelInterceptor inbound = new ChannelInterceptor() {
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            onInbound(message);
+            return message;
+        }
+    };
+
+    /** Registered on the client inbound channel after authentication. */
+    public ChannelInterceptor inbound() {
+        return inbound;
+    }
+
+    public boolean hasObservers(String sessionCode) {
+        return observers.containsKey(sessionCode);
+    }
+
+    public int observerCount(String sessionCode) {
+        AtomicInteger count = observers.get(sessionCode);
+        return count == null ? 0 : count.get();
+    }
+
+    /** Notified with the session code whenever a new snapshot subscription arrives. */
+    public void addSubscribeListener(Consumer<String> listener) {
+        subscribeListeners.add(listener);
+    }
+
+    private void onInbound(Message<?> message) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null || type == null) {
+            return;
+        }
+        switch (type) {
+            case SUBSCRIBE -> {
+                String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                String sessionCode = WebSocketEventPublisher.sessionCodeOfSnapshotTopic(destination);
+                if (sessionCode != null) {
+                    add(sessionId, SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders()), sessionCode);
+                } else if (exclusive && WebSocketEventPublisher.isSessionTopic(destination)
+                        && isObserver(SimpMessageHeaderAccessor.getUser(message.getHeaders()))) {
+                    throw new AccessDeniedException("Observers receive room updates on /topic/session/{code}/"
+                            + WebSocketEventPublisher.SNAPSHOT_SUFFIX);
+                }
+            }
+            case UNSUBSCRIBE -> {
+                Map<String, String> bySubscription = subscriptions.get(sessionId);
+                String sessionCode = bySubscription == null ? null
+                        : bySubscription.remove(SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders()));
+                if (sessionCode != null) {
+                    remove(sessionCode);
+                }
+            }
+            case DISCONNECT -> {
+                Map<String, String> bySubscription = subscriptions.remove(sessionId);
+                if (bySubscription != null) {
+                    bySubscription.values().forEach(this::remove);
+                }
+            }
+            default -> { }
+        }
+    }
+
+    private void add(String sessionId, String subscriptionId, String sessionCode) {
+        if (subscriptions.computeIfAbsent(sessionId, k -> new ConcurrentHashMap<>())
+                .putIfAbsent(subscriptionId, sessionCode) != null) {
+            return; // duplicate SUBSCRIBE for the same id
+        }
+        observers.computeIfAbsent(sessionCode, k -> new AtomicInteger()).incrementAndGet();
+        for (Consumer<String> listener : subscribeListeners) {
+            listener.accept(sessionCode);
+        }
+    }
+
+    private void remove(String sessionCode) {
+        observers.computeIfPresent(sessionCode, (k, count) -> count.decrementAndGet() <= 0 ? null : count);
+    }
+
+    private static boolean isObserver(Principal principal) {
+        return principal instanceof Authentication authentication
+                && authentication.getAuthorities().stream()
+                        .anyMatch(a -> UserRole.OBSERVER.getAuthority().equals(a.getAuthority()));
+    }
+}
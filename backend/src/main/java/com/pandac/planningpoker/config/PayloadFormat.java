@@ -0,0 +1,71 @@
+package com.pandac.planningpoker.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Wire encodings a client may negotiate. REST clients pick one through {@code Accept};
+ * STOMP clients through the {@code payload-format} CONNECT header.
+ */
+public enum PayloadFormat {
+
+    JSON("json", new MimeType("application", "json"), null),
+    CBOR("cbor", new MimeType("application", "cbor"), CBORFactory::new),
+    SMILE("smile", new MimeType("application", "x-jackson-smile"), SmileFactory::new);
+
+    /** STOMP CONNECT header used to request a binary encoding. */
+    public static final String CONNECT_HEADER = "payload-format";
+
+    private final String headerValue;
+    private final MimeType mimeType;
+    private final Supplier<JsonFactory> factory;
+
+    PayloadFormat(String headerValue, MimeType mimeType, Supplier<JsonFactory> factory) {
+        this.headerValue = headerValue;
+        this.mimeType = mimeType;
+        this.factory = factory;
+    }
+
+    public MimeType getMimeType() {
+        return mimeType;
+    }
+
+    public boolean isBinary() {
+        return factory != null;
+    }
+
+    /**
+     * Derives a mapper for this format from the application's JSON mapper, so modules
+     * (Hibernate, Java time) and feature settings stay identical across encodings.
+     */
+    public ObjectMapper mapperFrom(ObjectMapper jsonMapper) {
+        return isBinary() ? jsonMapper.copyWith(factory.get()) : jsonMapper;
+    }
+
+    /**
+     * Content type used on outbound STOMP frames. Spring only emits binary WebSocket
+     * frames for octet-stream content, so the real format travels as a parameter,
+     * e.g. {@code application/octet-stream;format=cbor}.
+     */
+    public MimeType getStompContentType() {
+        return new MimeType("application", "octet-stream", Map.of("format", headerValue));
+    }
+
+    /** Parses a {@code payload-format} header value; unknown or missing values mean JSON. */
+    public static PayloadFormat fromHeader(String value) {
+        if (value != null) {
+            for (PayloadFormat format : values()) {
+                if (format.headerValue.equalsIgnoreCase(value.trim())) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,212 @@
+package com.pandac.planningpoker.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.core.MessagePostProcessor;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-connection STOMP payload encoding.
+ * <p>
+ * A client asks for CBOR or Smile with the {@code payload-format} CONNECT header. The choice is
+ * only honoured on endpoints that deliver binary WebSocket frames (see
+ * {@link #BINARY_FRAMES_ATTRIBUTE}); SockJS connections always stay on JSON.
+ * <p>
+ * Events published through {@code WebSocketEventPublisher} are encoded from the original
+ * payload once per binary format in use ({@link #preEncoder}), before the broker fans them out;
+ * the outbound interceptor then only swaps the payload per subscriber. Other frames (per-user
+ * replies) are transcoded from their JSON, with the last encoding per format reused.
+ */
+@Component
+@Slf4j
+public class PayloadFormatNegotiator {
+
+    /** Handshake attribute set by endpoints whose transport can carry binary frames. */
+    public static final String BINARY_FRAMES_ATTRIBUTE = "payloadFormat.binaryFrames";
+
+    /** Message header holding the payload already encoded per binary format (see {@link #preEncoder}). */
+    static final String ENCODED_HEADER = "payloadFormat.encoded";
+
+    private final ObjectMapper objectMapper;
+    private final Map<PayloadFormat, ObjectMapper> binaryMappers = new EnumMap<>(PayloadFormat.class);
+    private final Map<PayloadFormat, AtomicReference<Encoded>> lastEncoded = new EnumMap<>(PayloadFormat.class);
+
+    /** WebSocket session id → negotiated binary format. JSON sessions are not tracked. */
+    private final Map<String, PayloadFormat> sessionFormats = new ConcurrentHashMap<>();
+    /** Sessions per binary format, so a publish only encodes the formats someone reads. */
+    private final Map<PayloadFormat, AtomicInteger> formatsInUse = new EnumMap<>(PayloadFormat.class);
+
+    private final ChannelInterceptor inbound = new ChannelInterceptor() {
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            onInbound(message);
+            return message;
+        }
+    };
+
+    private final ChannelInterceptor outbound = new ChannelInterceptor() {
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            return transcode(message);
+        }
+    };
+
+    public PayloadFormatNegotiator(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        for (PayloadFormat format : PayloadFormat.values()) {
+            if (format.isBinary()) {
+                binaryMappers.put(format, format.mapperFrom(objectMapper));
+                lastEncoded.put(format, new AtomicReference<>());
+                formatsInUse.put(format, new AtomicInteger());
+            }
+        }
+    }
+
+    /** Registered on the client inbound channel: records the format requested at CONNECT. */
+    public ChannelInterceptor inbound() {
+        return inbound;
+    }
+
+    /** Registered on the client outbound channel: re-encodes JSON payloads for binary sessions. */
+    public ChannelInterceptor outbound() {
+        return outbound;
+    }
+
+    /** Mapper used to decode inbound {@code application/cbor} or Smile SEND frames. */
+    public ObjectMapper mapperFor(PayloadFormat format) {
+        return format.isBinary() ? binaryMappers.get(format) : objectMapper;
+    }
+
+    /**
+     * Encodes {@code payload} in every binary format a connected session uses and attaches the
+     * results to the converted message, so each subscriber's copy reuses them; {@code null}
+     * while every session is on JSON.
+     */
+    public MessagePostProcessor preEncoder(Object payload) {
+        if (sessionFormats.isEmpty()) {
+            return null;
+        }
+        return message -> {
+            Map<PayloadFormat, byte[]> encoded = new EnumMap<>(PayloadFormat.class);
+            formatsInUse.forEach((format, sessions) -> {
+                if (sessions.get() > 0) {
+                    try {
+                        encoded.put(format, binaryMappers.get(format).writeValueAsBytes(payload));
+                    } catch (JsonProcessingException e) {
+                        log.warn("Failed to encode STOMP payload as {}: {}", format, e.getMessage());
+                    }
+                }
+            });
+            MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(message);
+            accessor.setHeader(ENCODED_HEADER, encoded);
+            return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+        };
+    }
+
+    public PayloadFormat formatOf(String sessionId) {
+        return sessionId == null ? PayloadFormat.JSON : sessionFormats.getOrDefault(sessionId, PayloadFormat.JSON);
+    }
+
+    private void onInbound(Message<?> message) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null) {
+            return;
+        }
+        if (type == SimpMessageType.DISCONNECT) {
+            PayloadFormat removed = sessionFormats.remove(sessionId);
+            if (removed != null) {
+                formatsInUse.get(removed).decrementAndGet();
+            }
+            return;
+        }
+        if (type != SimpMessageType.CONNECT) {
+            return;
+        }
+        PayloadFormat requested = PayloadFormat.fromHeader(
+                SimpMessageHeaderAccessor.getFirstNativeHeader(PayloadFormat.CONNECT_HEADER, message.getHeaders()));
+        if (!requested.isBinary()) {
+            return;
+        }
+        Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(message.getHeaders());
+        if (attributes == null || !Boolean.TRUE.equals(attributes.get(BINARY_FRAMES_ATTRIBUTE))) {
+            log.debug("Session {} requested {} over a text-only transport; staying on JSON", sessionId, requested);
+            return;
+        }
+        formatsInUse.get(requested).incrementAndGet();
+        PayloadFormat previous = sessionFormats.put(sessionId, requested);
+        if (previous != null) {
+            formatsInUse.get(previous).decrementAndGet();
+        }
+    }
+
+    private Message<?> transcode(Message<?> message) {
+        if (sessionFormats.isEmpty() || !(message.getPayload() instanceof byte[] json) || json.length == 0) {
+            return message;
+        }
+        PayloadFormat format = formatOf(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+        if (!format.isBinary() || !isJson(message)) {
+            return message;
+        }
+        byte[] encoded = preEncoded(message, format);
+        try {
+            if (encoded == null) {
+                encoded = encode(format, json);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to transcode STOMP payload to {}: {}", format, e.getMessage());
+            return message;
+        }
+        MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(message);
+        accessor.setHeader(MessageHeaders.CONTENT_TYPE, format.getStompContentType());
+        if (accessor instanceof StompHeaderAccessor stomp) {
+            stomp.setNativeHeader(StompHeaderAccessor.STOMP_CONTENT_TYPE_HEADER, format.getStompContentType().toString());
+        }
+        return MessageBuilder.createMessage(encoded, accessor.getMessageHeaders());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static byte[] preEncoded(Message<?> message, PayloadFormat format) {
+        Object encoded = message.getHeaders().get(ENCODED_HEADER);
+        return encoded instanceof Map<?, ?> byFormat ? ((Map<PayloadFormat, byte[]>) byFormat).get(format) : null;
+    }
+
+    private byte[] encode(PayloadFormat format, byte[] json) throws IOException {
+        AtomicReference<Encoded> slot = lastEncoded.get(format);
+        Encoded cached = slot.get();
+        if (cached != null && cached.source() == json) {
+            return cached.bytes();
+        }
+        byte[] bytes = binaryMappers.get(format).writeValueAsBytes(objectMapper.readTree(json));
+        slot.set(new Encoded(json, bytes));
+        return bytes;
+    }
+
+    private static boolean isJson(Message<?> message) {
+        Object contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        MimeType mimeType = contentType instanceof MimeType m ? m
+                : contentType instanceof String s ? MimeType.valueOf(s) : null;
+        return mimeType != null && PayloadFormat.JSON.getMimeType().isCompatibleWith(mimeType);
+    }
+
+    /** Last transcoded payload of one format, keyed by the identity of the source JSON array. */
+    private record Encoded(byte[] source, byte[] bytes) {}
+}
@@ -0,0 +1,141 @@
+package com.pandac.planningpoker.config;
+
+import com.pandac.planningpoker.security.SessionPrincipal;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory presence of the STOMP connections on this instance, fed by the client inbound
+ * channel: CONNECT brings a user online, DISCONNECT (sent by the client, or by Spring when the
+ * connection closes — including the broker closing it for missed heartbeats) takes the user
+ * offline once their last connection is gone, and every inbound frame, heartbeats included,
+ * marks the user as seen. Nothing here touches the database or publishes events; readers
+ * drain the changes periodically (see {@code PresenceService}).
+ */
+@Component
+public class PresenceTracker {
+
+    /** WebSocket session id → the connection's user. */
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+    /** session code → (user id → open connections on this instance). */
+    private final Map<String, Map<Long, AtomicInteger>> online = new ConcurrentHashMap<>();
+    /** Users with inbound traffic since the last {@link #drainSeenUsers}. */
+    private final Set<Long> seen = ConcurrentHashMap.newKeySet();
+    /** Sessions whose online users changed since the last {@link #drainChangedSessions}. */
+    private final Set<String> changed = ConcurrentHashMap.newKeySet();
+
+    private final ChannelInterceptor inbound = new ChannelInterceptor() {
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            onInbound(message);
+            return message;
+        }
+    };
+
+    /** Registered on the client inbound channel after authentication. */
+    public ChannelInterceptor inbound() {
+        return inbound;
+    }
+
+    /** Users of the session with at least one open connection on this instance. */
+    public Set<Long> onlineUsers(String sessionCode) {
+        Map<Long, AtomicInteger> users = online.get(sessionCode);
+        return users == null ? Set.of() : Set.copyOf(users.keySet());
+    }
+
+    /** Sessions with at least one open connection on this instance. */
+    public Set<String> sessionCodes() {
+        return Set.copyOf(online.keySet());
+    }
+
+    public int connectionCount() {
+        return connections.size();
+    }
+
+    /** Users seen since the previous call. */
+    public List<Long> drainSeenUsers() {
+        return drain(seen);
+    }
+
+    /** Sessions whose online users may have changed since the previous call. */
+    public List<String> drainChangedSessions() {
+        return drain(changed);
+    }
+
+    private void onInbound(Message<?> message) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null || type == null) {
+            return;
+        }
+        switch (type) {
+            case CONNECT -> {
+                if (SimpMessageHeaderAccessor.getUser(message.getHeaders()) instanceof SessionPrincipal principal) {
+                    connected(sessionId, new Connection(principal.getSessionCode(), principal.getUserId()));
+                }
+            }
+            case DISCONNECT -> disconnected(sessionId);
+            default -> {
+                Connection connection = connections.get(sessionId);
+                if (connection != null) {
+                    seen.add(connection.userId());
+                }
+            }
+        }
+    }
+
+    private void connected(String sessionId, Connection connection) {
+        if (connections.putIfAbsent(sessionId, connection) != null) {
+            return;
+        }
+        seen.add(connection.userId());
+        online.compute(connection.sessionCode(), (code, users) -> {
+            Map<Long, AtomicInteger> result = users != null ? users : new ConcurrentHashMap<>();
+            if (result.computeIfAbsent(connection.userId(), k -> new AtomicInteger()).incrementAndGet() == 1) {
+                changed.add(code);
+            }
+            return result;
+        });
+    }
+
+    private void disconnected(String sessionId) {
+        Connection connection = connections.remove(sessionId);
+        if (connection == null) {
+            return;
+        }
+        seen.add(connection.userId());
+        online.computeIfPresent(connection.sessionCode(), (code, users) -> {
+            users.computeIfPresent(connection.userId(), (userId, count) -> {
+                if (count.decrementAndGet() > 0) {
+                    return count;
+                }
+                changed.add(code);
+                return null;
+            });
+            return users.isEmpty() ? null : users;
+        });
+    }
+
+    private static <T> List<T> drain(Set<T> set) {
+        List<T> drained = new ArrayList<>();
+        for (T value : set) {
+            if (set.remove(value)) {
+                drained.add(value);
+            }
+        }
+        return drained;
+    }
+
+    private record Connection(String sessionCode, Long userId) {}
+}
@@ -0,0 +1,37 @@
+package com.pandac.planningpoker.config;
+
+import com.pandac.planningpoker.security.RoomSocketHandshakeInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Registers the raw room socket ({@link RoomSocketHandler}) next to the STOMP endpoints of
+ * {@link WebSocketConfig}. Set {@code websocket.room-socket.enabled=false} to turn it off.
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class RoomSocketConfig implements WebSocketConfigurer {
+
+    private final RoomSocketHandler roomSocketHandler;
+    private final RoomSocketHandshakeInterceptor roomSocketHandshakeInterceptor;
+
+    @Value("${cors.allowed-origins:http://localhost:3000,http://localhost:5173}")
+    private String allowedOrigins;
+
+    @Value("${websocket.room-socket.enabled:true}")
+    private boolean enabled = true;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        if (enabled) {
+            registry.addHandler(roomSocketHandler, "/ws-room/*")
+                    .setAllowedOrigins(allowedOrigins.split(","))
+                    .addInterceptors(roomSocketHandshakeInterceptor);
+        }
+    }
+}
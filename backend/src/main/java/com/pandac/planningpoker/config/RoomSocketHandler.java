@@ -0,0 +1,220 @@
+package com.pandac.planningpoker.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandac.planningpoker.security.RoomSocketHandshakeInterceptor;
+import com.pandac.planningpoker.security.SessionPrincipal;
+import com.pandac.planningpoker.service.WebSocketEventPublisher;
+import com.pandac.planningpoker.service.WebSocketEventPublisher.Channel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Raw WebSocket endpoint {@code /ws-room/{code}}: one connection per room, subscribed to the
+ * room's events implicitly by connecting, with no SockJS framing, STOMP headers or broker
+ * subscription bookkeeping. The JWT is checked on the handshake by
+ * {@link RoomSocketHandshakeInterceptor}; a connection whose token has expired is closed
+ * instead of receiving the next event.
+ * <p>
+ * Server-to-client only; every binary frame is
+ * <pre>
+ *   byte 0   protocol version ({@value #PROTOCOL_VERSION})
+ *   byte 1   channel ordinal (0 users, 1 votes, 2 reveal, 3 story, 4 timer)
+ *   rest     CBOR-encoded event payload, identical to the JSON body on /topic/session/{code}
+ * </pre>
+ * Fed by the same {@link WebSocketEventPublisher} listener as the other transports, so relayed
+ * cluster events are included. Each event is encoded once per room and the same frame is sent
+ * to every connection; sends run on virtual threads, one drain at a time per room, with
+ * Spring's per-connection send-time and buffer limits from {@code websocket.transport.*}.
+ */
+@Component
+@Slf4j
+public class RoomSocketHandler extends BinaryWebSocketHandler {
+
+    public static final byte PROTOCOL_VERSION = 1;
+
+    private final WebSocketEventPublisher webSocketEventPublisher;
+    private final ObjectMapper cborMapper;
+    private final Map<String, Room> rooms = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("room-socket-send-", 0).factory());
+
+    @Value("${websocket.transport.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs = 10_000;
+
+    @Value("${websocket.transport.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit = 512 * 1024;
+
+    public RoomSocketHandler(WebSocketEventPublisher webSocketEventPublisher,
+                             PayloadFormatNegotiator payloadFormatNegotiator) {
+        this.webSocketEventPublisher = webSocketEventPublisher;
+        this.cborMapper = payloadFormatNegotiator.mapperFor(PayloadFormat.CBOR);
+    }
+
+    @PostConstruct
+    void start() {
+        webSocketEventPublisher.addSessionEventListener(this::onSessionEvent);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdown();
+    }
+
+    /** Open room sockets on this instance. */
+    public int connectionCount() {
+        return rooms.values().stream().mapToInt(room -> room.sessions.size()).sum();
+    }
+
+    /** Rooms with open room sockets on this instance. */
+    public Set<String> roomCodes() {
+        return Set.copyOf(rooms.keySet());
+    }
+
+    /**
+     * Sends what is still queued, then closes every connection with {@code 1012 Service Restart}
+     * and a {@code reconnect-after-ms=N} reason, N drawn per connection from
+     * {@code [0, reconnectWindowMs)} so the clients do not all reconnect at once.
+     */
+    public void closeForRestart(long reconnectWindowMs) {
+        for (Room room : rooms.values()) {
+            room.lock.lock();
+            try {
+                sendQueued(room);
+                for (WebSocketSession session : room.sessions.values()) {
+                    long delay = ThreadLocalRandom.current().nextLong(Math.max(1, reconnectWindowMs));
+                    close(room, session, CloseStatus.SERVICE_RESTARTED.withReason("reconnect-after-ms=" + delay));
+                }
+            } finally {
+                room.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        String sessionCode = principalOf(session).getSessionCode();
+        WebSocketSession concurrent = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, sendBufferSizeLimit);
+        rooms.compute(sessionCode, (code, room) -> {
+            Room joined = room != null ? room : new Room();
+            joined.sessions.put(session.getId(), concurrent);
+            return joined;
+        });
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        String sessionCode = principalOf(session).getSessionCode();
+        rooms.computeIfPresent(sessionCode, (code, room) -> {
+            room.sessions.remove(session.getId());
+            return room.sessions.isEmpty() ? null : room;
+        });
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+        // Server-push only: votes and other commands go through REST or STOMP.
+    }
+
+    void onSessionEvent(String sessionCode, Channel channel, Object payload, boolean local) {
+        Room room = rooms.get(sessionCode);
+        if (room == null) {
+            return;
+        }
+        try {
+            room.outbox.add(encode(channel, payload, cborMapper));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to encode {} event for room socket {}: {}", channel, sessionCode, e.getMessage());
+            return;
+        }
+        if (room.scheduled.compareAndSet(false, true)) {
+            senders.execute(() -> drain(room));
+        }
+    }
+
+    /** Builds the frame for one event; shared by every connection of the room. */
+    static BinaryMessage encode(Channel channel, Object payload, ObjectMapper cborMapper) throws JsonProcessingException {
+        byte[] body = cborMapper.writeValueAsBytes(payload);
+        ByteBuffer frame = ByteBuffer.allocate(body.length + 2);
+        frame.put(PROTOCOL_VERSION).put((byte) channel.ordinal()).put(body).flip();
+        return new BinaryMessage(frame);
+    }
+
+    /** Sends queued frames, in order, to every connection of the room; serialised per room by its lock. */
+    private void drain(Room room) {
+        room.scheduled.set(false);
+        room.lock.lock();
+        try {
+            sendQueued(room);
+        } finally {
+            room.lock.unlock();
+        }
+    }
+
+    /** Caller holds the room lock. */
+    private void sendQueued(Room room) {
+        BinaryMessage frame;
+        while ((frame = room.outbox.poll()) != null) {
+            Instant now = Instant.now();
+            for (WebSocketSession session : room.sessions.values()) {
+                if (principalOf(session).isExpired(now)) {
+                    close(room, session, CloseStatus.POLICY_VIOLATION.withReason("Token expired"));
+                } else {
+                    send(room, session, frame);
+                }
+            }
+        }
+    }
+
+    private void send(Room room, WebSocketSession session, BinaryMessage frame) {
+        try {
+            // frames are immutable and shared; each send reads through its own view of the buffer
+            session.sendMessage(new BinaryMessage(frame.getPayload().duplicate(), true));
+        } catch (Exception e) { // IOException, or SessionLimitExceededException past the transport limits
+            log.debug("Closing room socket {}: {}", session.getId(), e.getMessage());
+            close(room, session, CloseStatus.SESSION_NOT_RELIABLE);
+        }
+    }
+
+    private static void close(Room room, WebSocketSession session, CloseStatus status) {
+        room.sessions.remove(session.getId());
+        try {
+            session.close(status);
+        } catch (IOException ignored) {
+            // already gone
+        }
+    }
+
+    private static SessionPrincipal principalOf(WebSocketSession session) {
+        return (SessionPrincipal) session.getAttributes().get(RoomSocketHandshakeInterceptor.PRINCIPAL_ATTRIBUTE);
+    }
+
+    private static final class Room {
+        final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+        final Queue<BinaryMessage> outbox = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final ReentrantLock lock = new ReentrantLock();
+    }
+}
@@ -0,0 +1,193 @@
+package com.pandac.planningpoker.config;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.AbstractSubscriptionRegistry;
+import org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Subscription registry tuned for our destination shape: many exact, high-cardinality
+ * per-session topics ({@code /topic/session/{code}[/channel]}) with ~20 subscribers each.
+ * <ul>
+ *   <li>Lookup is a single hash probe returning a pre-built, immutable subscriber snapshot.</li>
+ *   <li>Mutations replace the destination's snapshot (copy-on-write), so sends never lock.</li>
+ *   <li>A per-connection index makes disconnect cleanup independent of registry size.</li>
+ * </ul>
+ * Pattern destinations and subscriptions with a {@code selector} header are rare here and are
+ * delegated to Spring's {@link DefaultSubscriptionRegistry}, so behaviour stays compatible.
+ */
+public class SessionSubscriptionRegistry extends AbstractSubscriptionRegistry {
+
+    private static final String SELECTOR_HEADER = "selector";
+    private static final MultiValueMap<String, String> NO_SUBSCRIBERS =
+            CollectionUtils.unmodifiableMultiValueMap(new LinkedMultiValueMap<>());
+
+    /** destination → immutable subscriber snapshot. */
+    private final Map<String, Subscribers> destinations = new ConcurrentHashMap<>();
+
+    /** WebSocket session id → (subscription id → subscription). */
+    private final Map<String, Map<String, Subscription>> sessions = new ConcurrentHashMap<>();
+
+    private final DefaultSubscriptionRegistry fallback = new DefaultSubscriptionRegistry();
+    private final AtomicInteger fallbackSubscriptions = new AtomicInteger();
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+
+    @Override
+    protected void addSubscriptionInternal(String sessionId, String subscriptionId,
+                                           String destination, Message<?> message) {
+        boolean useFallback = requiresFallback(destination, message);
+        Map<String, Subscription> bySubscription = sessions.computeIfAbsent(sessionId, k -> new ConcurrentHashMap<>());
+        if (bySubscription.putIfAbsent(subscriptionId, new Subscription(destination, useFallback)) != null) {
+            return; // duplicate SUBSCRIBE for the same id — keep the first
+        }
+        subscriptionCount.incrementAndGet();
+
+        if (useFallback) {
+            fallbackSubscriptions.incrementAndGet();
+            fallback.registerSubscription(message);
+            return;
+        }
+        destinations.compute(destination, (d, current) ->
+                current == null ? Subscribers.of(sessionId, subscriptionId) : current.with(sessionId, subscriptionId));
+    }
+
+    @Override
+    protected void removeSubscriptionInternal(String sessionId, String subscriptionId, Message<?> message) {
+        Map<String, Subscription> bySubscription = sessions.get(sessionId);
+        if (bySubscription == null) {
+            return;
+        }
+        Subscription subscription = bySubscription.remove(subscriptionId);
+        if (subscription != null) {
+            remove(sessionId, subscriptionId, subscription);
+        }
+    }
+
+    @Override
+    public void unregisterAllSubscriptions(String sessionId) {
+        Map<String, Subscription> bySubscription = sessions.remove(sessionId);
+        if (bySubscription == null) {
+            return;
+        }
+        bySubscription.forEach((subscriptionId, subscription) -> remove(sessionId, subscriptionId, subscription));
+    }
+
+    @Override
+    protected MultiValueMap<String, String> findSubscriptionsInternal(String destination, Message<?> message) {
+        Subscribers exact = destinations.get(destination);
+        MultiValueMap<String, String> result = exact != null ? exact.view : NO_SUBSCRIBERS;
+        if (fallbackSubscriptions.get() == 0) {
+            return result;
+        }
+        MultiValueMap<String, String> matched = fallback.findSubscriptions(message);
+        if (matched.isEmpty()) {
+            return result;
+        }
+        MultiValueMap<String, String> merged = new LinkedMultiValueMap<>(result);
+        matched.forEach(merged::addAll);
+        return merged;
+    }
+
+    /** Total active subscriptions, exact and fallback. */
+    public int getSubscriptionCount() {
+        return subscriptionCount.get();
+    }
+
+    /** Number of distinct exact destinations with at least one subscriber. */
+    public int getDestinationCount() {
+        return destinations.size();
+    }
+
+    private void remove(String sessionId, String subscriptionId, Subscription subscription) {
+        subscriptionCount.decrementAndGet();
+        if (subscription.fallback()) {
+            fallbackSubscriptions.decrementAndGet();
+            fallback.unregisterSubscription(unsubscribeMessage(sessionId, subscriptionId));
+            return;
+        }
+        destinations.computeIfPresent(subscription.destination(),
+                (d, current) -> current.without(sessionId, subscriptionId));
+    }
+
+    private static boolean requiresFallback(String destination, Message<?> message) {
+        return isPattern(destination)
+                || SimpMessageHeaderAccessor.getFirstNativeHeader(SELECTOR_HEADER, message.getHeaders()) != null;
+    }
+
+    private static boolean isPattern(String destination) {
+        return destination.indexOf('*') >= 0 || destination.indexOf('?') >= 0 || destination.indexOf('{') >= 0;
+    }
+
+    private static Message<?> unsubscribeMessage(String sessionId, String subscriptionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.UNSUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private record Subscription(String destination, boolean fallback) {}
+
+    /**
+     * Immutable subscriber list for one destination. Parallel arrays plus the ready-made
+     * {@link MultiValueMap} view handed to the broker on every send.
+     */
+    private static final class Subscribers {
+
+        private final String[] sessionIds;
+        private final String[] subscriptionIds;
+        private final MultiValueMap<String, String> view;
+
+        private Subscribers(String[] sessionIds, String[] subscriptionIds) {
+            this.sessionIds = sessionIds;
+            this.subscriptionIds = subscriptionIds;
+            MultiValueMap<String, String> map = new LinkedMultiValueMap<>(sessionIds.length);
+            for (int i = 0; i < sessionIds.length; i++) {
+                map.add(sessionIds[i], subscriptionIds[i]);
+            }
+            this.view = CollectionUtils.unmodifiableMultiValueMap(map);
+        }
+
+        static Subscribers of(String sessionId, String subscriptionId) {
+            return new Subscribers(new String[] {sessionId}, new String[] {subscriptionId});
+        }
+
+        Subscribers with(String sessionId, String subscriptionId) {
+            int n = sessionIds.length;
+            String[] sessions = Arrays.copyOf(sessionIds, n + 1);
+            String[] subscriptions = Arrays.copyOf(subscriptionIds, n + 1);
+            sessions[n] = sessionId;
+            subscriptions[n] = subscriptionId;
+            return new Subscribers(sessions, subscriptions);
+        }
+
+        /** Returns {@code null} when the last subscriber leaves, which drops the map entry. */
+        Subscribers without(String sessionId, String subscriptionId) {
+            int n = sessionIds.length;
+            for (int i = 0; i < n; i++) {
+                if (sessionIds[i].equals(sessionId) && subscriptionIds[i].equals(subscriptionId)) {
+                    if (n == 1) {
+                        return null;
+                    }
+                    String[] sessions = new String[n - 1];
+                    String[] subscriptions = new String[n - 1];
+                    System.arraycopy(sessionIds, 0, sessions, 0, i);
+                    System.arraycopy(sessionIds, i + 1, sessions, i, n - i - 1);
+                    System.arraycopy(subscriptionIds, 0, subscriptions, 0, i);
+                    System.arraycopy(subscriptionIds, i + 1, subscriptions, i, n - i - 1);
+                    return new Subscribers(sessions, subscriptions);
+                }
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.pandac.planningpoker.config;
+
+import com.pandac.planningpoker.service.WebSocketEventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-connection outbound accounting and slow-consumer policy for the STOMP broker.
+ * <p>
+ * Every frame accepted on the client outbound channel is counted against its connection until
+ * the socket write for it completes, so the queued figure covers the outbound executor queue,
+ * Spring's per-session send buffer and the write in progress. A connection is slow when that
+ * figure exceeds {@code websocket.slow-consumer.queued-bytes-threshold} or a single write has
+ * been blocked for longer than {@code websocket.slow-consumer.send-time-threshold-ms}.
+ * <p>
+ * While a connection is slow, state events (vote counts, timer, observer snapshots) are handled by the policy:
+ * <ul>
+ *   <li>{@code CONFLATE} — keep only the latest event per destination and channel, deliver it once the connection drains;</li>
+ *   <li>{@code DROP} — discard them, the next event carries the current state;</li>
+ *   <li>{@code DISCONNECT} — close the connection with a reconnect-and-resync hint.</li>
+ * </ul>
+ * Other events are always delivered. A connection over {@code websocket.slow-consumer.max-queued-bytes}
+ * is disconnected regardless of policy, before Spring's own buffer limit terminates it without a hint.
+ */
+@Component
+@Slf4j
+public class SlowConsumerGuard {
+
+    public enum Policy { CONFLATE, DROP, DISCONNECT }
+
+    /** Close status for evicted connections; clients reconnect after the hinted delay and re-fetch state over REST. */
+    public static final CloseStatus SLOW_CONSUMER_CLOSE =
+            CloseStatus.SESSION_NOT_RELIABLE.withReason("slow-consumer; resync=rest; retry-after=2");
+
+    private static final String SESSION_TOPIC_PREFIX = WebSocketEventPublisher.sessionTopic("");
+    private static final Set<String> STATE_CHANNELS = Set.of(
+            WebSocketEventPublisher.Channel.VOTES.suffix(),
+            WebSocketEventPublisher.Channel.TIMER.suffix(),
+            WebSocketEventPublisher.SNAPSHOT_SUFFIX);
+
+    @Value("${websocket.slow-consumer.policy:CONFLATE}")
+    private Policy policy = Policy.CONFLATE;
+
+    @Value("${websocket.slow-consumer.queued-bytes-threshold:65536}")
+    private long queuedBytesThreshold = 64 * 1024;
+
+    @Value("${websocket.slow-consumer.send-time-threshold-ms:2000}")
+    private long sendTimeThresholdMs = 2000;
+
+    @Value("${websocket.slow-consumer.max-queued-bytes:262144}")
+    private long maxQueuedBytes = 256 * 1024;
+
+    /** WebSocket session id → tracked connection. */
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+
+    private final Counter conflatedEvents;
+    private final Counter droppedEvents;
+    private final Counter disconnects;
+
+    private final ChannelInterceptor outbound = new ChannelInterceptor() {
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            return admit(message, channel);
+        }
+    };
+
+    public SlowConsumerGuard(MeterRegistry registry) {
+        Gauge.builder("websocket.outbound.queued.bytes", this, g -> g.totalQueuedBytes())
+                .description("Bytes accepted for delivery but not yet written, all connections")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("websocket.outbound.queued.bytes.max", this, g -> g.largestQueuedBytes())
+                .description("Largest per-connection outbound backlog")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("websocket.outbound.slow.consumers", this, g -> g.slowConsumerCount())
+                .description("Connections currently classified as slow")
+                .register(registry);
+        conflatedEvents = slowEventCounter(registry, "conflated");
+        droppedEvents = slowEventCounter(registry, "dropped");
+        disconnects = slowEventCounter(registry, "disconnected");
+    }
+
+    /** {@link org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory} for the transport registration. */
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                Connection connection = new Connection(session);
+                connections.put(session.getId(), connection);
+                super.afterConnectionEstablished(connection);
+            }
+
+            @Override
+            public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+                Connection connection = connections.get(session.getId());
+                super.handleMessage(connection != null ? connection : session, message);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                Connection connection = connections.remove(session.getId());
+                super.afterConnectionClosed(connection != null ? connection : session, closeStatus);
+            }
+        };
+    }
+
+    /** Registered last on the client outbound channel, so it sees the final (possibly transcoded) payload. */
+    public ChannelInterceptor outbound() {
+        return outbound;
+    }
+
+    /** Outbound backlog of one connection in bytes; 0 for unknown sessions. */
+    public long getQueuedBytes(String sessionId) {
+        Connection connection = connections.get(sessionId);
+        return connection != null ? connection.queuedBytes.get() : 0;
+    }
+
+    public boolean isSlow(String sessionId) {
+        Connection connection = connections.get(sessionId);
+        return connection != null && connection.slow;
+    }
+
+    private Message<?> admit(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        Connection connection = sessionId != null ? connections.get(sessionId) : null;
+        if (connection == null) {
+            return message;
+        }
+        if (SimpMessageHeaderAccessor.getMessageType(headers) == SimpMessageType.MESSAGE
+                && connection.checkSlow(channel)) {
+            if (policy == Policy.DISCONNECT || connection.queuedBytes.get() > maxQueuedBytes) {
+                disconnect(connection);
+                return null;
+            }
+            String key = conflationKey(headers);
+            if (key != null) {
+                if (policy == Policy.CONFLATE) {
+                    connection.conflated.put(key, message);
+                    conflatedEvents.increment();
+                } else {
+                    droppedEvents.increment();
+                }
+                return null;
+            }
+        }
+        connection.enqueued(message.getPayload() instanceof byte[] bytes ? bytes.length : 0);
+        return message;
+    }
+
+    private void disconnect(Connection connection) {
+        if (!connection.closing.compareAndSet(false, true)) {
+            return;
+        }
+        disconnects.increment();
+        log.warn("Disconnecting slow WebSocket consumer {} with {} bytes queued",
+                connection.getId(), connection.queuedBytes.get());
+        // The socket may be mid-write; close off the outbound thread so it is not blocked too.
+        Thread.ofVirtual().name("ws-slow-close-", 0).start(() -> {
+            try {
+                connection.getDelegate().close(SLOW_CONSUMER_CLOSE);
+            } catch (IOException e) {
+                log.debug("Failed to close slow consumer {}: {}", connection.getId(), e.getMessage());
+            }
+        });
+    }
+
+    /** Destination plus event channel for conflatable state events, {@code null} for everything else. */
+    private static String conflationKey(MessageHeaders headers) {
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        if (destination == null || !destination.startsWith(SESSION_TOPIC_PREFIX)) {
+            return null;
+        }
+        String channel = SimpMessageHeaderAccessor.getFirstNativeHeader(WebSocketEventPublisher.HEADER_EVENT_CHANNEL, headers);
+        if (channel == null) {
+            channel = destination.substring(destination.lastIndexOf('/') + 1); // legacy per-channel topic
+        }
+        return STATE_CHANNELS.contains(channel) ? destination + "#" + channel : null;
+    }
+
+    private long totalQueuedBytes() {
+        return connections.values().stream().mapToLong(c -> c.queuedBytes.get()).sum();
+    }
+
+    private long largestQueuedBytes() {
+        return connections.values().stream().mapToLong(c -> c.queuedBytes.get()).max().orElse(0);
+    }
+
+    private long slowConsumerCount() {
+        return connections.values().stream().filter(c -> c.slow).count();
+    }
+
+    private static Counter slowEventCounter(MeterRegistry registry, String action) {
+        return Counter.builder("websocket.outbound.slow.events")
+                .description("Outbound events handled by the slow-consumer policy")
+                .tag("action", action)
+                .register(registry);
+    }
+
+    /**
+     * Wraps the raw session underneath Spring's concurrent send buffer, so {@link #sendMessage}
+     * runs exactly when a frame is written to the socket.
+     */
+    private final class Connection extends WebSocketSessionDecorator {
+
+        private final AtomicLong queuedBytes = new AtomicLong();
+        /** Sizes of accepted frames in acceptance order; one is released per completed write. */
+        private final Queue<Integer> queuedSizes = new ConcurrentLinkedQueue<>();
+        private final Map<String, Message<?>> conflated = new ConcurrentHashMap<>();
+        private final AtomicBoolean closing = new AtomicBoolean();
+        private volatile long writeStartedNanos;
+        private volatile boolean slow;
+        private volatile MessageChannel outboundChannel;
+
+        Connection(WebSocketSession delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            writeStartedNanos = System.nanoTime();
+            try {
+                super.sendMessage(message);
+            } finally {
+                writeStartedNanos = 0;
+                written();
+            }
+        }
+
+        void enqueued(int bytes) {
+            queuedSizes.add(bytes);
+            queuedBytes.addAndGet(bytes);
+        }
+
+        boolean checkSlow(MessageChannel channel) {
+            long started = writeStartedNanos;
+            boolean stalled = started != 0 && System.nanoTime() - started > sendTimeThresholdMs * 1_000_000;
+            if (queuedBytes.get() > queuedBytesThreshold || stalled) {
+                outboundChannel = channel;
+                if (!slow) {
+                    slow = true;
+                    log.info("WebSocket consumer {} is slow ({} bytes queued)", getId(), queuedBytes.get());
+                }
+            }
+            return slow;
+        }
+
+        private void written() {
+            Integer bytes = queuedSizes.poll(); // frames Spring writes directly (e.g. decode errors) have no entry
+            if (bytes != null) {
+                queuedBytes.addAndGet(-bytes);
+            }
+            if (slow && queuedBytes.get() <= queuedBytesThreshold / 2) {
+                slow = false;
+                flushConflated();
+            }
+        }
+
+        private void flushConflated() {
+            MessageChannel channel = outboundChannel;
+            if (channel == null || conflated.isEmpty()) {
+                return;
+            }
+            for (String key : List.copyOf(conflated.keySet())) {
+                Message<?> latest = conflated.remove(key);
+                if (latest != null) {
+                    channel.send(latest);
+                }
+            }
+        }
+    }
+}
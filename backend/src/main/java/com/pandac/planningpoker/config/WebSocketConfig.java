@@ -1,28 +1,114 @@
 package com.pandac.planningpoker.config;
 
 import com.pandac.planningpoker.security.WebSocketAuthInterceptor;
+import com.pandac.planningpoker.service.FairScheduler;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSocketMessageBroker
 @RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
     private final WebSocketAuthInterceptor webSocketAuthInterceptor;
+    private final PayloadFormatNegotiator payloadFormatNegotiator;
+    private final SlowConsumerGuard slowConsumerGuard;
+    private final ObserverSubscriptions observerSubscriptions;
+    private final PresenceTracker presenceTracker;
+    private TaskScheduler messageBrokerTaskScheduler;
+    private FairScheduler outboundScheduler;
 
     @Value("${cors.allowed-origins:http://localhost:3000,http://localhost:5173}")
     private String allowedOrigins;
 
+    @Value("${websocket.compression.enabled:true}")
+    private boolean compressionEnabled = true;
+
+    @Value("${websocket.transport.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs = 10_000;
+
+    @Value("${websocket.transport.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit = 512 * 1024;
+
+    @Value("${websocket.transport.message-size-limit:65536}")
+    private int messageSizeLimit = 64 * 1024;
+
+    @Value("${websocket.heartbeat.server-ms:10000}")
+    private long heartbeatServerMs = 10_000;
+
+    @Value("${websocket.heartbeat.client-ms:10000}")
+    private long heartbeatClientMs = 10_000;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /** Lazy: the broker's own scheduler is created by the configuration this class feeds. */
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy TaskScheduler messageBrokerTaskScheduler) {
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
+
+    /** Absent with {@code fair-scheduler.outbound.enabled=false}. */
+    @Autowired(required = false)
+    public void setOutboundScheduler(@Qualifier("outboundScheduler") FairScheduler outboundScheduler) {
+        this.outboundScheduler = outboundScheduler;
+    }
+
+    /**
+     * Replaces the simple broker's pattern-aware default registry with
+     * {@link SessionSubscriptionRegistry}. Static so that registering a post-processor
+     * does not force early initialisation of this configuration class.
+     */
+    @Bean
+    static BeanPostProcessor sessionSubscriptionRegistryInstaller(
+            @Value("${websocket.broker.exact-registry.enabled:true}") boolean enabled) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof SimpleBrokerMessageHandler broker) {
+                    broker.setSubscriptionRegistry(new SessionSubscriptionRegistry());
+                }
+                return bean;
+            }
+        };
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        // /queue carries per-user replies, e.g. STOMP vote receipts on /user/queue/votes.
+        // Heartbeats: the broker sends one every server-ms and closes a connection it has not
+        // heard from in three client-ms intervals, which PresenceTracker sees as a DISCONNECT.
+        config.enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[] {heartbeatServerMs, heartbeatClientMs})
+                .setTaskScheduler(messageBrokerTaskScheduler);
         config.setApplicationDestinationPrefixes("/app");
     }
 
@@ -31,11 +117,113 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         String[] origins = allowedOrigins.split(",");
         registry.addEndpoint("/ws")
                 .setAllowedOrigins(origins)
+                .setHandshakeHandler(handshakeHandler())
                 .withSockJS();
+        // Plain WebSocket (no SockJS fallback): the only endpoint that can carry binary frames,
+        // so clients negotiating CBOR/Smile via the payload-format CONNECT header connect here.
+        registry.addEndpoint("/ws-native")
+                .setAllowedOrigins(origins)
+                .setHandshakeHandler(handshakeHandler())
+                .addInterceptors(binaryFramesMarker());
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(webSocketAuthInterceptor);
+        registration.interceptors(webSocketAuthInterceptor, payloadFormatNegotiator.inbound(),
+                observerSubscriptions.inbound(), presenceTracker.inbound());
+        if (virtualThreads) {
+            registration.executor(virtualThreadExecutor("ws-inbound-"));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(payloadFormatNegotiator.outbound(), slowConsumerGuard.outbound());
+        if (outboundScheduler != null) {
+            // Delivery shared fairly between rooms (see FairSchedulingConfig), on virtual threads if enabled
+            registration.executor(outboundScheduler.asExecutor(FairSchedulingConfig::placeOutbound));
+        } else if (virtualThreads) {
+            registration.executor(virtualThreadExecutor("ws-outbound-"));
+        }
+    }
+
+    /**
+     * With {@code spring.threads.virtual.enabled} Boot switches Tomcat to virtual threads but
+     * leaves the STOMP channels on their platform pools (its {@code applicationTaskExecutor}
+     * backs off when the broker configuration defines executors), so they are switched here:
+     * one virtual thread per message, as for requests.
+     */
+    private static SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * Hard per-connection limits enforced by Spring's send buffer: a session whose buffered
+     * frames or single blocked write exceed these is terminated. {@link SlowConsumerGuard}
+     * acts earlier, at its own thresholds, with a gentler policy.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(slowConsumerGuard::decorate);
+    }
+
+    /**
+     * Adds strict CBOR and Smile converters ahead of the defaults so SEND frames with
+     * {@code content-type: application/cbor} (or Smile) bind to {@code @Payload} arguments.
+     * Strict matching keeps them out of the way for JSON and content-type-less messages.
+     */
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        for (PayloadFormat format : PayloadFormat.values()) {
+            if (format.isBinary()) {
+                MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter(format.getMimeType());
+                converter.setObjectMapper(payloadFormatNegotiator.mapperFor(format));
+                converter.setStrictContentTypeMatch(true);
+                messageConverters.add(converter);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tomcat negotiates permessage-deflate whenever the browser offers it. The JSR-356
+     * extension has no size threshold, so small frames pay the deflate cost too; set
+     * {@code websocket.compression.enabled=false} to decline the extension entirely.
+     */
+    private DefaultHandshakeHandler handshakeHandler() {
+        return new DefaultHandshakeHandler() {
+            @Override
+            protected List<WebSocketExtension> filterRequestedExtensions(ServerHttpRequest request,
+                    List<WebSocketExtension> requested, List<WebSocketExtension> supported) {
+                List<WebSocketExtension> filtered = super.filterRequestedExtensions(request, requested, supported);
+                if (compressionEnabled) {
+                    return filtered;
+                }
+                return filtered.stream()
+                        .filter(extension -> !PERMESSAGE_DEFLATE.equalsIgnoreCase(extension.getName()))
+                        .toList();
+            }
+        };
+    }
+
+    private static HandshakeInterceptor binaryFramesMarker() {
+        return new HandshakeInterceptor() {
+            @Override
+            public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                           WebSocketHandler wsHandler, Map<String, Object> attributes) {
+                attributes.put(PayloadFormatNegotiator.BINARY_FRAMES_ATTRIBUTE, Boolean.TRUE);
+                return true;
+            }
+
+            @Override
+            public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                       WebSocketHandler wsHandler, Exception exception) {
+            }
+        };
     }
 }
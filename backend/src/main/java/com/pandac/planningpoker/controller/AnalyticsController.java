@@ -3,6 +3,7 @@ package com.pandac.planningpoker.controller;
 import com.pandac.planningpoker.dto.SessionAnalyticsDTO;
 import com.pandac.planningpoker.dto.StoryAnalyticsDTO;
 import com.pandac.planningpoker.service.AnalyticsService;
+import com.pandac.planningpoker.service.ReportingLane;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +11,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/sessions")
 @RequiredArgsConstructor
@@ -17,24 +20,23 @@ import org.springframework.web.bind.annotation.*;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final ReportingLane reportingLane;
 
     @PreAuthorize("hasRole('MODERATOR')")
     @GetMapping("/{sessionCode}/analytics")
     @Operation(summary = "Get session analytics",
                description = "Retrieve insights and metrics for the session")
-    public ResponseEntity<SessionAnalyticsDTO> getSessionAnalytics(@PathVariable String sessionCode) {
-        SessionAnalyticsDTO analytics = analyticsService.getSessionAnalytics(sessionCode);
-        return ResponseEntity.ok(analytics);
+    public CompletableFuture<ResponseEntity<SessionAnalyticsDTO>> getSessionAnalytics(@PathVariable String sessionCode) {
+        return reportingLane.submit(() -> ResponseEntity.ok(analyticsService.getSessionAnalytics(sessionCode)));
     }
 
     @PreAuthorize("hasRole('MODERATOR')")
     @GetMapping("/{sessionCode}/stories/{storyId}/analytics")
     @Operation(summary = "Get story voting analytics",
                description = "Detailed analytics for a specific story's votes")
-    public ResponseEntity<StoryAnalyticsDTO> getStoryAnalytics(
+    public CompletableFuture<ResponseEntity<StoryAnalyticsDTO>> getStoryAnalytics(
             @PathVariable String sessionCode,
             @PathVariable Long storyId) {
-        StoryAnalyticsDTO analytics = analyticsService.getStoryAnalytics(sessionCode, storyId);
-        return ResponseEntity.ok(analytics);
+        return reportingLane.submit(() -> ResponseEntity.ok(analyticsService.getStoryAnalytics(sessionCode, storyId)));
     }
 }
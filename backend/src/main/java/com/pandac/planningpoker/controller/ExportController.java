@@ -1,10 +1,10 @@
 package com.pandac.planningpoker.controller;
 
-import com.pandac.planningpoker.dto.SessionExportDTO;
 import com.pandac.planningpoker.dto.SessionImportDTO;
 import com.pandac.planningpoker.model.Session;
 import com.pandac.planningpoker.model.SizingMethod;
 import com.pandac.planningpoker.service.ExportService;
+import com.pandac.planningpoker.service.ReportingLane;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
@@ -25,32 +26,31 @@ import java.util.Map;
 public class ExportController {
 
     private final ExportService exportService;
+    private final ReportingLane reportingLane;
 
     @PreAuthorize("hasRole('MODERATOR')")
     @GetMapping("/api/sessions/{sessionCode}/export")
     @Operation(summary = "Export session data",
                description = "Export complete session including stories and votes")
-    public ResponseEntity<?> exportSession(
+    public CompletableFuture<ResponseEntity<?>> exportSession(
             @PathVariable String sessionCode,
             @RequestParam(defaultValue = "json") String format) {
 
         if ("csv".equalsIgnoreCase(format)) {
-            String csv = exportService.exportSessionAsCsv(sessionCode);
-            return ResponseEntity.ok()
+            return reportingLane.submit(() -> ResponseEntity.ok()
                     .contentType(MediaType.parseMediaType("text/csv"))
                     .header("Content-Disposition", "attachment; filename=session-" + sessionCode + ".csv")
-                    .body(csv);
+                    .body(exportService.exportSessionAsCsv(sessionCode)));
         }
-        SessionExportDTO export = exportService.exportSessionAsJson(sessionCode);
-        return ResponseEntity.ok(export);
+        return reportingLane.submit(() -> ResponseEntity.ok(exportService.exportSessionAsJson(sessionCode)));
     }
 
     @PostMapping("/api/sessions/import")
     @Operation(summary = "Import session data",
                description = "Create a session from exported data")
-    public ResponseEntity<Session> importSession(@Valid @RequestBody SessionImportDTO importRequest) {
-        Session session = exportService.importSession(importRequest);
-        return ResponseEntity.status(HttpStatus.CREATED).body(session);
+    public CompletableFuture<ResponseEntity<Session>> importSession(@Valid @RequestBody SessionImportDTO importRequest) {
+        return reportingLane.submit(() -> ResponseEntity.status(HttpStatus.CREATED)
+                .body(exportService.importSession(importRequest)));
     }
 
     @GetMapping("/api/sizing-methods")
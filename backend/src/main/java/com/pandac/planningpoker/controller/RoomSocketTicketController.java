@@ -0,0 +1,37 @@
+package com.pandac.planningpoker.controller;
+
+import com.pandac.planningpoker.dto.RoomSocketTicket;
+import com.pandac.planningpoker.security.JwtTokenService;
+import com.pandac.planningpoker.security.RoomSocketTickets;
+import com.pandac.planningpoker.security.SessionAccessValidator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Exchanges the caller's JWT for a single-use room socket ticket, so that browsers can open
+ * {@code /ws-room/{code}} without putting the JWT in the URL.
+ */
+@RestController
+@RequestMapping("/api/sessions/{sessionCode}/socket-ticket")
+@RequiredArgsConstructor
+@Tag(name = "Room socket", description = "Handshake tickets for the raw room WebSocket")
+public class RoomSocketTicketController {
+
+    private final JwtTokenService jwtTokenService;
+    private final RoomSocketTickets roomSocketTickets;
+    private final SessionAccessValidator sessionAccessValidator;
+
+    @PostMapping
+    @Operation(summary = "Issue a room socket ticket",
+               description = "Single-use and short-lived; open /ws-room/{code}?ticket=<ticket> with it")
+    public ResponseEntity<RoomSocketTicket> issue(@PathVariable String sessionCode,
+                                                  @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        sessionAccessValidator.validateSessionAccess(sessionCode);
+        String ticket = roomSocketTickets.issue(jwtTokenService.parsePrincipal(authorization.substring(7)));
+        return ResponseEntity.ok(new RoomSocketTicket(ticket, roomSocketTickets.ttlSeconds()));
+    }
+}
@@ -2,6 +2,9 @@ package com.pandac.planningpoker.controller;
 
 import com.pandac.planningpoker.dto.*;
 import com.pandac.planningpoker.model.Session;
+import com.pandac.planningpoker.service.FairScheduler.WorkClass;
+import com.pandac.planningpoker.service.ObserverSnapshotService;
+import com.pandac.planningpoker.service.SessionMailbox;
 import com.pandac.planningpoker.service.interfaces.ISessionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -22,6 +25,8 @@ import org.springframework.web.bind.annotation.*;
 public class SessionController {
 
     private final ISessionService sessionService;
+    private final ObserverSnapshotService observerSnapshotService;
+    private final SessionMailbox sessionMailbox;
 
     @PostMapping
     @Operation(summary = "Create a new planning poker session",
@@ -49,6 +54,13 @@ public class SessionController {
         return ResponseEntity.ok(session);
     }
 
+    @GetMapping("/{sessionCode}/snapshot")
+    @Operation(summary = "Get room snapshot",
+               description = "Conflated read-only room state for observers; the same payload is pushed on /topic/session/{code}/snapshot")
+    public ResponseEntity<RoomSnapshot> getSnapshot(@PathVariable String sessionCode) {
+        return ResponseEntity.ok(sessionMailbox.read(sessionCode, () -> observerSnapshotService.getSnapshot(sessionCode)));
+    }
+
     @PreAuthorize("hasRole('MODERATOR')")
     @PutMapping("/{sessionCode}")
     @Operation(summary = "Update session settings",
@@ -56,7 +68,7 @@ public class SessionController {
     public ResponseEntity<Session> updateSession(
             @PathVariable String sessionCode,
             @Valid @RequestBody UpdateSessionRequest request) {
-        Session session = sessionService.updateSession(sessionCode, request);
+        Session session = sessionMailbox.submit(sessionCode, () -> sessionService.updateSession(sessionCode, request));
         return ResponseEntity.ok(session);
     }
 
@@ -65,7 +77,7 @@ public class SessionController {
     @Operation(summary = "End/delete session",
                description = "Terminates the session (moderator only)")
     public ResponseEntity<Void> deleteSession(@PathVariable String sessionCode) {
-        sessionService.deleteSession(sessionCode);
+        sessionMailbox.execute(sessionCode, () -> sessionService.deleteSession(sessionCode));
         return ResponseEntity.noContent().build();
     }
 
@@ -75,6 +87,7 @@ public class SessionController {
     public ResponseEntity<UserSession> joinSession(
             @PathVariable String sessionCode,
             @Valid @RequestBody JoinSessionRequest request) {
+        // Not through the session mailbox: joining only adds or reactivates the caller's own user
         UserSession userSession = sessionService.joinSession(sessionCode, request);
         return ResponseEntity.ok(userSession);
     }
@@ -86,7 +99,7 @@ public class SessionController {
     public ResponseEntity<Void> leaveSession(
             @PathVariable String sessionCode,
             @PathVariable Long userId) {
-        sessionService.leaveSession(sessionCode, userId);
+        sessionMailbox.execute(sessionCode, () -> sessionService.leaveSession(sessionCode, userId));
         return ResponseEntity.noContent().build();
     }
 
@@ -97,7 +110,7 @@ public class SessionController {
     public ResponseEntity<Session> setCurrentStory(
             @PathVariable String sessionCode,
             @RequestParam Long storyId) {
-        Session session = sessionService.setCurrentStory(sessionCode, storyId);
+        Session session = sessionMailbox.submit(sessionCode, WorkClass.MODERATOR, () -> sessionService.setCurrentStory(sessionCode, storyId));
         return ResponseEntity.ok(session);
     }
 
@@ -106,7 +119,7 @@ public class SessionController {
     @Operation(summary = "Reveal all votes",
                description = "Reveal all votes for the current story")
     public ResponseEntity<VoteReveal> revealVotes(@PathVariable String sessionCode) {
-        VoteReveal reveal = sessionService.revealVotes(sessionCode);
+        VoteReveal reveal = sessionMailbox.submit(sessionCode, WorkClass.MODERATOR, () -> sessionService.revealVotes(sessionCode));
         return ResponseEntity.ok(reveal);
     }
 
@@ -115,7 +128,7 @@ public class SessionController {
     @Operation(summary = "Reset votes for current story",
                description = "Clear all votes to start a new round")
     public ResponseEntity<Void> resetVotes(@PathVariable String sessionCode) {
-        sessionService.resetVotes(sessionCode);
+        sessionMailbox.execute(sessionCode, WorkClass.MODERATOR, () -> sessionService.resetVotes(sessionCode));
         return ResponseEntity.noContent().build();
     }
 }
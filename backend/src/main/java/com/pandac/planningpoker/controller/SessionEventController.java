@@ -0,0 +1,49 @@
+package com.pandac.planningpoker.controller;
+
+import com.pandac.planningpoker.dto.SessionEventBatch;
+import com.pandac.planningpoker.security.SessionAccessValidator;
+import com.pandac.planningpoker.service.SessionEventStream;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * HTTP delivery of session events for clients that cannot hold a WebSocket. Both endpoints
+ * require the participant's bearer token for this session, so browser clients use a
+ * fetch-based event-source reader rather than {@code EventSource}.
+ */
+@RestController
+@RequestMapping("/api/sessions/{sessionCode}/events")
+@RequiredArgsConstructor
+@Tag(name = "Session events", description = "Server-Sent Events and long-poll fallback for the WebSocket event stream")
+public class SessionEventController {
+
+    private final SessionEventStream sessionEventStream;
+    private final SessionAccessValidator sessionAccessValidator;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream session events",
+               description = "Server-Sent Events carrying the same events as /topic/session/{code}; the event name is the channel. "
+                       + "Reconnect with Last-Event-ID to resume; a 'resync' event means reload the session first")
+    public SseEmitter streamEvents(
+            @PathVariable String sessionCode,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        sessionAccessValidator.validateSessionAccess(sessionCode);
+        return sessionEventStream.subscribe(sessionCode, lastEventId);
+    }
+
+    @GetMapping("/poll")
+    @Operation(summary = "Long-poll session events",
+               description = "Returns the events after 'after' (or Last-Event-ID) as soon as there are any, or an empty batch after the poll timeout")
+    public DeferredResult<SessionEventBatch> pollEvents(
+            @PathVariable String sessionCode,
+            @RequestParam(required = false) String after,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        sessionAccessValidator.validateSessionAccess(sessionCode);
+        return sessionEventStream.poll(sessionCode, after != null ? after : lastEventId);
+    }
+}
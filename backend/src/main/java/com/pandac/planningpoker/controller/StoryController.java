@@ -3,6 +3,8 @@ package com.pandac.planningpoker.controller;
 import com.pandac.planningpoker.dto.*;
 import com.pandac.planningpoker.model.Story;
 import com.pandac.planningpoker.model.StoryStatus;
+import com.pandac.planningpoker.service.FairScheduler.WorkClass;
+import com.pandac.planningpoker.service.SessionMailbox;
 import com.pandac.planningpoker.service.interfaces.IStoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -24,6 +26,7 @@ import java.util.List;
 public class StoryController {
 
     private final IStoryService storyService;
+    private final SessionMailbox sessionMailbox;
 
     @PreAuthorize("hasRole('MODERATOR')")
     @PostMapping
@@ -31,7 +34,7 @@ public class StoryController {
     public ResponseEntity<Story> createStory(
             @PathVariable String sessionCode,
             @Valid @RequestBody CreateStoryRequest request) {
-        Story story = storyService.createStory(sessionCode, request);
+        Story story = sessionMailbox.submit(sessionCode, () -> storyService.createStory(sessionCode, request));
         return ResponseEntity.status(HttpStatus.CREATED).body(story);
     }
 
@@ -43,10 +46,11 @@ public class StoryController {
             @RequestParam(required = false) Integer page,
             @RequestParam(required = false) Integer size) {
         if (page != null && size != null) {
-            Page<Story> stories = storyService.getStoriesPage(sessionCode, status, PageRequest.of(page, size));
+            Page<Story> stories = sessionMailbox.read(sessionCode,
+                    () -> storyService.getStoriesPage(sessionCode, status, PageRequest.of(page, size)));
             return ResponseEntity.ok(stories);
         }
-        List<Story> stories = storyService.getStories(sessionCode, status);
+        List<Story> stories = sessionMailbox.read(sessionCode, () -> storyService.getStories(sessionCode, status));
         return ResponseEntity.ok(stories);
     }
 
@@ -66,7 +70,7 @@ public class StoryController {
             @PathVariable String sessionCode,
             @PathVariable Long storyId,
             @Valid @RequestBody UpdateStoryRequest request) {
-        Story story = storyService.updateStory(sessionCode, storyId, request);
+        Story story = sessionMailbox.submit(sessionCode, () -> storyService.updateStory(sessionCode, storyId, request));
         return ResponseEntity.ok(story);
     }
 
@@ -76,7 +80,7 @@ public class StoryController {
     public ResponseEntity<Void> deleteStory(
             @PathVariable String sessionCode,
             @PathVariable Long storyId) {
-        storyService.deleteStory(sessionCode, storyId);
+        sessionMailbox.execute(sessionCode, () -> storyService.deleteStory(sessionCode, storyId));
         return ResponseEntity.noContent().build();
     }
 
@@ -88,7 +92,8 @@ public class StoryController {
             @PathVariable String sessionCode,
             @PathVariable Long storyId,
             @Valid @RequestBody FinalizeEstimateRequest request) {
-        Story story = storyService.finalizeEstimate(sessionCode, storyId, request.getFinalEstimate(), request.getNotes());
+        Story story = sessionMailbox.submit(sessionCode, WorkClass.MODERATOR,
+                () -> storyService.finalizeEstimate(sessionCode, storyId, request.getFinalEstimate(), request.getNotes()));
         return ResponseEntity.ok(story);
     }
 
@@ -99,7 +104,7 @@ public class StoryController {
     public ResponseEntity<Story> resetStory(
             @PathVariable String sessionCode,
             @PathVariable Long storyId) {
-        Story story = storyService.resetStory(sessionCode, storyId);
+        Story story = sessionMailbox.submit(sessionCode, WorkClass.MODERATOR, () -> storyService.resetStory(sessionCode, storyId));
         return ResponseEntity.ok(story);
     }
 }
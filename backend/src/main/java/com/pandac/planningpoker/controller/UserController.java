@@ -2,6 +2,7 @@ package com.pandac.planningpoker.controller;
 
 import com.pandac.planningpoker.dto.UpdateUserRequest;
 import com.pandac.planningpoker.model.User;
+import com.pandac.planningpoker.service.SessionMailbox;
 import com.pandac.planningpoker.service.interfaces.IUserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -22,6 +23,7 @@ import java.util.List;
 public class UserController {
 
     private final IUserService userService;
+    private final SessionMailbox sessionMailbox;
 
     @GetMapping
     @Operation(summary = "Get active users", description = "List all participants in the session. Use page/size for pagination.")
@@ -31,10 +33,11 @@ public class UserController {
             @RequestParam(required = false) Integer page,
             @RequestParam(required = false) Integer size) {
         if (page != null && size != null) {
-            Page<User> users = userService.getActiveUsersPage(sessionCode, activeOnly, PageRequest.of(page, size));
+            Page<User> users = sessionMailbox.read(sessionCode,
+                    () -> userService.getActiveUsersPage(sessionCode, activeOnly, PageRequest.of(page, size)));
             return ResponseEntity.ok(users);
         }
-        List<User> users = userService.getActiveUsers(sessionCode, activeOnly);
+        List<User> users = sessionMailbox.read(sessionCode, () -> userService.getActiveUsers(sessionCode, activeOnly));
         return ResponseEntity.ok(users);
     }
 
@@ -2,11 +2,14 @@ package com.pandac.planningpoker.controller;
 
 import com.pandac.planningpoker.dto.*;
 import com.pandac.planningpoker.model.Vote;
+import com.pandac.planningpoker.service.SessionMailbox;
 import com.pandac.planningpoker.service.interfaces.IVoteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,6 +24,7 @@ import java.util.List;
 public class VoteController {
 
     private final IVoteService voteService;
+    private final SessionMailbox sessionMailbox;
 
     @PostMapping
     @Operation(summary = "Cast or update vote", description = "Submit an estimate for a story")
@@ -28,17 +32,31 @@ public class VoteController {
             @PathVariable String sessionCode,
             @PathVariable Long storyId,
             @Valid @RequestBody VoteRequest request) {
+        // Not through the session mailbox: an upsert of the caller's own vote, safe to run concurrently
         Vote vote = voteService.castVote(sessionCode, storyId, request.getUserId(), request);
         return ResponseEntity.status(HttpStatus.CREATED).body(vote);
     }
 
     @GetMapping
-    @Operation(summary = "Get votes for a story")
+    @Operation(summary = "Get votes for a story", description = "Large rooms reveal a summary only.")
     public ResponseEntity<List<VoteResponse>> getVotes(
             @PathVariable String sessionCode,
             @PathVariable Long storyId,
             @RequestParam(defaultValue = "false") Boolean revealed) {
-        List<VoteResponse> votes = voteService.getVotes(sessionCode, storyId, revealed);
+        List<VoteResponse> votes = sessionMailbox.read(sessionCode, () -> voteService.getVotes(sessionCode, storyId, revealed));
+        return ResponseEntity.ok(votes);
+    }
+
+    @GetMapping(params = {"page", "size"})
+    @Operation(summary = "Get a page of votes for a story", description = "Large rooms reveal a summary only.")
+    public ResponseEntity<Page<VoteResponse>> getVotesPage(
+            @PathVariable String sessionCode,
+            @PathVariable Long storyId,
+            @RequestParam(defaultValue = "false") Boolean revealed,
+            @RequestParam int page,
+            @RequestParam int size) {
+        Page<VoteResponse> votes = sessionMailbox.read(sessionCode,
+                () -> voteService.getVotesPage(sessionCode, storyId, revealed, PageRequest.of(page, size)));
         return ResponseEntity.ok(votes);
     }
 
@@ -49,7 +67,7 @@ public class VoteController {
             @PathVariable String sessionCode,
             @PathVariable Long storyId,
             @PathVariable Long userId) {
-        voteService.deleteVote(sessionCode, storyId, userId);
+        sessionMailbox.execute(sessionCode, () -> voteService.deleteVote(sessionCode, storyId, userId));
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,96 @@
+package com.pandac.planningpoker.controller;
+
+import com.pandac.planningpoker.dto.VoteMessage;
+import com.pandac.planningpoker.dto.VoteReceipt;
+import com.pandac.planningpoker.dto.VoteRequest;
+import com.pandac.planningpoker.exception.*;
+import com.pandac.planningpoker.model.Vote;
+import com.pandac.planningpoker.security.SessionPrincipal;
+import com.pandac.planningpoker.service.interfaces.IVoteService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.handler.annotation.support.MethodArgumentNotValidException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+import java.time.OffsetDateTime;
+
+/**
+ * STOMP counterpart of {@code POST /api/sessions/{code}/stories/{id}/votes}.
+ * Clients that already hold an authenticated WebSocket connection send votes to
+ * {@code /app/session/{code}/vote} instead of opening a new HTTP request; the voter is
+ * taken from the {@code SessionPrincipal} set by {@code WebSocketAuthInterceptor} on CONNECT.
+ * Successful votes are acknowledged on {@code /user/queue/votes}, failures on
+ * {@code /user/queue/errors}; both go only to the sending connection.
+ */
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class VoteMessageController {
+
+    private static final String RECEIPT_HEADER = "receipt";
+
+    private final IVoteService voteService;
+
+    @MessageMapping("/session/{sessionCode}/vote")
+    @SendToUser(destinations = "/queue/votes", broadcast = false)
+    public VoteReceipt castVote(
+            @DestinationVariable String sessionCode,
+            @Valid @Payload VoteMessage message,
+            @Header(name = RECEIPT_HEADER, required = false) String receipt,
+            Principal principal) {
+        Long userId = requireVoterInSession(principal, sessionCode);
+
+        VoteRequest request = new VoteRequest(userId, message.getEstimate(), message.getConfidence());
+        Vote vote = voteService.castVote(sessionCode, message.getStoryId(), userId, request);
+        return new VoteReceipt(receipt, vote.getId(), message.getStoryId(), vote.getEstimate());
+    }
+
+    @MessageExceptionHandler
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public ErrorResponse handleException(Exception ex, Message<?> failed) {
+        HttpStatus status = statusFor(ex);
+        if (status.is5xxServerError()) {
+            log.error("STOMP vote failed", ex);
+        }
+        return new ErrorResponse(OffsetDateTime.now(), status.value(), status.getReasonPhrase(),
+                ex.getMessage(), SimpMessageHeaderAccessor.getDestination(failed.getHeaders()));
+    }
+
+    /** A token issued for one session may not vote in another (see {@code SessionPrincipal}). */
+    private static Long requireVoterInSession(Principal principal, String sessionCode) {
+        if (!(principal instanceof SessionPrincipal sessionPrincipal)) {
+            throw new UnauthorizedAccessException("WebSocket connection is not authenticated");
+        }
+        if (!sessionPrincipal.belongsTo(sessionCode)) {
+            throw new UnauthorizedAccessException("Access denied: token is not valid for session " + sessionCode);
+        }
+        return sessionPrincipal.getUserId();
+    }
+
+    /** Mirrors the status codes {@code GlobalExceptionHandler} uses for the REST path. */
+    private static HttpStatus statusFor(Exception ex) {
+        return switch (ex) {
+            case SessionNotFoundException e -> HttpStatus.NOT_FOUND;
+            case StoryNotFoundException e -> HttpStatus.NOT_FOUND;
+            case UserNotFoundException e -> HttpStatus.NOT_FOUND;
+            case UnauthorizedAccessException e -> HttpStatus.FORBIDDEN;
+            case SessionMembershipException e -> HttpStatus.FORBIDDEN;
+            case NoActiveStoryException e -> HttpStatus.CONFLICT;
+            case InvalidVoteException e -> HttpStatus.BAD_REQUEST;
+            case SessionBusyException e -> HttpStatus.TOO_MANY_REQUESTS;
+            case MethodArgumentNotValidException e -> HttpStatus.BAD_REQUEST;
+            default -> HttpStatus.INTERNAL_SERVER_ERROR;
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.pandac.planningpoker.controller;
+
+import com.pandac.planningpoker.dto.ExtendTimerRequest;
+import com.pandac.planningpoker.dto.TimerState;
+import com.pandac.planningpoker.security.SessionAccessValidator;
+import com.pandac.planningpoker.service.timer.VotingTimerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Server-side voting timer. Every change is broadcast on the timer channel with the full
+ * {@link TimerState}, so clients render the countdown instead of running their own.
+ */
+@RestController
+@RequestMapping("/api/sessions/{sessionCode}/timer")
+@RequiredArgsConstructor
+@Tag(name = "Voting timer", description = "Server-authoritative countdown for the current voting round")
+public class VotingTimerController {
+
+    private final VotingTimerService votingTimerService;
+    private final SessionAccessValidator sessionAccessValidator;
+
+    @GetMapping
+    @Operation(summary = "Get the voting timer",
+               description = "Current timer state; serverTime lets clients correct for clock drift")
+    public ResponseEntity<TimerState> getTimer(@PathVariable String sessionCode) {
+        sessionAccessValidator.validateSessionAccess(sessionCode);
+        return ResponseEntity.ok(votingTimerService.getTimer(sessionCode));
+    }
+
+    @PreAuthorize("hasRole('MODERATOR')")
+    @PostMapping("/start")
+    @Operation(summary = "Start or resume the voting timer",
+               description = "Starts the session's timer duration, or resumes a paused timer (moderator only)")
+    public ResponseEntity<TimerState> start(@PathVariable String sessionCode) {
+        sessionAccessValidator.validateSessionAccess(sessionCode);
+        return ResponseEntity.ok(votingTimerService.start(sessionCode));
+    }
+
+    @PreAuthorize("hasRole('MODERATOR')")
+    @PostMapping("/pause")
+    @Operation(summary = "Pause the voting timer", description = "Keeps the remaining time (moderator only)")
+    public ResponseEntity<TimerState> pause(@PathVariable String sessionCode) {
+        sessionAccessValidator.validateSessionAccess(sessionCode);
+        return ResponseEntity.ok(votingTimerService.pause(sessionCode));
+    }
+
+    @PreAuthorize("hasRole('MODERATOR')")
+    @PostMapping("/extend")
+    @Operation(summary = "Extend the voting timer", description = "Adds time to a running or paused timer (moderator only)")
+    public ResponseEntity<TimerState> extend(
+            @PathVariable String sessionCode,
+            @Valid @RequestBody ExtendTimerRequest request) {
+        sessionAccessValidator.validateSessionAccess(sessionCode);
+        return ResponseEntity.ok(votingTimerService.extend(sessionCode, request.getSeconds()));
+    }
+
+    @PreAuthorize("hasRole('MODERATOR')")
+    @PostMapping("/stop")
+    @Operation(summary = "Stop the voting timer", description = "Clears a running or paused timer (moderator only)")
+    public ResponseEntity<TimerState> stop(@PathVariable String sessionCode) {
+        sessionAccessValidator.validateSessionAccess(sessionCode);
+        return ResponseEntity.ok(votingTimerService.stop(sessionCode));
+    }
+}
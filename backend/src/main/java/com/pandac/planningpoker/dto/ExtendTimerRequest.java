@@ -0,0 +1,20 @@
+package com.pandac.planningpoker.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtendTimerRequest {
+
+    @NotNull(message = "Seconds are required")
+    @Min(value = 1, message = "Seconds must be between 1 and 3600")
+    @Max(value = 3600, message = "Seconds must be between 1 and 3600")
+    private Integer seconds;
+}
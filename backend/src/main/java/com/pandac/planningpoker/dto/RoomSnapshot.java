@@ -0,0 +1,33 @@
+package com.pandac.planningpoker.dto;
+
+import com.pandac.planningpoker.model.StoryStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/**
+ * Read-only view of a room for the observer tier: everything an audience needs to follow
+ * the estimation, without individual votes or presence events.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomSnapshot {
+    private String sessionCode;
+    private String sessionName;
+    private Long currentStoryId;
+    private String currentStoryTitle;
+    private StoryStatus currentStoryStatus;
+    private Boolean votesRevealed;
+    private Long activeVoters;
+    private Long activeObservers;
+    private Long voteCount;
+    private Map<String, Integer> distribution; // only once votes are revealed
+    private Double averageEstimate;
+    private String recommendedEstimate;
+    private String stateHash; // fingerprint of everything above; equal hashes mean nothing changed
+    private OffsetDateTime generatedAt;
+}
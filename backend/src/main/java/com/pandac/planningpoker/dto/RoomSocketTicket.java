@@ -0,0 +1,17 @@
+package com.pandac.planningpoker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-use ticket for opening the raw room socket: {@code /ws-room/{code}?ticket=<ticket>}
+ * within {@code expiresInSeconds}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomSocketTicket {
+    private String ticket;
+    private long expiresInSeconds;
+}
@@ -0,0 +1,18 @@
+package com.pandac.planningpoker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One session event as delivered over SSE and long-poll: the same payload the WebSocket
+ * topics carry, with a resumable id of the form {@code {stream}-{sequence}}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionEvent {
+    private String id;
+    private String channel; // users, votes, reveal, story or timer
+    private Object data;
+}
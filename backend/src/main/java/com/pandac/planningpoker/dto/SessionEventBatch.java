@@ -0,0 +1,21 @@
+package com.pandac.planningpoker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Long-poll response. Pass {@code lastEventId} as {@code after} on the next poll; when
+ * {@code resync} is set the events since that cursor are no longer available and the client
+ * should reload the session over REST before polling again.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionEventBatch {
+    private List<SessionEvent> events;
+    private String lastEventId;
+    private Boolean resync;
+}
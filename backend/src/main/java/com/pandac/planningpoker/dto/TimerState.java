@@ -0,0 +1,24 @@
+package com.pandac.planningpoker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Server-authoritative voting timer of a session. Instants are epoch milliseconds; clients
+ * derive their clock offset from {@code serverTime} and count down to {@code deadline}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimerState {
+
+    public enum Status { RUNNING, PAUSED, STOPPED }
+
+    private Status status;
+    private Long deadline;          // RUNNING only
+    private Integer remainingSeconds;
+    private Integer durationSeconds;
+    private Boolean autoReveal;
+    private long serverTime;
+}
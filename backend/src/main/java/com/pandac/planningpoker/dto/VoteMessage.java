@@ -0,0 +1,31 @@
+package com.pandac.planningpoker.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Max;
+
+/**
+ * Vote sent over STOMP to {@code /app/session/{code}/vote}.
+ * Unlike {@link VoteRequest} it carries no user ID — the voter is the authenticated
+ * STOMP principal.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VoteMessage {
+
+    @NotNull(message = "Story ID is required")
+    private Long storyId;
+
+    @NotBlank(message = "Estimate is required")
+    private String estimate;
+
+    @Min(value = 1, message = "Confidence must be between 1 and 5")
+    @Max(value = 5, message = "Confidence must be between 1 and 5")
+    private Integer confidence;
+}
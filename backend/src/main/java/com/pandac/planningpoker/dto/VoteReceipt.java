@@ -0,0 +1,20 @@
+package com.pandac.planningpoker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reply sent to {@code /user/queue/votes} once a STOMP vote has been stored.
+ * {@code receipt} echoes the {@code receipt} header of the SEND frame so the
+ * client can correlate the reply with its request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VoteReceipt {
+    private String receipt;
+    private Long voteId;
+    private Long storyId;
+    private String estimate;
+}
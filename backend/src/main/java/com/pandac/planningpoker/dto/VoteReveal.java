@@ -12,10 +12,12 @@ import java.util.Map;
 @AllArgsConstructor
 public class VoteReveal {
     private Long storyId;
-    private List<VoteResponse> votes;
+    private List<VoteResponse> votes; // null when summarized — page through GET .../votes instead
     private Boolean consensus;
     private Double averageEstimate;
     private String medianEstimate;
     private String recommendedEstimate;
     private Map<String, Integer> distribution; // vote value -> count
+    private Integer totalVotes;
+    private Boolean summarized; // large rooms: statistics only, individual votes on demand
 }
@@ -0,0 +1,16 @@
+package com.pandac.planningpoker.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a live room's pending writes (see {@code RoomWriteBehind}) could not be saved
+ * before a database read or write of the session; they are retried in the background.
+ * Maps to HTTP 503 Service Unavailable.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class RoomStateUnavailableException extends RuntimeException {
+    public RoomStateUnavailableException(String sessionCode) {
+        super("Room state of session " + sessionCode + " could not be saved. Please retry shortly.");
+    }
+}
@@ -0,0 +1,16 @@
+package com.pandac.planningpoker.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a session already has as many state changes queued as its mailbox holds
+ * (see {@code SessionMailbox}). The client should retry shortly.
+ * Maps to HTTP 429 Too Many Requests.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class SessionBusyException extends RuntimeException {
+    public SessionBusyException(String sessionCode) {
+        super("Session " + sessionCode + " is busy. Please retry shortly.");
+    }
+}
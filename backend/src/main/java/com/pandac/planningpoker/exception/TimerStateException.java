@@ -0,0 +1,16 @@
+package com.pandac.planningpoker.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a voting timer operation does not apply to the timer's current state
+ * (e.g. pausing a timer that is not running, or starting one that is disabled).
+ * Maps to HTTP 409 Conflict.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class TimerStateException extends RuntimeException {
+    public TimerStateException(String message) {
+        super(message);
+    }
+}
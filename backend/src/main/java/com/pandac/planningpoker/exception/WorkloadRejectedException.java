@@ -0,0 +1,16 @@
+package com.pandac.planningpoker.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a workload lane (see {@code ReportingLane}) already has as much work running and
+ * queued as it holds. The client should retry shortly.
+ * Maps to HTTP 503 Service Unavailable.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class WorkloadRejectedException extends RuntimeException {
+    public WorkloadRejectedException(String lane) {
+        super("Too many " + lane + " requests in progress. Please retry shortly.");
+    }
+}
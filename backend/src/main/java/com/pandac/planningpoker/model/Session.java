@@ -75,6 +75,15 @@ public class Session {
 
     @Column(nullable = false)
     private boolean moderatorCanVote = false;
+
+    // Voting timer state: a deadline while running, the seconds left while paused, neither
+    // while stopped. Written only by VotingTimerService through SessionRepository's bulk
+    // updates, so saving the entity elsewhere never overwrites a newer timer state.
+    @Column(insertable = false, updatable = false)
+    private OffsetDateTime timerDeadline;
+
+    @Column(insertable = false, updatable = false)
+    private Integer timerRemainingSeconds;
     
     @PrePersist
     protected void onCreate() {
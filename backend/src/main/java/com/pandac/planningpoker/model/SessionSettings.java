@@ -17,7 +17,9 @@ public class SessionSettings {
     private Boolean autoReveal = false;
     private Boolean timerEnabled = false;
     private Integer timerDuration = 300; // seconds
+    private Boolean timerAutoReveal = false; // reveal votes when the server timer expires
     private Boolean allowChangeVote = true;
     private Boolean allowObservers = true;
     private Boolean requireConfidence = false;
+    private Boolean largeRoom = false; // coalesced broadcasts and summarized reveal for big audiences
 }
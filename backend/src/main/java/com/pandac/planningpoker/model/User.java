@@ -51,15 +51,12 @@ public class User {
     @Column(nullable = false)
     private OffsetDateTime joinedAt;
 
+    // Liveness, not last write: flushed in batches from WebSocket traffic by PresenceService
     private OffsetDateTime lastSeenAt;
+
     @PrePersist
     protected void onCreate() {
         joinedAt = OffsetDateTime.now();
         lastSeenAt = OffsetDateTime.now();
     }
-
-    @PreUpdate
-    protected void onUpdate() {
-        lastSeenAt = OffsetDateTime.now();
-    }
 }
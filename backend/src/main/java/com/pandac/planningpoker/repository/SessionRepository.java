@@ -2,12 +2,89 @@ package com.pandac.planningpoker.repository;
 
 import com.pandac.planningpoker.model.Session;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SessionRepository extends JpaRepository<Session, Long> {
     Optional<Session> findBySessionCodeAndActive(String sessionCode, boolean active);
     Optional<Session> findBySessionCode(String sessionCode);
+
+    /** Running voting timers, rescheduled at startup. */
+    List<Session> findByActiveTrueAndTimerDeadlineIsNotNull();
+
+    // Voting timer transitions: bulk updates (no version bump, no overwrite of other columns),
+    // each conditional on the state it starts from; 0 rows means another request or instance
+    // changed the timer first.
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Session s SET s.timerDeadline = :deadline, s.timerRemainingSeconds = NULL "
+            + "WHERE s.sessionCode = :sessionCode AND s.timerDeadline IS NULL")
+    int startTimer(@Param("sessionCode") String sessionCode, @Param("deadline") OffsetDateTime deadline);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Session s SET s.timerDeadline = :deadline, s.timerRemainingSeconds = :remaining "
+            + "WHERE s.sessionCode = :sessionCode AND s.timerDeadline = :expected")
+    int updateRunningTimer(@Param("sessionCode") String sessionCode,
+                           @Param("expected") OffsetDateTime expected,
+                           @Param("deadline") OffsetDateTime deadline,
+                           @Param("remaining") Integer remaining);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Session s SET s.timerRemainingSeconds = :remaining "
+            + "WHERE s.sessionCode = :sessionCode AND s.timerDeadline IS NULL AND s.timerRemainingSeconds = :expected")
+    int updatePausedTimer(@Param("sessionCode") String sessionCode,
+                          @Param("expected") Integer expected,
+                          @Param("remaining") Integer remaining);
+
+    // Voting round transitions: conditional bulk updates like the timer's, so a reveal or story
+    // switch neither bumps the version nor overwrites a concurrent settings change. The row
+    // count says whether this call made the transition (1) or found it already made or
+    // overtaken (0). The persistence context is flushed before and cleared after, so reload
+    // the session to see the new state.
+
+    /** Reveals the round of {@code storyId}, if it is still the current story and not revealed yet. */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Session s SET s.votesRevealed = true "
+            + "WHERE s.id = :id AND s.currentStoryId = :storyId AND s.votesRevealed = false")
+    int markVotesRevealed(@Param("id") Long id, @Param("storyId") Long storyId);
+
+    /** Hides the votes of {@code storyId} again for a new round, if it is still the current story. */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Session s SET s.votesRevealed = false WHERE s.id = :id AND s.currentStoryId = :storyId")
+    int reopenVoting(@Param("id") Long id, @Param("storyId") Long storyId);
+
+    /** Makes {@code storyId} the current story with hidden votes, unless it already is. */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Session s SET s.currentStoryId = :storyId, s.votesRevealed = false "
+            + "WHERE s.id = :id AND s.active = true "
+            + "AND (s.currentStoryId IS NULL OR s.currentStoryId <> :storyId OR s.votesRevealed = true)")
+    int activateStory(@Param("id") Long id, @Param("storyId") Long storyId);
+
+    /** Write-behind of a live room's state (see RoomWriteBehind). */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Session s SET s.currentStoryId = :currentStoryId, s.votesRevealed = :votesRevealed WHERE s.id = :id")
+    int updateRoomState(@Param("id") Long id,
+                        @Param("currentStoryId") Long currentStoryId,
+                        @Param("votesRevealed") boolean votesRevealed);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Session s SET s.timerDeadline = NULL, s.timerRemainingSeconds = NULL "
+            + "WHERE s.sessionCode = :sessionCode AND (s.timerDeadline IS NOT NULL OR s.timerRemainingSeconds IS NOT NULL)")
+    int clearTimer(@Param("sessionCode") String sessionCode);
 }
@@ -6,7 +6,11 @@ import com.pandac.planningpoker.model.StoryStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -16,4 +20,10 @@ public interface StoryRepository extends JpaRepository<Story, Long> {
     Page<Story> findBySessionOrderByOrderIndex(Session session, Pageable pageable);
     List<Story> findBySessionAndStatusOrderByOrderIndex(Session session, StoryStatus status);
     Page<Story> findBySessionAndStatusOrderByOrderIndex(Session session, StoryStatus status, Pageable pageable);
+
+    /** Write-behind of a live room's story status (see RoomWriteBehind). */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Story s SET s.status = :status WHERE s.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") StoryStatus status);
 }
@@ -5,8 +5,14 @@ import com.pandac.planningpoker.model.Session;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +22,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Page<User> findBySessionAndActive(Session session, boolean active, Pageable pageable);
     Optional<User> findByNameAndSession(String name, Session session);
     List<User> findBySessionAndActiveAndObserver(Session session, boolean active, boolean observer);
+    long countBySessionAndActiveAndObserver(Session session, boolean active, boolean observer);
     List<User> findBySession(Session session);
     Page<User> findBySession(Session session, Pageable pageable);
+
+    /** Batched presence flush: one statement for every user seen since the previous flush. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.lastSeenAt = :seenAt WHERE u.id IN :ids")
+    int updateLastSeenAt(@Param("ids") Collection<Long> ids, @Param("seenAt") OffsetDateTime seenAt);
 }
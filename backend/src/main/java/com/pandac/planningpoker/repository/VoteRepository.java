@@ -3,8 +3,14 @@ package com.pandac.planningpoker.repository;
 import com.pandac.planningpoker.model.Vote;
 import com.pandac.planningpoker.model.Story;
 import com.pandac.planningpoker.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,4 +18,23 @@ import java.util.Optional;
 @Repository
 public interface VoteRepository extends JpaRepository<Vote, Long> {
     List<Vote> findByStory(Story story);
-    Optional<Vote> findByStoryAndUser(Story story, User user);    void deleteByStory(Story story);}
+    Page<Vote> findByStory(Story story, Pageable pageable);
+    long countByStory(Story story);
+    Optional<Vote> findByStoryAndUser(Story story, User user);
+    void deleteByStory(Story story);
+
+    /** One statement instead of loading and deleting each vote, for the room engine's reset. */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Vote v WHERE v.story.id = :storyId")
+    int deleteByStoryId(@Param("storyId") Long storyId);
+
+    /** Vote distribution computed in the database, for reveals that do not need every vote. */
+    @Query("SELECT v.estimate AS estimate, COUNT(v) AS votes FROM Vote v WHERE v.story = :story GROUP BY v.estimate")
+    List<EstimateCount> countByEstimate(@Param("story") Story story);
+
+    interface EstimateCount {
+        String getEstimate();
+        long getVotes();
+    }
+}
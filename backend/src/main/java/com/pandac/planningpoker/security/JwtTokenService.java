@@ -81,6 +81,16 @@ public class JwtTokenService {
         return validateToken(token).get("role", String.class);
     }
 
+    /**
+     * Validates the token and returns its claims as a {@link SessionPrincipal}, parsing it once.
+     *
+     * @throws JwtValidationException if the token is invalid or expired
+     * @throws IllegalArgumentException if the role claim is not a known role
+     */
+    public SessionPrincipal parsePrincipal(String token) {
+        return SessionPrincipal.fromClaims(validateToken(token));
+    }
+
     public boolean isTokenValid(String token) {
         try {
             validateToken(token);
@@ -0,0 +1,75 @@
+package com.pandac.planningpoker.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+/**
+ * Authenticates the raw room socket ({@code /ws-room/{code}}) during the HTTP handshake.
+ * Clients send their JWT in the {@code Authorization} header or, since browsers cannot set
+ * headers on a WebSocket, a single-use {@code ticket} query parameter from
+ * {@link RoomSocketTickets} - never the JWT itself in the URL, where access logs would keep it.
+ * Either must be valid and issued for the room in the path. Rejected handshakes never reach
+ * the handler; accepted ones carry the {@link SessionPrincipal} they stand for.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomSocketHandshakeInterceptor implements HandshakeInterceptor {
+
+    /** Handshake attribute holding the connection's {@link SessionPrincipal}. */
+    public static final String PRINCIPAL_ATTRIBUTE = "roomSocket.principal";
+
+    private final JwtTokenService jwtTokenService;
+    private final RoomSocketTickets roomSocketTickets;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        String path = request.getURI().getPath();
+        String sessionCode = path.substring(path.lastIndexOf('/') + 1);
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        String ticket = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("ticket");
+        SessionPrincipal principal;
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                principal = jwtTokenService.parsePrincipal(authHeader.substring(7));
+            } catch (JwtValidationException | IllegalArgumentException e) {
+                log.warn("Room socket JWT validation failed: {}", e.getMessage());
+                response.setStatusCode(HttpStatus.UNAUTHORIZED);
+                return false;
+            }
+        } else if (ticket != null) {
+            principal = roomSocketTickets.redeem(ticket);
+            if (principal == null) {
+                log.warn("Room socket handshake for {} with an unknown, used or expired ticket", sessionCode);
+                response.setStatusCode(HttpStatus.UNAUTHORIZED);
+                return false;
+            }
+        } else {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        if (!principal.belongsTo(sessionCode)) {
+            log.warn("Room socket handshake for {} with credentials for another session", sessionCode);
+            response.setStatusCode(HttpStatus.FORBIDDEN);
+            return false;
+        }
+        attributes.put(PRINCIPAL_ATTRIBUTE, principal);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.pandac.planningpoker.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived, single-use tickets for the raw room socket handshake. Browsers cannot set
+ * headers on a WebSocket, and a JWT in the URL ends up in access and proxy logs, so clients
+ * exchange their JWT for a ticket ({@code POST /api/sessions/{code}/socket-ticket}) and open
+ * {@code /ws-room/{code}?ticket=...} with it. A ticket is redeemed once, within
+ * {@code websocket.room-socket.ticket-ttl-seconds}, and only on the instance that issued it.
+ */
+@Component
+public class RoomSocketTickets {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    /** Above this many outstanding tickets, expired ones are swept on the next issue. */
+    private static final int SWEEP_THRESHOLD = 1024;
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final long ttlSeconds;
+    private final Clock clock;
+
+    @Autowired
+    public RoomSocketTickets(@Value("${websocket.room-socket.ticket-ttl-seconds:30}") long ttlSeconds) {
+        this(ttlSeconds, Clock.systemUTC());
+    }
+
+    RoomSocketTickets(long ttlSeconds, Clock clock) {
+        this.ttlSeconds = ttlSeconds;
+        this.clock = clock;
+    }
+
+    public long ttlSeconds() {
+        return ttlSeconds;
+    }
+
+    /** A new ticket standing for {@code principal}. */
+    public String issue(SessionPrincipal principal) {
+        Instant now = clock.instant();
+        if (tickets.size() > SWEEP_THRESHOLD) {
+            tickets.values().removeIf(ticket -> !now.isBefore(ticket.expiresAt()));
+        }
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, new Ticket(principal, now.plusSeconds(ttlSeconds)));
+        return ticket;
+    }
+
+    /** The principal the ticket stands for, or {@code null} if it is unknown, used or expired. */
+    public SessionPrincipal redeem(String ticket) {
+        Ticket redeemed = tickets.remove(ticket);
+        if (redeemed == null) {
+            return null;
+        }
+        Instant now = clock.instant();
+        if (!now.isBefore(redeemed.expiresAt()) || redeemed.principal().isExpired(now)) {
+            return null;
+        }
+        return redeemed.principal();
+    }
+
+    private record Ticket(SessionPrincipal principal, Instant expiresAt) {}
+}
@@ -1,16 +1,21 @@
 package com.pandac.planningpoker.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -34,7 +39,17 @@ public class SecurityConfig {
 
     @Value("${springdoc.api-docs.enabled:true}")
     private boolean swaggerEnabled;
+
+    @Value("${actuator.public-metrics.enabled:false}")
+    private boolean publicMetricsEnabled;
     
+    private AuthorizationManager<RequestAuthorizationContext> actuatorAccess() {
+        if (publicMetricsEnabled) {
+            return (supplier, ctx) -> new AuthorizationDecision(true);
+        }
+        return AuthorityAuthorizationManager.hasAuthority(UserRole.MODERATOR.getAuthority());
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -56,6 +71,9 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Async dispatches (SSE, long-poll) resume a request that was authorized on entry
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints - no authentication required
                 .requestMatchers("/api/health").permitAll()                                        // Health check
                 .requestMatchers("/api/sizing-methods").permitAll()                                // Get sizing methods
@@ -63,8 +81,8 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/sessions/{sessionCode}").permitAll()        // Get session (for join page)
                 .requestMatchers(HttpMethod.POST, "/api/sessions/*/join").permitAll()              // Join session
                 
-                // WebSocket endpoint - public (secured via WebSocketAuthInterceptor)
-                .requestMatchers("/ws/**").permitAll()
+                // WebSocket endpoints - public (secured via WebSocketAuthInterceptor / RoomSocketHandshakeInterceptor)
+                .requestMatchers("/ws/**", "/ws-native", "/ws-room/*").permitAll()
                 
                 // Development tools - gated by profile properties
                 .requestMatchers("/h2-console/**").access((supplier, ctx) ->
@@ -72,6 +90,11 @@ public class SecurityConfig {
                 .requestMatchers("/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").access((supplier, ctx) ->
                     new org.springframework.security.authorization.AuthorizationDecision(swaggerEnabled))
 
+                // Actuator - health is public for load balancers, the rest needs a moderator token
+                // unless actuator.public-metrics.enabled opens it up
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").access(actuatorAccess())
+
                 // All other endpoints require authentication
                 .anyRequest().authenticated()
             )
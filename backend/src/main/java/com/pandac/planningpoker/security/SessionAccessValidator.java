@@ -28,6 +28,7 @@ public class SessionAccessValidator {
     private final SessionRepository sessionRepository;
     private final UserRepository userRepository;
     private final HttpServletRequest request;
+    private final SessionMembershipCache membershipCache;
 
     /**
      * Validate that the authenticated user has access to the specified session.
@@ -58,6 +59,11 @@ public class SessionAccessValidator {
                 "Access denied: Your token is for session " + tokenSessionCode + ", not " + sessionCode);
         }
         
+        if (membershipCache.isMember(tokenUserId, sessionCode)) {
+            return;
+        }
+        long stamp = membershipCache.stamp();
+
         // Validate user still exists and is active in the session
         Optional<User> userOpt = userRepository.findById(tokenUserId);
         if (userOpt.isEmpty()) {
@@ -79,6 +85,7 @@ public class SessionAccessValidator {
         if (!session.getId().equals(user.getSession().getId())) {
             throw new UnauthorizedAccessException("User does not belong to this session");
         }
+        membershipCache.put(tokenUserId, sessionCode, stamp);
     }
     
     /**
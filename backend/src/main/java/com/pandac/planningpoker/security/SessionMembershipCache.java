@@ -0,0 +1,79 @@
+package com.pandac.planningpoker.security;
+
+import com.pandac.planningpoker.service.cluster.Invalidation;
+import com.pandac.planningpoker.service.cluster.InvalidationBus;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers users already verified as active members of an active session, so
+ * {@link SessionAccessValidator} can skip its two lookups per request.
+ * <p>
+ * Entries are dropped by {@link InvalidationBus} messages (user changes and session-wide
+ * invalidations, from this node or its peers) and expire after
+ * {@code cache.membership.ttl-seconds} as a safety net. A lookup that raced with an
+ * invalidation is not cached: {@link #stamp()} is taken before reading the database and
+ * {@link #put} is ignored if any invalidation arrived in between.
+ */
+@Component
+@RequiredArgsConstructor
+public class SessionMembershipCache {
+
+    private final InvalidationBus invalidationBus;
+
+    private final Map<Long, Membership> memberships = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${cache.membership.ttl-seconds:300}")
+    private long ttlSeconds = 300;
+
+    @PostConstruct
+    void registerForInvalidations() {
+        invalidationBus.register(this::onInvalidation);
+    }
+
+    public boolean isMember(Long userId, String sessionCode) {
+        Membership membership = memberships.get(userId);
+        if (membership == null) {
+            return false;
+        }
+        if (membership.expiresAtMillis() < System.currentTimeMillis()) {
+            memberships.remove(userId, membership);
+            return false;
+        }
+        return membership.sessionCode().equals(sessionCode);
+    }
+
+    /** Taken before the database lookup whose result will be passed to {@link #put}. */
+    public long stamp() {
+        return generation.get();
+    }
+
+    public void put(Long userId, String sessionCode, long stamp) {
+        if (generation.get() == stamp) {
+            memberships.put(userId, new Membership(sessionCode, System.currentTimeMillis() + ttlSeconds * 1000));
+        }
+    }
+
+    void onInvalidation(Invalidation invalidation) {
+        switch (invalidation.entity()) {
+            case USER -> {
+                generation.incrementAndGet();
+                memberships.remove(invalidation.id());
+            }
+            case SESSION -> {
+                generation.incrementAndGet();
+                memberships.values().removeIf(m -> m.sessionCode().equals(invalidation.sessionCode()));
+            }
+            default -> { }
+        }
+    }
+
+    private record Membership(String sessionCode, long expiresAtMillis) {}
+}
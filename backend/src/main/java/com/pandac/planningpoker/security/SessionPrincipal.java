@@ -0,0 +1,66 @@
+package com.pandac.planningpoker.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Authenticated WebSocket participant, built from a single parse of the JWT on STOMP CONNECT or
+ * on the room socket handshake. It carries every claim frame-level authorization needs, so
+ * SUBSCRIBE and SEND are checked without re-parsing the token or querying the database.
+ * <p>
+ * The name stays {@code sessionCode:userId}; user destinations such as
+ * {@code /user/queue/votes} resolve against it.
+ */
+@Getter
+public class SessionPrincipal extends AbstractAuthenticationToken {
+
+    private final String sessionCode;
+    private final Long userId;
+    private final UserRole role;
+    private final Instant expiresAt;
+
+    public SessionPrincipal(String sessionCode, Long userId, UserRole role, Instant expiresAt) {
+        super(List.of(new SimpleGrantedAuthority(role.getAuthority())));
+        this.sessionCode = sessionCode;
+        this.userId = userId;
+        this.role = role;
+        this.expiresAt = expiresAt;
+        setAuthenticated(true);
+    }
+
+    static SessionPrincipal fromClaims(Claims claims) {
+        return new SessionPrincipal(
+                claims.get("sessionCode", String.class),
+                claims.get("userId", Long.class),
+                UserRole.fromString(claims.get("role", String.class)),
+                claims.getExpiration().toInstant());
+    }
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    public boolean belongsTo(String sessionCode) {
+        return this.sessionCode.equals(sessionCode);
+    }
+
+    @Override
+    public String getName() {
+        return sessionCode + ":" + userId;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return getName();
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+}
@@ -1,58 +1,105 @@
 package com.pandac.planningpoker.security;
 
+import com.pandac.planningpoker.service.WebSocketEventPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
-import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
 
+/**
+ * Authenticates STOMP connections and authorizes their frames.
+ * <ul>
+ *   <li>CONNECT: the {@code Authorization: Bearer} header is parsed once into a
+ *       {@link SessionPrincipal}, which Spring attaches to every later frame of the connection.</li>
+ *   <li>SUBSCRIBE to {@code /topic/session/{code}/**} and SEND to {@code /app/session/{code}/**}
+ *       require a principal for that session whose token has not expired — decided from the
+ *       principal's claims alone, with no token parsing or database access per frame.</li>
+ *   <li>SEND straight to a broker destination ({@code /topic}, {@code /queue}, {@code /user}) is
+ *       refused: only the server publishes room events.</li>
+ * </ul>
+ * A refused frame raises {@link AccessDeniedException}; Spring answers with an ERROR frame and
+ * closes the connection. Expired connections that send nothing are closed by
+ * {@link WebSocketSessionExpiry}.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class WebSocketAuthInterceptor implements ChannelInterceptor {
 
+    private static final String APP_SESSION_PREFIX = "/app/session/";
+    private static final List<String> BROKER_PREFIXES = List.of("/topic/", "/queue/", "/user/");
+
     private final JwtTokenService jwtTokenService;
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
         StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
-        
-        if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
-            String authHeader = accessor.getFirstNativeHeader("Authorization");
-            
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                
-                try {
-                    if (jwtTokenService.isTokenValid(token)) {
-                        String sessionCode = jwtTokenService.extractSessionCode(token);
-                        Long userId = jwtTokenService.extractUserId(token);
-                        String role = jwtTokenService.extractRole(token);
-                        
-                        SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role.toUpperCase());
-                        UsernamePasswordAuthenticationToken authentication = 
-                                new UsernamePasswordAuthenticationToken(
-                                        sessionCode + ":" + userId,
-                                        null,
-                                        Collections.singletonList(authority));
-                        
-                        accessor.setUser(authentication);
-                        log.debug("WebSocket authenticated: sessionCode={}, userId={}", sessionCode, userId);
-                    }
-                } catch (JwtValidationException e) {
-                    log.warn("WebSocket JWT validation failed: {}", e.getMessage());
-                }
-            }
-        }
-        
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        switch (accessor.getCommand()) {
+            case CONNECT -> authenticate(accessor);
+            case SUBSCRIBE -> authorize(accessor.getUser(), accessor.getDestination(),
+                    WebSocketEventPublisher.sessionCodeOfTopic(accessor.getDestination()));
+            case SEND -> authorizeSend(accessor.getUser(), accessor.getDestination());
+            default -> { }
+        }
         return message;
     }
+
+    private void authenticate(StompHeaderAccessor accessor) {
+        String authHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return;
+        }
+        try {
+            SessionPrincipal principal = jwtTokenService.parsePrincipal(authHeader.substring(7));
+            accessor.setUser(principal);
+            log.debug("WebSocket authenticated: sessionCode={}, userId={}", principal.getSessionCode(), principal.getUserId());
+        } catch (JwtValidationException | IllegalArgumentException e) {
+            log.warn("WebSocket JWT validation failed: {}", e.getMessage());
+        }
+    }
+
+    private static void authorizeSend(Principal user, String destination) {
+        if (destination != null && BROKER_PREFIXES.stream().anyMatch(destination::startsWith)) {
+            throw new AccessDeniedException("Clients may not send to " + destination);
+        }
+        authorize(user, destination, sessionCodeOf(destination, APP_SESSION_PREFIX));
+    }
+
+    private static void authorize(Principal user, String destination, String sessionCode) {
+        if (sessionCode == null) {
+            return; // not a session destination
+        }
+        if (!(user instanceof SessionPrincipal principal)) {
+            throw new AccessDeniedException("Authentication required for " + destination);
+        }
+        if (principal.isExpired(Instant.now())) {
+            throw new AccessDeniedException("Token expired");
+        }
+        if (!principal.belongsTo(sessionCode)) {
+            log.warn("WebSocket access violation: user {} of session {} on {}",
+                    principal.getUserId(), principal.getSessionCode(), destination);
+            throw new AccessDeniedException("Access denied: token is not valid for session " + sessionCode);
+        }
+    }
+
+    private static String sessionCodeOf(String destination, String prefix) {
+        if (destination == null || !destination.startsWith(prefix)) {
+            return null;
+        }
+        int end = destination.indexOf('/', prefix.length());
+        String code = destination.substring(prefix.length(), end < 0 ? destination.length() : end);
+        return code.isEmpty() ? null : code;
+    }
 }
@@ -0,0 +1,85 @@
+package com.pandac.planningpoker.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closes STOMP connections whose token has expired, including connections that only receive
+ * and therefore never hit the per-frame check in {@link WebSocketAuthInterceptor}. Expiry
+ * instants come from the {@link SessionPrincipal} of each connection, so the sweep
+ * (every {@code websocket.auth.expiry-check-seconds}) never parses a token. An expired
+ * connection gets an ERROR frame, after which Spring closes it; clients reconnect with a
+ * fresh token.
+ */
+@Component
+@Slf4j
+public class WebSocketSessionExpiry {
+
+    private final MessageChannel clientOutboundChannel;
+    /** WebSocket session id → token expiry. */
+    private final Map<String, Instant> expiries = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("websocket-expiry").factory());
+
+    @Value("${websocket.auth.expiry-check-seconds:30}")
+    private long checkIntervalSeconds = 30;
+
+    public WebSocketSessionExpiry(@Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel) {
+        this.clientOutboundChannel = clientOutboundChannel;
+    }
+
+    @PostConstruct
+    void start() {
+        sweeper.scheduleWithFixedDelay(this::closeExpired, checkIntervalSeconds, checkIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdown();
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null && event.getUser() instanceof SessionPrincipal principal) {
+            expiries.put(sessionId, principal.getExpiresAt());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        expiries.remove(event.getSessionId());
+    }
+
+    void closeExpired() {
+        Instant now = Instant.now();
+        expiries.forEach((sessionId, expiresAt) -> {
+            if (!now.isBefore(expiresAt) && expiries.remove(sessionId, expiresAt)) {
+                log.debug("Closing WebSocket session {}: token expired", sessionId);
+                StompHeaderAccessor error = StompHeaderAccessor.create(StompCommand.ERROR);
+                error.setMessage("Token expired");
+                error.setSessionId(sessionId);
+                clientOutboundChannel.send(MessageBuilder.createMessage(new byte[0], error.getMessageHeaders()));
+            }
+        });
+    }
+}
@@ -113,8 +113,9 @@ public class ExportService {
         // Copy embedded settings (one line instead of six)
         SessionSettings src = originalSession.getSettings();
         newSession.setSettings(new SessionSettings(
-                src.getAutoReveal(), src.getTimerEnabled(), src.getTimerDuration(),
-                src.getAllowChangeVote(), src.getAllowObservers(), src.getRequireConfidence()));
+                src.getAutoReveal(), src.getTimerEnabled(), src.getTimerDuration(), src.getTimerAutoReveal(),
+                src.getAllowChangeVote(), src.getAllowObservers(), src.getRequireConfidence(),
+                src.getLargeRoom()));
         newSession.setVotesRevealed(false); // Reset voting state
         newSession.setActive(true);
         
@@ -0,0 +1,517 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.exception.SessionBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs work on a fixed number of threads, shared fairly between sessions by deficit
+ * round-robin, so that one noisy room (a bot, a 400-person all-hands) cannot take every thread
+ * while a 5-person room waits: however deep the big room's queue, the small room's work waits
+ * at most one round behind it.
+ * <p>
+ * Each session with work queued is a flow in a ring. The flow at the head of the ring runs
+ * work while its credit lasts and then moves to the back with a fresh quantum of credit. Work
+ * costs the heaviest {@link WorkClass} weight divided by its own, so with the default weights
+ * a session gets through eight moderator actions, two votes or one bulk read per round.
+ * <p>
+ * Within a session, work is queued by class and served moderator work first, then votes, then
+ * bulk, each class in arrival order: a reveal or reset never waits behind the session's reads,
+ * and several threads may serve one session at once. With {@code inOrder} (outbound frames) a
+ * session's work is instead split into lanes by an order key, the connection a frame goes to:
+ * a lane runs strictly in arrival order, one piece at a time, while different lanes of the
+ * session run in parallel, so one slow connection holds up only its own frames. The session
+ * stays the unit of fairness either way.
+ * <p>
+ * A session may have at most {@code sessionCapacity} pieces of work queued; beyond that the
+ * caller is refused with {@link SessionBusyException}. Queue depth per session is available
+ * from {@link #queues()}; metrics are tagged {@code scheduler=<name>} only, as session codes
+ * would make unbounded tag values.
+ */
+@Slf4j
+public class FairScheduler implements AutoCloseable {
+
+    /** What a piece of work is for; the class weight sets what it costs against its session's share. */
+    public enum WorkClass {
+        /** Reveal, reset, story switch, finalize, timer expiry; control frames on the outbound channel. */
+        MODERATOR,
+        /** Votes and the other participant changes. */
+        VOTE,
+        /** Reads of whole collections and room-wide fan-out such as presence and snapshots. */
+        BULK
+    }
+
+    /**
+     * Where {@link #asExecutor} queues a task: the session it belongs to, the lane that keeps
+     * its order with {@code inOrder}, and its class.
+     */
+    public record Placement(String key, String order, WorkClass workClass) {
+        public Placement(String key, WorkClass workClass) {
+            this(key, key, workClass);
+        }
+    }
+
+    /** Work queued for one session, for {@code /actuator/sessionqueues}. */
+    public record SessionQueue(String session, int queued, Map<WorkClass, Integer> byClass, double oldestWaitMillis) {}
+
+    /** The scheduler whose worker the current thread is; nested calls run inline. */
+    private static final ThreadLocal<FairScheduler> WORKER = new ThreadLocal<>();
+
+    private final String name;
+    private final int workers;
+    private final int sessionCapacity;
+    private final boolean inOrder;
+    private final Map<WorkClass, Integer> costs = new EnumMap<>(WorkClass.class);
+    private final int quantum;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Map<String, Flow> flows = new HashMap<>();
+    private final ArrayDeque<Flow> ring = new ArrayDeque<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final ThreadFactory threadFactory;
+    private int queued;
+    private int busy;
+    private boolean closed;
+
+    private final Map<WorkClass, Timer> queueWait = new EnumMap<>(WorkClass.class);
+    private final Counter rejected;
+
+    public FairScheduler(String name, int workers, Map<WorkClass, Integer> weights, int sessionCapacity,
+                         MeterRegistry registry) {
+        this(name, workers, weights, sessionCapacity, false,
+                Thread.ofPlatform().name(name + "-", 0).daemon(true).factory(), registry);
+    }
+
+    public FairScheduler(String name, int workers, Map<WorkClass, Integer> weights, int sessionCapacity,
+                         boolean inOrder, ThreadFactory threadFactory, MeterRegistry registry) {
+        this.name = name;
+        this.workers = workers;
+        this.sessionCapacity = sessionCapacity;
+        this.inOrder = inOrder;
+        this.threadFactory = threadFactory;
+
+        int heaviest = 1;
+        for (WorkClass workClass : WorkClass.values()) {
+            heaviest = Math.max(heaviest, weights.getOrDefault(workClass, 1));
+        }
+        for (WorkClass workClass : WorkClass.values()) {
+            int weight = Math.max(1, weights.getOrDefault(workClass, 1));
+            costs.put(workClass, Math.max(1, Math.round((float) heaviest / weight)));
+        }
+        this.quantum = heaviest;
+
+        Tags scheduler = Tags.of("scheduler", name);
+        for (WorkClass workClass : WorkClass.values()) {
+            queueWait.put(workClass, Timer.builder("fair.scheduler.wait")
+                    .description("Time work waited for its session's turn on a scheduler thread")
+                    .tags(scheduler)
+                    .tag("class", workClass.name().toLowerCase())
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry));
+        }
+        this.rejected = Counter.builder("fair.scheduler.rejected")
+                .description("Work refused because its session already had sessionCapacity pieces queued")
+                .tags(scheduler)
+                .register(registry);
+        Gauge.builder("fair.scheduler.queued", this, FairScheduler::queued)
+                .description("Work waiting for a scheduler thread, all sessions")
+                .tags(scheduler)
+                .register(registry);
+        Gauge.builder("fair.scheduler.sessions", this, FairScheduler::sessions)
+                .description("Sessions with work waiting")
+                .tags(scheduler)
+                .register(registry);
+        Gauge.builder("fair.scheduler.queue.max", this, FairScheduler::deepestQueue)
+                .description("Work waiting for the session with the most; the others wait at most one round behind it")
+                .tags(scheduler)
+                .register(registry);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** Queues {@code work} for the session; refused with {@link SessionBusyException} if its queue is full. */
+    public void execute(String key, WorkClass workClass, Runnable work) {
+        execute(key, key, workClass, work);
+    }
+
+    /** As {@link #execute(String, WorkClass, Runnable)}, in lane {@code order} of the session with {@code inOrder}. */
+    public void execute(String key, String order, WorkClass workClass, Runnable work) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new RejectedExecutionException("Scheduler " + name + " is shut down");
+            }
+            Flow flow = flows.get(key);
+            if (flow == null) {
+                flow = inOrder ? new LaneFlow(key) : new ClassFlow(key);
+                flow.deficit = quantum;
+                flows.put(key, flow);
+                ring.addLast(flow);
+            } else if (flow.size >= sessionCapacity) {
+                rejected.increment();
+                throw new SessionBusyException(key);
+            }
+            flow.add(new Task(flow, order, work, workClass, System.nanoTime()));
+            queued++;
+            if (threads.size() < workers && queued > threads.size() - busy) {
+                startWorker(); // threads start on demand and stay
+            }
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code work} in the session's turn and returns its result, or throws its exception.
+     * Called from one of this scheduler's own threads, runs it at once instead.
+     */
+    public <T> T call(String key, WorkClass workClass, Supplier<T> work) {
+        if (WORKER.get() == this) {
+            return work.get();
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        execute(key, workClass, () -> {
+            try {
+                result.complete(work.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /** The scheduler as a plain executor, each task queued where {@code placement} says. */
+    public TaskExecutor asExecutor(Function<Runnable, Placement> placement) {
+        return task -> {
+            Placement where = placement.apply(task);
+            execute(where.key(), where.order(), where.workClass(), task);
+        };
+    }
+
+    /** Sessions with work waiting, deepest queue first. */
+    public List<SessionQueue> queues() {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            return flows.values().stream()
+                    .filter(flow -> flow.size > 0)
+                    .sorted(Comparator.comparingInt((Flow flow) -> flow.size).reversed())
+                    .map(flow -> flow.report(now))
+                    .toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int sessions() {
+        lock.lock();
+        try {
+            return (int) flows.values().stream().filter(flow -> flow.size > 0).count();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int deepestQueue() {
+        lock.lock();
+        try {
+            return flows.values().stream().mapToInt(flow -> flow.size).max().orElse(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Refuses new work, lets the threads finish what is queued and waits up to 10 seconds for them. */
+    @Override
+    public void close() throws InterruptedException {
+        List<Thread> started;
+        lock.lock();
+        try {
+            closed = true;
+            workAvailable.signalAll();
+            started = List.copyOf(threads);
+        } finally {
+            lock.unlock();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (Thread thread : started) {
+            thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        }
+    }
+
+    private void startWorker() {
+        Thread thread = threadFactory.newThread(this::work);
+        threads.add(thread);
+        thread.start();
+    }
+
+    private void work() {
+        WORKER.set(this);
+        while (true) {
+            Task task;
+            lock.lock();
+            try {
+                while ((task = queued > 0 ? next() : null) == null) {
+                    if (closed && queued == 0) {
+                        return;
+                    }
+                    workAvailable.awaitUninterruptibly();
+                }
+                busy++;
+            } finally {
+                lock.unlock();
+            }
+            queueWait.get(task.workClass).record(System.nanoTime() - task.enqueued, TimeUnit.NANOSECONDS);
+            try {
+                task.work.run();
+            } catch (RuntimeException e) {
+                log.error("Task failed on scheduler {} for session {}", name, task.flow.key, e);
+            } finally {
+                lock.lock();
+                try {
+                    busy--;
+                    finished(task);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Deficit round-robin over the ring of sessions, skipping those with nothing that may run now
+     * (nothing queued or, {@code inOrder}, every lane with work already running); {@code null} if
+     * no session has. The lock is held.
+     */
+    private Task next() {
+        while (true) {
+            Flow flow = null;
+            Task head = null;
+            for (Flow candidate : ring) {
+                head = candidate.peek();
+                if (head != null) {
+                    flow = candidate;
+                    break;
+                }
+            }
+            if (flow == null) {
+                return null;
+            }
+            int cost = costs.get(head.workClass);
+            if (flow.deficit >= cost) {
+                flow.deficit -= cost;
+                queued--;
+                return flow.poll();
+            }
+            ring.remove(flow);
+            flow.deficit += quantum;
+            ring.addLast(flow);
+        }
+    }
+
+    /** {@code task} has run: the session leaves the ring once it has nothing left. The lock is held. */
+    private void finished(Task task) {
+        Flow flow = task.flow;
+        flow.done(task);
+        if (flow.size == 0 && flow.running == 0) {
+            ring.remove(flow);
+            flows.remove(flow.key);
+        }
+        if (closed && queued == 0) {
+            workAvailable.signalAll(); // let the other threads exit
+        } else if (inOrder && flow.peek() != null) {
+            workAvailable.signal(); // its lane may run again
+        }
+    }
+
+    private record Task(Flow flow, String order, Runnable work, WorkClass workClass, long enqueued) {}
+
+    /** One session's queued work; subclasses decide which piece may run next. */
+    private abstract static class Flow {
+        final String key;
+        final Map<WorkClass, Integer> byClass = new EnumMap<>(WorkClass.class);
+        int size;
+        int running;
+        int deficit;
+
+        Flow(String key) {
+            this.key = key;
+        }
+
+        /** Queues the task where {@link #peek} will find it in its turn. */
+        abstract void enqueue(Task task);
+
+        /** The work that would run next, or {@code null} if none may run now. */
+        abstract Task peek();
+
+        /** Removes and returns what {@link #peek} returned. */
+        abstract Task take();
+
+        /** Enqueue time of the longest-waiting piece of work; there is at least one. */
+        abstract long oldestEnqueued();
+
+        void add(Task task) {
+            enqueue(task);
+            byClass.merge(task.workClass, 1, Integer::sum);
+            size++;
+        }
+
+        Task poll() {
+            Task task = take();
+            byClass.computeIfPresent(task.workClass, (c, n) -> n == 1 ? null : n - 1);
+            size--;
+            running++;
+            return task;
+        }
+
+        void done(Task task) {
+            running--;
+        }
+
+        SessionQueue report(long now) {
+            return new SessionQueue(key, size, new EnumMap<>(byClass), (now - oldestEnqueued()) / 1e6);
+        }
+    }
+
+    /** Work by class, highest class first, each class in arrival order. */
+    private static final class ClassFlow extends Flow {
+        private final Map<WorkClass, ArrayDeque<Task>> queues = new EnumMap<>(WorkClass.class);
+
+        ClassFlow(String key) {
+            super(key);
+        }
+
+        @Override
+        void enqueue(Task task) {
+            queues.computeIfAbsent(task.workClass, c -> new ArrayDeque<>()).addLast(task);
+        }
+
+        @Override
+        Task peek() {
+            ArrayDeque<Task> queue = first();
+            return queue == null ? null : queue.peekFirst();
+        }
+
+        @Override
+        Task take() {
+            ArrayDeque<Task> queue = first();
+            Task task = queue.pollFirst();
+            if (queue.isEmpty()) {
+                queues.remove(task.workClass);
+            }
+            return task;
+        }
+
+        @Override
+        long oldestEnqueued() {
+            return queues.values().stream().mapToLong(queue -> queue.peekFirst().enqueued).min().orElseThrow();
+        }
+
+        private ArrayDeque<Task> first() {
+            for (ArrayDeque<Task> queue : queues.values()) { // EnumMap iterates in declaration order
+                return queue;
+            }
+            return null;
+        }
+    }
+
+    /** Work by lane, each lane in arrival order and one piece at a time; ready lanes take turns. */
+    private static final class LaneFlow extends Flow {
+        private final Map<String, Lane> lanes = new HashMap<>();
+        private final ArrayDeque<Lane> ready = new ArrayDeque<>(); // lanes with work and none running
+
+        LaneFlow(String key) {
+            super(key);
+        }
+
+        @Override
+        void enqueue(Task task) {
+            Lane lane = lanes.computeIfAbsent(task.order, k -> new Lane());
+            lane.tasks.addLast(task);
+            if (!lane.running && lane.tasks.size() == 1) {
+                ready.addLast(lane);
+            }
+        }
+
+        @Override
+        Task peek() {
+            Lane lane = ready.peekFirst();
+            return lane == null ? null : lane.tasks.peekFirst();
+        }
+
+        @Override
+        Task take() {
+            Lane lane = ready.pollFirst();
+            lane.running = true;
+            return lane.tasks.pollFirst();
+        }
+
+        @Override
+        void done(Task task) {
+            super.done(task);
+            Lane lane = lanes.get(task.order);
+            lane.running = false;
+            if (lane.tasks.isEmpty()) {
+                lanes.remove(task.order);
+            } else {
+                ready.addLast(lane);
+            }
+        }
+
+        @Override
+        long oldestEnqueued() {
+            return lanes.values().stream().filter(lane -> !lane.tasks.isEmpty())
+                    .mapToLong(lane -> lane.tasks.peekFirst().enqueued).min().orElseThrow();
+        }
+    }
+
+    private static final class Lane {
+        final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        boolean running;
+    }
+}
@@ -0,0 +1,104 @@
+package com.pandac.planningpoker.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Rate-limits the chatty events of large-room sessions. Instead of one {@code USER_JOINED}
+ * or {@code VOTE_CAST} per action — each fanned out to every participant — joins, leaves and
+ * vote counts are collected per session and published at most once per
+ * {@code large-room.broadcast-interval-ms}:
+ * <ul>
+ *   <li>{@code PRESENCE_SUMMARY} with the number of joins and leaves since the last one
+ *       (clients refresh the paginated user list), and</li>
+ *   <li>the latest {@code VOTE_CAST} per story (same shape as in small rooms).</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LargeRoomBroadcaster {
+
+    private final WebSocketEventPublisher webSocketEventPublisher;
+
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("large-room-broadcast").factory());
+
+    @Value("${large-room.broadcast-interval-ms:1000}")
+    private long broadcastIntervalMs = 1000;
+
+    @PostConstruct
+    void start() {
+        flusher.scheduleWithFixedDelay(this::flush, broadcastIntervalMs, broadcastIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        flush();
+    }
+
+    public void userJoined(String sessionCode) {
+        record(sessionCode, p -> p.joined++);
+    }
+
+    public void userLeft(String sessionCode) {
+        record(sessionCode, p -> p.left++);
+    }
+
+    public void voteCast(String sessionCode, Long storyId, long voteCount) {
+        record(sessionCode, p -> p.voteCounts.put(storyId, voteCount));
+    }
+
+    /**
+     * Mutates the session's pending events inside {@code compute}, which is atomic with the
+     * {@code remove} in {@link #flush}: an update lands either in the batch being flushed or
+     * in the next one, never in a batch that was already published.
+     */
+    private void record(String sessionCode, Consumer<Pending> update) {
+        pending.compute(sessionCode, (code, existing) -> {
+            Pending p = existing != null ? existing : new Pending();
+            update.accept(p);
+            return p;
+        });
+    }
+
+    /** Publishes and clears everything collected since the previous flush. */
+    void flush() {
+        for (String sessionCode : pending.keySet()) {
+            Pending collected = pending.remove(sessionCode);
+            if (collected == null) {
+                continue;
+            }
+            try {
+                if (collected.joined > 0 || collected.left > 0) {
+                    webSocketEventPublisher.presenceSummary(sessionCode, collected.joined, collected.left);
+                }
+                collected.voteCounts.forEach((storyId, count) ->
+                        webSocketEventPublisher.voteCast(sessionCode, storyId, Math.toIntExact(count)));
+            } catch (Exception e) {
+                log.warn("Failed to flush large-room events for session {}: {}", sessionCode, e.getMessage());
+            }
+        }
+    }
+
+    /** Events collected for one session since the last flush. */
+    private static final class Pending {
+        private int joined;
+        private int left;
+        private final Map<Long, Long> voteCounts = new HashMap<>();
+    }
+}
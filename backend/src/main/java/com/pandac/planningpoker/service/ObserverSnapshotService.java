@@ -0,0 +1,193 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.config.ObserverSubscriptions;
+import com.pandac.planningpoker.dto.RoomSnapshot;
+import com.pandac.planningpoker.exception.SessionNotFoundException;
+import com.pandac.planningpoker.model.Session;
+import com.pandac.planningpoker.model.Story;
+import com.pandac.planningpoker.repository.SessionRepository;
+import com.pandac.planningpoker.repository.StoryRepository;
+import com.pandac.planningpoker.repository.UserRepository;
+import com.pandac.planningpoker.repository.VoteRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Observer delivery tier. Observers subscribe to {@code /topic/session/{code}/snapshot} and
+ * receive a {@link RoomSnapshot} whenever the room changed, at most once per
+ * {@code observer.snapshot-interval-ms} however many events occurred in between. Per-vote and
+ * presence events never reach this destination.
+ * <p>
+ * Session events only mark a room dirty (after their transaction commits); a dedicated thread
+ * builds one snapshot per dirty room that has observers on this instance (see
+ * {@link ObserverSubscriptions}) and publishes it once for all of them, so the observer audience
+ * adds no work to the voting path. The latest snapshot is also served over REST to observers
+ * that poll.
+ */
+@Service
+@Slf4j
+public class ObserverSnapshotService {
+
+    /** Bounds the REST snapshot cache for rooms without subscribed observers. */
+    private static final int MAX_CACHED_SNAPSHOTS = 10_000;
+
+    private final SessionRepository sessionRepository;
+    private final StoryRepository storyRepository;
+    private final UserRepository userRepository;
+    private final VoteRepository voteRepository;
+    private final VoteStatisticsCalculator voteStatisticsCalculator;
+    private final WebSocketEventPublisher webSocketEventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ObserverSubscriptions observerSubscriptions;
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final Map<String, RoomSnapshot> latest = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService publisher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("observer-snapshots").factory());
+
+    @Value("${observer.snapshot-interval-ms:500}")
+    private long snapshotIntervalMs = 500;
+
+    public ObserverSnapshotService(SessionRepository sessionRepository, StoryRepository storyRepository,
+                                   UserRepository userRepository, VoteRepository voteRepository,
+                                   VoteStatisticsCalculator voteStatisticsCalculator,
+                                   WebSocketEventPublisher webSocketEventPublisher,
+                                   ObserverSubscriptions observerSubscriptions,
+                                   PlatformTransactionManager transactionManager) {
+        this.sessionRepository = sessionRepository;
+        this.storyRepository = storyRepository;
+        this.userRepository = userRepository;
+        this.voteRepository = voteRepository;
+        this.voteStatisticsCalculator = voteStatisticsCalculator;
+        this.webSocketEventPublisher = webSocketEventPublisher;
+        this.observerSubscriptions = observerSubscriptions;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void start() {
+        webSocketEventPublisher.addSessionEventListener((sessionCode, channel, payload, local) -> markDirty(sessionCode));
+        observerSubscriptions.addSubscribeListener(dirty::add); // a new observer gets a snapshot on the next tick
+        publisher.scheduleWithFixedDelay(this::publishDue, snapshotIntervalMs, snapshotIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        publisher.shutdown();
+    }
+
+    /** Latest snapshot of the room, built on demand if nothing current is cached. */
+    public RoomSnapshot getSnapshot(String sessionCode) {
+        RoomSnapshot cached = latest.get(sessionCode);
+        if (cached != null && !dirty.contains(sessionCode)) {
+            return cached;
+        }
+        RoomSnapshot snapshot = build(sessionCode);
+        if (latest.size() >= MAX_CACHED_SNAPSHOTS) {
+            latest.clear();
+        }
+        latest.put(sessionCode, snapshot);
+        return snapshot;
+    }
+
+    /** Marks the room changed; inside a transaction only once it commits, so snapshots never see it early. */
+    public void markDirty(String sessionCode) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirty.add(sessionCode);
+                }
+            });
+        } else {
+            dirty.add(sessionCode);
+        }
+    }
+
+    /** Builds and publishes one snapshot per changed room that has observers here. */
+    void publishDue() {
+        for (String sessionCode : dirty) {
+            dirty.remove(sessionCode);
+            if (!observerSubscriptions.hasObservers(sessionCode)) {
+                latest.remove(sessionCode);
+                continue;
+            }
+            try {
+                RoomSnapshot snapshot = build(sessionCode);
+                latest.put(sessionCode, snapshot);
+                webSocketEventPublisher.publish(WebSocketEventPublisher.snapshotTopic(sessionCode), snapshot);
+            } catch (SessionNotFoundException e) {
+                latest.remove(sessionCode);
+            } catch (Exception e) {
+                log.warn("Failed to publish observer snapshot for session {}: {}", sessionCode, e.getMessage());
+            }
+        }
+    }
+
+    RoomSnapshot build(String sessionCode) {
+        RoomSnapshot built = readOnlyTransaction.execute(status -> {
+            Session session = sessionRepository.findBySessionCodeAndActive(sessionCode, true)
+                    .orElseThrow(() -> new SessionNotFoundException(sessionCode));
+
+            RoomSnapshot snapshot = new RoomSnapshot();
+            snapshot.setSessionCode(sessionCode);
+            snapshot.setSessionName(session.getName());
+            snapshot.setVotesRevealed(session.isVotesRevealed());
+            snapshot.setActiveVoters(userRepository.countBySessionAndActiveAndObserver(session, true, false));
+            snapshot.setActiveObservers(userRepository.countBySessionAndActiveAndObserver(session, true, true));
+            snapshot.setGeneratedAt(OffsetDateTime.now());
+
+            Story story = session.getCurrentStoryId() == null ? null
+                    : storyRepository.findById(session.getCurrentStoryId()).orElse(null);
+            if (story == null) {
+                snapshot.setVoteCount(0L);
+                return snapshot;
+            }
+            snapshot.setCurrentStoryId(story.getId());
+            snapshot.setCurrentStoryTitle(story.getTitle());
+            snapshot.setCurrentStoryStatus(story.getStatus());
+
+            if (!session.isVotesRevealed()) {
+                snapshot.setVoteCount(voteRepository.countByStory(story));
+                return snapshot;
+            }
+            Map<String, Integer> distribution = new LinkedHashMap<>();
+            voteRepository.countByEstimate(story).forEach(c -> distribution.put(c.getEstimate(), (int) c.getVotes()));
+            VoteStatisticsCalculator.VoteStatistics stats = voteStatisticsCalculator.calculate(distribution);
+            snapshot.setVoteCount(distribution.values().stream().mapToLong(Integer::longValue).sum());
+            snapshot.setDistribution(stats.getDistribution());
+            snapshot.setAverageEstimate(stats.getAverage());
+            snapshot.setRecommendedEstimate(stats.getMode());
+            return snapshot;
+        });
+        built.setStateHash(stateHash(built));
+        return built;
+    }
+
+    /** Fingerprint of the room state in a snapshot, ignoring when it was generated. */
+    static String stateHash(RoomSnapshot snapshot) {
+        return Integer.toHexString(Objects.hash(snapshot.getSessionCode(), snapshot.getSessionName(),
+                snapshot.getCurrentStoryId(), snapshot.getCurrentStoryTitle(), snapshot.getCurrentStoryStatus(),
+                snapshot.getVotesRevealed(), snapshot.getActiveVoters(), snapshot.getActiveObservers(),
+                snapshot.getVoteCount(), snapshot.getDistribution(), snapshot.getAverageEstimate(),
+                snapshot.getRecommendedEstimate()));
+    }
+}
@@ -0,0 +1,106 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.config.PresenceTracker;
+import com.pandac.planningpoker.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns the in-memory presence of {@link PresenceTracker} into durable and broadcast state,
+ * without any per-heartbeat work:
+ * <ul>
+ *   <li>every {@code presence.flush-interval-seconds}, one batched UPDATE sets
+ *       {@code users.last_seen_at} for everyone seen since the previous flush, so
+ *       {@code lastSeenAt} tracks liveness to within that interval;</li>
+ *   <li>every {@code presence.broadcast-interval-ms}, each session whose online users changed
+ *       gets one {@code PRESENCE_CHANGED} with the users that came online and went offline
+ *       since its previous broadcast. A reconnect within the interval nets out and is not
+ *       broadcast at all.</li>
+ * </ul>
+ * Presence is per instance: in a cluster each instance reports the connections it holds.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PresenceService {
+
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final PresenceTracker presenceTracker;
+    private final UserRepository userRepository;
+    private final WebSocketEventPublisher webSocketEventPublisher;
+
+    /** session code → online users as last broadcast. */
+    private final Map<String, Set<Long>> broadcast = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("presence").factory());
+
+    @Value("${presence.broadcast-interval-ms:2000}")
+    private long broadcastIntervalMs = 2000;
+
+    @Value("${presence.flush-interval-seconds:30}")
+    private long flushIntervalSeconds = 30;
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::broadcastChanges, broadcastIntervalMs, broadcastIntervalMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::flushLastSeen, flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdown();
+        flushLastSeen();
+    }
+
+    /** Publishes the net online/offline changes of every session changed since the last run. */
+    void broadcastChanges() {
+        for (String sessionCode : presenceTracker.drainChangedSessions()) {
+            Set<Long> current = presenceTracker.onlineUsers(sessionCode);
+            Set<Long> previous = broadcast.getOrDefault(sessionCode, Set.of());
+            Set<Long> cameOnline = new HashSet<>(current);
+            cameOnline.removeAll(previous);
+            Set<Long> wentOffline = new HashSet<>(previous);
+            wentOffline.removeAll(current);
+            if (current.isEmpty()) {
+                broadcast.remove(sessionCode);
+            } else {
+                broadcast.put(sessionCode, current);
+            }
+            if (!cameOnline.isEmpty() || !wentOffline.isEmpty()) {
+                webSocketEventPublisher.presenceChanged(sessionCode, List.copyOf(cameOnline), List.copyOf(wentOffline));
+            }
+        }
+    }
+
+    /** Writes {@code lastSeenAt} for the users seen since the last flush, in batches. */
+    void flushLastSeen() {
+        List<Long> seen = presenceTracker.drainSeenUsers();
+        if (seen.isEmpty()) {
+            return;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        try {
+            for (int from = 0; from < seen.size(); from += FLUSH_BATCH_SIZE) {
+                userRepository.updateLastSeenAt(seen.subList(from, Math.min(seen.size(), from + FLUSH_BATCH_SIZE)), now);
+            }
+            log.debug("Flushed lastSeenAt for {} users", seen.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush lastSeenAt for {} users: {}", seen.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.exception.WorkloadRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead for the heavy, non-interactive work (analytics, export, import), so that one
+ * moderator exporting a huge session cannot hold the request threads and connections that
+ * votes and reveals in every other room need.
+ * <p>
+ * Work runs on {@code workload.reporting.threads} platform threads of its own; at most
+ * {@code workload.reporting.queue-capacity} more wait, and beyond that the caller is refused
+ * with {@link WorkloadRejectedException} (503 with Retry-After). Controllers hand the returned
+ * future to Spring MVC, so the request thread is released while the work waits or runs.
+ * Database access from these threads is routed to the separate reporting connection pool
+ * (see {@code DataSourceConfig}).
+ */
+@Component
+public class ReportingLane {
+
+    public static final String NAME = "reporting";
+
+    /** Set once on each lane thread, for the connection routing. */
+    private static final ThreadLocal<Boolean> LANE_THREAD = new ThreadLocal<>();
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    private final Timer queueWait;
+
+    public ReportingLane(@Value("${workload.reporting.threads:2}") int threads,
+                         @Value("${workload.reporting.queue-capacity:8}") int queueCapacity,
+                         MeterRegistry registry) {
+        ThreadFactory platform = Thread.ofPlatform().name("reporting-", 0).daemon(true).factory();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> platform.newThread(() -> {
+                    LANE_THREAD.set(Boolean.TRUE);
+                    task.run();
+                }));
+
+        Tags lane = Tags.of("lane", NAME);
+        this.rejected = Counter.builder("workload.lane.rejected")
+                .description("Requests refused because the lane's threads and queue were full")
+                .tags(lane)
+                .register(registry);
+        this.queueWait = Timer.builder("workload.lane.wait")
+                .description("Time work waited for a free lane thread")
+                .tags(lane)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Gauge.builder("workload.lane.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Lane threads running work")
+                .tags(lane)
+                .register(registry);
+        Gauge.builder("workload.lane.queued", executor, e -> e.getQueue().size())
+                .description("Work waiting for a lane thread")
+                .tags(lane)
+                .register(registry);
+        Gauge.builder("workload.lane.capacity", () -> threads + queueCapacity)
+                .description("Lane threads plus queue slots; active + queued at this value means saturated")
+                .tags(lane)
+                .register(registry);
+    }
+
+    /** Whether the current thread belongs to the lane. */
+    public static boolean isCurrentThread() {
+        return LANE_THREAD.get() != null;
+    }
+
+    /** Queues {@code work} on the lane; the future completes with its result or exception. */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        long enqueued = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWait.record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+                return work.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new WorkloadRejectedException(NAME);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,377 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.dto.SessionEvent;
+import com.pandac.planningpoker.dto.SessionEventBatch;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Session events over Server-Sent Events and long-poll, for clients whose proxies break
+ * WebSocket upgrades. Fed by {@link WebSocketEventPublisher} with every event delivered on this
+ * instance (local or relayed from a peer), so these clients see exactly what the WebSocket
+ * topics carry.
+ * <p>
+ * Each session watched over HTTP keeps a bounded replay buffer ({@code sse.replay-buffer-size}).
+ * Event ids are {@code {stream}-{sequence}}, where the stream part changes whenever the buffer is
+ * recreated (restart, eviction, another instance), so a {@code Last-Event-ID} is either replayed
+ * from exactly where it left off or answered with a {@code resync} event telling the client to
+ * reload the session over REST — never silently skipped.
+ * <p>
+ * Both transports run on async servlet requests: a held connection occupies no Tomcat thread.
+ * Writes to SSE clients happen on virtual threads, one drain at a time per client, so a slow
+ * client never delays the voting path or other clients.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SessionEventStream {
+
+    /** First event of a fresh SSE stream; carries the cursor to resume from. */
+    static final String EVENT_CONNECTED = "connected";
+    /** The requested cursor is not available: reload state over REST, then continue from this event's id. */
+    static final String EVENT_RESYNC = "resync";
+    /** Last event before the server restarts: reconnect with Last-Event-ID after the event's retry delay. */
+    static final String EVENT_RECONNECT = "reconnect";
+
+    private final WebSocketEventPublisher webSocketEventPublisher;
+
+    private final Map<String, EventRing> rings = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService housekeeping = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("session-event-stream").factory());
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sse-send-", 0).factory());
+
+    @Value("${sse.replay-buffer-size:256}")
+    private int replayBufferSize = 256;
+
+    @Value("${sse.timeout-ms:300000}")
+    private long sseTimeoutMs = 300_000;
+
+    @Value("${sse.long-poll-timeout-ms:25000}")
+    private long longPollTimeoutMs = 25_000;
+
+    @Value("${sse.heartbeat-seconds:15}")
+    private long heartbeatSeconds = 15;
+
+    @Value("${sse.replay-retention-seconds:300}")
+    private long replayRetentionSeconds = 300;
+
+    @PostConstruct
+    void start() {
+        webSocketEventPublisher.addSessionEventListener(this::append);
+        housekeeping.scheduleWithFixedDelay(this::housekeep, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        housekeeping.shutdown();
+        rings.values().forEach(ring -> ring.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdown();
+    }
+
+    /**
+     * Opens an SSE stream. Without {@code lastEventId} the stream starts at the next event;
+     * otherwise the buffered events after it are replayed first.
+     */
+    public SseEmitter subscribe(String sessionCode, String lastEventId) {
+        EventRing ring = attach(sessionCode);
+        Subscriber subscriber = new Subscriber(ring, new SseEmitter(sseTimeoutMs));
+        subscriber.emitter.onCompletion(() -> ring.subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> {
+            ring.subscribers.remove(subscriber);
+            subscriber.emitter.complete(); // the client reconnects with Last-Event-ID
+        });
+        subscriber.emitter.onError(e -> ring.subscribers.remove(subscriber));
+
+        synchronized (ring) {
+            long cursor = lastEventId == null ? ring.head : ring.resolve(lastEventId);
+            if (cursor < 0 || ring.since(cursor) == null) {
+                subscriber.cursor = ring.head;
+                subscriber.control = EVENT_RESYNC;
+            } else {
+                subscriber.cursor = cursor;
+                subscriber.control = lastEventId == null ? EVENT_CONNECTED : null;
+            }
+            ring.subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+        return subscriber.emitter;
+    }
+
+    /**
+     * Long-poll: completes immediately when events after {@code lastEventId} are buffered (or the
+     * cursor is unknown, with {@code resync}), otherwise when the next event arrives or after
+     * {@code sse.long-poll-timeout-ms} with an empty batch.
+     */
+    public DeferredResult<SessionEventBatch> poll(String sessionCode, String lastEventId) {
+        EventRing ring = attach(sessionCode);
+        DeferredResult<SessionEventBatch> result = new DeferredResult<>(longPollTimeoutMs);
+        synchronized (ring) {
+            long cursor = lastEventId == null ? ring.head : ring.resolve(lastEventId);
+            SessionEventBatch ready = cursor < 0 ? ring.resync() : ring.batchSince(cursor);
+            if (ready.getResync() || !ready.getEvents().isEmpty()) {
+                result.setResult(ready);
+                return result;
+            }
+            Waiter waiter = new Waiter(cursor, result);
+            result.onTimeout(() -> {
+                ring.waiters.remove(waiter);
+                result.setResult(new SessionEventBatch(List.of(), ring.idOf(cursor), false));
+            });
+            result.onCompletion(() -> ring.waiters.remove(waiter));
+            ring.waiters.add(waiter);
+        }
+        return result;
+    }
+
+    void append(String sessionCode, WebSocketEventPublisher.Channel channel, Object payload, boolean local) {
+        EventRing ring = rings.get(sessionCode);
+        if (ring == null) {
+            return; // nobody follows this session over HTTP
+        }
+        List<Waiter> woken;
+        synchronized (ring) {
+            ring.append(channel.suffix(), payload);
+            woken = ring.waiters.isEmpty() ? List.of() : List.copyOf(ring.waiters);
+            ring.waiters.clear();
+        }
+        ring.subscribers.forEach(this::schedule);
+        if (!woken.isEmpty()) {
+            senders.execute(() -> woken.forEach(waiter -> waiter.result.setResult(ring.batchSince(waiter.cursor))));
+        }
+    }
+
+    /** Sessions with SSE or long-poll clients on this instance. */
+    public Set<String> sessionCodes() {
+        Set<String> codes = new HashSet<>();
+        rings.forEach((code, ring) -> {
+            if (!ring.subscribers.isEmpty() || !ring.waiters.isEmpty()) {
+                codes.add(code);
+            }
+        });
+        return codes;
+    }
+
+    /**
+     * Ends every stream and pending poll so the web server can shut down gracefully. SSE clients
+     * get what is still pending, then a {@code reconnect} event whose {@code retry} is drawn per
+     * client from {@code [0, reconnectWindowMs)}; EventSource waits that long before reconnecting
+     * with its Last-Event-ID. Pending polls return what they have.
+     */
+    public void closeForRestart(long reconnectWindowMs) {
+        for (EventRing ring : rings.values()) {
+            for (Subscriber subscriber : ring.subscribers) {
+                long delay = ThreadLocalRandom.current().nextLong(Math.max(1, reconnectWindowMs));
+                subscriber.lock.lock();
+                try {
+                    sendPending(subscriber);
+                    subscriber.emitter.send(SseEmitter.event()
+                            .name(EVENT_RECONNECT)
+                            .reconnectTime(delay)
+                            .data(Map.of("sessionCode", ring.sessionCode, "reconnectAfterMs", delay), MediaType.APPLICATION_JSON));
+                    ring.subscribers.remove(subscriber);
+                    subscriber.emitter.complete();
+                } catch (IOException | IllegalStateException e) {
+                    drop(subscriber, e);
+                } finally {
+                    subscriber.lock.unlock();
+                }
+            }
+            List<Waiter> waiting;
+            synchronized (ring) {
+                waiting = List.copyOf(ring.waiters);
+                ring.waiters.clear();
+            }
+            waiting.forEach(waiter -> waiter.result.setResult(ring.batchSince(waiter.cursor)));
+        }
+    }
+
+    private EventRing attach(String sessionCode) {
+        return rings.compute(sessionCode, (code, existing) -> {
+            EventRing ring = existing != null ? existing : new EventRing(code, replayBufferSize);
+            ring.lastAttached = System.currentTimeMillis();
+            return ring;
+        });
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    /** Sends everything after the subscriber's cursor; serialised per subscriber by its lock. */
+    private void drain(Subscriber subscriber) {
+        subscriber.scheduled.set(false);
+        subscriber.lock.lock();
+        try {
+            sendPending(subscriber);
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber, e);
+        } finally {
+            subscriber.lock.unlock();
+        }
+    }
+
+    /** Caller holds the subscriber's lock. */
+    private void sendPending(Subscriber subscriber) throws IOException {
+        EventRing ring = subscriber.ring;
+        List<SessionEvent> pending;
+        synchronized (ring) {
+            pending = ring.since(subscriber.cursor);
+            if (pending == null) { // fell behind the replay buffer
+                subscriber.cursor = ring.head;
+                subscriber.control = EVENT_RESYNC;
+                pending = List.of();
+            }
+        }
+        if (subscriber.control != null) {
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(ring.idOf(subscriber.cursor))
+                    .name(subscriber.control)
+                    .data(Map.of("sessionCode", ring.sessionCode), MediaType.APPLICATION_JSON));
+            subscriber.control = null;
+        }
+        for (SessionEvent event : pending) {
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(event.getId())
+                    .name(event.getChannel())
+                    .data(event.getData(), MediaType.APPLICATION_JSON));
+            subscriber.cursor = EventRing.sequenceOf(event.getId());
+        }
+    }
+
+    private void heartbeat(Subscriber subscriber) {
+        subscriber.lock.lock();
+        try {
+            subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber, e);
+        } finally {
+            subscriber.lock.unlock();
+        }
+    }
+
+    private void drop(Subscriber subscriber, Exception cause) {
+        log.debug("Dropping SSE client: {}", cause.getMessage());
+        subscriber.ring.subscribers.remove(subscriber);
+        subscriber.emitter.completeWithError(cause);
+    }
+
+    /** Keeps idle proxies from closing SSE streams and evicts buffers nobody has followed for a while. */
+    void housekeep() {
+        long now = System.currentTimeMillis();
+        rings.forEach((sessionCode, ring) -> {
+            ring.subscribers.forEach(subscriber -> senders.execute(() -> heartbeat(subscriber)));
+            if (!ring.subscribers.isEmpty() || !ring.waiters.isEmpty()) {
+                ring.lastAttached = now;
+            }
+        });
+        rings.entrySet().removeIf(entry -> entry.getValue().subscribers.isEmpty()
+                && entry.getValue().waiters.isEmpty()
+                && now - entry.getValue().lastAttached > TimeUnit.SECONDS.toMillis(replayRetentionSeconds));
+    }
+
+    /** Replay buffer of one session; guarded by its own monitor. */
+    private static final class EventRing {
+        final String sessionCode;
+        final String stream = UUID.randomUUID().toString().substring(0, 8);
+        final SessionEvent[] events;
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+        long head; // sequence of the latest event, 0 before the first
+        volatile long lastAttached;
+
+        EventRing(String sessionCode, int capacity) {
+            this.sessionCode = sessionCode;
+            events = new SessionEvent[capacity];
+        }
+
+        void append(String channel, Object payload) {
+            head++;
+            events[(int) (head % events.length)] = new SessionEvent(idOf(head), channel, payload);
+        }
+
+        String idOf(long sequence) {
+            return stream + "-" + sequence;
+        }
+
+        static long sequenceOf(String id) {
+            return Long.parseLong(id.substring(id.lastIndexOf('-') + 1));
+        }
+
+        /** Sequence of an id issued by this buffer, -1 for anything else. */
+        long resolve(String id) {
+            int dash = id.lastIndexOf('-');
+            if (dash <= 0 || !stream.equals(id.substring(0, dash))) {
+                return -1;
+            }
+            try {
+                long sequence = Long.parseLong(id.substring(dash + 1));
+                return sequence >= 0 && sequence <= head ? sequence : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        /** Events after {@code sequence}, {@code null} once some of them have been overwritten. */
+        List<SessionEvent> since(long sequence) {
+            if (head - sequence > events.length) {
+                return null;
+            }
+            List<SessionEvent> pending = new ArrayList<>((int) (head - sequence));
+            for (long s = sequence + 1; s <= head; s++) {
+                pending.add(events[(int) (s % events.length)]);
+            }
+            return pending;
+        }
+
+        synchronized SessionEventBatch batchSince(long sequence) {
+            List<SessionEvent> pending = since(sequence);
+            return pending == null ? resync() : new SessionEventBatch(pending, idOf(head), false);
+        }
+
+        SessionEventBatch resync() {
+            return new SessionEventBatch(List.of(), idOf(head), true);
+        }
+    }
+
+    private static final class Subscriber {
+        final EventRing ring;
+        final SseEmitter emitter;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final ReentrantLock lock = new ReentrantLock();
+        long cursor;    // guarded by lock once registered
+        String control; // connected/resync event still to send, guarded by lock
+
+        Subscriber(EventRing ring, SseEmitter emitter) {
+            this.ring = ring;
+            this.emitter = emitter;
+        }
+    }
+
+    private record Waiter(long cursor, DeferredResult<SessionEventBatch> result) {}
+}
@@ -0,0 +1,191 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.exception.SessionBusyException;
+import com.pandac.planningpoker.service.FairScheduler.WorkClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the state changes of one session one at a time, in arrival order, so that concurrent
+ * reveals, story switches and settings updates no longer race on {@code Session}'s
+ * {@code @Version} and fail with an optimistic-locking error. Votes and joins do not come
+ * through here: each touches only the caller's own row and the round's conditional updates
+ * already settle races between them, so a busy room never has them refused for capacity.
+ * <p>
+ * Each session with work queued has a mailbox and a virtual thread draining it; the thread
+ * exits and the mailbox is dropped as soon as the queue is empty, so idle sessions cost
+ * nothing. The changes themselves run on the {@code sessionWorkScheduler} threads, shared
+ * between sessions by {@link FairScheduler}, so a busy room cannot take them all; the
+ * {@link WorkClass} a change is submitted with decides how soon its turn comes there, not its
+ * place in the mailbox. Each change runs in its own transaction on that thread (callers must
+ * not hold one), and the caller blocks until its change has committed, getting the result or
+ * the exception as if it had run the change itself. {@link #read} runs a query on the same
+ * threads, fairly scheduled but not behind the session's changes.
+ * <p>
+ * A mailbox holds at most {@code session-mailbox.capacity} waiting changes; beyond that the
+ * caller is refused with {@link SessionBusyException} instead of piling up more threads.
+ * Serialization is per instance: in cluster mode two nodes can still conflict on one row.
+ */
+@Component
+public class SessionMailbox {
+
+    /** The session whose mailbox the current thread is draining; nested calls run inline. */
+    private static final ThreadLocal<String> DRAINING = new ThreadLocal<>();
+
+    private final FairScheduler scheduler;
+    private final Map<String, ArrayDeque<Change>> mailboxes = new ConcurrentHashMap<>();
+    private final ThreadFactory workers = Thread.ofVirtual().name("session-mailbox-", 0).factory();
+
+    private final Counter rejected;
+    private final Timer queueWait;
+
+    @Value("${session-mailbox.capacity:32}")
+    private int capacity = 32;
+
+    public SessionMailbox(FairScheduler sessionWorkScheduler, MeterRegistry registry) {
+        this.scheduler = sessionWorkScheduler;
+        this.rejected = Counter.builder("session.mailbox.rejected")
+                .description("State changes refused because the session's mailbox was full")
+                .register(registry);
+        this.queueWait = Timer.builder("session.mailbox.wait")
+                .description("Time a state change waited behind earlier changes to the same session")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Gauge.builder("session.mailbox.active", mailboxes, Map::size)
+                .description("Sessions with state changes queued or running")
+                .register(registry);
+    }
+
+    /** Runs {@code change} after every change queued before it for the session and returns its result. */
+    public <T> T submit(String sessionCode, Supplier<T> change) {
+        return submit(sessionCode, WorkClass.VOTE, change);
+    }
+
+    /** As {@link #submit(String, Supplier)}, scheduled as {@code workClass} once its turn in the mailbox comes. */
+    public <T> T submit(String sessionCode, WorkClass workClass, Supplier<T> change) {
+        if (sessionCode.equals(DRAINING.get())) {
+            return change.get();
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long enqueued = System.nanoTime();
+        Runnable run = () -> {
+            queueWait.record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+            try {
+                result.complete(change.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        };
+
+        boolean[] startWorker = new boolean[1];
+        mailboxes.compute(sessionCode, (code, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                startWorker[0] = true;
+            } else if (queue.size() >= capacity) {
+                rejected.increment();
+                throw new SessionBusyException(code);
+            }
+            queue.add(new Change(workClass, run, result));
+            return queue;
+        });
+        if (startWorker[0]) {
+            workers.newThread(() -> drain(sessionCode)).start();
+        }
+        return await(result);
+    }
+
+    public void execute(String sessionCode, Runnable change) {
+        execute(sessionCode, WorkClass.VOTE, change);
+    }
+
+    public void execute(String sessionCode, WorkClass workClass, Runnable change) {
+        submit(sessionCode, workClass, () -> {
+            change.run();
+            return null;
+        });
+    }
+
+    /** Runs {@code query} in the session's turn as {@link WorkClass#BULK} work, without waiting for queued changes. */
+    public <T> T read(String sessionCode, Supplier<T> query) {
+        if (sessionCode.equals(DRAINING.get())) {
+            return query.get();
+        }
+        return scheduler.call(sessionCode, WorkClass.BULK, query);
+    }
+
+    public int activeMailboxes() {
+        return mailboxes.size();
+    }
+
+    /** Changes waiting behind the running one. */
+    int queued(String sessionCode) {
+        int[] depth = new int[1];
+        mailboxes.computeIfPresent(sessionCode, (code, queue) -> {
+            depth[0] = queue.size();
+            return queue;
+        });
+        return depth[0];
+    }
+
+    private void drain(String sessionCode) {
+        for (Change next = poll(sessionCode); next != null; next = poll(sessionCode)) {
+            run(sessionCode, next);
+        }
+    }
+
+    private void run(String sessionCode, Change change) {
+        try {
+            scheduler.call(sessionCode, change.workClass(), () -> {
+                DRAINING.set(sessionCode);
+                try {
+                    change.run().run();
+                } finally {
+                    DRAINING.remove();
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            change.result().completeExceptionally(e); // refused by the scheduler (session full of reads, shutdown)
+        }
+    }
+
+    /** Next queued change; removes the mailbox (ending the worker) once it is empty. */
+    private Change poll(String sessionCode) {
+        Change[] next = new Change[1];
+        mailboxes.computeIfPresent(sessionCode, (code, queue) -> {
+            next[0] = queue.poll();
+            return next[0] == null ? null : queue;
+        });
+        return next[0];
+    }
+
+    private record Change(WorkClass workClass, Runnable run, CompletableFuture<?> result) {}
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
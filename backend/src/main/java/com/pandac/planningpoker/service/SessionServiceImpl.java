@@ -8,6 +8,8 @@ import com.pandac.planningpoker.repository.*;
 import com.pandac.planningpoker.security.JwtTokenService;
 import com.pandac.planningpoker.security.SessionAccessValidator;
 import com.pandac.planningpoker.security.UserRole;
+import com.pandac.planningpoker.service.cluster.Invalidation.Entity;
+import com.pandac.planningpoker.service.cluster.InvalidationBus;
 import com.pandac.planningpoker.service.interfaces.ISessionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -35,6 +37,8 @@ public class SessionServiceImpl implements ISessionService {
     private final SessionAccessValidator sessionAccessValidator;
     private final VoteStatisticsCalculator voteStatisticsCalculator;
     private final VoteResponseMapper voteResponseMapper;
+    private final InvalidationBus invalidationBus;
+    private final LargeRoomBroadcaster largeRoomBroadcaster;
 
     private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
     private static final int CODE_LENGTH = 6;
@@ -103,9 +107,11 @@ public class SessionServiceImpl implements ISessionService {
             if (s.getAutoReveal() != null) session.getSettings().setAutoReveal(s.getAutoReveal());
             if (s.getTimerEnabled() != null) session.getSettings().setTimerEnabled(s.getTimerEnabled());
             if (s.getTimerDuration() != null) session.getSettings().setTimerDuration(s.getTimerDuration());
+            if (s.getTimerAutoReveal() != null) session.getSettings().setTimerAutoReveal(s.getTimerAutoReveal());
             if (s.getAllowChangeVote() != null) session.getSettings().setAllowChangeVote(s.getAllowChangeVote());
             if (s.getAllowObservers() != null) session.getSettings().setAllowObservers(s.getAllowObservers());
             if (s.getRequireConfidence() != null) session.getSettings().setRequireConfidence(s.getRequireConfidence());
+            if (s.getLargeRoom() != null) session.getSettings().setLargeRoom(s.getLargeRoom());
         }
 
         return session;
@@ -156,12 +162,15 @@ public class SessionServiceImpl implements ISessionService {
                 timerChanged = true;
                 session.getSettings().setTimerDuration(s.getTimerDuration());
             }
+            if (s.getTimerAutoReveal() != null) session.getSettings().setTimerAutoReveal(s.getTimerAutoReveal());
             if (s.getAllowChangeVote() != null) session.getSettings().setAllowChangeVote(s.getAllowChangeVote());
             if (s.getAllowObservers() != null) session.getSettings().setAllowObservers(s.getAllowObservers());
             if (s.getRequireConfidence() != null) session.getSettings().setRequireConfidence(s.getRequireConfidence());
+            if (s.getLargeRoom() != null) session.getSettings().setLargeRoom(s.getLargeRoom());
         }
 
         Session saved = sessionRepository.save(session);
+        invalidationBus.publish(Entity.SESSION_STATE, saved.getId(), saved.getVersion(), sessionCode);
         if (timerChanged) {
             webSocketEventPublisher.timerSettingsChanged(sessionCode,
                     saved.getSettings().getTimerEnabled(), saved.getSettings().getTimerDuration());
@@ -176,6 +185,7 @@ public class SessionServiceImpl implements ISessionService {
         session.getUsers().forEach(u -> u.setActive(false));
         session.getStories().forEach(s -> s.setStatus(StoryStatus.NOT_ESTIMATED));
         sessionRepository.save(session);
+        invalidationBus.publish(Entity.SESSION, session.getId(), session.getVersion(), sessionCode);
     }
 
     // ── Participants ───────────────────────────────────────────────────────────
@@ -214,7 +224,12 @@ public class SessionServiceImpl implements ISessionService {
         userSession.setSession(session);
         userSession.setToken(token);
 
-        webSocketEventPublisher.userJoined(sessionCode, user.getId(), user.getName());
+        invalidationBus.publish(Entity.USER, user.getId(), null, sessionCode);
+        if (isLargeRoom(session)) {
+            largeRoomBroadcaster.userJoined(sessionCode);
+        } else {
+            webSocketEventPublisher.userJoined(sessionCode, user.getId(), user.getName());
+        }
         return userSession;
     }
 
@@ -224,7 +239,12 @@ public class SessionServiceImpl implements ISessionService {
         sessionAccessValidator.requireUserBelongsToSession(user, session);
         user.setActive(false);
         userRepository.save(user);
-        webSocketEventPublisher.userLeft(sessionCode, user.getId(), user.getName());
+        invalidationBus.publish(Entity.USER, user.getId(), null, sessionCode);
+        if (isLargeRoom(session)) {
+            largeRoomBroadcaster.userLeft(sessionCode);
+        } else {
+            webSocketEventPublisher.userLeft(sessionCode, user.getId(), user.getName());
+        }
     }
 
     // ── Reveal / Reset votes ───────────────────────────────────────────────────
@@ -236,26 +256,42 @@ public class SessionServiceImpl implements ISessionService {
         Story story = storyRepository.findById(session.getCurrentStoryId())
                 .orElseThrow(() -> new StoryNotFoundException(session.getCurrentStoryId()));
 
-        List<Vote> votes = voteRepository.findByStory(story);
-        List<VoteResponse> voteResponses = votes.stream().map(voteResponseMapper::toVoteResponse).collect(Collectors.toList());
-
-        session.setVotesRevealed(true);
-        sessionRepository.save(session);
-        story.setStatus(StoryStatus.IN_PROGRESS);
-        storyRepository.save(story);
-
-        VoteStatisticsCalculator.VoteStatistics stats = voteStatisticsCalculator.calculate(votes);
+        // Only the call that flips the flag announces the reveal; a repeated or concurrent
+        // reveal of the same round just returns the result
+        boolean revealed = sessionRepository.markVotesRevealed(session.getId(), story.getId()) == 1;
+        if (revealed) {
+            storyRepository.updateStatus(story.getId(), StoryStatus.IN_PROGRESS);
+            invalidationBus.publish(Entity.SESSION_STATE, session.getId(), session.getVersion(), sessionCode);
+            invalidationBus.publish(Entity.STORY, story.getId(), null, sessionCode);
+        }
 
         VoteReveal reveal = new VoteReveal();
+        VoteStatisticsCalculator.VoteStatistics stats;
+        if (isLargeRoom(session)) {
+            // Distribution counted by the database; individual votes are paged on demand
+            Map<String, Integer> distribution = new LinkedHashMap<>();
+            voteRepository.countByEstimate(story).forEach(c -> distribution.put(c.getEstimate(), (int) c.getVotes()));
+            stats = voteStatisticsCalculator.calculate(distribution);
+            reveal.setSummarized(true);
+            reveal.setTotalVotes(distribution.values().stream().mapToInt(Integer::intValue).sum());
+        } else {
+            List<Vote> votes = voteRepository.findByStory(story);
+            stats = voteStatisticsCalculator.calculate(votes);
+            reveal.setVotes(votes.stream().map(voteResponseMapper::toVoteResponse).collect(Collectors.toList()));
+            reveal.setSummarized(false);
+            reveal.setTotalVotes(votes.size());
+        }
+
         reveal.setStoryId(story.getId());
-        reveal.setVotes(voteResponses);
         reveal.setConsensus(stats.isConsensus());
         reveal.setDistribution(stats.getDistribution());
         if (stats.getAverage() != null) reveal.setAverageEstimate(stats.getAverage());
         if (stats.getMedian() != null) reveal.setMedianEstimate(stats.getMedian());
         reveal.setRecommendedEstimate(stats.getMode());
 
-        webSocketEventPublisher.votesRevealed(sessionCode, story.getId());
+        if (revealed) {
+            webSocketEventPublisher.votesRevealed(sessionCode, story.getId());
+        }
         return reveal;
     }
 
@@ -266,11 +302,13 @@ public class SessionServiceImpl implements ISessionService {
         Story story = storyRepository.findById(session.getCurrentStoryId())
                 .orElseThrow(() -> new StoryNotFoundException(session.getCurrentStoryId()));
 
+        if (sessionRepository.reopenVoting(session.getId(), story.getId()) == 0) {
+            throw new NoActiveStoryException("The current story changed; reload the session");
+        }
         voteRepository.deleteByStory(story);
-        session.setVotesRevealed(false);
-        sessionRepository.save(session);
-        story.setStatus(StoryStatus.NOT_ESTIMATED);
-        storyRepository.save(story);
+        storyRepository.updateStatus(story.getId(), StoryStatus.NOT_ESTIMATED);
+        invalidationBus.publish(Entity.SESSION_STATE, session.getId(), session.getVersion(), sessionCode);
+        invalidationBus.publish(Entity.STORY, story.getId(), null, sessionCode);
         webSocketEventPublisher.votesReset(sessionCode, story.getId());
     }
 
@@ -279,15 +317,20 @@ public class SessionServiceImpl implements ISessionService {
     public Session setCurrentStory(String sessionCode, Long storyId) {
         Session session = getSession(sessionCode);
         Story story = storyRepository.findById(storyId).orElseThrow(() -> new StoryNotFoundException(storyId));
-        session.setCurrentStoryId(storyId);
-        session.setVotesRevealed(false);
-        Session saved = sessionRepository.save(session);
-        webSocketEventPublisher.storyActivated(sessionCode, story);
-        return saved;
+        // Activating the story that is already open for voting changes nothing and is not announced
+        if (sessionRepository.activateStory(session.getId(), storyId) == 1) {
+            invalidationBus.publish(Entity.SESSION_STATE, session.getId(), session.getVersion(), sessionCode);
+            webSocketEventPublisher.storyActivated(sessionCode, story);
+        }
+        return getSession(sessionCode);
     }
 
     // ── Helpers ────────────────────────────────────────────────────────────────
 
+    private static boolean isLargeRoom(Session session) {
+        return Boolean.TRUE.equals(session.getSettings().getLargeRoom());
+    }
+
     private String generateUniqueSessionCode() {
         // Generate a code and verify it doesn't exist. The UNIQUE constraint
         // on session_code is the real safeguard against duplicates — this
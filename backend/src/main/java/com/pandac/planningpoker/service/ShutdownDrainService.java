@@ -0,0 +1,89 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.config.DrainFilter;
+import com.pandac.planningpoker.config.PresenceTracker;
+import com.pandac.planningpoker.config.RoomSocketHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains this instance on shutdown (SIGTERM from {@code docker compose up -d}) so a redeploy
+ * does not drop every client at the same instant and bring them all back at once.
+ * <p>
+ * Runs on {@link ContextClosedEvent}, before the web server and the brokers stop:
+ * <ol>
+ *   <li>{@link DrainFilter} starts refusing new rooms, handshakes and event streams with a
+ *       random {@code Retry-After};</li>
+ *   <li>every room with clients here gets a {@code SERVER_DRAINING} event carrying the
+ *       reconnect window and a resume token, the room's snapshot {@code stateHash}. Clients
+ *       reconnect after a random delay within the window and reload the room only if the
+ *       snapshot no longer matches the token;</li>
+ *   <li>after {@code drain.notice-grace-ms} for the notice to be delivered, raw room sockets
+ *       are closed with {@code 1012} and SSE streams ended with a {@code retry}, each with its
+ *       own random delay; STOMP connections are closed when the broker stops.</li>
+ * </ol>
+ * Graceful shutdown ({@code server.shutdown=graceful}) then completes the requests in flight.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShutdownDrainService {
+
+    private final DrainFilter drainFilter;
+    private final PresenceTracker presenceTracker;
+    private final RoomSocketHandler roomSocketHandler;
+    private final SessionEventStream sessionEventStream;
+    private final ObserverSnapshotService observerSnapshotService;
+    private final WebSocketEventPublisher webSocketEventPublisher;
+
+    @Value("${drain.reconnect-window-seconds:30}")
+    private long reconnectWindowSeconds = 30;
+
+    @Value("${drain.notice-grace-ms:1000}")
+    private long noticeGraceMs = 1000;
+
+    @EventListener(ContextClosedEvent.class)
+    public void drain() {
+        long windowMs = TimeUnit.SECONDS.toMillis(reconnectWindowSeconds);
+        drainFilter.startDraining(windowMs);
+
+        Set<String> rooms = new HashSet<>(presenceTracker.sessionCodes());
+        rooms.addAll(roomSocketHandler.roomCodes());
+        rooms.addAll(sessionEventStream.sessionCodes());
+        if (rooms.isEmpty()) {
+            return;
+        }
+        log.info("Draining {} rooms; clients reconnect within {}s", rooms.size(), reconnectWindowSeconds);
+        for (String sessionCode : rooms) {
+            try {
+                webSocketEventPublisher.serverDraining(sessionCode, windowMs, resumeToken(sessionCode));
+            } catch (RuntimeException e) {
+                log.warn("Failed to notify session {} of shutdown: {}", sessionCode, e.getMessage());
+            }
+        }
+        try {
+            Thread.sleep(noticeGraceMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        roomSocketHandler.closeForRestart(windowMs);
+        sessionEventStream.closeForRestart(windowMs);
+    }
+
+    /** State hash of the room's snapshot, {@code null} if the room cannot be read (clients then reload). */
+    private String resumeToken(String sessionCode) {
+        try {
+            return observerSnapshotService.getSnapshot(sessionCode).getStateHash();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
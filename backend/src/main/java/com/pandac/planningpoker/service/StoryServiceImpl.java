@@ -7,6 +7,8 @@ import com.pandac.planningpoker.model.*;
 import com.pandac.planningpoker.repository.StoryRepository;
 import com.pandac.planningpoker.repository.VoteRepository;
 import com.pandac.planningpoker.repository.SessionRepository;
+import com.pandac.planningpoker.service.cluster.Invalidation.Entity;
+import com.pandac.planningpoker.service.cluster.InvalidationBus;
 import com.pandac.planningpoker.service.interfaces.ISessionService;
 import com.pandac.planningpoker.service.interfaces.IStoryService;
 import com.pandac.planningpoker.security.SessionAccessValidator;
@@ -32,6 +34,7 @@ public class StoryServiceImpl implements IStoryService {
     private final ISessionService sessionService;
     private final WebSocketEventPublisher webSocketEventPublisher;
     private final SessionAccessValidator sessionAccessValidator;
+    private final InvalidationBus invalidationBus;
 
     public Story createStory(String sessionCode, CreateStoryRequest request) {
         Session session = sessionService.getSession(sessionCode);
@@ -50,7 +53,9 @@ public class StoryServiceImpl implements IStoryService {
             story.setTags(request.getTags());
         }
 
-        return storyRepository.save(story);
+        Story saved = storyRepository.save(story);
+        invalidationBus.publish(Entity.STORY, saved.getId(), null, sessionCode);
+        return saved;
     }
 
     public List<Story> getStories(String sessionCode, StoryStatus status) {
@@ -85,12 +90,15 @@ public class StoryServiceImpl implements IStoryService {
         if (request.getPriority() != null) story.setPriority(request.getPriority());
         if (request.getTags() != null) story.setTags(request.getTags());
 
-        return storyRepository.save(story);
+        Story saved = storyRepository.save(story);
+        invalidationBus.publish(Entity.STORY, saved.getId(), null, sessionCode);
+        return saved;
     }
 
     public void deleteStory(String sessionCode, Long storyId) {
         Story story = getStory(sessionCode, storyId);
         storyRepository.delete(story);
+        invalidationBus.publish(Entity.STORY, storyId, null, sessionCode);
     }
 
     public Story finalizeEstimate(String sessionCode, Long storyId, String finalEstimate, String notes) {
@@ -101,6 +109,7 @@ public class StoryServiceImpl implements IStoryService {
         story.setStatus(StoryStatus.COMPLETED);
 
         Story saved = storyRepository.save(story);
+        invalidationBus.publish(Entity.STORY, saved.getId(), null, sessionCode);
         webSocketEventPublisher.storyFinalized(sessionCode, saved);
         return saved;
     }
@@ -110,17 +119,18 @@ public class StoryServiceImpl implements IStoryService {
         Story story = storyRepository.findById(storyId).orElseThrow(() -> new StoryNotFoundException(storyId));
         sessionAccessValidator.requireStoryBelongsToSession(story, session);
 
+        // Re-opens voting only if the story is (still) the current one; clears the persistence context
+        if (sessionRepository.reopenVoting(session.getId(), storyId) == 1) {
+            invalidationBus.publish(Entity.SESSION_STATE, session.getId(), session.getVersion(), sessionCode);
+        }
+
         voteRepository.deleteByStory(story);
         story.setFinalEstimate(null);
         story.setEstimateNotes(null);
         story.setStatus(StoryStatus.NOT_ESTIMATED);
 
-        if (session.getCurrentStoryId() != null && session.getCurrentStoryId().equals(storyId)) {
-            session.setVotesRevealed(false);
-            sessionRepository.save(session);
-        }
-
         Story saved = storyRepository.save(story);
+        invalidationBus.publish(Entity.STORY, saved.getId(), null, sessionCode);
         webSocketEventPublisher.storyReset(sessionCode, saved);
         return saved;
     }
@@ -5,6 +5,8 @@ import com.pandac.planningpoker.exception.UserNotFoundException;
 import com.pandac.planningpoker.model.Session;
 import com.pandac.planningpoker.model.User;
 import com.pandac.planningpoker.repository.UserRepository;
+import com.pandac.planningpoker.service.cluster.Invalidation.Entity;
+import com.pandac.planningpoker.service.cluster.InvalidationBus;
 import com.pandac.planningpoker.service.interfaces.ISessionService;
 import com.pandac.planningpoker.service.interfaces.IUserService;
 import com.pandac.planningpoker.security.SessionAccessValidator;
@@ -27,6 +29,7 @@ public class UserServiceImpl implements IUserService {
     private final UserRepository userRepository;
     private final ISessionService sessionService;
     private final SessionAccessValidator sessionAccessValidator;
+    private final InvalidationBus invalidationBus;
 
     public List<User> getActiveUsers(String sessionCode, Boolean activeOnly) {
         Session session = sessionService.getSession(sessionCode);
@@ -64,6 +67,8 @@ public class UserServiceImpl implements IUserService {
             user.setAvatar(request.getAvatar());
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        invalidationBus.publish(Entity.USER, saved.getId(), null, sessionCode);
+        return saved;
     }
 }
@@ -11,6 +11,8 @@ import com.pandac.planningpoker.model.User;
 import com.pandac.planningpoker.model.Vote;
 import com.pandac.planningpoker.repository.SessionRepository;
 import com.pandac.planningpoker.repository.StoryRepository;
+import com.pandac.planningpoker.service.cluster.Invalidation.Entity;
+import com.pandac.planningpoker.service.cluster.InvalidationBus;
 import com.pandac.planningpoker.service.interfaces.ISessionService;
 import com.pandac.planningpoker.service.interfaces.IVoteService;
 import com.pandac.planningpoker.repository.UserRepository;
@@ -18,6 +20,8 @@ import com.pandac.planningpoker.repository.VoteRepository;
 import com.pandac.planningpoker.security.SessionAccessValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -41,8 +45,36 @@ public class VoteServiceImpl implements IVoteService {
     private final SessionAccessValidator sessionAccessValidator;
     private final VoteStatisticsCalculator voteStatisticsCalculator;
     private final VoteResponseMapper voteResponseMapper;
+    private final InvalidationBus invalidationBus;
+    private final VoteTally voteTally;
+    private final LargeRoomBroadcaster largeRoomBroadcaster;
 
     public Vote castVote(String sessionCode, Long storyId, Long userId, VoteRequest request) {
+        CheckedVote checked = checkVote(sessionCode, storyId, userId);
+
+        Vote vote;
+        if (checked.existing() != null) {
+            vote = checked.existing();
+        } else {
+            vote = new Vote();
+            vote.setStory(checked.story());
+            vote.setUser(checked.user());
+        }
+        vote.setEstimate(request.getEstimate());
+        vote.setConfidence(request.getConfidence());
+
+        vote = voteRepository.save(vote);
+        afterVoteWritten(sessionCode, checked, vote);
+        return vote;
+    }
+
+    /**
+     * Loads and validates everything {@link #castVote} needs, without writing. With
+     * {@link #afterVoteWritten} this lets a caller write the vote itself (see
+     * {@code GroupCommitVoteService}).
+     */
+    @Transactional(readOnly = true)
+    public CheckedVote checkVote(String sessionCode, Long storyId, Long userId) {
         Session session = sessionService.getSession(sessionCode);
 
         Story story = storyRepository.findById(storyId)
@@ -63,43 +95,45 @@ public class VoteServiceImpl implements IVoteService {
             throw new InvalidVoteException("Inactive users cannot vote");
         }
 
-        Optional<Vote> existingVote = voteRepository.findByStoryAndUser(story, user);
-        Vote vote;
+        Vote existing = voteRepository.findByStoryAndUser(story, user).orElse(null);
+        if (existing != null && !session.getSettings().getAllowChangeVote() && session.isVotesRevealed()) {
+            throw new InvalidVoteException("Vote changes are not allowed after reveal");
+        }
+        return new CheckedVote(session, story, user, existing);
+    }
 
-        if (existingVote.isPresent()) {
-            if (!session.getSettings().getAllowChangeVote() && session.isVotesRevealed()) {
-                throw new InvalidVoteException("Vote changes are not allowed after reveal");
+    /** Announces a written vote and auto-reveals the round if it was the last one missing. */
+    public void afterVoteWritten(String sessionCode, CheckedVote checked, Vote vote) {
+        Session session = checked.session();
+        Story story = checked.story();
+        Long storyId = story.getId();
+        invalidationBus.publish(Entity.VOTE, vote.getId(), null, sessionCode);
+
+        // Publish VOTE_CAST so clients can update vote counts in real-time. Large rooms count
+        // in memory and coalesce the broadcasts; a changed vote leaves their count as it was.
+        Long voteCount = null;
+        if (isLargeRoom(session)) {
+            if (checked.existing() == null) {
+                voteTally.recordNewVote(sessionCode, storyId, () -> voteRepository.countByStory(story),
+                        tallied -> largeRoomBroadcaster.voteCast(sessionCode, storyId, tallied));
             }
-            vote = existingVote.get();
-            vote.setEstimate(request.getEstimate());
-            vote.setConfidence(request.getConfidence());
         } else {
-            vote = new Vote();
-            vote.setStory(story);
-            vote.setUser(user);
-            vote.setEstimate(request.getEstimate());
-            vote.setConfidence(request.getConfidence());
+            voteCount = voteRepository.countByStory(story);
+            webSocketEventPublisher.voteCast(sessionCode, storyId, voteCount.intValue());
         }
 
-        vote = voteRepository.save(vote);
-
-        // Publish VOTE_CAST event so clients can update vote counts in real-time
-        int voteCount = voteRepository.findByStory(story).size();
-        webSocketEventPublisher.voteCast(sessionCode, storyId, voteCount);
-
-        // Check for auto-reveal
+        // Check for auto-reveal (exact counts from the database, never the in-memory tally)
         if (session.getSettings().getAutoReveal() && !session.isVotesRevealed()) {
-            List<User> activeUsers = userRepository.findBySessionAndActiveAndObserver(session, true, false);
-            List<Vote> currentVotes = voteRepository.findByStory(story);
+            long activeVoters = userRepository.countBySessionAndActiveAndObserver(session, true, false);
+            long currentVotes = voteCount != null ? voteCount : voteRepository.countByStory(story);
 
-            if (currentVotes.size() >= activeUsers.size()) {
-                session.setVotesRevealed(true);
-                sessionRepository.save(session);
+            // Conditional on the round still being open: concurrent last votes, here or on another
+            // instance, reveal it once
+            if (currentVotes >= activeVoters && sessionRepository.markVotesRevealed(session.getId(), storyId) == 1) {
+                invalidationBus.publish(Entity.SESSION_STATE, session.getId(), session.getVersion(), sessionCode);
                 webSocketEventPublisher.votesRevealed(sessionCode, story.getId());
             }
         }
-
-        return vote;
     }
 
     public List<VoteResponse> getVotes(String sessionCode, Long storyId, Boolean revealed) {
@@ -120,6 +154,21 @@ public class VoteServiceImpl implements IVoteService {
                 .collect(Collectors.toList());
     }
 
+    public Page<VoteResponse> getVotesPage(String sessionCode, Long storyId, Boolean revealed, Pageable pageable) {
+        Session session = sessionService.getSession(sessionCode);
+
+        Story story = storyRepository.findById(storyId)
+                .orElseThrow(() -> new StoryNotFoundException(storyId));
+
+        sessionAccessValidator.requireStoryBelongsToSession(story, session);
+
+        if (revealed && !session.isVotesRevealed()) {
+            return Page.empty(pageable);
+        }
+
+        return voteRepository.findByStory(story, pageable).map(voteResponseMapper::toVoteResponse);
+    }
+
     public void deleteVote(String sessionCode, Long storyId, Long userId) {
         Session session = sessionService.getSession(sessionCode);
 
@@ -133,7 +182,17 @@ public class VoteServiceImpl implements IVoteService {
 
         // Idempotent — no error if vote doesn't exist
         Optional<Vote> vote = voteRepository.findByStoryAndUser(story, user);
-        vote.ifPresent(voteRepository::delete);
+        vote.ifPresent(v -> {
+            voteRepository.delete(v);
+            voteTally.recordDeletedVote(storyId);
+            invalidationBus.publish(Entity.VOTE, v.getId(), null, sessionCode);
+        });
     }
 
+    /** A vote that passed {@link #checkVote}; {@code existing} is the vote it replaces, if any. */
+    public record CheckedVote(Session session, Story story, User user, Vote existing) {}
+
+    private static boolean isLargeRoom(Session session) {
+        return Boolean.TRUE.equals(session.getSettings().getLargeRoom());
+    }
 }
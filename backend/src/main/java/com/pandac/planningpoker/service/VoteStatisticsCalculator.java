@@ -28,16 +28,33 @@ public class VoteStatisticsCalculator {
 
         // Distribution of all estimates (including non-numeric)
         Map<String, Integer> distribution = new LinkedHashMap<>();
-        List<Double> numericValues = new ArrayList<>();
-
         for (Vote v : votes) {
             distribution.merge(v.getEstimate(), 1, Integer::sum);
+        }
+        return calculate(distribution);
+    }
+
+    /**
+     * Compute statistics from an already aggregated distribution (estimate → count), e.g. one
+     * counted by the database for a large room. Gives the same result as the per-vote overload.
+     *
+     * @param distribution estimate → number of votes; iteration order breaks ties for the mode
+     * @return an immutable {@link VoteStatistics} result
+     */
+    public VoteStatistics calculate(Map<String, Integer> distribution) {
+        if (distribution == null || distribution.isEmpty()) {
+            return VoteStatistics.empty();
+        }
+
+        List<Double> numericValues = new ArrayList<>();
+        distribution.forEach((estimate, count) -> {
             try {
-                numericValues.add(Double.parseDouble(v.getEstimate()));
+                double value = Double.parseDouble(estimate);
+                numericValues.addAll(Collections.nCopies(count, value));
             } catch (NumberFormatException ignored) {
                 // Non-numeric estimate — excluded from numeric stats
             }
-        }
+        });
 
         Collections.sort(numericValues);
 
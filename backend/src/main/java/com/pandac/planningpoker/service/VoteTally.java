@@ -0,0 +1,125 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.service.cluster.Invalidation;
+import com.pandac.planningpoker.service.cluster.InvalidationBus;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory vote counts for the current story of large-room sessions, so a {@code VOTE_CAST}
+ * does not cost a count query per vote. Each story's counter is a {@link LongAdder}, which
+ * spreads concurrent increments over cells instead of contending on one word.
+ * <p>
+ * A counter is seeded from the database the first time it is needed and dropped whenever it
+ * may have drifted: on any session or story invalidation (reveal, reset, story change), and
+ * when a peer node changes votes in the same session (its writes never pass through this
+ * node's counter). Counts change only after the vote's transaction commits. The count is
+ * therefore a live hint for progress display; auto-reveal and reveal statistics always use
+ * the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class VoteTally {
+
+    private final InvalidationBus invalidationBus;
+
+    private final Map<Long, StoryCount> counts = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerForInvalidations() {
+        invalidationBus.register(this::onInvalidation);
+    }
+
+    /**
+     * Counts a first vote on the story once the caller's transaction commits (at once outside
+     * one), then hands the new total to {@code onCounted}; a rolled-back vote is never counted.
+     * A missing counter is seeded before the commit, while the new vote is visible to the
+     * caller's connection. If the counter is dropped in between, the vote is left for the next
+     * one to seed and {@code onCounted} is not called.
+     *
+     * @param countFromDatabase seeds a missing counter; must already include the new vote
+     */
+    public void recordNewVote(String sessionCode, Long storyId, LongSupplier countFromDatabase, LongConsumer onCounted) {
+        Long seed = counts.containsKey(storyId) ? null : countFromDatabase.getAsLong();
+        afterCommit(() -> {
+            long total = increment(sessionCode, storyId, seed);
+            if (total >= 0) {
+                onCounted.accept(total);
+            }
+        });
+    }
+
+    /** Uncounts a deleted vote once the caller's transaction commits. */
+    public void recordDeletedVote(Long storyId) {
+        afterCommit(() -> {
+            StoryCount count = counts.get(storyId);
+            if (count != null) {
+                count.votes().decrement();
+            }
+        });
+    }
+
+    /** New total, or -1 if there is no counter and nothing to seed one with. */
+    private long increment(String sessionCode, Long storyId, Long seed) {
+        StoryCount count = counts.get(storyId);
+        if (count == null) {
+            if (seed == null) {
+                return -1;
+            }
+            StoryCount seeded = new StoryCount(sessionCode, new LongAdder());
+            seeded.votes().add(seed);
+            count = counts.putIfAbsent(storyId, seeded);
+            if (count == null) {
+                return seed;
+            }
+        }
+        count.votes().increment();
+        return count.votes().sum();
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    void onInvalidation(Invalidation invalidation) {
+        switch (invalidation.entity()) {
+            case SESSION -> dropSession(invalidation.sessionCode());
+            case STORY -> {
+                if (invalidation.id() != null) {
+                    counts.remove(invalidation.id());
+                }
+            }
+            case VOTE -> {
+                // This node's own votes are already counted; a peer's are not
+                if (!invalidationBus.isLocal(invalidation)) {
+                    dropSession(invalidation.sessionCode());
+                }
+            }
+            default -> { }
+        }
+    }
+
+    private void dropSession(String sessionCode) {
+        counts.values().removeIf(c -> c.sessionCode().equals(sessionCode));
+    }
+
+    private record StoryCount(String sessionCode, LongAdder votes) {}
+}
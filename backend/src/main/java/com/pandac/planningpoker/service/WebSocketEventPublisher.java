@@ -1,87 +1,319 @@
 package com.pandac.planningpoker.service;
 
+import com.pandac.planningpoker.config.PayloadFormatNegotiator;
+import com.pandac.planningpoker.dto.TimerState;
 import com.pandac.planningpoker.model.Story;
+import com.pandac.planningpoker.service.cluster.ClusterBus;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.core.MessagePostProcessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Centralises all WebSocket event publishing.
  * All topic paths and message shapes live here — changing a topic name is a one-line edit,
  * and service unit tests no longer need a SimpMessagingTemplate mock.
+ *
+ * <p>Every session event is published to the multiplexed destination
+ * {@code /topic/session/{code}} with {@code event-version} and {@code event-channel}
+ * headers, so a client needs a single SUBSCRIBE per session. The five legacy
+ * per-channel topics ({@code /users}, {@code /votes}, {@code /reveal}, {@code /story},
+ * {@code /timer}) are still published while older clients migrate; either side can be
+ * switched off with {@code websocket.multiplexed-topic.enabled} and
+ * {@code websocket.legacy-topics.enabled}.
+ *
+ * <p>With {@code cluster.enabled=true} every session event is also relayed through the
+ * {@link ClusterBus}; each instance delivers events from its peers to its own subscribers only.
+ *
+ * <p>Observers may instead subscribe to {@code /topic/session/{code}/snapshot}, which carries
+ * conflated room snapshots built by {@link ObserverSnapshotService} rather than the event stream.
+ *
+ * <p>Clients that cannot hold a WebSocket read the same events over SSE or long-poll from
+ * {@link SessionEventStream}.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class WebSocketEventPublisher {
 
+    /** Version of the multiplexed event envelope; bump when payload shapes change incompatibly. */
+    public static final String EVENT_VERSION = "1";
+    public static final String HEADER_EVENT_VERSION = "event-version";
+    public static final String HEADER_EVENT_CHANNEL = "event-channel";
+    /** Marks the {@code SERVER_DRAINING} notice, so that it is delivered at moderator weight. */
+    public static final String HEADER_SERVER_DRAINING = "server-draining";
+
+    private static final String SESSION_TOPIC_PREFIX = "/topic/session/";
+    public static final String SNAPSHOT_SUFFIX = "snapshot";
+
     private final SimpMessagingTemplate messagingTemplate;
+    private final ClusterBus clusterBus;
+    private final PayloadFormatNegotiator payloadFormatNegotiator;
+    private final List<SessionEventListener> sessionEventListeners = new CopyOnWriteArrayList<>();
+
+    @Value("${websocket.multiplexed-topic.enabled:true}")
+    private boolean multiplexedTopicEnabled = true;
+
+    @Value("${websocket.legacy-topics.enabled:true}")
+    private boolean legacyTopicsEnabled = true;
+
+    /** Logical event channels; each maps to one legacy topic suffix. */
+    public enum Channel {
+        USERS("users"),
+        VOTES("votes"),
+        REVEAL("reveal"),
+        STORY("story"),
+        TIMER("timer");
+
+        private final String suffix;
+
+        Channel(String suffix) {
+            this.suffix = suffix;
+        }
+
+        public String suffix() {
+            return suffix;
+        }
+
+        public static Channel fromSuffix(String suffix) {
+            for (Channel channel : values()) {
+                if (channel.suffix.equals(suffix)) {
+                    return channel;
+                }
+            }
+            throw new IllegalArgumentException("Unknown event channel: " + suffix);
+        }
+    }
+
+    @PostConstruct
+    void subscribeToCluster() {
+        clusterBus.subscribe(this::deliverRemote);
+    }
+
+    /** Multiplexed destination carrying every event of the session. */
+    public static String sessionTopic(String sessionCode) {
+        return SESSION_TOPIC_PREFIX + sessionCode;
+    }
+
+    /** Observer-tier destination carrying conflated room snapshots. */
+    public static String snapshotTopic(String sessionCode) {
+        return SESSION_TOPIC_PREFIX + sessionCode + "/" + SNAPSHOT_SUFFIX;
+    }
+
+    /**
+     * Session code of a {@link #snapshotTopic} destination, {@code null} for any other destination.
+     */
+    public static String sessionCodeOfSnapshotTopic(String destination) {
+        if (destination == null || !destination.startsWith(SESSION_TOPIC_PREFIX)
+                || !destination.endsWith("/" + SNAPSHOT_SUFFIX)) {
+            return null;
+        }
+        String code = destination.substring(SESSION_TOPIC_PREFIX.length(),
+                destination.length() - SNAPSHOT_SUFFIX.length() - 1);
+        return code.isEmpty() || code.indexOf('/') >= 0 ? null : code;
+    }
+
+    /**
+     * Session code of any session topic ({@code /topic/session/{code}} or below it),
+     * {@code null} for any other destination.
+     */
+    public static String sessionCodeOfTopic(String destination) {
+        if (!isSessionTopic(destination)) {
+            return null;
+        }
+        int end = destination.indexOf('/', SESSION_TOPIC_PREFIX.length());
+        String code = destination.substring(SESSION_TOPIC_PREFIX.length(), end < 0 ? destination.length() : end);
+        return code.isEmpty() ? null : code;
+    }
+
+    /** Whether the destination is one of the session topics (multiplexed, legacy or snapshot). */
+    public static boolean isSessionTopic(String destination) {
+        return destination != null && destination.startsWith(SESSION_TOPIC_PREFIX);
+    }
+
+    /**
+     * Receives every session event delivered on this instance; {@code local} is {@code true} for
+     * events published here and {@code false} for events relayed from a peer.
+     */
+    @FunctionalInterface
+    public interface SessionEventListener {
+        void onSessionEvent(String sessionCode, Channel channel, Object payload, boolean local);
+    }
+
+    /** Notified after every session event delivered on this instance. */
+    public void addSessionEventListener(SessionEventListener listener) {
+        sessionEventListeners.add(listener);
+    }
+
+    /** Legacy per-channel destination, e.g. {@code /topic/session/ABC123/votes}. */
+    public static String legacyTopic(String sessionCode, Channel channel) {
+        return SESSION_TOPIC_PREFIX + sessionCode + "/" + channel.suffix();
+    }
 
     // ── Generic dispatch ────────────────────────────────────────────────────────
 
     public void publish(String destination, Object payload) {
+        publish(destination, payload, null);
+    }
+
+    public void publish(String destination, Object payload, Map<String, Object> headers) {
         try {
-            messagingTemplate.convertAndSend(destination, payload);
+            MessagePostProcessor preEncoder = payloadFormatNegotiator.preEncoder(payload);
+            if (preEncoder == null) {
+                messagingTemplate.convertAndSend(destination, payload, headers);
+            } else {
+                messagingTemplate.convertAndSend(destination, payload, headers, preEncoder);
+            }
         } catch (Exception e) {
             log.error("Failed to publish WebSocket event to {}: {}", destination, e.getMessage());
         }
     }
 
+    /**
+     * Publishes a session event to this instance's subscribers and relays it to the
+     * other instances of the cluster. Inside a transaction both happen after commit, so local
+     * and remote subscribers see the event in the same phase and never for a rolled-back change.
+     */
+    public void publishSessionEvent(String sessionCode, Channel channel, Map<String, Object> payload) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliverAndRelay(sessionCode, channel, payload);
+                }
+            });
+        } else {
+            deliverAndRelay(sessionCode, channel, payload);
+        }
+    }
+
+    private void deliverAndRelay(String sessionCode, Channel channel, Map<String, Object> payload) {
+        deliverLocally(sessionCode, channel, payload, Map.of(), true);
+        clusterBus.relay(sessionCode, channel, payload);
+    }
+
+    /**
+     * Sends a session event relayed from a peer to the multiplexed topic and, during migration,
+     * to the matching legacy topic — reaching only subscribers connected to this instance.
+     */
+    public void deliverRemote(String sessionCode, Channel channel, Object payload) {
+        deliverLocally(sessionCode, channel, payload, Map.of(), false);
+    }
+
+    private void deliverLocally(String sessionCode, Channel channel, Object payload, Map<String, Object> headers,
+                                boolean local) {
+        if (multiplexedTopicEnabled) {
+            Map<String, Object> envelope = new LinkedHashMap<>(headers);
+            envelope.put(HEADER_EVENT_VERSION, EVENT_VERSION);
+            envelope.put(HEADER_EVENT_CHANNEL, channel.suffix());
+            publish(sessionTopic(sessionCode), payload, envelope);
+        }
+        if (legacyTopicsEnabled) {
+            publish(legacyTopic(sessionCode, channel), payload, headers.isEmpty() ? null : headers);
+        }
+        for (SessionEventListener listener : sessionEventListeners) {
+            listener.onSessionEvent(sessionCode, channel, payload, local);
+        }
+    }
+
     // ── User events ────────────────────────────────────────────────────────────
 
     public void userJoined(String sessionCode, Long userId, String userName) {
-        publish("/topic/session/" + sessionCode + "/users",
+        publishSessionEvent(sessionCode, Channel.USERS,
                 Map.of("type", "USER_JOINED", "userId", userId, "userName", userName));
     }
 
     public void userLeft(String sessionCode, Long userId, String userName) {
-        publish("/topic/session/" + sessionCode + "/users",
+        publishSessionEvent(sessionCode, Channel.USERS,
                 Map.of("type", "USER_LEFT", "userId", userId, "userName", userName));
     }
 
+    /** Large rooms: joins and leaves coalesced over one broadcast interval (see {@link LargeRoomBroadcaster}). */
+    public void presenceSummary(String sessionCode, int joined, int left) {
+        publishSessionEvent(sessionCode, Channel.USERS,
+                Map.of("type", "PRESENCE_SUMMARY", "joined", joined, "left", left));
+    }
+
+    /** Users whose first WebSocket connection opened or last one closed (see {@link PresenceService}). */
+    public void presenceChanged(String sessionCode, List<Long> online, List<Long> offline) {
+        publishSessionEvent(sessionCode, Channel.USERS,
+                Map.of("type", "PRESENCE_CHANGED", "online", online, "offline", offline));
+    }
+
+    /**
+     * This instance is shutting down: clients reconnect after a random delay within
+     * {@code reconnectWindowMs} and may skip reloading the room if the snapshot's
+     * {@code stateHash} still equals {@code resumeToken}. Delivered only to this instance's clients.
+     */
+    public void serverDraining(String sessionCode, long reconnectWindowMs, String resumeToken) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", "SERVER_DRAINING");
+        payload.put("reconnectWindowMs", reconnectWindowMs);
+        if (resumeToken != null) {
+            payload.put("resumeToken", resumeToken);
+        }
+        deliverLocally(sessionCode, Channel.USERS, payload, Map.of(HEADER_SERVER_DRAINING, "true"), true);
+    }
+
     // ── Vote / reveal events ───────────────────────────────────────────────────
 
     public void voteCast(String sessionCode, Long storyId, int voteCount) {
-        publish("/topic/session/" + sessionCode + "/votes",
+        publishSessionEvent(sessionCode, Channel.VOTES,
                 Map.of("type", "VOTE_CAST", "storyId", storyId, "voteCount", voteCount));
     }
 
     public void votesRevealed(String sessionCode, Long storyId) {
-        publish("/topic/session/" + sessionCode + "/reveal",
+        publishSessionEvent(sessionCode, Channel.REVEAL,
                 Map.of("type", "VOTES_REVEALED", "storyId", storyId, "sessionCode", sessionCode));
     }
 
     public void votesReset(String sessionCode, Long storyId) {
-        publish("/topic/session/" + sessionCode + "/reveal",
+        publishSessionEvent(sessionCode, Channel.REVEAL,
                 Map.of("type", "VOTES_RESET", "storyId", storyId, "sessionCode", sessionCode));
     }
 
     // ── Story events ───────────────────────────────────────────────────────────
 
     public void storyActivated(String sessionCode, Story story) {
-        publish("/topic/session/" + sessionCode + "/story",
+        publishSessionEvent(sessionCode, Channel.STORY,
                 Map.of("type", "STORY_ACTIVATED", "story", story));
     }
 
     public void storyFinalized(String sessionCode, Story story) {
-        publish("/topic/session/" + sessionCode + "/story",
+        publishSessionEvent(sessionCode, Channel.STORY,
                 Map.of("type", "STORY_FINALIZED", "story", story));
     }
 
     public void storyReset(String sessionCode, Story story) {
-        publish("/topic/session/" + sessionCode + "/story",
+        publishSessionEvent(sessionCode, Channel.STORY,
                 Map.of("type", "STORY_RESET", "story", story));
     }
 
     // ── Timer / session settings events ───────────────────────────────────────
 
     public void timerSettingsChanged(String sessionCode, Boolean timerEnabled, Integer timerDuration) {
-        publish("/topic/session/" + sessionCode + "/timer",
+        publishSessionEvent(sessionCode, Channel.TIMER,
                 Map.of("type", "TIMER_SETTINGS_CHANGED",
                        "timerEnabled", timerEnabled,
                        "timerDuration", timerDuration));
     }
+
+    /**
+     * Voting timer change or periodic sync ({@code TIMER_STARTED}, {@code TIMER_PAUSED},
+     * {@code TIMER_EXTENDED}, {@code TIMER_STOPPED}, {@code TIMER_SYNC}, {@code TIMER_EXPIRED}).
+     */
+    public void timerUpdated(String sessionCode, String type, TimerState timer) {
+        publishSessionEvent(sessionCode, Channel.TIMER,
+                Map.of("type", type, "timer", timer));
+    }
 }
@@ -0,0 +1,33 @@
+package com.pandac.planningpoker.service.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pandac.planningpoker.service.WebSocketEventPublisher.Channel;
+
+import java.util.function.Consumer;
+
+/**
+ * Relays session events between backend instances. Each instance delivers relayed events
+ * to its own STOMP subscribers only, so the simple broker never needs to know about peers.
+ * <p>
+ * Selected by {@code cluster.enabled}: {@link NoopClusterBus} for a single instance,
+ * {@link PostgresClusterBus} to fan out through PostgreSQL {@code LISTEN/NOTIFY}.
+ */
+public interface ClusterBus {
+
+    /** Sends an event published on this instance to every other instance. */
+    void relay(String sessionCode, Channel channel, Object payload);
+
+    /** Registers the handler for events published on other instances. */
+    void subscribe(Listener listener);
+
+    /** Sends a cache invalidation to every other instance. */
+    void relayInvalidation(Invalidation invalidation);
+
+    /** Registers the handler for invalidations published on other instances. */
+    void subscribeInvalidations(Consumer<Invalidation> listener);
+
+    @FunctionalInterface
+    interface Listener {
+        void onRemoteEvent(String sessionCode, Channel channel, JsonNode payload);
+    }
+}
@@ -0,0 +1,30 @@
+package com.pandac.planningpoker.service.cluster;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Compact cache invalidation message: which entity changed, in which session, and where it
+ * sits in the publishing node's per-session sequence. Short JSON names keep NOTIFY payloads small.
+ *
+ * @param entity      changed entity type; {@link Entity#SESSION} also drops everything cached for the session,
+ *                    {@link Entity#SESSION_STATE} is a change to the session row that leaves membership alone
+ * @param id          entity id, {@code null} for session-wide invalidations
+ * @param version     entity version when the entity is versioned, otherwise {@code null}
+ * @param sessionCode owning session, the unit of ordering
+ * @param origin      publishing node
+ * @param sequence    per-(origin, session) sequence number, starting at 1
+ * @param publishedAt epoch millis at publication, used for the lag metric
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Invalidation(
+        @JsonProperty("e") Entity entity,
+        @JsonProperty("i") Long id,
+        @JsonProperty("v") Long version,
+        @JsonProperty("s") String sessionCode,
+        @JsonProperty("o") String origin,
+        @JsonProperty("n") long sequence,
+        @JsonProperty("t") long publishedAt) {
+
+    public enum Entity { SESSION, SESSION_STATE, STORY, USER, VOTE }
+}
@@ -0,0 +1,170 @@
+package com.pandac.planningpoker.service.cluster;
+
+import com.pandac.planningpoker.service.cluster.Invalidation.Entity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps in-process caches coherent across instances.
+ * <p>
+ * Services call {@link #publish} for every write. The invalidation is applied after the
+ * surrounding transaction commits (never for a rollback): first to this node's caches, then
+ * relayed through the {@link ClusterBus} by a single relay thread, so a node's invalidations
+ * for one session leave in sequence order.
+ * <p>
+ * Receivers apply remote invalidations in per-(origin, session) sequence order. Duplicates
+ * and stale messages are skipped; on a gap (a message lost while a listener reconnected) the
+ * whole session is invalidated before the message is applied.
+ */
+@Component
+@Slf4j
+public class InvalidationBus {
+
+    /** Bounds the receive-side sequence table; clearing it only costs one missed gap check per session. */
+    private static final int MAX_TRACKED_STREAMS = 10_000;
+
+    private final ClusterBus clusterBus;
+    private final String origin = UUID.randomUUID().toString();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, PublishSequence> publishSequences = new ConcurrentHashMap<>();
+    private final Map<String, Long> receivedSequences = new ConcurrentHashMap<>();
+    private final ExecutorService relayExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().daemon().name("invalidation-relay").factory());
+
+    private final Counter published;
+    private final Counter received;
+    private final Counter gaps;
+    private final Timer lag;
+
+    /** A local cache that drops entries on invalidation. */
+    @FunctionalInterface
+    public interface Listener {
+        void onInvalidation(Invalidation invalidation);
+    }
+
+    public InvalidationBus(ClusterBus clusterBus, MeterRegistry registry) {
+        this.clusterBus = clusterBus;
+        this.published = Counter.builder("cache.invalidations").tag("direction", "published").register(registry);
+        this.received = Counter.builder("cache.invalidations").tag("direction", "received").register(registry);
+        this.gaps = Counter.builder("cache.invalidation.gaps")
+                .description("Sequence gaps that forced a session-wide invalidation")
+                .register(registry);
+        this.lag = Timer.builder("cache.invalidation.lag")
+                .description("Time from publication on one node to application on another")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    @PostConstruct
+    void subscribeToCluster() {
+        clusterBus.subscribeInvalidations(this::onRemoteInvalidation);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        relayExecutor.shutdown();
+    }
+
+    public void register(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /** Whether the invalidation was published by this node (as opposed to relayed from a peer). */
+    public boolean isLocal(Invalidation invalidation) {
+        return origin.equals(invalidation.origin());
+    }
+
+    /** Publishes an invalidation of one entity; deferred to after commit inside a transaction. */
+    public void publish(Entity entity, Long id, Long version, String sessionCode) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(entity, id, version, sessionCode);
+                }
+            });
+        } else {
+            dispatch(entity, id, version, sessionCode);
+        }
+    }
+
+    /** Invalidates everything cached for a session. */
+    public void publishSession(String sessionCode, Long version) {
+        publish(Entity.SESSION, null, version, sessionCode);
+    }
+
+    private void dispatch(Entity entity, Long id, Long version, String sessionCode) {
+        PublishSequence sequence = publishSequences.computeIfAbsent(sessionCode, k -> new PublishSequence());
+        Invalidation invalidation;
+        // Sequence assignment and hand-off to the single relay thread happen together,
+        // so relayed order matches sequence order for the session. A lock, not a monitor: the
+        // hand-off may block, which would pin a virtual thread's carrier inside synchronized.
+        sequence.lock.lock();
+        try {
+            invalidation = new Invalidation(entity, id, version, sessionCode, origin,
+                    ++sequence.last, System.currentTimeMillis());
+            relayExecutor.execute(() -> clusterBus.relayInvalidation(invalidation));
+        } finally {
+            sequence.lock.unlock();
+        }
+        published.increment();
+        apply(invalidation);
+    }
+
+    void onRemoteInvalidation(Invalidation invalidation) {
+        if (origin.equals(invalidation.origin())) {
+            return;
+        }
+        if (receivedSequences.size() > MAX_TRACKED_STREAMS) {
+            receivedSequences.clear();
+        }
+        String stream = invalidation.origin() + '/' + invalidation.sessionCode();
+        Long last = receivedSequences.get(stream);
+        if (last != null && invalidation.sequence() <= last) {
+            return; // duplicate or out-of-date
+        }
+        if (last != null && invalidation.sequence() > last + 1) {
+            gaps.increment();
+            log.debug("Invalidation gap for session {} from {}: {} -> {}",
+                    invalidation.sessionCode(), invalidation.origin(), last, invalidation.sequence());
+            apply(new Invalidation(Entity.SESSION, null, null, invalidation.sessionCode(),
+                    invalidation.origin(), invalidation.sequence(), invalidation.publishedAt()));
+        }
+        receivedSequences.put(stream, invalidation.sequence());
+        received.increment();
+        lag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - invalidation.publishedAt())));
+        apply(invalidation);
+    }
+
+    private void apply(Invalidation invalidation) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onInvalidation(invalidation);
+            } catch (Exception e) {
+                log.warn("Cache listener failed on {}: {}", invalidation, e.getMessage());
+            }
+        }
+    }
+
+    private static final class PublishSequence {
+        final ReentrantLock lock = new ReentrantLock();
+        long last; // guarded by lock
+    }
+}
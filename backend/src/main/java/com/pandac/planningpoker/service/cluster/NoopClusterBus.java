@@ -0,0 +1,29 @@
+package com.pandac.planningpoker.service.cluster;
+
+import com.pandac.planningpoker.service.WebSocketEventPublisher.Channel;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/** Single-instance mode: there are no peers, so nothing is relayed. */
+@Component
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "false", matchIfMissing = true)
+public class NoopClusterBus implements ClusterBus {
+
+    @Override
+    public void relay(String sessionCode, Channel channel, Object payload) {
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+    }
+
+    @Override
+    public void relayInvalidation(Invalidation invalidation) {
+    }
+
+    @Override
+    public void subscribeInvalidations(Consumer<Invalidation> listener) {
+    }
+}
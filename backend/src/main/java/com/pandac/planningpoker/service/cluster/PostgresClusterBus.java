@@ -0,0 +1,262 @@
+package com.pandac.planningpoker.service.cluster;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandac.planningpoker.service.WebSocketEventPublisher.Channel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Cluster fan-out over PostgreSQL {@code LISTEN/NOTIFY}.
+ * <p>
+ * Callers relay after commit (see {@code WebSocketEventPublisher#publishSessionEvent}), when the
+ * committed transaction's connection may still be bound to the thread; {@code pg_notify} therefore
+ * runs in its own {@code REQUIRES_NEW} transaction so it is actually sent. Envelopes over {@link #MAX_NOTIFY_BYTES} are written to
+ * {@code cluster_event_spill} and the notification carries only the row id.
+ * <p>
+ * Each instance holds one dedicated connection (outside the Hikari pool) that LISTENs on
+ * {@code cluster.channel} and reconnects with backoff. Events sent while it is reconnecting
+ * are lost; clients recover through their normal REST resync.
+ */
+@Component
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+@Slf4j
+public class PostgresClusterBus implements ClusterBus, SmartLifecycle {
+
+    /** PostgreSQL rejects NOTIFY payloads of 8000 bytes or more; keep some headroom. */
+    static final int MAX_NOTIFY_BYTES = 7900;
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final long PURGE_INTERVAL_NANOS = 60_000_000_000L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate notifyTransaction;
+    private final ObjectMapper objectMapper;
+    private final DataSourceProperties dataSourceProperties;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<Invalidation>> invalidationListeners = new CopyOnWriteArrayList<>();
+    private final Counter sent;
+    private final Counter received;
+    private final Counter spilled;
+
+    @Value("${cluster.channel:planningpoker_events}")
+    private String channel = "planningpoker_events";
+
+    @Value("${cluster.poll-timeout-ms:500}")
+    private int pollTimeoutMs = 500;
+
+    @Value("${cluster.spill-retention-minutes:5}")
+    private int spillRetentionMinutes = 5;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+    private long lastPurgeNanos = System.nanoTime();
+
+    public PostgresClusterBus(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper, DataSourceProperties dataSourceProperties,
+                              MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notifyTransaction = new TransactionTemplate(transactionManager);
+        this.notifyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.dataSourceProperties = dataSourceProperties;
+        this.sent = Counter.builder("cluster.events").tag("direction", "sent").register(registry);
+        this.received = Counter.builder("cluster.events").tag("direction", "received").register(registry);
+        this.spilled = Counter.builder("cluster.events.spilled").register(registry);
+    }
+
+    @Override
+    public void relay(String sessionCode, Channel eventChannel, Object payload) {
+        try {
+            String envelope = objectMapper.writeValueAsString(
+                    new Envelope(nodeId, sessionCode, eventChannel.suffix(), objectMapper.valueToTree(payload), null, null));
+            send(envelope);
+        } catch (Exception e) {
+            log.error("Failed to relay {} event for session {}: {}", eventChannel, sessionCode, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void relayInvalidation(Invalidation invalidation) {
+        try {
+            send(objectMapper.writeValueAsString(new Envelope(nodeId, null, null, null, null, invalidation)));
+        } catch (Exception e) {
+            log.error("Failed to relay invalidation {}: {}", invalidation, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribeInvalidations(Consumer<Invalidation> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    private void send(String envelope) {
+        notifyTransaction.executeWithoutResult(status ->
+                jdbcTemplate.queryForRowSet("SELECT pg_notify(?, ?)", channel, spillIfOversized(envelope)));
+        sent.increment();
+    }
+
+    private String spillIfOversized(String envelope) {
+        if (envelope.getBytes(StandardCharsets.UTF_8).length <= MAX_NOTIFY_BYTES) {
+            return envelope;
+        }
+        Long spillId = jdbcTemplate.queryForObject(
+                "INSERT INTO cluster_event_spill (payload) VALUES (?) RETURNING id", Long.class, envelope);
+        spilled.increment();
+        try {
+            return objectMapper.writeValueAsString(new Envelope(nodeId, null, null, null, spillId, null));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Handles one NOTIFY payload; events that originated on this instance are ignored. */
+    void handleNotification(String raw) {
+        try {
+            Envelope envelope = objectMapper.readValue(raw, Envelope.class);
+            if (nodeId.equals(envelope.origin())) {
+                return;
+            }
+            if (envelope.spillId() != null) {
+                String spilledEnvelope = jdbcTemplate.queryForObject(
+                        "SELECT payload FROM cluster_event_spill WHERE id = ?", String.class, envelope.spillId());
+                envelope = objectMapper.readValue(spilledEnvelope, Envelope.class);
+            }
+            received.increment();
+            if (envelope.invalidation() != null) {
+                for (Consumer<Invalidation> listener : invalidationListeners) {
+                    listener.accept(envelope.invalidation());
+                }
+                return;
+            }
+            Channel eventChannel = Channel.fromSuffix(envelope.channel());
+            for (Listener listener : listeners) {
+                listener.onRemoteEvent(envelope.sessionCode(), eventChannel, envelope.payload());
+            }
+        } catch (Exception e) {
+            log.warn("Dropping malformed cluster event: {}", e.getMessage());
+        }
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    // ── Lifecycle ──────────────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalStateException("cluster.channel must be a lower-case SQL identifier: " + channel);
+        }
+        running = true;
+        listenerThread = Thread.ofPlatform().daemon().name("cluster-listener").start(this::listen);
+        log.info("Cluster fan-out enabled on channel '{}' (node {})", channel, nodeId);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            try {
+                listenerThread.join(pollTimeoutMs * 2L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        long backoff = 1_000;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                backoff = 1_000;
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handleNotification(notification.getParameter());
+                        }
+                    }
+                    purgeSpillIfDue();
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cluster listener connection failed, retrying in {} ms: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void purgeSpillIfDue() {
+        long now = System.nanoTime();
+        if (now - lastPurgeNanos < PURGE_INTERVAL_NANOS) {
+            return;
+        }
+        lastPurgeNanos = now;
+        try {
+            jdbcTemplate.update("DELETE FROM cluster_event_spill WHERE created_at < now() - make_interval(mins => ?)",
+                    spillRetentionMinutes);
+        } catch (Exception e) {
+            log.debug("Failed to purge cluster spill table: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Wire format: either a session event ({@code sessionCode}, {@code channel}, {@code payload})
+     * or an {@code invalidation}. A spilled message carries only {@code origin} and {@code spillId}.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Envelope(String origin, String sessionCode, String channel, JsonNode payload, Long spillId,
+                    Invalidation invalidation) {}
+}
@@ -0,0 +1,64 @@
+package com.pandac.planningpoker.service.diagnostics;
+
+import com.pandac.planningpoker.service.FairScheduler;
+import com.pandac.planningpoker.service.FairScheduler.SessionQueue;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-session queues of the fair schedulers at {@code /actuator/sessionqueues}: for each
+ * scheduler ({@code service}, {@code outbound}) the sessions with work waiting, deepest first,
+ * with their backlog by work class and how long the oldest piece has waited. The metrics stop
+ * at totals and the deepest queue, as session codes are unbounded tag values; this is where to
+ * look for which room is the noisy one.
+ */
+@Component
+@Endpoint(id = "sessionqueues")
+public class SessionQueuesEndpoint {
+
+    /** Sessions listed per scheduler. */
+    private static final int MAX_SESSIONS = 50;
+
+    private final List<FairScheduler> schedulers;
+
+    public SessionQueuesEndpoint(List<FairScheduler> schedulers) {
+        this.schedulers = schedulers;
+    }
+
+    @ReadOperation
+    public Map<String, SchedulerQueues> queues() {
+        Map<String, SchedulerQueues> report = new LinkedHashMap<>();
+        for (FairScheduler scheduler : schedulers) {
+            report.put(scheduler.name(), report(scheduler));
+        }
+        return report;
+    }
+
+    @ReadOperation
+    public SchedulerQueues scheduler(@Selector String name) {
+        return schedulers.stream()
+                .filter(scheduler -> scheduler.name().equals(name))
+                .findFirst()
+                .map(SessionQueuesEndpoint::report)
+                .orElse(null);
+    }
+
+    private static SchedulerQueues report(FairScheduler scheduler) {
+        List<SessionQueue> sessions = scheduler.queues();
+        return new SchedulerQueues(scheduler.queued(), sessions.size(),
+                sessions.stream().limit(MAX_SESSIONS).toList());
+    }
+
+    /**
+     * @param queued    work waiting, all sessions
+     * @param sessions  sessions with work waiting
+     * @param deepest   up to 50 of them, deepest queue first
+     */
+    public record SchedulerQueues(int queued, int sessions, List<SessionQueue> deepest) {}
+}
@@ -0,0 +1,167 @@
+package com.pandac.planningpoker.service.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records virtual threads that block while pinned to their carrier (inside {@code synchronized}
+ * or native code, in our code or a dependency's), from the JFR {@code jdk.VirtualThreadPinned}
+ * event. A pinned virtual thread holds a carrier for as long as it blocks, and enough of them at
+ * once starve every other virtual thread on the node.
+ * <p>
+ * Each distinct stack is logged once, counted in {@code virtual.threads.pinned} (tagged with its
+ * first application frame, or its top frame) and listed at {@code /actuator/pinning}, most
+ * frequent first. Runs with {@code spring.threads.virtual.enabled}.
+ */
+@Component
+@Endpoint(id = "pinning")
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "virtual-threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.pandac.planningpoker.";
+    /** Frames kept per stack; enough to see past the JDK and driver frames to our own. */
+    private static final int MAX_FRAMES = 32;
+    /** Bounds the site table (and the metric's tag values); further sites only count in {@link #overflow}. */
+    private static final int MAX_SITES = 200;
+
+    private final Duration threshold;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private final LongAdder overflow = new LongAdder();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            @Value("${virtual-threads.pinning-monitor.threshold-ms:20}") long thresholdMs,
+            MeterRegistry meterRegistry) {
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::record);
+        stream.startAsync();
+        log.info("Recording virtual thread pinning longer than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /** Pinning sites seen so far, most frequent first. */
+    @ReadOperation
+    public List<PinnedSite> pinnedSites() {
+        return sites.values().stream()
+                .map(Site::report)
+                .sorted(Comparator.comparingLong(PinnedSite::count).reversed())
+                .toList();
+    }
+
+    /** Pinning events not tracked individually because {@link #MAX_SITES} sites were already known. */
+    public long overflow() {
+        return overflow.sum();
+    }
+
+    void record(RecordedEvent event) {
+        List<String> stack = stackOf(event.getStackTrace());
+        String key = String.join("\n", stack);
+        Site site = sites.get(key);
+        if (site == null) {
+            if (sites.size() >= MAX_SITES) {
+                overflow.increment();
+                return;
+            }
+            site = sites.computeIfAbsent(key, k -> newSite(stack));
+        }
+        site.record(event.getDuration());
+    }
+
+    private Site newSite(List<String> stack) {
+        String frame = stack.stream().filter(f -> f.startsWith(APPLICATION_PACKAGE)).findFirst()
+                .orElse(stack.isEmpty() ? "unknown" : stack.get(0));
+        log.warn("Virtual thread pinned its carrier at {}:\n\tat {}", frame, String.join("\n\tat ", stack));
+        Timer timer = Timer.builder("virtual.threads.pinned")
+                .description("Time virtual threads blocked while pinned to their carrier")
+                .tag("frame", frame)
+                .register(meterRegistry);
+        return new Site(frame, stack, timer);
+    }
+
+    private static List<String> stackOf(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return List.of();
+        }
+        return stackTrace.getFrames().stream()
+                .limit(MAX_FRAMES)
+                .map(VirtualThreadPinningMonitor::format)
+                .toList();
+    }
+
+    private static String format(RecordedFrame frame) {
+        String method = frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+        return frame.getLineNumber() > 0 ? method + ":" + frame.getLineNumber() : method;
+    }
+
+    /**
+     * @param frame       first application frame of the stack, or its top frame
+     * @param stackTrace  innermost frame first
+     */
+    public record PinnedSite(String frame, long count, double totalMillis, double maxMillis, List<String> stackTrace) {}
+
+    private static final class Site {
+        final String frame;
+        final List<String> stack;
+        final Timer timer;
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        Site(String frame, List<String> stack, Timer timer) {
+            this.frame = frame;
+            this.stack = stack;
+            this.timer = timer;
+        }
+
+        void record(Duration pinned) {
+            long nanos = pinned.toNanos();
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            timer.record(pinned);
+        }
+
+        PinnedSite report() {
+            return new PinnedSite(frame, count.sum(), totalNanos.sum() / 1e6, maxNanos.get() / 1e6, stack);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.pandac.planningpoker.service.groupcommit;
+
+import com.pandac.planningpoker.dto.VoteRequest;
+import com.pandac.planningpoker.dto.VoteResponse;
+import com.pandac.planningpoker.model.Vote;
+import com.pandac.planningpoker.service.VoteServiceImpl;
+import com.pandac.planningpoker.service.VoteServiceImpl.CheckedVote;
+import com.pandac.planningpoker.service.interfaces.IVoteService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * {@link IVoteService} with group commit enabled: a vote is checked in a read-only
+ * transaction, written by {@link GroupCommitVoteWriter} together with the votes queued at the
+ * same time, and announced once that batch has committed. Everything else is
+ * {@link VoteServiceImpl}.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "vote-writer.group-commit.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class GroupCommitVoteService implements IVoteService {
+
+    private final VoteServiceImpl voteService;
+    private final GroupCommitVoteWriter writer;
+
+    @Override
+    public Vote castVote(String sessionCode, Long storyId, Long userId, VoteRequest request) {
+        CheckedVote checked = voteService.checkVote(sessionCode, storyId, userId);
+        Vote vote = writer.write(storyId, userId, request.getEstimate(), request.getConfidence());
+        voteService.afterVoteWritten(sessionCode, checked, vote);
+        return vote;
+    }
+
+    @Override
+    public List<VoteResponse> getVotes(String sessionCode, Long storyId, Boolean revealed) {
+        return voteService.getVotes(sessionCode, storyId, revealed);
+    }
+
+    @Override
+    public Page<VoteResponse> getVotesPage(String sessionCode, Long storyId, Boolean revealed, Pageable pageable) {
+        return voteService.getVotesPage(sessionCode, storyId, revealed, pageable);
+    }
+
+    @Override
+    public void deleteVote(String sessionCode, Long storyId, Long userId) {
+        voteService.deleteVote(sessionCode, storyId, userId);
+    }
+}
@@ -0,0 +1,195 @@
+package com.pandac.planningpoker.service.groupcommit;
+
+import com.pandac.planningpoker.model.Story;
+import com.pandac.planningpoker.model.User;
+import com.pandac.planningpoker.model.Vote;
+import com.pandac.planningpoker.repository.StoryRepository;
+import com.pandac.planningpoker.repository.UserRepository;
+import com.pandac.planningpoker.repository.VoteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for votes ({@code vote-writer.group-commit.enabled}). Callers from every
+ * session queue their vote; one writer thread takes what is queued, waits up to
+ * {@code vote-writer.group-commit.max-delay-ms} for more, up to
+ * {@code vote-writer.group-commit.max-batch} votes, and writes them all in one transaction.
+ * Each caller returns only once that transaction has committed, so a returned vote is as
+ * durable as one written on its own; what changes is one commit (one WAL flush) per batch
+ * instead of per vote.
+ * <p>
+ * If the batch fails, its votes are retried one transaction each, so one bad vote fails only
+ * its own caller. The queue is bounded; when it is full callers wait for room.
+ */
+@Component
+@ConditionalOnProperty(name = "vote-writer.group-commit.enabled", havingValue = "true")
+@Slf4j
+public class GroupCommitVoteWriter {
+
+    private final VoteRepository voteRepository;
+    private final StoryRepository storyRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transaction;
+
+    private final BlockingQueue<PendingVote> queue;
+    private final Thread writer = Thread.ofPlatform().daemon().name("vote-group-commit").unstarted(this::run);
+    private volatile boolean running = true;
+
+    private final Timer commits;
+    private final DistributionSummary batchSizes;
+    private final Counter failures;
+
+    @Value("${vote-writer.group-commit.max-delay-ms:5}")
+    private long maxDelayMs = 5;
+
+    @Value("${vote-writer.group-commit.max-batch:64}")
+    private int maxBatch = 64;
+
+    @Value("${room-engine.enabled:false}")
+    private boolean roomEngineEnabled;
+
+    public GroupCommitVoteWriter(VoteRepository voteRepository, StoryRepository storyRepository,
+                                 UserRepository userRepository, PlatformTransactionManager transactionManager,
+                                 MeterRegistry registry,
+                                 @Value("${vote-writer.group-commit.queue-capacity:10000}") int queueCapacity) {
+        this.voteRepository = voteRepository;
+        this.storyRepository = storyRepository;
+        this.userRepository = userRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.commits = Timer.builder("vote.group.commit")
+                .description("Batched vote transactions")
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder("vote.group.commit.size")
+                .description("Votes written per group commit")
+                .register(registry);
+        this.failures = Counter.builder("vote.group.commit.failures").register(registry);
+        Gauge.builder("vote.group.commit.queued", queue, BlockingQueue::size).register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (roomEngineEnabled) {
+            throw new IllegalStateException("vote-writer.group-commit.enabled cannot be combined with "
+                    + "room-engine.enabled, which already writes votes behind in batches");
+        }
+        writer.start();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /** Writes (inserts or updates) the user's vote on the story; returns once it is committed. */
+    public Vote write(Long storyId, Long userId, String estimate, Integer confidence) {
+        PendingVote pending = new PendingVote(storyId, userId, estimate, confidence, new CompletableFuture<>());
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing a vote", e);
+        }
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void run() {
+        List<PendingVote> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingVote first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatch || remaining <= 0) {
+                        break;
+                    }
+                    PendingVote next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    void commit(List<PendingVote> batch) {
+        List<Vote> written;
+        try {
+            written = commits.record(() -> transaction.execute(status -> batch.stream().map(this::upsert).toList()));
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Group commit of {} votes failed, writing them one by one: {}", batch.size(), e.getMessage());
+            for (PendingVote pending : batch) {
+                try {
+                    pending.result().complete(transaction.execute(status -> upsert(pending)));
+                } catch (RuntimeException single) {
+                    pending.result().completeExceptionally(single);
+                }
+            }
+            return;
+        }
+        batchSizes.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(written.get(i));
+        }
+    }
+
+    private Vote upsert(PendingVote pending) {
+        Story story = storyRepository.getReferenceById(pending.storyId());
+        User user = userRepository.getReferenceById(pending.userId());
+        Vote vote = voteRepository.findByStoryAndUser(story, user).orElseGet(() -> {
+            Vote created = new Vote();
+            created.setStory(story);
+            created.setUser(user);
+            return created;
+        });
+        vote.setEstimate(pending.estimate());
+        vote.setConfidence(pending.confidence());
+        return voteRepository.save(vote);
+    }
+
+    record PendingVote(Long storyId, Long userId, String estimate, Integer confidence,
+                       CompletableFuture<Vote> result) {}
+}
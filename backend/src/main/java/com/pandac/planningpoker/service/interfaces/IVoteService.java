@@ -2,6 +2,8 @@ package com.pandac.planningpoker.service.interfaces;
 
 import com.pandac.planningpoker.dto.*;
 import com.pandac.planningpoker.model.Vote;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 
@@ -11,5 +13,7 @@ public interface IVoteService {
 
     List<VoteResponse> getVotes(String sessionCode, Long storyId, Boolean revealed);
 
+    Page<VoteResponse> getVotesPage(String sessionCode, Long storyId, Boolean revealed, Pageable pageable);
+
     void deleteVote(String sessionCode, Long storyId, Long userId);
 }
@@ -0,0 +1,42 @@
+package com.pandac.planningpoker.service.room;
+
+import com.pandac.planningpoker.model.Session;
+import com.pandac.planningpoker.model.Story;
+import com.pandac.planningpoker.model.User;
+import com.pandac.planningpoker.model.Vote;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Live state of one session held by {@link RoomEngine}: detached copies of the session, its
+ * stories and its users, plus the votes of every story touched since the room was loaded.
+ * Everything is guarded by {@link #lock}; once {@link #evicted} is set the object is dead and
+ * callers load a fresh room.
+ */
+final class LiveRoom {
+
+    final ReentrantLock lock = new ReentrantLock();
+    final Session session;
+    final Map<Long, Story> stories;
+    final Map<Long, User> participants;
+    /** story id → (user id → vote); a story's votes are loaded the first time they are needed. */
+    final Map<Long, Map<Long, Vote>> votesByStory = new HashMap<>();
+    boolean evicted;
+    volatile long lastAccessMillis = System.currentTimeMillis();
+
+    LiveRoom(Session session, Map<Long, Story> stories, Map<Long, User> participants) {
+        this.session = session;
+        this.stories = stories;
+        this.participants = participants;
+    }
+
+    String sessionCode() {
+        return session.getSessionCode();
+    }
+
+    long activeVoters() {
+        return participants.values().stream().filter(u -> u.isActive() && !u.isObserver()).count();
+    }
+}
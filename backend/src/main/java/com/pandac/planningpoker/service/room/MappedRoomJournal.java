@@ -0,0 +1,368 @@
+package com.pandac.planningpoker.service.room;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * {@link RoomJournal} in {@code room-engine.journal.dir}: an append-only {@code room.journal}
+ * file of {@code room-engine.journal.size-mb}, memory-mapped so an append is a memory copy,
+ * and a {@code room.snapshot} file.
+ * <p>
+ * The journal starts with a header (magic, generation, start offset) followed by records of
+ * {@code [length][crc32][encoded change]}; a zero length ends it. An append writes the new end
+ * marker and the record before its length, so a torn append reads as the end of the journal.
+ * The mapped pages are forced to disk every {@code room-engine.journal.fsync-interval-ms}
+ * ({@code 0} forces on every append).
+ * <p>
+ * A committed flush moves the start offset past its records ({@link #checkpoint}). The space in
+ * front of the start is reclaimed by a snapshot: the unwritten state is written to a new
+ * snapshot file of the next generation (atomic rename), then the journal is reset to that
+ * generation. A snapshot is taken once half of the journal is used, every
+ * {@code room-engine.journal.snapshot-interval-seconds} while it holds records, and whenever it
+ * is full. On startup a journal older than the snapshot is ignored.
+ */
+@Component
+@ConditionalOnProperty(name = {"room-engine.enabled", "room-engine.journal.enabled"}, havingValue = "true")
+@Slf4j
+class MappedRoomJournal implements RoomJournal {
+
+    private static final int MAGIC = 0x524A4E4C;          // "RJNL"
+    private static final int SNAPSHOT_MAGIC = 0x52534E50; // "RSNP"
+    private static final int GENERATION_OFFSET = 4;
+    private static final int START_OFFSET = 12;
+    static final int HEADER = 16;
+    private static final int RECORD_HEADER = 8;
+
+    private final Path snapshotFile;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long fsyncIntervalMs;
+    private final long snapshotIntervalMs;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService syncer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("room-journal-sync").factory());
+
+    // guarded by lock
+    private long generation;
+    private int start;
+    private int end;
+    private boolean dirty;
+    private boolean snapshotPresent;
+    private long lastSnapshotMillis = System.currentTimeMillis();
+    private List<RoomChange> recovered;
+
+    private final Counter snapshots;
+
+    MappedRoomJournal(@Value("${room-engine.journal.dir:data/room-journal}") Path dir,
+                      @Value("${room-engine.journal.size-mb:16}") int sizeMb,
+                      @Value("${room-engine.journal.fsync-interval-ms:10}") long fsyncIntervalMs,
+                      @Value("${room-engine.journal.snapshot-interval-seconds:60}") long snapshotIntervalSeconds,
+                      MeterRegistry registry) throws IOException {
+        this.fsyncIntervalMs = fsyncIntervalMs;
+        this.snapshotIntervalMs = TimeUnit.SECONDS.toMillis(snapshotIntervalSeconds);
+        Files.createDirectories(dir);
+        this.snapshotFile = dir.resolve("room.snapshot");
+        this.channel = FileChannel.open(dir.resolve("room.journal"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                Math.max(sizeMb * 1024L * 1024L, channel.size()));
+        open();
+
+        this.snapshots = Counter.builder("room.engine.journal.snapshots").register(registry);
+        Gauge.builder("room.engine.journal.bytes", this, MappedRoomJournal::usedBytes)
+                .description("Bytes appended to the room journal since its last snapshot")
+                .register(registry);
+        if (fsyncIntervalMs > 0) {
+            syncer.scheduleWithFixedDelay(this::sync, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        syncer.shutdown();
+        buffer.force();
+        channel.close();
+    }
+
+    // ── RoomJournal ────────────────────────────────────────────────────────────
+
+    @Override
+    public boolean append(RoomChange change) {
+        byte[] record = change.encode();
+        lock.lock();
+        try {
+            int next = end + RECORD_HEADER + record.length;
+            if (next + Integer.BYTES > buffer.capacity()) {
+                return false;
+            }
+            buffer.putInt(next, 0);
+            buffer.put(end + RECORD_HEADER, record);
+            buffer.putInt(end + Integer.BYTES, crc(record, 0, record.length));
+            buffer.putInt(end, record.length);
+            end = next;
+            written();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Mark mark() {
+        lock.lock();
+        try {
+            return new Mark(generation, end);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void checkpoint(Mark mark) {
+        lock.lock();
+        try {
+            if (mark.generation() != generation) {
+                return; // compacted into a snapshot while the flush was running
+            }
+            if (mark.offset() > start) {
+                start = mark.offset();
+                buffer.putInt(START_OFFSET, start);
+                written();
+            }
+            if (snapshotPresent) {
+                // the flush included everything the snapshot holds
+                Files.deleteIfExists(snapshotFile);
+                snapshotPresent = false;
+            }
+            if (start == end) {
+                reset(generation);
+            }
+        } catch (IOException e) {
+            log.error("Could not delete room snapshot {}", snapshotFile, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean snapshotDue() {
+        lock.lock();
+        try {
+            return usedBytes() >= (buffer.capacity() - HEADER) / 2
+                    || end > start && System.currentTimeMillis() - lastSnapshotMillis >= snapshotIntervalMs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void snapshot(List<RoomChange> state) {
+        lock.lock();
+        try {
+            long next = generation + 1;
+            if (state.isEmpty()) {
+                Files.deleteIfExists(snapshotFile);
+            } else {
+                writeSnapshot(next, state);
+            }
+            snapshotPresent = !state.isEmpty();
+            reset(next);
+            lastSnapshotMillis = System.currentTimeMillis();
+            snapshots.increment();
+        } catch (IOException e) {
+            log.error("Could not write room snapshot {}; the journal keeps growing", snapshotFile, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<RoomChange> recover() {
+        lock.lock();
+        try {
+            List<RoomChange> changes = recovered;
+            recovered = List.of();
+            return changes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ── Files ──────────────────────────────────────────────────────────────────
+
+    /** Reads the snapshot and the journal after it, and finds the journal's end. */
+    private void open() throws IOException {
+        List<RoomChange> changes = new ArrayList<>();
+        long snapshotGeneration = -1;
+        if (Files.exists(snapshotFile)) {
+            snapshotGeneration = readSnapshot(changes);
+        }
+
+        int magic = buffer.getInt(0);
+        if (magic == 0) {
+            generation = Math.max(snapshotGeneration, 0);
+            reset(generation);
+        } else if (magic != MAGIC) {
+            throw new IllegalStateException(channel + " is not a room journal");
+        } else if (buffer.getLong(GENERATION_OFFSET) < snapshotGeneration) {
+            // the snapshot was written but the journal not yet reset: the snapshot has it all
+            generation = snapshotGeneration;
+            reset(generation);
+        } else {
+            generation = buffer.getLong(GENERATION_OFFSET);
+            start = buffer.getInt(START_OFFSET);
+            if (start < HEADER || start > buffer.capacity() - Integer.BYTES) {
+                throw new IllegalStateException("Room journal start offset " + start + " is out of range");
+            }
+            if (snapshotGeneration != generation) {
+                changes.clear(); // an older snapshot left behind; the journal supersedes it
+            }
+            end = scan(start, changes);
+            buffer.putInt(end, 0); // cut a torn record off
+        }
+        snapshotPresent = snapshotGeneration == generation;
+        recovered = changes;
+    }
+
+    private int scan(int from, List<RoomChange> changes) {
+        int position = from;
+        while (position + RECORD_HEADER <= buffer.capacity() - Integer.BYTES) {
+            int length = buffer.getInt(position);
+            int next = position + RECORD_HEADER + length;
+            if (length <= 0 || next > buffer.capacity() - Integer.BYTES) {
+                break;
+            }
+            byte[] record = new byte[length];
+            buffer.get(position + RECORD_HEADER, record);
+            if (crc(record, 0, length) != buffer.getInt(position + Integer.BYTES)) {
+                log.warn("Room journal ends with a torn record at offset {}", position);
+                break;
+            }
+            changes.add(RoomChange.decode(record));
+            position = next;
+        }
+        return position;
+    }
+
+    /** Empties the journal under {@code newGeneration}; the end marker is written before the header. */
+    private void reset(long newGeneration) {
+        buffer.putInt(HEADER, 0);
+        buffer.putInt(START_OFFSET, HEADER);
+        buffer.putLong(GENERATION_OFFSET, newGeneration);
+        buffer.putInt(0, MAGIC);
+        generation = newGeneration;
+        start = HEADER;
+        end = HEADER;
+        written();
+    }
+
+    private void writeSnapshot(long snapshotGeneration, List<RoomChange> state) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeLong(snapshotGeneration);
+        out.writeInt(state.size());
+        for (RoomChange change : state) {
+            byte[] record = change.encode();
+            out.writeInt(record.length);
+            out.write(record);
+        }
+        byte[] content = bytes.toByteArray();
+
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileChannel file = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer data = ByteBuffer.allocate(content.length + Integer.BYTES);
+            data.put(content).putInt(crc(content, 0, content.length)).flip();
+            while (data.hasRemaining()) {
+                file.write(data);
+            }
+            file.force(true);
+        }
+        Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private long readSnapshot(List<RoomChange> changes) throws IOException {
+        byte[] content = Files.readAllBytes(snapshotFile);
+        int length = content.length - Integer.BYTES;
+        if (length < 16 || crc(content, 0, length) != ByteBuffer.wrap(content, length, Integer.BYTES).getInt()) {
+            throw new IllegalStateException("Room snapshot " + snapshotFile + " is corrupt");
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(content, 0, length));
+        if (in.readInt() != SNAPSHOT_MAGIC) {
+            throw new IllegalStateException(snapshotFile + " is not a room snapshot");
+        }
+        long snapshotGeneration = in.readLong();
+        for (int i = in.readInt(); i > 0; i--) {
+            byte[] record = new byte[in.readInt()];
+            in.readFully(record);
+            changes.add(RoomChange.decode(record));
+        }
+        return snapshotGeneration;
+    }
+
+    // ── Durability ─────────────────────────────────────────────────────────────
+
+    /** Caller holds the lock. */
+    private void written() {
+        if (fsyncIntervalMs <= 0) {
+            buffer.force();
+        } else {
+            dirty = true;
+        }
+    }
+
+    private void sync() {
+        lock.lock();
+        try {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            buffer.force();
+        } catch (UncheckedIOException e) {
+            log.warn("Could not force the room journal to disk: {}", e.getMessage());
+        }
+    }
+
+    int usedBytes() {
+        return end - HEADER;
+    }
+
+    private static int crc(byte[] data, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(data, offset, length);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,42 @@
+package com.pandac.planningpoker.service.room;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** Default: room changes waiting for the next flush are held in memory only. */
+@Component
+@ConditionalOnProperty(name = "room-engine.journal.enabled", havingValue = "false", matchIfMissing = true)
+class NoopRoomJournal implements RoomJournal {
+
+    private static final Mark NONE = new Mark(0, 0);
+
+    @Override
+    public boolean append(RoomChange change) {
+        return true;
+    }
+
+    @Override
+    public Mark mark() {
+        return NONE;
+    }
+
+    @Override
+    public void checkpoint(Mark mark) {
+    }
+
+    @Override
+    public boolean snapshotDue() {
+        return false;
+    }
+
+    @Override
+    public void snapshot(List<RoomChange> state) {
+    }
+
+    @Override
+    public List<RoomChange> recover() {
+        return List.of();
+    }
+}
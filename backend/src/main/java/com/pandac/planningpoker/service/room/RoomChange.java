@@ -0,0 +1,116 @@
+package com.pandac.planningpoker.service.room;
+
+import com.pandac.planningpoker.model.StoryStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * One room mutation recorded by {@link RoomWriteBehind}: what the pending batch coalesces and
+ * what {@link RoomJournal} appends. Encoded as a type byte followed by the fields.
+ */
+sealed interface RoomChange {
+
+    String sessionCode();
+
+    record VoteCast(String sessionCode, Long storyId, Long userId, String estimate, Integer confidence)
+            implements RoomChange {}
+
+    record VoteDeleted(String sessionCode, Long storyId, Long userId) implements RoomChange {}
+
+    record VotesCleared(String sessionCode, Long storyId) implements RoomChange {}
+
+    record RoomStateChanged(String sessionCode, Long sessionId, Long currentStoryId, boolean votesRevealed)
+            implements RoomChange {}
+
+    record StoryStatusChanged(String sessionCode, Long storyId, StoryStatus status) implements RoomChange {}
+
+    default byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            switch (this) {
+                case VoteCast v -> {
+                    out.writeByte(1);
+                    out.writeUTF(v.sessionCode());
+                    out.writeLong(v.storyId());
+                    out.writeLong(v.userId());
+                    writeNullableUtf(out, v.estimate());
+                    out.writeInt(v.confidence() == null ? -1 : v.confidence());
+                }
+                case VoteDeleted v -> {
+                    out.writeByte(2);
+                    out.writeUTF(v.sessionCode());
+                    out.writeLong(v.storyId());
+                    out.writeLong(v.userId());
+                }
+                case VotesCleared c -> {
+                    out.writeByte(3);
+                    out.writeUTF(c.sessionCode());
+                    out.writeLong(c.storyId());
+                }
+                case RoomStateChanged s -> {
+                    out.writeByte(4);
+                    out.writeUTF(s.sessionCode());
+                    out.writeLong(s.sessionId());
+                    out.writeLong(s.currentStoryId() == null ? -1 : s.currentStoryId());
+                    out.writeBoolean(s.votesRevealed());
+                }
+                case StoryStatusChanged s -> {
+                    out.writeByte(5);
+                    out.writeUTF(s.sessionCode());
+                    out.writeLong(s.storyId());
+                    out.writeUTF(s.status().name());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static RoomChange decode(byte[] encoded) {
+        try {
+            DataInput in = new DataInputStream(new ByteArrayInputStream(encoded));
+            byte type = in.readByte();
+            String sessionCode = in.readUTF();
+            return switch (type) {
+                case 1 -> {
+                    long storyId = in.readLong();
+                    long userId = in.readLong();
+                    String estimate = readNullableUtf(in);
+                    int confidence = in.readInt();
+                    yield new VoteCast(sessionCode, storyId, userId, estimate, confidence < 0 ? null : confidence);
+                }
+                case 2 -> new VoteDeleted(sessionCode, in.readLong(), in.readLong());
+                case 3 -> new VotesCleared(sessionCode, in.readLong());
+                case 4 -> {
+                    long sessionId = in.readLong();
+                    long currentStoryId = in.readLong();
+                    yield new RoomStateChanged(sessionCode, sessionId, currentStoryId < 0 ? null : currentStoryId,
+                            in.readBoolean());
+                }
+                case 5 -> new StoryStatusChanged(sessionCode, in.readLong(), StoryStatus.valueOf(in.readUTF()));
+                default -> throw new IllegalArgumentException("Unknown room change type " + type);
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeNullableUtf(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUtf(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
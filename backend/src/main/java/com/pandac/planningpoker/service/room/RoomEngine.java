@@ -0,0 +1,420 @@
+package com.pandac.planningpoker.service.room;
+
+import com.pandac.planningpoker.dto.VoteReveal;
+import com.pandac.planningpoker.dto.VoteRequest;
+import com.pandac.planningpoker.exception.NoActiveStoryException;
+import com.pandac.planningpoker.exception.InvalidVoteException;
+import com.pandac.planningpoker.exception.RoomStateUnavailableException;
+import com.pandac.planningpoker.exception.SessionNotFoundException;
+import com.pandac.planningpoker.exception.StoryNotFoundException;
+import com.pandac.planningpoker.exception.UserNotFoundException;
+import com.pandac.planningpoker.model.Session;
+import com.pandac.planningpoker.model.Story;
+import com.pandac.planningpoker.model.StoryStatus;
+import com.pandac.planningpoker.model.User;
+import com.pandac.planningpoker.model.Vote;
+import com.pandac.planningpoker.repository.SessionRepository;
+import com.pandac.planningpoker.repository.StoryRepository;
+import com.pandac.planningpoker.repository.UserRepository;
+import com.pandac.planningpoker.repository.VoteRepository;
+import com.pandac.planningpoker.service.LargeRoomBroadcaster;
+import com.pandac.planningpoker.service.VoteResponseMapper;
+import com.pandac.planningpoker.service.VoteStatisticsCalculator;
+import com.pandac.planningpoker.service.WebSocketEventPublisher;
+import com.pandac.planningpoker.service.cluster.Invalidation;
+import com.pandac.planningpoker.service.cluster.Invalidation.Entity;
+import com.pandac.planningpoker.service.cluster.InvalidationBus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Authoritative in-memory state of live rooms ({@code room-engine.enabled}). The first
+ * operation on a session loads its row, stories and users once; from then on
+ * {@link #castVote}, {@link #deleteVote}, {@link #revealVotes}, {@link #resetVotes} and
+ * {@link #setCurrentStory} run against that state under the room's lock, publish the same
+ * events as the database-backed services and hand their writes to {@link RoomWriteBehind}.
+ * A vote therefore costs no database round trip; the returned vote has no id until the room
+ * is reloaded.
+ * <p>
+ * Everything else still goes to the database. Reads flush the room's pending writes first
+ * ({@link #flushIfPending}), before their own transaction begins; other writes run through {@link #exclusive}, which flushes, runs
+ * the write under the room's lock and then evicts the room so the next operation reloads it.
+ * User changes (join, leave, profile) only refresh that participant. Rooms idle for
+ * {@code room-engine.idle-eviction-seconds} are flushed and dropped.
+ * <p>
+ * State is per instance, so the engine refuses to start with {@code cluster.enabled}.
+ */
+@Service
+@ConditionalOnProperty(name = "room-engine.enabled", havingValue = "true")
+@Slf4j
+public class RoomEngine {
+
+    private final SessionRepository sessionRepository;
+    private final StoryRepository storyRepository;
+    private final UserRepository userRepository;
+    private final VoteRepository voteRepository;
+    private final RoomWriteBehind writeBehind;
+    private final WebSocketEventPublisher webSocketEventPublisher;
+    private final LargeRoomBroadcaster largeRoomBroadcaster;
+    private final VoteStatisticsCalculator voteStatisticsCalculator;
+    private final VoteResponseMapper voteResponseMapper;
+    private final InvalidationBus invalidationBus;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Map<String, LiveRoom> rooms = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService housekeeping = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("room-engine").factory());
+
+    @Value("${room-engine.idle-eviction-seconds:600}")
+    private long idleEvictionSeconds = 600;
+
+    @Value("${cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    public RoomEngine(SessionRepository sessionRepository, StoryRepository storyRepository,
+                      UserRepository userRepository, VoteRepository voteRepository,
+                      RoomWriteBehind writeBehind, WebSocketEventPublisher webSocketEventPublisher,
+                      LargeRoomBroadcaster largeRoomBroadcaster, VoteStatisticsCalculator voteStatisticsCalculator,
+                      VoteResponseMapper voteResponseMapper, InvalidationBus invalidationBus,
+                      PlatformTransactionManager transactionManager, MeterRegistry registry) {
+        this.sessionRepository = sessionRepository;
+        this.storyRepository = storyRepository;
+        this.userRepository = userRepository;
+        this.voteRepository = voteRepository;
+        this.writeBehind = writeBehind;
+        this.webSocketEventPublisher = webSocketEventPublisher;
+        this.largeRoomBroadcaster = largeRoomBroadcaster;
+        this.voteStatisticsCalculator = voteStatisticsCalculator;
+        this.voteResponseMapper = voteResponseMapper;
+        this.invalidationBus = invalidationBus;
+        // own persistence context: loaded entities are detached, never flushed by a request
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction.setReadOnly(true);
+        Gauge.builder("room.engine.live.rooms", rooms, Map::size).register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (clusterEnabled) {
+            throw new IllegalStateException("room-engine.enabled keeps room state on one instance and cannot be "
+                    + "combined with cluster.enabled");
+        }
+        invalidationBus.register(this::onInvalidation);
+        long checkSeconds = Math.max(1, Math.min(60, idleEvictionSeconds));
+        housekeeping.scheduleWithFixedDelay(this::evictIdle, checkSeconds, checkSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        housekeeping.shutdown();
+    }
+
+    // ── Room operations ────────────────────────────────────────────────────────
+
+    public Vote castVote(String sessionCode, Long storyId, Long userId, VoteRequest request) {
+        return withRoom(sessionCode, room -> {
+            requireStory(room, storyId);
+            User user = room.participants.get(userId);
+            if (user == null) {
+                throw new UserNotFoundException(userId);
+            }
+            if (user.isObserver()) {
+                throw new InvalidVoteException("Observers cannot vote");
+            }
+            if (!user.isActive()) {
+                throw new InvalidVoteException("Inactive users cannot vote");
+            }
+
+            Session session = room.session;
+            Map<Long, Vote> votes = votesFor(room, storyId);
+            Vote existing = votes.get(userId);
+            if (existing != null && !session.getSettings().getAllowChangeVote() && session.isVotesRevealed()) {
+                throw new InvalidVoteException("Vote changes are not allowed after reveal");
+            }
+            Vote vote = new Vote();
+            vote.setId(existing != null ? existing.getId() : null);
+            vote.setUser(user);
+            vote.setEstimate(request.getEstimate());
+            vote.setConfidence(request.getConfidence());
+            vote.setVotedAt(existing != null ? existing.getVotedAt() : OffsetDateTime.now());
+            votes.put(userId, vote);
+            writeBehind.voteCast(sessionCode, storyId, userId, vote.getEstimate(), vote.getConfidence());
+
+            int voteCount = votes.size();
+            if (isLargeRoom(session)) {
+                if (existing == null) {
+                    largeRoomBroadcaster.voteCast(sessionCode, storyId, voteCount);
+                }
+            } else {
+                webSocketEventPublisher.voteCast(sessionCode, storyId, voteCount);
+            }
+
+            if (session.getSettings().getAutoReveal() && !session.isVotesRevealed() && voteCount >= room.activeVoters()) {
+                session.setVotesRevealed(true);
+                writeBehind.roomState(sessionCode, session.getId(), session.getCurrentStoryId(), true);
+                webSocketEventPublisher.votesRevealed(sessionCode, storyId);
+            }
+            return vote;
+        });
+    }
+
+    public void deleteVote(String sessionCode, Long storyId, Long userId) {
+        withRoom(sessionCode, room -> {
+            requireStory(room, storyId);
+            if (!room.participants.containsKey(userId)) {
+                throw new UserNotFoundException(userId);
+            }
+            // Idempotent — no error if vote doesn't exist
+            if (votesFor(room, storyId).remove(userId) != null) {
+                writeBehind.voteDeleted(sessionCode, storyId, userId);
+            }
+            return null;
+        });
+    }
+
+    public VoteReveal revealVotes(String sessionCode) {
+        return withRoom(sessionCode, room -> {
+            Session session = room.session;
+            if (session.getCurrentStoryId() == null) throw new NoActiveStoryException("No current story set for voting");
+            Story story = requireStory(room, session.getCurrentStoryId());
+
+            session.setVotesRevealed(true);
+            story.setStatus(StoryStatus.IN_PROGRESS);
+            writeBehind.roomState(sessionCode, session.getId(), story.getId(), true);
+            writeBehind.storyStatus(sessionCode, story.getId(), StoryStatus.IN_PROGRESS);
+
+            List<Vote> votes = new ArrayList<>(votesFor(room, story.getId()).values());
+            VoteStatisticsCalculator.VoteStatistics stats = voteStatisticsCalculator.calculate(votes);
+            VoteReveal reveal = new VoteReveal();
+            if (isLargeRoom(session)) {
+                reveal.setSummarized(true);
+            } else {
+                reveal.setVotes(votes.stream().map(voteResponseMapper::toVoteResponse).collect(Collectors.toList()));
+                reveal.setSummarized(false);
+            }
+            reveal.setTotalVotes(votes.size());
+            reveal.setStoryId(story.getId());
+            reveal.setConsensus(stats.isConsensus());
+            reveal.setDistribution(stats.getDistribution());
+            if (stats.getAverage() != null) reveal.setAverageEstimate(stats.getAverage());
+            if (stats.getMedian() != null) reveal.setMedianEstimate(stats.getMedian());
+            reveal.setRecommendedEstimate(stats.getMode());
+
+            webSocketEventPublisher.votesRevealed(sessionCode, story.getId());
+            return reveal;
+        });
+    }
+
+    public void resetVotes(String sessionCode) {
+        withRoom(sessionCode, room -> {
+            Session session = room.session;
+            if (session.getCurrentStoryId() == null) throw new NoActiveStoryException("No current story set");
+            Story story = requireStory(room, session.getCurrentStoryId());
+
+            room.votesByStory.put(story.getId(), new HashMap<>());
+            session.setVotesRevealed(false);
+            story.setStatus(StoryStatus.NOT_ESTIMATED);
+            writeBehind.votesCleared(sessionCode, story.getId());
+            writeBehind.roomState(sessionCode, session.getId(), story.getId(), false);
+            writeBehind.storyStatus(sessionCode, story.getId(), StoryStatus.NOT_ESTIMATED);
+            webSocketEventPublisher.votesReset(sessionCode, story.getId());
+            return null;
+        });
+    }
+
+    public Session setCurrentStory(String sessionCode, Long storyId) {
+        return withRoom(sessionCode, room -> {
+            Story story = requireStory(room, storyId);
+            Session session = room.session;
+            session.setCurrentStoryId(storyId);
+            session.setVotesRevealed(false);
+            writeBehind.roomState(sessionCode, session.getId(), storyId, false);
+            webSocketEventPublisher.storyActivated(sessionCode, story);
+            return session;
+        });
+    }
+
+    // ── Everything else ────────────────────────────────────────────────────────
+
+    /**
+     * Makes the room's recorded writes visible to a database read, writing only this session's
+     * rows. The flush writes in a transaction of its own, so this does nothing inside another
+     * one: that would hold two pooled connections at once. Call it before the read's transaction
+     * begins. Fails rather than let the read see state older than what clients were told.
+     */
+    public void flushIfPending(String sessionCode) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        if (writeBehind.hasPending(sessionCode) && !writeBehind.flush(sessionCode)) {
+            throw new RoomStateUnavailableException(sessionCode);
+        }
+    }
+
+    /**
+     * Runs a database-backed write to the session: with the room flushed and locked, so it
+     * neither races the engine nor is overwritten by older pending writes, then evicts the room.
+     */
+    public <T> T exclusive(String sessionCode, Supplier<T> write) {
+        LiveRoom room = rooms.get(sessionCode);
+        if (room == null) {
+            flushIfPending(sessionCode);
+            return write.get();
+        }
+        room.lock.lock();
+        try {
+            if (!writeBehind.flush(sessionCode)) {
+                throw new RoomStateUnavailableException(sessionCode);
+            }
+            return write.get();
+        } finally {
+            evict(room);
+            room.lock.unlock();
+        }
+    }
+
+    public int liveRooms() {
+        return rooms.size();
+    }
+
+    void onInvalidation(Invalidation invalidation) {
+        LiveRoom room = rooms.get(invalidation.sessionCode());
+        if (room == null) {
+            return;
+        }
+        if (invalidation.entity() == Entity.USER && invalidation.id() != null) {
+            refreshParticipant(room, invalidation.id());
+        } else {
+            evict(room);
+        }
+    }
+
+    void evictIdle() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(idleEvictionSeconds);
+        rooms.values().stream().filter(room -> room.lastAccessMillis < cutoff).forEach(this::evict);
+    }
+
+    // ── Internals ──────────────────────────────────────────────────────────────
+
+    /** Runs {@code action} on the session's live room under its lock, loading the room if needed. */
+    private <T> T withRoom(String sessionCode, Function<LiveRoom, T> action) {
+        while (true) {
+            LiveRoom room = rooms.get(sessionCode);
+            if (room == null) {
+                LiveRoom loaded = load(sessionCode);
+                room = rooms.putIfAbsent(sessionCode, loaded);
+                if (room == null) {
+                    room = loaded;
+                }
+            }
+            room.lock.lock();
+            try {
+                if (room.evicted) {
+                    continue;
+                }
+                room.lastAccessMillis = System.currentTimeMillis();
+                return action.apply(room);
+            } finally {
+                room.lock.unlock();
+            }
+        }
+    }
+
+    private LiveRoom load(String sessionCode) {
+        flushIfPending(sessionCode); // changes recovered from the journal, or kept by a failed eviction
+        return readOnlyTransaction.execute(status -> {
+            Session session = sessionRepository.findBySessionCodeAndActive(sessionCode, true)
+                    .orElseThrow(() -> new SessionNotFoundException(sessionCode));
+            Map<Long, Story> stories = new LinkedHashMap<>();
+            storyRepository.findBySessionOrderByOrderIndex(session).forEach(s -> stories.put(s.getId(), s));
+            Map<Long, User> participants = new HashMap<>();
+            userRepository.findBySession(session).forEach(u -> participants.put(u.getId(), u));
+            return new LiveRoom(session, stories, participants);
+        });
+    }
+
+    /** Caller holds the room lock. */
+    private Map<Long, Vote> votesFor(LiveRoom room, Long storyId) {
+        return room.votesByStory.computeIfAbsent(storyId, id -> readOnlyTransaction.execute(status -> {
+            Map<Long, Vote> votes = new HashMap<>();
+            for (Vote stored : voteRepository.findByStory(storyRepository.getReferenceById(id))) {
+                Long userId = stored.getUser().getId();
+                Vote vote = new Vote();
+                vote.setId(stored.getId());
+                vote.setUser(room.participants.get(userId));
+                vote.setEstimate(stored.getEstimate());
+                vote.setConfidence(stored.getConfidence());
+                vote.setVotedAt(stored.getVotedAt());
+                votes.put(userId, vote);
+            }
+            return votes;
+        }));
+    }
+
+    private static Story requireStory(LiveRoom room, Long storyId) {
+        Story story = room.stories.get(storyId);
+        if (story == null) {
+            throw new StoryNotFoundException(storyId);
+        }
+        return story;
+    }
+
+    private void refreshParticipant(LiveRoom room, Long userId) {
+        room.lock.lock();
+        try {
+            User user = readOnlyTransaction.execute(status -> userRepository.findById(userId).orElse(null));
+            if (user != null && user.getSession().getId().equals(room.session.getId())) {
+                room.participants.put(userId, user);
+            }
+        } finally {
+            room.lock.unlock();
+        }
+    }
+
+    /** Flushes and drops the room; kept if its writes cannot be saved. */
+    private void evict(LiveRoom room) {
+        room.lock.lock();
+        try {
+            if (room.evicted) {
+                return;
+            }
+            if (!writeBehind.flush(room.sessionCode())) {
+                log.warn("Keeping room {} in memory: its state could not be saved", room.sessionCode());
+                return;
+            }
+            room.evicted = true;
+            rooms.remove(room.sessionCode(), room);
+        } finally {
+            room.lock.unlock();
+        }
+    }
+
+    private static boolean isLargeRoom(Session session) {
+        return Boolean.TRUE.equals(session.getSettings().getLargeRoom());
+    }
+}
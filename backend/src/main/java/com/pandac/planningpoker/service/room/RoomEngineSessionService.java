@@ -0,0 +1,74 @@
+package com.pandac.planningpoker.service.room;
+
+import com.pandac.planningpoker.dto.*;
+import com.pandac.planningpoker.model.Session;
+import com.pandac.planningpoker.service.SessionServiceImpl;
+import com.pandac.planningpoker.service.interfaces.ISessionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link ISessionService} with the room engine enabled: reveal, reset and story activation run
+ * in memory on {@link RoomEngine}; everything else goes to {@link SessionServiceImpl} after the
+ * room's pending writes are flushed.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "room-engine.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class RoomEngineSessionService implements ISessionService {
+
+    private final SessionServiceImpl sessionService;
+    private final RoomEngine roomEngine;
+
+    @Override
+    public CreateSessionResponse createSession(CreateSessionRequest request) {
+        return sessionService.createSession(request);
+    }
+
+    @Override
+    public Session getSession(String sessionCode) {
+        roomEngine.flushIfPending(sessionCode);
+        return sessionService.getSession(sessionCode);
+    }
+
+    @Override
+    public Session updateSession(String sessionCode, UpdateSessionRequest request) {
+        return roomEngine.exclusive(sessionCode, () -> sessionService.updateSession(sessionCode, request));
+    }
+
+    @Override
+    public void deleteSession(String sessionCode) {
+        roomEngine.exclusive(sessionCode, () -> {
+            sessionService.deleteSession(sessionCode);
+            return null;
+        });
+    }
+
+    @Override
+    public UserSession joinSession(String sessionCode, JoinSessionRequest request) {
+        return sessionService.joinSession(sessionCode, request); // the engine refreshes the participant
+    }
+
+    @Override
+    public void leaveSession(String sessionCode, Long userId) {
+        sessionService.leaveSession(sessionCode, userId);
+    }
+
+    @Override
+    public VoteReveal revealVotes(String sessionCode) {
+        return roomEngine.revealVotes(sessionCode);
+    }
+
+    @Override
+    public void resetVotes(String sessionCode) {
+        roomEngine.resetVotes(sessionCode);
+    }
+
+    @Override
+    public Session setCurrentStory(String sessionCode, Long storyId) {
+        return roomEngine.setCurrentStory(sessionCode, storyId);
+    }
+}
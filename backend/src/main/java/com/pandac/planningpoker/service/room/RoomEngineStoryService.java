@@ -0,0 +1,78 @@
+package com.pandac.planningpoker.service.room;
+
+import com.pandac.planningpoker.dto.CreateStoryRequest;
+import com.pandac.planningpoker.dto.UpdateStoryRequest;
+import com.pandac.planningpoker.model.Story;
+import com.pandac.planningpoker.model.StoryStatus;
+import com.pandac.planningpoker.service.StoryServiceImpl;
+import com.pandac.planningpoker.service.interfaces.IStoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * {@link IStoryService} with the room engine enabled: story writes run through
+ * {@link RoomEngine#exclusive} so they never race, or get overwritten by, the live room's
+ * pending writes; reads flush them and then go to {@link StoryServiceImpl}.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "room-engine.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class RoomEngineStoryService implements IStoryService {
+
+    private final StoryServiceImpl storyService;
+    private final RoomEngine roomEngine;
+
+    @Override
+    public Story createStory(String sessionCode, CreateStoryRequest request) {
+        return roomEngine.exclusive(sessionCode, () -> storyService.createStory(sessionCode, request));
+    }
+
+    @Override
+    public List<Story> getStories(String sessionCode, StoryStatus status) {
+        roomEngine.flushIfPending(sessionCode);
+        return storyService.getStories(sessionCode, status);
+    }
+
+    @Override
+    public Page<Story> getStoriesPage(String sessionCode, StoryStatus status, Pageable pageable) {
+        roomEngine.flushIfPending(sessionCode);
+        return storyService.getStoriesPage(sessionCode, status, pageable);
+    }
+
+    @Override
+    public Story getStory(String sessionCode, Long storyId) {
+        roomEngine.flushIfPending(sessionCode);
+        return storyService.getStory(sessionCode, storyId);
+    }
+
+    @Override
+    public Story updateStory(String sessionCode, Long storyId, UpdateStoryRequest request) {
+        return roomEngine.exclusive(sessionCode, () -> storyService.updateStory(sessionCode, storyId, request));
+    }
+
+    @Override
+    public void deleteStory(String sessionCode, Long storyId) {
+        roomEngine.exclusive(sessionCode, () -> {
+            storyService.deleteStory(sessionCode, storyId);
+            return null;
+        });
+    }
+
+    @Override
+    public Story finalizeEstimate(String sessionCode, Long storyId, String finalEstimate, String notes) {
+        return roomEngine.exclusive(sessionCode,
+                () -> storyService.finalizeEstimate(sessionCode, storyId, finalEstimate, notes));
+    }
+
+    @Override
+    public Story resetStory(String sessionCode, Long storyId) {
+        return roomEngine.exclusive(sessionCode, () -> storyService.resetStory(sessionCode, storyId));
+    }
+}
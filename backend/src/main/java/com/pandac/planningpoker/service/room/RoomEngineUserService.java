@@ -0,0 +1,52 @@
+package com.pandac.planningpoker.service.room;
+
+import com.pandac.planningpoker.dto.UpdateUserRequest;
+import com.pandac.planningpoker.model.User;
+import com.pandac.planningpoker.service.UserServiceImpl;
+import com.pandac.planningpoker.service.interfaces.IUserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * {@link IUserService} with the room engine enabled: flushes the room's pending writes and
+ * then goes to {@link UserServiceImpl}. Profile changes reach the live room as an invalidation.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "room-engine.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class RoomEngineUserService implements IUserService {
+
+    private final UserServiceImpl userService;
+    private final RoomEngine roomEngine;
+
+    @Override
+    public List<User> getActiveUsers(String sessionCode, Boolean activeOnly) {
+        roomEngine.flushIfPending(sessionCode);
+        return userService.getActiveUsers(sessionCode, activeOnly);
+    }
+
+    @Override
+    public Page<User> getActiveUsersPage(String sessionCode, Boolean activeOnly, Pageable pageable) {
+        roomEngine.flushIfPending(sessionCode);
+        return userService.getActiveUsersPage(sessionCode, activeOnly, pageable);
+    }
+
+    @Override
+    public User getUser(String sessionCode, Long userId) {
+        roomEngine.flushIfPending(sessionCode);
+        return userService.getUser(sessionCode, userId);
+    }
+
+    @Override
+    public User updateUser(String sessionCode, Long userId, UpdateUserRequest request) {
+        roomEngine.flushIfPending(sessionCode);
+        return userService.updateUser(sessionCode, userId, request);
+    }
+}
@@ -0,0 +1,51 @@
+package com.pandac.planningpoker.service.room;
+
+import com.pandac.planningpoker.dto.VoteRequest;
+import com.pandac.planningpoker.dto.VoteResponse;
+import com.pandac.planningpoker.model.Vote;
+import com.pandac.planningpoker.service.VoteServiceImpl;
+import com.pandac.planningpoker.service.interfaces.IVoteService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * {@link IVoteService} with the room engine enabled: votes are cast and deleted in memory on
+ * {@link RoomEngine}; reads flush the room's pending writes and then go to {@link VoteServiceImpl}.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "room-engine.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class RoomEngineVoteService implements IVoteService {
+
+    private final VoteServiceImpl voteService;
+    private final RoomEngine roomEngine;
+
+    @Override
+    public Vote castVote(String sessionCode, Long storyId, Long userId, VoteRequest request) {
+        return roomEngine.castVote(sessionCode, storyId, userId, request);
+    }
+
+    @Override
+    public List<VoteResponse> getVotes(String sessionCode, Long storyId, Boolean revealed) {
+        roomEngine.flushIfPending(sessionCode);
+        return voteService.getVotes(sessionCode, storyId, revealed);
+    }
+
+    @Override
+    public Page<VoteResponse> getVotesPage(String sessionCode, Long storyId, Boolean revealed, Pageable pageable) {
+        roomEngine.flushIfPending(sessionCode);
+        return voteService.getVotesPage(sessionCode, storyId, revealed, pageable);
+    }
+
+    @Override
+    public void deleteVote(String sessionCode, Long storyId, Long userId) {
+        roomEngine.deleteVote(sessionCode, storyId, userId);
+    }
+}
@@ -0,0 +1,33 @@
+package com.pandac.planningpoker.service.room;
+
+import java.util.List;
+
+/**
+ * Local record of the room changes {@link RoomWriteBehind} has not yet written to the
+ * database, so that a restart loses none of them.
+ * <p>
+ * Selected by {@code room-engine.journal.enabled}: {@link NoopRoomJournal} keeps nothing,
+ * {@link MappedRoomJournal} appends to a memory-mapped file and compacts into snapshots.
+ */
+interface RoomJournal {
+
+    /** Appends a change already applied to the pending batch; {@code false} if there is no room left. */
+    boolean append(RoomChange change);
+
+    /** Position of the next append; taken together with the batch swap of a flush. */
+    Mark mark();
+
+    /** Drops everything appended before {@code mark}: the flush that took it has committed. */
+    void checkpoint(Mark mark);
+
+    /** Whether the journal should be compacted into a {@link #snapshot} now. */
+    boolean snapshotDue();
+
+    /** Replaces the snapshot and the whole journal with {@code state}, the changes not yet written. */
+    void snapshot(List<RoomChange> state);
+
+    /** Changes found at startup (latest snapshot, then the journal after it), in order. */
+    List<RoomChange> recover();
+
+    record Mark(long generation, int offset) {}
+}
@@ -0,0 +1,382 @@
+package com.pandac.planningpoker.service.room;
+
+import com.pandac.planningpoker.model.StoryStatus;
+import com.pandac.planningpoker.model.Story;
+import com.pandac.planningpoker.model.Vote;
+import com.pandac.planningpoker.repository.SessionRepository;
+import com.pandac.planningpoker.repository.StoryRepository;
+import com.pandac.planningpoker.repository.UserRepository;
+import com.pandac.planningpoker.repository.VoteRepository;
+import com.pandac.planningpoker.service.ObserverSnapshotService;
+import com.pandac.planningpoker.service.room.RoomChange.RoomStateChanged;
+import com.pandac.planningpoker.service.room.RoomChange.StoryStatusChanged;
+import com.pandac.planningpoker.service.room.RoomChange.VoteCast;
+import com.pandac.planningpoker.service.room.RoomChange.VoteDeleted;
+import com.pandac.planningpoker.service.room.RoomChange.VotesCleared;
+import com.pandac.planningpoker.service.room.RoomJournal.Mark;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind persistence for {@link RoomEngine}. Mutations only record their outcome in the
+ * pending batch, coalesced per row (a vote changed three times is written once); every
+ * {@code room-engine.flush-interval-ms} the batch is written in one transaction:
+ * cleared stories' votes first, then vote upserts and deletes, then session and story state
+ * as bulk updates (no version bump, no overwrite of unrelated columns).
+ * <p>
+ * A failed flush is merged back under the writes recorded since, newer values winning, and
+ * retried on the next tick. {@link #flush(String)} also writes one session's changes
+ * synchronously before anything else reads or writes that room's rows, never from inside a
+ * transaction.
+ * <p>
+ * Every recorded change is also appended to the {@link RoomJournal} and dropped from it once
+ * its flush has committed. On startup the changes left in the journal are recorded again and
+ * flushed before the first request, so a crash loses no acknowledged change (with
+ * {@code room-engine.journal.enabled}).
+ */
+@Component
+@ConditionalOnProperty(name = "room-engine.enabled", havingValue = "true")
+@Slf4j
+public class RoomWriteBehind {
+
+    private final VoteRepository voteRepository;
+    private final StoryRepository storyRepository;
+    private final UserRepository userRepository;
+    private final SessionRepository sessionRepository;
+    private final ObserverSnapshotService observerSnapshotService;
+    private final RoomJournal journal;
+    private final TransactionTemplate transaction;
+
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private Batch pending = new Batch(); // guarded by pendingLock
+    private Batch inFlight;              // guarded by pendingLock; the batch a flush is writing
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("room-write-behind").factory());
+
+    private final Timer flushes;
+    private final Counter failures;
+
+    @Value("${room-engine.flush-interval-ms:100}")
+    private long flushIntervalMs = 100;
+
+    public RoomWriteBehind(VoteRepository voteRepository, StoryRepository storyRepository,
+                           UserRepository userRepository, SessionRepository sessionRepository,
+                           ObserverSnapshotService observerSnapshotService, RoomJournal journal,
+                           PlatformTransactionManager transactionManager, MeterRegistry registry) {
+        this.voteRepository = voteRepository;
+        this.storyRepository = storyRepository;
+        this.userRepository = userRepository;
+        this.sessionRepository = sessionRepository;
+        this.observerSnapshotService = observerSnapshotService;
+        this.journal = journal;
+        // never joins a request's transaction or persistence context
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.flushes = Timer.builder("room.engine.flush")
+                .description("Write-behind batches written to the database")
+                .register(registry);
+        this.failures = Counter.builder("room.engine.flush.failures").register(registry);
+        Gauge.builder("room.engine.pending.writes", this, RoomWriteBehind::pendingWrites)
+                .description("Coalesced row writes waiting for the next flush")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        recover();
+        flusher.scheduleWithFixedDelay(this::tick, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        if (!flush()) {
+            log.error("Room state still unwritten at shutdown: {} rows", pendingWrites());
+        }
+    }
+
+    // ── Recording ──────────────────────────────────────────────────────────────
+
+    public void voteCast(String sessionCode, Long storyId, Long userId, String estimate, Integer confidence) {
+        record(new VoteCast(sessionCode, storyId, userId, estimate, confidence));
+    }
+
+    public void voteDeleted(String sessionCode, Long storyId, Long userId) {
+        record(new VoteDeleted(sessionCode, storyId, userId));
+    }
+
+    public void votesCleared(String sessionCode, Long storyId) {
+        record(new VotesCleared(sessionCode, storyId));
+    }
+
+    public void roomState(String sessionCode, Long sessionId, Long currentStoryId, boolean votesRevealed) {
+        record(new RoomStateChanged(sessionCode, sessionId, currentStoryId, votesRevealed));
+    }
+
+    public void storyStatus(String sessionCode, Long storyId, StoryStatus status) {
+        record(new StoryStatusChanged(sessionCode, storyId, status));
+    }
+
+    public boolean hasPending(String sessionCode) {
+        pendingLock.lock();
+        try {
+            return pending.sessionCodes.contains(sessionCode);
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    // ── Flushing ───────────────────────────────────────────────────────────────
+
+    /** Writes everything recorded so far; {@code false} if the write failed (it is retried later). */
+    public boolean flush() {
+        return flush(null);
+    }
+
+    /**
+     * Writes only what was recorded for one session, leaving other rooms to the next tick;
+     * {@code false} if the write failed (it is retried later). {@code null} writes everything.
+     */
+    public boolean flush(String sessionCode) {
+        flushLock.lock();
+        try {
+            Batch batch;
+            Mark mark;
+            pendingLock.lock();
+            try {
+                if (sessionCode == null) {
+                    batch = pending;
+                    pending = new Batch();
+                    // the journal can only drop a prefix, so only a full flush checkpoints it
+                    mark = journal.mark();
+                } else {
+                    batch = pending.take(sessionCode);
+                    mark = null;
+                }
+                if (batch.isEmpty()) {
+                    return true;
+                }
+                inFlight = batch;
+            } finally {
+                pendingLock.unlock();
+            }
+            try {
+                flushes.record(() -> transaction.executeWithoutResult(status -> write(batch)));
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Room write-behind flush of {} rows failed, will retry: {}", batch.size(), e.getMessage());
+                pendingLock.lock();
+                try {
+                    batch.replay(pending);
+                    pending = batch;
+                    inFlight = null;
+                } finally {
+                    pendingLock.unlock();
+                }
+                return false;
+            }
+            pendingLock.lock();
+            try {
+                inFlight = null;
+            } finally {
+                pendingLock.unlock();
+            }
+            if (mark != null) {
+                journal.checkpoint(mark);
+            }
+            batch.sessionCodes.forEach(observerSnapshotService::markDirty);
+            return true;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(Batch batch) {
+        batch.clearedStories.keySet().forEach(voteRepository::deleteByStoryId);
+
+        Map<Long, Map<Long, RoomChange>> votesByStory = new LinkedHashMap<>();
+        batch.votes.forEach((key, write) ->
+                votesByStory.computeIfAbsent(key.storyId(), k -> new LinkedHashMap<>()).put(key.userId(), write));
+        votesByStory.forEach((storyId, writes) -> {
+            Story story = storyRepository.getReferenceById(storyId);
+            Map<Long, Vote> existing = new HashMap<>();
+            voteRepository.findByStory(story).forEach(v -> existing.put(v.getUser().getId(), v));
+            writes.forEach((userId, write) -> {
+                Vote vote = existing.get(userId);
+                if (!(write instanceof VoteCast cast)) {
+                    if (vote != null) {
+                        voteRepository.delete(vote);
+                    }
+                    return;
+                }
+                if (vote == null) {
+                    vote = new Vote();
+                    vote.setStory(story);
+                    vote.setUser(userRepository.getReferenceById(userId));
+                }
+                vote.setEstimate(cast.estimate());
+                vote.setConfidence(cast.confidence());
+                voteRepository.save(vote);
+            });
+        });
+
+        batch.roomStates.forEach((sessionId, state) ->
+                sessionRepository.updateRoomState(sessionId, state.currentStoryId(), state.votesRevealed()));
+        batch.storyStatuses.forEach((storyId, change) -> storyRepository.updateStatus(storyId, change.status()));
+    }
+
+    // ── Journal ────────────────────────────────────────────────────────────────
+
+    /** Records what the journal kept from before the restart and writes it out right away. */
+    private void recover() {
+        long started = System.nanoTime();
+        List<RoomChange> changes = journal.recover();
+        if (changes.isEmpty()) {
+            return;
+        }
+        pendingLock.lock();
+        try {
+            changes.forEach(pending::apply);
+        } finally {
+            pendingLock.unlock();
+        }
+        boolean written = flush();
+        log.info("Recovered {} room changes for {} sessions from the journal in {} ms ({})", changes.size(),
+                countSessions(changes), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                written ? "written" : "write failed, will retry");
+    }
+
+    private void tick() {
+        flush();
+        if (journal.snapshotDue()) {
+            pendingLock.lock();
+            try {
+                snapshot();
+            } finally {
+                pendingLock.unlock();
+            }
+        }
+    }
+
+    /** Compacts the journal into the state not yet committed. Caller holds pendingLock. */
+    private void snapshot() {
+        Batch state = new Batch();
+        if (inFlight != null) {
+            state.replay(inFlight); // written only if that flush commits, which the journal cannot know yet
+        }
+        state.replay(pending);
+        journal.snapshot(state.changes());
+    }
+
+    private static long countSessions(List<RoomChange> changes) {
+        return changes.stream().map(RoomChange::sessionCode).distinct().count();
+    }
+
+    int pendingWrites() {
+        pendingLock.lock();
+        try {
+            return pending.size();
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private void record(RoomChange change) {
+        pendingLock.lock();
+        try {
+            pending.apply(change);
+            if (!journal.append(change)) {
+                snapshot(); // journal full; the snapshot includes this change
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    /** Latest recorded change per row; applying changes in order coalesces them. */
+    private static final class Batch {
+        final Map<Long, VotesCleared> clearedStories = new LinkedHashMap<>();
+        final Map<VoteKey, RoomChange> votes = new LinkedHashMap<>(); // VoteCast or VoteDeleted
+        final Map<Long, RoomStateChanged> roomStates = new LinkedHashMap<>();
+        final Map<Long, StoryStatusChanged> storyStatuses = new LinkedHashMap<>();
+        final Set<String> sessionCodes = new HashSet<>();
+
+        void apply(RoomChange change) {
+            sessionCodes.add(change.sessionCode());
+            switch (change) {
+                case VoteCast cast -> votes.put(new VoteKey(cast.storyId(), cast.userId()), cast);
+                case VoteDeleted deleted -> votes.put(new VoteKey(deleted.storyId(), deleted.userId()), deleted);
+                case VotesCleared cleared -> {
+                    votes.keySet().removeIf(key -> key.storyId().equals(cleared.storyId()));
+                    clearedStories.put(cleared.storyId(), cleared);
+                }
+                case RoomStateChanged state -> roomStates.put(state.sessionId(), state);
+                case StoryStatusChanged status -> storyStatuses.put(status.storyId(), status);
+            }
+        }
+
+        /** Changes that rebuild this batch when applied in order to an empty one. */
+        List<RoomChange> changes() {
+            List<RoomChange> changes = new ArrayList<>(size());
+            changes.addAll(clearedStories.values());
+            changes.addAll(votes.values());
+            changes.addAll(roomStates.values());
+            changes.addAll(storyStatuses.values());
+            return changes;
+        }
+
+        /** Moves one session's changes into a batch of their own. */
+        Batch take(String sessionCode) {
+            Batch taken = new Batch();
+            if (!sessionCodes.remove(sessionCode)) {
+                return taken;
+            }
+            changes().stream().filter(change -> change.sessionCode().equals(sessionCode)).forEach(taken::apply);
+            clearedStories.values().removeIf(change -> change.sessionCode().equals(sessionCode));
+            votes.values().removeIf(change -> change.sessionCode().equals(sessionCode));
+            roomStates.values().removeIf(change -> change.sessionCode().equals(sessionCode));
+            storyStatuses.values().removeIf(change -> change.sessionCode().equals(sessionCode));
+            return taken;
+        }
+
+        /** Applies a newer batch on top of this one, as if its changes had been recorded here. */
+        void replay(Batch newer) {
+            sessionCodes.addAll(newer.sessionCodes);
+            newer.changes().forEach(this::apply);
+        }
+
+        int size() {
+            return clearedStories.size() + votes.size() + roomStates.size() + storyStatuses.size();
+        }
+
+        boolean isEmpty() {
+            return size() == 0;
+        }
+    }
+
+    private record VoteKey(Long storyId, Long userId) {}
+}
@@ -0,0 +1,175 @@
+package com.pandac.planningpoker.service.timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timing wheel (Varghese &amp; Lauck): a ring of {@code wheelSize} buckets advanced by one
+ * worker thread every {@code tickMs}. A timeout lands in the bucket of its deadline tick and
+ * carries the number of full rotations still to wait, so scheduling and cancelling are O(1)
+ * whatever the number of pending timeouts, and the worker only touches the bucket of the
+ * current tick. Deadlines are rounded up to the next tick.
+ *
+ * <p>{@link #schedule} only enqueues; the worker moves new timeouts into their buckets at the
+ * start of each tick. {@link Timeout#cancel} only marks the timeout — it is dropped when its
+ * bucket comes round. Expired tasks run on the supplied executor, never on the worker.
+ */
+@Slf4j
+public class HashedTimingWheel {
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor executor;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile boolean stopped;
+    private final long startNanos = System.nanoTime();
+    /** Ticks processed by the worker; only written by the worker. */
+    private long tick;
+
+    public HashedTimingWheel(String name, long tickMs, int wheelSize, Executor executor) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be positive: " + tickMs);
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two: " + wheelSize);
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.wheel = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheelSize - 1;
+        this.executor = executor;
+        this.worker = Thread.ofPlatform().daemon().name(name).unstarted(this::run);
+    }
+
+    public void start() {
+        if (started.compareAndSet(false, true)) {
+            worker.start();
+        }
+    }
+
+    public void stop() {
+        stopped = true;
+        worker.interrupt();
+    }
+
+    /** Runs {@code task} once after {@code delay}; the returned handle cancels it. */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        start();
+        Timeout timeout = new Timeout(task, System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay)));
+        pending.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    private void run() {
+        while (!stopped) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos = deadline - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (stopped) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            transferAdded();
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferAdded() {
+        Timeout timeout;
+        while ((timeout = added.poll()) != null) {
+            if (timeout.cancelled) {
+                pending.decrementAndGet();
+                continue;
+            }
+            // first tick whose end is at or after the deadline, never one already processed
+            long target = Math.max(tick, (timeout.deadlineNanos + tickNanos - 1) / tickNanos - 1);
+            timeout.remainingRounds = (target - tick) / wheel.length;
+            wheel[(int) (target & mask)].timeouts.add(timeout);
+        }
+    }
+
+    private void expire(Bucket bucket) {
+        Iterator<Timeout> it = bucket.timeouts.iterator();
+        while (it.hasNext()) {
+            Timeout timeout = it.next();
+            if (timeout.cancelled) {
+                it.remove();
+                pending.decrementAndGet();
+            } else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            } else {
+                it.remove();
+                pending.decrementAndGet();
+                if (timeout.expire()) {
+                    try {
+                        executor.execute(timeout.task);
+                    } catch (RuntimeException e) {
+                        log.error("Failed to run expired timeout: {}", e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    /** Timeouts not yet expired or dropped, including cancelled ones awaiting their bucket. */
+    public int pendingCount() {
+        return pending.get();
+    }
+
+    /** Only accessed by the worker thread. */
+    private static final class Bucket {
+        private final ArrayDeque<Timeout> timeouts = new ArrayDeque<>();
+    }
+
+    /** Handle of a scheduled task. */
+    public static final class Timeout {
+        private final Runnable task;
+        private final long deadlineNanos;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /** Prevents the task from running; {@code false} if it already expired. */
+        public boolean cancel() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            cancelled = true;
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private boolean expire() {
+            return done.compareAndSet(false, true);
+        }
+    }
+}
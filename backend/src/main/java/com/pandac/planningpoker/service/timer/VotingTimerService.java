@@ -0,0 +1,346 @@
+package com.pandac.planningpoker.service.timer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pandac.planningpoker.dto.TimerState;
+import com.pandac.planningpoker.dto.TimerState.Status;
+import com.pandac.planningpoker.exception.TimerStateException;
+import com.pandac.planningpoker.model.Session;
+import com.pandac.planningpoker.repository.SessionRepository;
+import com.pandac.planningpoker.service.FairScheduler.WorkClass;
+import com.pandac.planningpoker.service.SessionMailbox;
+import com.pandac.planningpoker.service.WebSocketEventPublisher;
+import com.pandac.planningpoker.service.WebSocketEventPublisher.Channel;
+import com.pandac.planningpoker.service.interfaces.ISessionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-authoritative voting timer. The database holds the state of each session's timer —
+ * the deadline while running, the seconds left while paused — so timers survive restarts and
+ * every instance agrees on them; clients only render the countdown from the broadcast
+ * {@link TimerState}.
+ *
+ * <p>Each running timer has one entry in a {@link HashedTimingWheel}, due at its deadline or at
+ * the next sync, whichever comes first; at a sync the entry broadcasts {@code TIMER_SYNC} and
+ * reschedules itself, so tens of thousands of rooms cost one wheel thread and no database
+ * access until expiry. On expiry the deadline is cleared with a conditional update — only the
+ * instance whose update wins broadcasts {@code TIMER_EXPIRED} and, with
+ * {@code settings.timerAutoReveal}, reveals the votes through {@link ISessionService#revealVotes}.
+ *
+ * <p>Revealing or resetting the votes, activating another story and disabling the timer all
+ * stop it. An instance drops its wheel entry when a peer changes the timer, so the instance
+ * that changed it last drives the syncs; instances restarted while a timer runs pick it up
+ * again from the stored deadline.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VotingTimerService {
+
+    static final String TIMER_STARTED = "TIMER_STARTED";
+    static final String TIMER_PAUSED = "TIMER_PAUSED";
+    static final String TIMER_EXTENDED = "TIMER_EXTENDED";
+    static final String TIMER_STOPPED = "TIMER_STOPPED";
+    static final String TIMER_SYNC = "TIMER_SYNC";
+    static final String TIMER_EXPIRED = "TIMER_EXPIRED";
+
+    /** Timer events after which the instance that published them drives the timer. */
+    private static final Set<String> OWNERSHIP_EVENTS =
+            Set.of(TIMER_STARTED, TIMER_PAUSED, TIMER_EXTENDED, TIMER_STOPPED, TIMER_EXPIRED);
+    /** Events that end the voting round and therefore the timer. */
+    private static final Set<String> ROUND_EVENTS = Set.of("VOTES_REVEALED", "VOTES_RESET", "STORY_ACTIVATED");
+
+    private final SessionRepository sessionRepository;
+    private final ISessionService sessionService;
+    private final WebSocketEventPublisher webSocketEventPublisher;
+    private final SessionMailbox sessionMailbox;
+
+    /** Session code → this instance's wheel entry for the running timer. */
+    private final Map<String, Scheduled> scheduled = new ConcurrentHashMap<>();
+    private final ExecutorService timeoutExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("voting-timer-", 0).factory());
+    private HashedTimingWheel wheel;
+
+    @Value("${timer.tick-ms:100}")
+    private long tickMs = 100;
+
+    @Value("${timer.wheel-size:512}")
+    private int wheelSize = 512;
+
+    @Value("${timer.sync-interval-seconds:10}")
+    private long syncIntervalSeconds = 10;
+
+    @PostConstruct
+    void start() {
+        wheel = new HashedTimingWheel("voting-timer-wheel", tickMs, wheelSize, timeoutExecutor);
+        wheel.start();
+        webSocketEventPublisher.addSessionEventListener(this::onSessionEvent);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        wheel.stop();
+        timeoutExecutor.shutdown();
+    }
+
+    /** Reschedules the timers that were running when the instance stopped; overdue ones expire now. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverTimers() {
+        for (Session session : sessionRepository.findByActiveTrueAndTimerDeadlineIsNotNull()) {
+            schedule(session.getSessionCode(), session.getTimerDeadline(), session);
+        }
+        if (!scheduled.isEmpty()) {
+            log.info("Recovered {} running voting timers", scheduled.size());
+        }
+    }
+
+    public TimerState getTimer(String sessionCode) {
+        Session session = sessionService.getSession(sessionCode);
+        return state(session, session.getTimerDeadline(), session.getTimerRemainingSeconds());
+    }
+
+    /** Starts the timer with the session's duration, or resumes it if paused. */
+    public TimerState start(String sessionCode) {
+        Session session = sessionService.getSession(sessionCode);
+        if (!Boolean.TRUE.equals(session.getSettings().getTimerEnabled())) {
+            throw new TimerStateException("The timer is disabled for session " + sessionCode);
+        }
+        if (session.getTimerDeadline() != null) {
+            throw new TimerStateException("The timer is already running");
+        }
+        int seconds = session.getTimerRemainingSeconds() != null
+                ? session.getTimerRemainingSeconds()
+                : session.getSettings().getTimerDuration();
+        OffsetDateTime deadline = now().plusSeconds(seconds);
+        if (sessionRepository.startTimer(sessionCode, deadline) == 0) {
+            throw new TimerStateException("The timer was started concurrently");
+        }
+        schedule(sessionCode, deadline, session);
+        return publish(sessionCode, TIMER_STARTED, state(session, deadline, null));
+    }
+
+    public TimerState pause(String sessionCode) {
+        Session session = sessionService.getSession(sessionCode);
+        OffsetDateTime deadline = session.getTimerDeadline();
+        if (deadline == null) {
+            throw new TimerStateException("The timer is not running");
+        }
+        int remaining = Math.max(1, secondsUntil(deadline));
+        if (sessionRepository.updateRunningTimer(sessionCode, deadline, null, remaining) == 0) {
+            throw new TimerStateException("The timer changed concurrently");
+        }
+        cancel(sessionCode);
+        return publish(sessionCode, TIMER_PAUSED, state(session, null, remaining));
+    }
+
+    /** Adds time to a running or paused timer. */
+    public TimerState extend(String sessionCode, int seconds) {
+        Session session = sessionService.getSession(sessionCode);
+        OffsetDateTime deadline = session.getTimerDeadline();
+        Integer remaining = session.getTimerRemainingSeconds();
+        if (deadline != null) {
+            OffsetDateTime extended = deadline.plusSeconds(seconds);
+            if (sessionRepository.updateRunningTimer(sessionCode, deadline, extended, null) == 0) {
+                throw new TimerStateException("The timer changed concurrently");
+            }
+            schedule(sessionCode, extended, session);
+            return publish(sessionCode, TIMER_EXTENDED, state(session, extended, null));
+        }
+        if (remaining != null) {
+            if (sessionRepository.updatePausedTimer(sessionCode, remaining, remaining + seconds) == 0) {
+                throw new TimerStateException("The timer changed concurrently");
+            }
+            return publish(sessionCode, TIMER_EXTENDED, state(session, null, remaining + seconds));
+        }
+        throw new TimerStateException("The timer is not running");
+    }
+
+    /** Stops a running or paused timer; stopping a stopped timer is a no-op. */
+    public TimerState stop(String sessionCode) {
+        Session session = sessionService.getSession(sessionCode);
+        TimerState stopped = state(session, null, null);
+        if (sessionRepository.clearTimer(sessionCode) > 0) {
+            cancel(sessionCode);
+            publish(sessionCode, TIMER_STOPPED, stopped);
+        }
+        return stopped;
+    }
+
+    // ── Wheel entries ───────────────────────────────────────────────────────────
+
+    /** Replaces the session's wheel entry with one due at the deadline or the next sync. */
+    private void schedule(String sessionCode, OffsetDateTime deadline, Session session) {
+        scheduled.compute(sessionCode, (code, previous) -> {
+            if (previous != null) {
+                previous.timeout.cancel();
+            }
+            return next(code, deadline, session.getSettings().getTimerDuration(),
+                    session.getSettings().getTimerAutoReveal());
+        });
+    }
+
+    private Scheduled next(String sessionCode, OffsetDateTime deadline, Integer durationSeconds, Boolean autoReveal) {
+        long delayMs = Math.min(Duration.between(Instant.now(), deadline.toInstant()).toMillis(),
+                TimeUnit.SECONDS.toMillis(syncIntervalSeconds));
+        Scheduled entry = new Scheduled(deadline, durationSeconds, autoReveal);
+        entry.timeout = wheel.schedule(() -> onTimeout(sessionCode, entry), delayMs, TimeUnit.MILLISECONDS);
+        return entry;
+    }
+
+    private void cancel(String sessionCode) {
+        Scheduled entry = scheduled.remove(sessionCode);
+        if (entry != null) {
+            entry.timeout.cancel();
+        }
+    }
+
+    private void onTimeout(String sessionCode, Scheduled entry) {
+        if (secondsUntil(entry.deadline) > 0) {
+            boolean[] current = new boolean[1];
+            scheduled.computeIfPresent(sessionCode, (code, existing) -> {
+                current[0] = existing == entry;
+                return current[0] ? next(code, entry.deadline, entry.durationSeconds, entry.autoReveal) : existing;
+            });
+            if (current[0]) {
+                webSocketEventPublisher.timerUpdated(sessionCode, TIMER_SYNC, new TimerState(Status.RUNNING,
+                        entry.deadline.toInstant().toEpochMilli(), secondsUntil(entry.deadline),
+                        entry.durationSeconds, entry.autoReveal, System.currentTimeMillis()));
+            }
+            return;
+        }
+        if (scheduled.remove(sessionCode, entry)) {
+            expire(sessionCode, entry.deadline);
+        }
+    }
+
+    private void expire(String sessionCode, OffsetDateTime deadline) {
+        try {
+            if (sessionRepository.updateRunningTimer(sessionCode, deadline, null, null) == 0) {
+                return; // paused, extended or expired elsewhere in the meantime
+            }
+            Session session = sessionService.getSession(sessionCode);
+            publish(sessionCode, TIMER_EXPIRED, state(session, null, null));
+            if (Boolean.TRUE.equals(session.getSettings().getTimerAutoReveal())
+                    && !session.isVotesRevealed() && session.getCurrentStoryId() != null) {
+                sessionMailbox.submit(sessionCode, WorkClass.MODERATOR, () -> sessionService.revealVotes(sessionCode));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Voting timer expiry failed for session {}: {}", sessionCode, e.getMessage());
+        }
+    }
+
+    // ── Events ──────────────────────────────────────────────────────────────────
+
+    /**
+     * Ends the timer with the round. Only events published on this instance touch the stored
+     * timer; for events relayed from a peer, the peer already did.
+     */
+    private void onSessionEvent(String sessionCode, Channel channel, Object payload, boolean local) {
+        String type = eventType(payload);
+        if (type == null) {
+            return;
+        }
+        if (channel == Channel.TIMER && !local && OWNERSHIP_EVENTS.contains(type)) {
+            cancel(sessionCode);
+        } else if (ROUND_EVENTS.contains(type) || ("TIMER_SETTINGS_CHANGED".equals(type) && !timerEnabled(payload))) {
+            cancel(sessionCode);
+            if (local && sessionRepository.clearTimer(sessionCode) > 0) {
+                afterCommit(() -> webSocketEventPublisher.timerUpdated(sessionCode, TIMER_STOPPED,
+                        new TimerState(Status.STOPPED, null, null, null, null, System.currentTimeMillis())));
+            }
+        }
+    }
+
+    private static String eventType(Object payload) {
+        if (payload instanceof Map<?, ?> map) {
+            return map.get("type") instanceof String type ? type : null;
+        }
+        return payload instanceof JsonNode node ? node.path("type").asText(null) : null;
+    }
+
+    private static boolean timerEnabled(Object payload) {
+        if (payload instanceof Map<?, ?> map) {
+            return Boolean.TRUE.equals(map.get("timerEnabled"));
+        }
+        return payload instanceof JsonNode node && node.path("timerEnabled").asBoolean();
+    }
+
+    /** Runs the task once the current transaction commits, or right away outside one. */
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    // ── Helpers ─────────────────────────────────────────────────────────────────
+
+    private TimerState publish(String sessionCode, String type, TimerState timer) {
+        webSocketEventPublisher.timerUpdated(sessionCode, type, timer);
+        return timer;
+    }
+
+    private static TimerState state(Session session, OffsetDateTime deadline, Integer remainingSeconds) {
+        Status status = deadline != null ? Status.RUNNING : remainingSeconds != null ? Status.PAUSED : Status.STOPPED;
+        if (deadline != null) {
+            remainingSeconds = Math.max(0, secondsUntil(deadline));
+        }
+        return new TimerState(status,
+                deadline != null ? deadline.toInstant().toEpochMilli() : null,
+                remainingSeconds,
+                session.getSettings().getTimerDuration(),
+                session.getSettings().getTimerAutoReveal(),
+                System.currentTimeMillis());
+    }
+
+    /** Whole seconds left until the deadline, rounded up; zero or negative once it passed. */
+    private static int secondsUntil(OffsetDateTime deadline) {
+        long millis = Duration.between(Instant.now(), deadline.toInstant()).toMillis();
+        return (int) Math.ceil(millis / 1000.0);
+    }
+
+    /** Millisecond precision, so the stored deadline compares equal to the one kept here. */
+    private static OffsetDateTime now() {
+        return OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    /** This instance's wheel entry for a running timer; replaced at every sync. */
+    private static final class Scheduled {
+        private final OffsetDateTime deadline;
+        private final Integer durationSeconds;
+        private final Boolean autoReveal;
+        private volatile HashedTimingWheel.Timeout timeout;
+
+        private Scheduled(OffsetDateTime deadline, Integer durationSeconds, Boolean autoReveal) {
+            this.deadline = deadline;
+            this.durationSeconds = durationSeconds;
+            this.autoReveal = autoReveal;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+-- V3__cluster_event_spill.sql
+-- Holds cluster fan-out events too large for a NOTIFY payload (8000 byte limit).
+-- The notification carries only the row id; rows are purged after a few minutes.
+
+CREATE TABLE cluster_event_spill (
+    id         BIGSERIAL PRIMARY KEY,
+    payload    TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_cluster_event_spill_created_at ON cluster_event_spill (created_at);
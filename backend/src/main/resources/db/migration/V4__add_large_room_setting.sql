@@ -0,0 +1,5 @@
+-- V4__add_large_room_setting.sql
+-- Large-room mode: coalesced presence/vote-count broadcasts and a summarized reveal
+-- for sessions with hundreds of voters.
+
+ALTER TABLE sessions ADD COLUMN large_room BOOLEAN NOT NULL DEFAULT FALSE;
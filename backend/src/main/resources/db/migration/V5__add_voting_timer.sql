@@ -0,0 +1,7 @@
+-- V5__add_voting_timer.sql
+-- Server-side voting timer: the running deadline or the paused remainder survives restarts,
+-- and the timer can reveal votes when it expires.
+
+ALTER TABLE sessions ADD COLUMN timer_deadline TIMESTAMP;
+ALTER TABLE sessions ADD COLUMN timer_remaining_seconds INTEGER;
+ALTER TABLE sessions ADD COLUMN timer_auto_reveal BOOLEAN NOT NULL DEFAULT FALSE;
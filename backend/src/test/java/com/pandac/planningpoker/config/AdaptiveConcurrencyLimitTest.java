@@ -0,0 +1,57 @@
+package com.pandac.planningpoker.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long MS = 1_000_000;
+
+    private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200, 1.5, 0.2);
+
+    @Test
+    void steadyLatency_underLoad_growsTheLimitToTheMaximum() {
+        for (int i = 0; i < 2_000; i++) {
+            limit.onSample(10 * MS, limit.limit());
+        }
+
+        assertThat(limit.limit()).isEqualTo(200);
+    }
+
+    @Test
+    void risingLatency_shrinksTheLimit_andItRecoversAfterwards() {
+        for (int i = 0; i < 1_000; i++) {
+            limit.onSample(10 * MS, limit.limit());
+        }
+        int before = limit.limit();
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(100 * MS, limit.limit()); // the database slowed down
+        }
+        assertThat(limit.limit()).isLessThan(before / 4);
+
+        for (int i = 0; i < 1_000; i++) {
+            limit.onSample(10 * MS, limit.limit());
+        }
+        assertThat(limit.limit()).isEqualTo(before);
+    }
+
+    @Test
+    void limitNeverLeavesItsBounds() {
+        for (int i = 0; i < 1_000; i++) {
+            limit.onSample((i % 2 == 0 ? 1 : 1_000) * MS, limit.limit());
+        }
+
+        assertThat(limit.limit()).isBetween(4, 200);
+    }
+
+    @Test
+    void fewRequestsInFlight_doNotGrowTheLimit() {
+        for (int i = 0; i < 1_000; i++) {
+            limit.onSample(10 * MS, 3);
+        }
+
+        assertThat(limit.limit()).isEqualTo(20);
+    }
+}
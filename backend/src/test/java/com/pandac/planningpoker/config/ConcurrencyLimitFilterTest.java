@@ -0,0 +1,103 @@
+package com.pandac.planningpoker.config;
+
+import com.pandac.planningpoker.config.ConcurrencyLimitFilter.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    /** A fixed limit of 10: normal requests may use 9 of it, low-priority ones 5. */
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(10, 10, 10, 1.5, 0.9, 0.5, registry);
+
+    @Test
+    void classify_votesAndModeratorChangesAreCritical_reportsAreLow() {
+        assertThat(ConcurrencyLimitFilter.classify("POST", "/api/sessions/ABC123/stories/1/votes", false))
+                .isEqualTo(Priority.CRITICAL);
+        assertThat(ConcurrencyLimitFilter.classify("POST", "/api/sessions/ABC123/reveal", true))
+                .isEqualTo(Priority.CRITICAL);
+        assertThat(ConcurrencyLimitFilter.classify("GET", "/api/sessions/ABC123/stories", true))
+                .isEqualTo(Priority.NORMAL);
+        assertThat(ConcurrencyLimitFilter.classify("POST", "/api/sessions/ABC123/join", false))
+                .isEqualTo(Priority.NORMAL);
+        assertThat(ConcurrencyLimitFilter.classify("GET", "/api/sessions/ABC123/export", true))
+                .isEqualTo(Priority.LOW);
+        assertThat(ConcurrencyLimitFilter.classify("GET", "/api/sessions/ABC123/stories/1/analytics", true))
+                .isEqualTo(Priority.LOW);
+        assertThat(ConcurrencyLimitFilter.classify("POST", "/api/sessions/import", true))
+                .isEqualTo(Priority.LOW);
+    }
+
+    @Test
+    void reportsAreShedFirst_thenOtherRequests_votesLast() throws Exception {
+        assertThat(whileHolding(5, "GET", "/api/sessions/ABC123/export")).isEqualTo(503);
+        assertThat(whileHolding(5, "GET", "/api/sessions/ABC123")).isEqualTo(200);
+
+        assertThat(whileHolding(9, "GET", "/api/sessions/ABC123")).isEqualTo(503);
+        assertThat(whileHolding(9, "POST", "/api/sessions/ABC123/stories/1/votes")).isEqualTo(200);
+
+        assertThat(whileHolding(10, "POST", "/api/sessions/ABC123/stories/1/votes")).isEqualTo(503);
+        assertThat(filter.inFlight()).isZero();
+        assertThat(registry.get("http.concurrency.rejected").tag("priority", "low").counter().count()).isEqualTo(1);
+        assertThat(registry.get("http.concurrency.rejected").tag("priority", "normal").counter().count()).isEqualTo(1);
+        assertThat(registry.get("http.concurrency.rejected").tag("priority", "critical").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shedRequest_gets503WithRetryAfter_andIsNotPassedOn() throws Exception {
+        AtomicReference<MockHttpServletResponse> shed = new AtomicReference<>();
+        boolean[] passedOn = new boolean[1];
+
+        holding(10, () -> shed.set(send("GET", "/api/sessions/ABC123", (req, res) -> passedOn[0] = true)));
+
+        assertThat(shed.get().getStatus()).isEqualTo(503);
+        assertThat(Integer.parseInt(shed.get().getHeader("Retry-After"))).isBetween(1, 3);
+        assertThat(passedOn[0]).isFalse();
+    }
+
+    @Test
+    void healthAndNonApiPaths_areNeverLimited() throws Exception {
+        assertThat(whileHolding(10, "GET", "/api/health")).isEqualTo(200);
+        assertThat(whileHolding(10, "GET", "/ws-room/ABC123")).isEqualTo(200);
+    }
+
+    /** Status of the request sent while {@code held} other requests are in flight. */
+    private int whileHolding(int held, String method, String path) throws Exception {
+        int[] status = new int[1];
+        holding(held, () -> status[0] = send(method, path, (req, res) -> {}).getStatus());
+        return status[0];
+    }
+
+    private void holding(int held, ThrowingRunnable inside) throws Exception {
+        if (held == 0) {
+            inside.run();
+            return;
+        }
+        MockHttpServletResponse response = send("POST", "/api/sessions/ABC123/stories/1/votes", (req, res) -> {
+            try {
+                holding(held - 1, inside);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse send(String method, String path, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
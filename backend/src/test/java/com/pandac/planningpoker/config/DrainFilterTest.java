@@ -0,0 +1,57 @@
+package com.pandac.planningpoker.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class DrainFilterTest {
+
+    private final DrainFilter filter = new DrainFilter();
+
+    @Test
+    void beforeDraining_everythingPassesThrough() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+
+        MockHttpServletResponse response = send("POST", "/api/sessions", chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        verify(chain).doFilter(any(), any());
+    }
+
+    @Test
+    void whileDraining_newRoomsAndConnectionsAreRefusedWithRetryAfterInWindow() throws Exception {
+        filter.startDraining(10_000);
+
+        for (String[] request : new String[][]{
+                {"POST", "/api/sessions"}, {"GET", "/ws/info"}, {"GET", "/ws-native"}, {"GET", "/ws-room/ABC123"},
+                {"GET", "/api/sessions/ABC123/events"}, {"GET", "/api/sessions/ABC123/events/poll"}, {"GET", "/api/health"}}) {
+            FilterChain chain = mock(FilterChain.class);
+            MockHttpServletResponse response = send(request[0], request[1], chain);
+
+            assertThat(response.getStatus()).as(request[1]).isEqualTo(503);
+            assertThat(Long.parseLong(response.getHeader("Retry-After"))).isBetween(1L, 10L);
+            verifyNoInteractions(chain);
+        }
+    }
+
+    @Test
+    void whileDraining_requestsOnExistingRoomsAreServed() throws Exception {
+        filter.startDraining(10_000);
+        FilterChain chain = mock(FilterChain.class);
+
+        send("POST", "/api/sessions/ABC123/stories/1/votes", chain);
+        send("GET", "/api/sessions/ABC123", chain);
+
+        verify(chain, times(2)).doFilter(any(), any());
+    }
+
+    private MockHttpServletResponse send(String method, String path, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, path), response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,86 @@
+package com.pandac.planningpoker.config;
+
+import com.pandac.planningpoker.service.FairScheduler.Placement;
+import com.pandac.planningpoker.service.FairScheduler.WorkClass;
+import com.pandac.planningpoker.service.WebSocketEventPublisher;
+import com.pandac.planningpoker.service.WebSocketEventPublisher.Channel;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FairSchedulingConfigTest {
+
+    @Test
+    void roomEvents_arePlacedInTheirRoom_orderedByConnection_byChannel() {
+        String topic = WebSocketEventPublisher.sessionTopic("ABC123");
+
+        assertThat(place(event(topic, Channel.REVEAL.suffix())))
+                .isEqualTo(new Placement("ABC123", "ws-1", WorkClass.MODERATOR));
+        assertThat(place(event(topic, Channel.VOTES.suffix())))
+                .isEqualTo(new Placement("ABC123", "ws-1", WorkClass.VOTE));
+        assertThat(place(event(topic, Channel.USERS.suffix())))
+                .isEqualTo(new Placement("ABC123", "ws-1", WorkClass.BULK));
+        assertThat(place(event(WebSocketEventPublisher.legacyTopic("ABC123", Channel.TIMER), null)))
+                .isEqualTo(new Placement("ABC123", "ws-1", WorkClass.MODERATOR));
+        assertThat(place(event(WebSocketEventPublisher.snapshotTopic("ABC123"), null)))
+                .isEqualTo(new Placement("ABC123", "ws-1", WorkClass.BULK));
+    }
+
+    @Test
+    void drainNotices_areModeratorWork() {
+        Message<byte[]> notice = event(WebSocketEventPublisher.sessionTopic("ABC123"), Channel.USERS.suffix());
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(notice);
+        accessor.setNativeHeader(WebSocketEventPublisher.HEADER_SERVER_DRAINING, "true");
+
+        assertThat(place(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders())))
+                .isEqualTo(new Placement("ABC123", "ws-1", WorkClass.MODERATOR));
+    }
+
+    @Test
+    void framesOutsideARoom_arePlacedByConnection() {
+        SimpMessageHeaderAccessor connectAck = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        connectAck.setSessionId("ws-1");
+        SimpMessageHeaderAccessor receipt = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        receipt.setSessionId("ws-1");
+        receipt.setDestination("/user/queue/votes");
+
+        assertThat(place(MessageBuilder.createMessage(new byte[0], connectAck.getMessageHeaders())))
+                .isEqualTo(new Placement("ws-1", WorkClass.MODERATOR));
+        assertThat(place(MessageBuilder.createMessage(new byte[0], receipt.getMessageHeaders())))
+                .isEqualTo(new Placement("ws-1", WorkClass.VOTE));
+    }
+
+    private static Message<byte[]> event(String destination, String channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId("ws-1");
+        accessor.setDestination(destination);
+        if (channel != null) {
+            accessor.setNativeHeader(WebSocketEventPublisher.HEADER_EVENT_CHANNEL, channel);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Placement place(Message<?> message) {
+        return FairSchedulingConfig.placeOutbound(new MessageHandlingRunnable() {
+            @Override
+            public Message<?> getMessage() {
+                return message;
+            }
+
+            @Override
+            public MessageHandler getMessageHandler() {
+                return m -> {};
+            }
+
+            @Override
+            public void run() {
+            }
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package com.pandac.planningpoker.config;
+
+import com.pandac.planningpoker.service.ReportingLane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LaneRoutingDataSourceTest {
+
+    private final DataSource interactive = mock(DataSource.class);
+    private final DataSource reporting = mock(DataSource.class);
+    private final Connection interactiveConnection = mock(Connection.class);
+    private final Connection reportingConnection = mock(Connection.class);
+
+    @Test
+    void reportingLaneThreads_getReportingConnections_everyoneElseInteractive() throws Exception {
+        when(interactive.getConnection()).thenReturn(interactiveConnection);
+        when(reporting.getConnection()).thenReturn(reportingConnection);
+        LaneRoutingDataSource routing = new LaneRoutingDataSource(interactive, reporting);
+        routing.afterPropertiesSet();
+        ReportingLane lane = new ReportingLane(1, 1, new SimpleMeterRegistry());
+
+        assertThat(routing.getConnection()).isSameAs(interactiveConnection);
+        assertThat(lane.submit(() -> connection(routing)).join()).isSameAs(reportingConnection);
+        assertThat(routing.getConnection()).isSameAs(interactiveConnection);
+    }
+
+    private static Connection connection(DataSource dataSource) {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.pandac.planningpoker.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ObserverSubscriptionsTest {
+
+    private final ObserverSubscriptions subscriptions = new ObserverSubscriptions();
+
+    @Test
+    void snapshotSubscription_countsObserverAndNotifiesListeners() {
+        List<String> subscribed = new ArrayList<>();
+        subscriptions.addSubscribeListener(subscribed::add);
+
+        subscribe("ws-1", "sub-1", "/topic/session/ABC123/snapshot", null);
+        subscribe("ws-1", "sub-1", "/topic/session/ABC123/snapshot", null); // duplicate id
+        subscribe("ws-2", "sub-1", "/topic/session/ABC123", null);          // event topic, not tracked
+
+        assertThat(subscriptions.observerCount("ABC123")).isEqualTo(1);
+        assertThat(subscribed).containsExactly("ABC123");
+    }
+
+    @Test
+    void unsubscribeAndDisconnect_releaseObserverCount() {
+        subscribe("ws-1", "sub-1", "/topic/session/ABC123/snapshot", null);
+        subscribe("ws-2", "sub-1", "/topic/session/ABC123/snapshot", null);
+        assertThat(subscriptions.observerCount("ABC123")).isEqualTo(2);
+
+        subscriptions.inbound().preSend(frame(SimpMessageType.UNSUBSCRIBE, "ws-1", "sub-1", null, null), null);
+        subscriptions.inbound().preSend(frame(SimpMessageType.DISCONNECT, "ws-2", null, null, null), null);
+
+        assertThat(subscriptions.observerCount("ABC123")).isZero();
+    }
+
+    @Test
+    void exclusiveTier_rejectsObserverOnEventTopicByDefault() {
+        UsernamePasswordAuthenticationToken observer = new UsernamePasswordAuthenticationToken(
+                "ABC123:7", null, List.of(new SimpleGrantedAuthority("ROLE_OBSERVER")));
+        UsernamePasswordAuthenticationToken voter = new UsernamePasswordAuthenticationToken(
+                "ABC123:8", null, List.of(new SimpleGrantedAuthority("ROLE_PARTICIPANT")));
+
+        assertThatThrownBy(() -> subscriptions.inbound().preSend(
+                frame(SimpMessageType.SUBSCRIBE, "ws-1", "sub-1", "/topic/session/ABC123", observer), null))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatNoException().isThrownBy(() -> subscriptions.inbound().preSend(
+                frame(SimpMessageType.SUBSCRIBE, "ws-2", "sub-1", "/topic/session/ABC123", voter), null));
+        assertThatNoException().isThrownBy(() -> subscriptions.inbound().preSend(
+                frame(SimpMessageType.SUBSCRIBE, "ws-1", "sub-2", "/topic/session/ABC123/snapshot", observer), null));
+    }
+
+    @Test
+    void nonExclusiveTier_letsObserverOnEventTopic() {
+        ReflectionTestUtils.setField(subscriptions, "exclusive", false);
+        UsernamePasswordAuthenticationToken observer = new UsernamePasswordAuthenticationToken(
+                "ABC123:7", null, List.of(new SimpleGrantedAuthority("ROLE_OBSERVER")));
+
+        assertThatNoException().isThrownBy(() -> subscriptions.inbound().preSend(
+                frame(SimpMessageType.SUBSCRIBE, "ws-1", "sub-1", "/topic/session/ABC123", observer), null));
+    }
+
+    private void subscribe(String sessionId, String subscriptionId, String destination,
+                           UsernamePasswordAuthenticationToken user) {
+        subscriptions.inbound().preSend(frame(SimpMessageType.SUBSCRIBE, sessionId, subscriptionId, destination, user), null);
+    }
+
+    private static Message<byte[]> frame(SimpMessageType type, String sessionId, String subscriptionId,
+                                         String destination, UsernamePasswordAuthenticationToken user) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,116 @@
+package com.pandac.planningpoker.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pandac.planningpoker.dto.VoteResponse;
+import com.pandac.planningpoker.dto.VoteReveal;
+import com.pandac.planningpoker.model.Priority;
+import com.pandac.planningpoker.model.Story;
+import com.pandac.planningpoker.model.StoryStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes on the wire and encode/decode CPU for JSON, CBOR and Smile on the two largest
+ * payloads we send: a 50-voter reveal and a 200-story backlog. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class PayloadEncodingBenchmarkTest {
+
+    private static final int ITERATIONS = 5_000;
+
+    private final ObjectMapper json = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void binaryFormats_areSmallerThanJson() throws Exception {
+        compare("VoteReveal (50 votes)", reveal(50), VoteReveal.class);
+        compare("Story list (200 stories)", stories(200), Object.class);
+    }
+
+    private void compare(String label, Object payload, Class<?> type) throws Exception {
+        System.out.printf("%s%n  %-6s %9s %9s %12s %12s%n", label, "format", "bytes", "deflated", "encode ns", "decode ns");
+        int jsonBytes = 0;
+        for (PayloadFormat format : PayloadFormat.values()) {
+            ObjectMapper mapper = format.mapperFrom(json);
+            byte[] encoded = mapper.writeValueAsBytes(payload);
+            if (format == PayloadFormat.JSON) {
+                jsonBytes = encoded.length;
+            } else {
+                assertThat(encoded.length).isLessThan(jsonBytes);
+            }
+
+            long encodeNanos = time(() -> mapper.writeValueAsBytes(payload));
+            long decodeNanos = time(() -> mapper.readValue(encoded, type));
+            System.out.printf("  %-6s %,9d %,9d %,12d %,12d%n",
+                    format, encoded.length, deflate(encoded).length, encodeNanos, decodeNanos);
+        }
+    }
+
+    private static long time(ThrowingRunnable task) throws Exception {
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.run(); // warm-up
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    private static byte[] deflate(byte[] bytes) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, true))) {
+            deflater.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static VoteReveal reveal(int voters) {
+        String[] cards = {"1", "2", "3", "5", "8", "13"};
+        List<VoteResponse> votes = new ArrayList<>(voters);
+        Map<String, Integer> distribution = new LinkedHashMap<>();
+        for (int i = 0; i < voters; i++) {
+            String estimate = cards[i % cards.length];
+            votes.add(new VoteResponse((long) i, estimate, 3, OffsetDateTime.now(),
+                    new VoteResponse.UserInfo((long) i, "Participant " + i, "avatar-" + (i % 12), i == 0, false)));
+            distribution.merge(estimate, 1, Integer::sum);
+        }
+        return new VoteReveal(42L, votes, false, 5.3, "5", "5", distribution, votes.size(), false);
+    }
+
+    private static List<Story> stories(int count) {
+        List<Story> stories = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Story story = new Story();
+            story.setId((long) i);
+            story.setTitle("As a user I want feature " + i + " so that I get value");
+            story.setDescription("Detailed description of story " + i + ", covering the context and the expected outcome.");
+            story.setAcceptanceCriteria("Given a session\nWhen I do thing " + i + "\nThen it works");
+            story.setTags(List.of("backend", "sprint-" + (i % 5)));
+            story.setPriority(Priority.values()[i % Priority.values().length]);
+            story.setOrderIndex(i);
+            story.setStatus(i % 3 == 0 ? StoryStatus.COMPLETED : StoryStatus.NOT_ESTIMATED);
+            story.setFinalEstimate(i % 3 == 0 ? "5" : null);
+            story.setCreatedAt(OffsetDateTime.now());
+            story.setUpdatedAt(OffsetDateTime.now());
+            stories.add(story);
+        }
+        return stories;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,125 @@
+package com.pandac.planningpoker.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayloadFormatNegotiatorTest {
+
+    private static final byte[] JSON = "{\"type\":\"VOTE_CAST\",\"voteCount\":3}".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PayloadFormatNegotiator negotiator = new PayloadFormatNegotiator(objectMapper);
+
+    @Test
+    void cborSession_receivesCborPayloadWithOctetStreamContentType() throws Exception {
+        connect("s1", "cbor", true);
+
+        Message<?> sent = negotiator.outbound().preSend(message("s1", JSON), null);
+
+        MimeType contentType = (MimeType) sent.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        assertThat(MimeTypeUtils.APPLICATION_OCTET_STREAM.isCompatibleWith(contentType)).isTrue();
+        assertThat(contentType.getParameter("format")).isEqualTo("cbor");
+        JsonNode decoded = negotiator.mapperFor(PayloadFormat.CBOR).readTree((byte[]) sent.getPayload());
+        assertThat(decoded).isEqualTo(objectMapper.readTree(JSON));
+    }
+
+    @Test
+    void binaryRequestOverTextOnlyTransport_staysJson() {
+        connect("s1", "smile", false);
+
+        Message<?> sent = negotiator.outbound().preSend(message("s1", JSON), null);
+
+        assertThat(sent.getPayload()).isSameAs(JSON);
+        assertThat(negotiator.formatOf("s1")).isEqualTo(PayloadFormat.JSON);
+    }
+
+    @Test
+    void broadcastToSeveralSubscribers_reusesOneEncoding() {
+        connect("s1", "cbor", true);
+        connect("s2", "cbor", true);
+
+        Object first = negotiator.outbound().preSend(message("s1", JSON), null).getPayload();
+        Object second = negotiator.outbound().preSend(message("s2", JSON), null).getPayload();
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishedEvent_isEncodedOncePerFormatInUse_beforeFanOut() throws Exception {
+        connect("s1", "smile", true);
+        Map<String, Object> event = Map.of("type", "VOTE_CAST", "voteCount", 3);
+
+        Message<?> published = negotiator.preEncoder(event).postProcessMessage(message("broker", JSON));
+        Message<?> first = negotiator.outbound().preSend(subscriberCopy(published, "s1"), null);
+        Message<?> second = negotiator.outbound().preSend(subscriberCopy(published, "s1"), null);
+
+        assertThat(second.getPayload()).isSameAs(first.getPayload());
+        assertThat(negotiator.mapperFor(PayloadFormat.SMILE).readTree((byte[]) first.getPayload()))
+                .isEqualTo(objectMapper.valueToTree(event));
+        Map<Object, Object> encoded = (Map<Object, Object>) published.getHeaders().get(PayloadFormatNegotiator.ENCODED_HEADER);
+        assertThat(encoded).containsOnlyKeys(PayloadFormat.SMILE);
+    }
+
+    @Test
+    void noBinarySessions_nothingIsPreEncoded() {
+        connect("s1", "smile", false);
+
+        assertThat(negotiator.preEncoder(Map.of("type", "VOTE_CAST"))).isNull();
+    }
+
+    @Test
+    void disconnect_forgetsNegotiatedFormat() {
+        connect("s1", "cbor", true);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT);
+        accessor.setSessionId("s1");
+        negotiator.inbound().preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+
+        assertThat(negotiator.formatOf("s1")).isEqualTo(PayloadFormat.JSON);
+    }
+
+    private void connect(String sessionId, String format, boolean binaryFrames) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+        accessor.setSessionId(sessionId);
+        accessor.setNativeHeader(PayloadFormat.CONNECT_HEADER, format);
+        Map<String, Object> attributes = new HashMap<>();
+        if (binaryFrames) {
+            attributes.put(PayloadFormatNegotiator.BINARY_FRAMES_ATTRIBUTE, Boolean.TRUE);
+        }
+        accessor.setSessionAttributes(attributes);
+        negotiator.inbound().preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+    }
+
+    /** What the simple broker sends each subscriber: the published message's headers and payload. */
+    private static Message<?> subscriberCopy(Message<?> published, String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.copyHeadersIfAbsent(published.getHeaders());
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(published.getPayload(), accessor.getMessageHeaders());
+    }
+
+    private static Message<?> message(String sessionId, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination("/topic/session/ABC123");
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,59 @@
+package com.pandac.planningpoker.config;
+
+import com.pandac.planningpoker.security.SessionPrincipal;
+import com.pandac.planningpoker.security.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PresenceTrackerTest {
+
+    private final PresenceTracker tracker = new PresenceTracker();
+
+    @Test
+    void userStaysOnlineUntilTheirLastConnectionCloses() {
+        send(SimpMessageType.CONNECT, "ws-1", 5L);
+        send(SimpMessageType.CONNECT, "ws-2", 5L); // second tab
+        assertThat(tracker.onlineUsers("ABC123")).containsExactly(5L);
+        assertThat(tracker.drainChangedSessions()).containsExactly("ABC123");
+
+        send(SimpMessageType.DISCONNECT, "ws-1", null);
+        assertThat(tracker.onlineUsers("ABC123")).containsExactly(5L);
+        assertThat(tracker.drainChangedSessions()).isEmpty();
+
+        send(SimpMessageType.DISCONNECT, "ws-2", null);
+        assertThat(tracker.onlineUsers("ABC123")).isEmpty();
+        assertThat(tracker.drainChangedSessions()).containsExactly("ABC123");
+        assertThat(tracker.connectionCount()).isZero();
+    }
+
+    @Test
+    void heartbeatsMarkUsersSeen_onceUntilDrained() {
+        send(SimpMessageType.CONNECT, "ws-1", 5L);
+        send(SimpMessageType.CONNECT, "ws-2", 6L);
+        assertThat(tracker.drainSeenUsers()).containsExactlyInAnyOrder(5L, 6L);
+
+        send(SimpMessageType.HEARTBEAT, "ws-1", null);
+        send(SimpMessageType.HEARTBEAT, "ws-1", null);
+        send(SimpMessageType.HEARTBEAT, "ws-unknown", null);
+
+        assertThat(tracker.drainSeenUsers()).containsExactly(5L);
+        assertThat(tracker.drainSeenUsers()).isEmpty();
+    }
+
+    private void send(SimpMessageType type, String sessionId, Long userId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        if (userId != null) {
+            accessor.setUser(new SessionPrincipal("ABC123", userId, UserRole.PARTICIPANT, Instant.now().plusSeconds(3600)));
+        }
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        tracker.inbound().preSend(message, null);
+    }
+}
@@ -0,0 +1,180 @@
+package com.pandac.planningpoker.config;
+
+import com.pandac.planningpoker.security.JwtTokenService;
+import com.pandac.planningpoker.security.UserRole;
+import com.pandac.planningpoker.service.WebSocketEventPublisher;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * STOMP ({@code /ws-native}, one SUBSCRIBE to the multiplexed topic) against the raw room socket
+ * ({@code /ws-room/{code}}) with {@value #CONNECTIONS} connections in one room: heap per
+ * connection and event frames delivered per second for {@value #EVENTS} events. Both sides use
+ * the same JDK WebSocket client in this JVM, so the heap difference is the server-side cost.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "jwt.secret=benchmark-secret-key-for-jwt-token-validation-only",
+        "logging.level.root=WARN",
+        "websocket.legacy-topics.enabled=false"
+})
+class RoomSocketBenchmarkTest {
+
+    private static final int CONNECTIONS = 500;
+    private static final int EVENTS = 200;
+    private static final String CODE = "BENCH1";
+
+    @LocalServerPort int port;
+    @Autowired JwtTokenService jwtTokenService;
+    @Autowired WebSocketEventPublisher webSocketEventPublisher;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void roomSocket_isLighterThanStomp() throws Exception {
+        String token = jwtTokenService.generateToken(CODE, 1L, UserRole.MODERATOR);
+
+        Result stomp = run("stomp", token, this::openStomp);
+        Result raw = run("raw  ", token, this::openRoomSocket);
+
+        assertThat(raw.bytesPerConnection).isLessThan(stomp.bytesPerConnection);
+        assertThat(raw.messagesPerSecond).isGreaterThan(stomp.messagesPerSecond);
+    }
+
+    private Result run(String name, String token, Opener opener) throws Exception {
+        AtomicLong received = new AtomicLong();
+        long heapBefore = usedHeap();
+        List<WebSocket> sockets = new ArrayList<>();
+        for (int i = 0; i < CONNECTIONS; i++) {
+            sockets.add(opener.open(token, received));
+        }
+        long heapAfter = usedHeap();
+
+        // every connection has seen at least one event before timing starts
+        awaitCount(() -> {
+            webSocketEventPublisher.voteCast(CODE, 1L, 0);
+            return received.get();
+        }, CONNECTIONS);
+        Thread.sleep(200);
+        received.set(0);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            webSocketEventPublisher.voteCast(CODE, 1L, i);
+        }
+        awaitCount(received::get, (long) CONNECTIONS * EVENTS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Result result = new Result((heapAfter - heapBefore) / CONNECTIONS, (long) (CONNECTIONS * EVENTS / seconds));
+        System.out.printf("%s %,d connections: %,d bytes/connection | %,d messages/s (%,d events in %.2f s)%n",
+                name, CONNECTIONS, result.bytesPerConnection, result.messagesPerSecond, EVENTS, seconds);
+
+        for (WebSocket socket : sockets) {
+            socket.sendClose(WebSocket.NORMAL_CLOSURE, "done");
+        }
+        Thread.sleep(500);
+        return result;
+    }
+
+    private WebSocket openStomp(String token, AtomicLong received) throws Exception {
+        CompletableFuture<Void> connected = new CompletableFuture<>();
+        WebSocket socket = http.newWebSocketBuilder()
+                .buildAsync(URI.create("ws://localhost:" + port + "/ws-native"), new Counting(received) {
+                    @Override
+                    void onFrame(String frame) {
+                        if (frame.startsWith("CONNECTED")) {
+                            connected.complete(null);
+                        } else if (frame.startsWith("MESSAGE")) {
+                            received.incrementAndGet();
+                        }
+                    }
+                })
+                .get(5, TimeUnit.SECONDS);
+        socket.sendText("CONNECT\naccept-version:1.2\nhost:localhost\nAuthorization:Bearer " + token + "\n\n\0", true).join();
+        connected.get(5, TimeUnit.SECONDS);
+        socket.sendText("SUBSCRIBE\nid:sub-0\ndestination:" + WebSocketEventPublisher.sessionTopic(CODE) + "\n\n\0", true).join();
+        return socket;
+    }
+
+    private WebSocket openRoomSocket(String token, AtomicLong received) throws Exception {
+        return http.newWebSocketBuilder()
+                .header("Authorization", "Bearer " + token)
+                .buildAsync(URI.create("ws://localhost:" + port + "/ws-room/" + CODE), new Counting(received))
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    private static void awaitCount(LongSupplier count, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (count.getAsLong() < expected) {
+            assertThat(System.nanoTime()).as("timed out waiting for %,d messages", expected).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /** Counts whole binary messages; STOMP text frames are classified by {@link #onFrame}. */
+    private static class Counting implements WebSocket.Listener {
+        private final AtomicLong received;
+        private final StringBuilder text = new StringBuilder();
+
+        Counting(AtomicLong received) {
+            this.received = received;
+        }
+
+        void onFrame(String frame) {
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+            if (last) {
+                received.incrementAndGet();
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            text.append(data);
+            if (last) {
+                onFrame(text.toString());
+                text.setLength(0);
+            }
+            webSocket.request(1);
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Opener {
+        WebSocket open(String token, AtomicLong received) throws Exception;
+    }
+
+    private record Result(long bytesPerConnection, long messagesPerSecond) {}
+}
@@ -0,0 +1,113 @@
+package com.pandac.planningpoker.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandac.planningpoker.security.RoomSocketHandshakeInterceptor;
+import com.pandac.planningpoker.security.SessionPrincipal;
+import com.pandac.planningpoker.security.UserRole;
+import com.pandac.planningpoker.service.WebSocketEventPublisher;
+import com.pandac.planningpoker.service.WebSocketEventPublisher.Channel;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class RoomSocketHandlerTest {
+
+    private final PayloadFormatNegotiator negotiator = new PayloadFormatNegotiator(new ObjectMapper());
+    private final RoomSocketHandler handler = new RoomSocketHandler(mock(WebSocketEventPublisher.class), negotiator);
+
+    @Test
+    void event_isSentOnceEncodedToEveryConnectionOfTheRoom() throws Exception {
+        WebSocketSession first = connect("r1", "ABC123");
+        WebSocketSession second = connect("r2", "ABC123");
+        WebSocketSession otherRoom = connect("r3", "XYZ789");
+
+        handler.onSessionEvent("ABC123", Channel.VOTES, Map.of("type", "VOTE_CAST", "voteCount", 3), true);
+
+        ArgumentCaptor<BinaryMessage> frame = ArgumentCaptor.forClass(BinaryMessage.class);
+        verify(first, timeout(1_000)).sendMessage(frame.capture());
+        verify(second, timeout(1_000)).sendMessage(any());
+        verify(otherRoom, after(100).never()).sendMessage(any());
+
+        ByteBuffer payload = frame.getValue().getPayload();
+        assertThat(payload.get()).isEqualTo(RoomSocketHandler.PROTOCOL_VERSION);
+        assertThat(payload.get()).isEqualTo((byte) Channel.VOTES.ordinal());
+        byte[] body = new byte[payload.remaining()];
+        payload.get(body);
+        Map<String, Object> event = negotiator.mapperFor(PayloadFormat.CBOR).readValue(body, new TypeReference<>() {});
+        assertThat(event).containsEntry("type", "VOTE_CAST").containsEntry("voteCount", 3);
+    }
+
+    @Test
+    void events_keepPublishOrder_andStopAfterClose() throws Exception {
+        WebSocketSession session = connect("r1", "ABC123");
+        for (Channel channel : List.of(Channel.USERS, Channel.VOTES, Channel.REVEAL)) {
+            handler.onSessionEvent("ABC123", channel, Map.of("type", channel.name()), true);
+        }
+
+        ArgumentCaptor<BinaryMessage> frames = ArgumentCaptor.forClass(BinaryMessage.class);
+        verify(session, timeout(1_000).times(3)).sendMessage(frames.capture());
+        assertThat(frames.getAllValues()).extracting(m -> m.getPayload().get(1))
+                .containsExactly((byte) 0, (byte) 1, (byte) 2);
+
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+        assertThat(handler.connectionCount()).isZero();
+    }
+
+    @Test
+    void expiredToken_closesConnectionInsteadOfSending() throws Exception {
+        WebSocketSession expired = connect("r1", "ABC123", Instant.now().minusSeconds(1));
+
+        handler.onSessionEvent("ABC123", Channel.VOTES, Map.of("type", "VOTE_CAST"), true);
+
+        verify(expired, timeout(1_000)).close(argThat(status -> status.getCode() == CloseStatus.POLICY_VIOLATION.getCode()));
+        verify(expired, never()).sendMessage(any());
+        assertThat(handler.connectionCount()).isZero();
+    }
+
+    @Test
+    void closeForRestart_closesEveryConnectionWithAReconnectDelayWithinTheWindow() throws Exception {
+        WebSocketSession first = connect("r1", "ABC123");
+        WebSocketSession second = connect("r2", "XYZ789");
+
+        handler.closeForRestart(5_000);
+
+        ArgumentCaptor<CloseStatus> status = ArgumentCaptor.forClass(CloseStatus.class);
+        verify(first).close(status.capture());
+        verify(second).close(status.capture());
+        assertThat(status.getAllValues()).allSatisfy(closed -> {
+            assertThat(closed.getCode()).isEqualTo(CloseStatus.SERVICE_RESTARTED.getCode());
+            assertThat(Long.parseLong(closed.getReason().substring("reconnect-after-ms=".length()))).isBetween(0L, 4_999L);
+        });
+        assertThat(handler.connectionCount()).isZero();
+    }
+
+    private WebSocketSession connect(String id, String sessionCode) {
+        return connect(id, sessionCode, Instant.now().plusSeconds(3600));
+    }
+
+    private WebSocketSession connect(String id, String sessionCode, Instant expiresAt) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(RoomSocketHandshakeInterceptor.PRINCIPAL_ATTRIBUTE,
+                new SessionPrincipal(sessionCode, 1L, UserRole.PARTICIPANT, expiresAt));
+        when(session.getId()).thenReturn(id);
+        when(session.getAttributes()).thenReturn(attributes);
+        when(session.isOpen()).thenReturn(true);
+        handler.afterConnectionEstablished(session);
+        return session;
+    }
+}
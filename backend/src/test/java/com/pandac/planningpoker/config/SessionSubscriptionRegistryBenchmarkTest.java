@@ -0,0 +1,65 @@
+package com.pandac.planningpoker.config;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry;
+import org.springframework.messaging.simp.broker.SubscriptionRegistry;
+
+import static com.pandac.planningpoker.config.SessionSubscriptionRegistryTest.message;
+import static com.pandac.planningpoker.config.SessionSubscriptionRegistryTest.subscribe;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 10k sessions × 20 subscribers on the multiplexed topic: Spring's default registry
+ * versus {@link SessionSubscriptionRegistry}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class SessionSubscriptionRegistryBenchmarkTest {
+
+    private static final int SESSIONS = 10_000;
+    private static final int SUBSCRIBERS = 20;
+    private static final int LOOKUPS = 20_000;
+
+    @Test
+    void exactRegistry_versusDefaultRegistry() {
+        Result defaults = run("default", new DefaultSubscriptionRegistry(), 200);
+        Result exact = run("exact", new SessionSubscriptionRegistry(), LOOKUPS);
+
+        assertThat(exact.lookupNanos).isLessThan(defaults.lookupNanos);
+    }
+
+    private Result run(String name, SubscriptionRegistry registry, int lookups) {
+        Message<?>[] events = new Message<?>[SESSIONS];
+        long start = System.nanoTime();
+        for (int s = 0; s < SESSIONS; s++) {
+            String destination = "/topic/session/" + String.format("S%05d", s);
+            events[s] = message(destination);
+            for (int c = 0; c < SUBSCRIBERS; c++) {
+                registry.registerSubscription(subscribe(s + "-" + c, "sub-0", destination));
+            }
+        }
+        long subscribeNanos = (System.nanoTime() - start) / (SESSIONS * SUBSCRIBERS);
+
+        // Round-robin over all sessions so destination caches cannot hide the lookup cost.
+        start = System.nanoTime();
+        long matched = 0;
+        for (int i = 0; i < lookups; i++) {
+            matched += registry.findSubscriptions(events[i % SESSIONS]).size();
+        }
+        long lookupNanos = (System.nanoTime() - start) / lookups;
+        assertThat(matched).isEqualTo((long) lookups * SUBSCRIBERS);
+
+        start = System.nanoTime();
+        for (int s = 0; s < SESSIONS; s++) {
+            registry.unregisterAllSubscriptions(s + "-0");
+        }
+        long disconnectNanos = (System.nanoTime() - start) / SESSIONS;
+
+        System.out.printf("%-8s subscribe %,8d ns | lookup %,10d ns | disconnect %,8d ns%n",
+                name, subscribeNanos, lookupNanos, disconnectNanos);
+        return new Result(lookupNanos);
+    }
+
+    private record Result(long lookupNanos) {}
+}
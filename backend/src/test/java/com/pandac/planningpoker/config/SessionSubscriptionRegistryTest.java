@@ -0,0 +1,95 @@
+package com.pandac.planningpoker.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MultiValueMap;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SessionSubscriptionRegistryTest {
+
+    private final SessionSubscriptionRegistry registry = new SessionSubscriptionRegistry();
+
+    @Test
+    void findSubscriptions_exactDestination_returnsAllSubscribers() {
+        registry.registerSubscription(subscribe("s1", "sub-0", "/topic/session/ABC123"));
+        registry.registerSubscription(subscribe("s2", "sub-0", "/topic/session/ABC123"));
+        registry.registerSubscription(subscribe("s3", "sub-0", "/topic/session/XYZ999"));
+
+        MultiValueMap<String, String> result = registry.findSubscriptions(message("/topic/session/ABC123"));
+
+        assertThat(result).containsOnlyKeys("s1", "s2");
+        assertThat(registry.getSubscriptionCount()).isEqualTo(3);
+        assertThat(registry.getDestinationCount()).isEqualTo(2);
+    }
+
+    @Test
+    void unregisterSubscription_removesOnlyThatSubscription() {
+        registry.registerSubscription(subscribe("s1", "sub-0", "/topic/session/ABC123"));
+        registry.registerSubscription(subscribe("s1", "sub-1", "/topic/session/ABC123/votes"));
+
+        registry.unregisterSubscription(unsubscribe("s1", "sub-0"));
+
+        assertThat(registry.findSubscriptions(message("/topic/session/ABC123"))).isEmpty();
+        assertThat(registry.findSubscriptions(message("/topic/session/ABC123/votes"))).containsOnlyKeys("s1");
+        assertThat(registry.getDestinationCount()).isEqualTo(1);
+    }
+
+    @Test
+    void unregisterAllSubscriptions_dropsEverySubscriptionOfTheConnection() {
+        registry.registerSubscription(subscribe("s1", "sub-0", "/topic/session/ABC123"));
+        registry.registerSubscription(subscribe("s1", "sub-1", "/topic/session/ABC123/votes"));
+        registry.registerSubscription(subscribe("s2", "sub-0", "/topic/session/ABC123"));
+
+        registry.unregisterAllSubscriptions("s1");
+
+        assertThat(registry.findSubscriptions(message("/topic/session/ABC123"))).containsOnlyKeys("s2");
+        assertThat(registry.findSubscriptions(message("/topic/session/ABC123/votes"))).isEmpty();
+        assertThat(registry.getSubscriptionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void patternDestination_isMatchedThroughFallback() {
+        registry.registerSubscription(subscribe("s1", "sub-0", "/topic/session/*"));
+        registry.registerSubscription(subscribe("s2", "sub-0", "/topic/session/ABC123"));
+
+        assertThat(registry.findSubscriptions(message("/topic/session/ABC123"))).containsOnlyKeys("s1", "s2");
+
+        registry.unregisterAllSubscriptions("s1");
+
+        assertThat(registry.findSubscriptions(message("/topic/session/ABC123"))).containsOnlyKeys("s2");
+    }
+
+    @Test
+    void returnedSnapshot_isImmutable() {
+        registry.registerSubscription(subscribe("s1", "sub-0", "/topic/session/ABC123"));
+
+        MultiValueMap<String, String> result = registry.findSubscriptions(message("/topic/session/ABC123"));
+
+        assertThatThrownBy(() -> result.add("s9", "sub-9")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    static Message<?> subscribe(String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    static Message<?> unsubscribe(String sessionId, String subscriptionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.UNSUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    static Message<?> message(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,110 @@
+package com.pandac.planningpoker.config;
+
+import com.pandac.planningpoker.service.WebSocketEventPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class SlowConsumerGuardTest {
+
+    private static final String TOPIC = "/topic/session/ABC123";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SlowConsumerGuard guard = new SlowConsumerGuard(registry);
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final WebSocketSession raw = mock(WebSocketSession.class);
+    private WebSocketSession tracked;
+
+    @BeforeEach
+    void connect() throws Exception {
+        ReflectionTestUtils.setField(guard, "queuedBytesThreshold", 100L);
+        ReflectionTestUtils.setField(guard, "maxQueuedBytes", 1_000L);
+        when(raw.getId()).thenReturn("s1");
+
+        WebSocketHandler delegate = mock(WebSocketHandler.class);
+        guard.decorate(delegate).afterConnectionEstablished(raw);
+        ArgumentCaptor<WebSocketSession> session = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(delegate).afterConnectionEstablished(session.capture());
+        tracked = session.getValue();
+    }
+
+    @Test
+    void queuedBytes_countUntilSocketWriteCompletes() throws Exception {
+        guard.outbound().preSend(event("users", 60), channel);
+        guard.outbound().preSend(event("users", 30), channel);
+        assertThat(guard.getQueuedBytes("s1")).isEqualTo(90);
+
+        tracked.sendMessage(new TextMessage("frame"));
+
+        assertThat(guard.getQueuedBytes("s1")).isEqualTo(30);
+        assertThat(registry.get("websocket.outbound.queued.bytes").gauge().value()).isEqualTo(30);
+    }
+
+    @Test
+    void slowConsumer_conflatesStateEventsAndDeliversLatestOnceDrained() throws Exception {
+        guard.outbound().preSend(event("users", 150), channel);
+
+        assertThat(guard.outbound().preSend(event("votes", 10), channel)).isNull();
+        Message<?> latest = event("votes", 12);
+        assertThat(guard.outbound().preSend(latest, channel)).isNull();
+        assertThat(guard.isSlow("s1")).isTrue();
+        assertThat(registry.get("websocket.outbound.slow.consumers").gauge().value()).isEqualTo(1);
+
+        tracked.sendMessage(new TextMessage("frame"));
+
+        assertThat(guard.isSlow("s1")).isFalse();
+        verify(channel).send(latest);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void slowConsumer_stillReceivesNonStateEvents() {
+        guard.outbound().preSend(event("users", 150), channel);
+
+        Message<?> storyEvent = event("story", 10);
+
+        assertThat(guard.outbound().preSend(storyEvent, channel)).isSameAs(storyEvent);
+    }
+
+    @Test
+    void dropPolicy_discardsStateEventsWithoutRedelivery() throws Exception {
+        ReflectionTestUtils.setField(guard, "policy", SlowConsumerGuard.Policy.DROP);
+        guard.outbound().preSend(event("users", 150), channel);
+
+        assertThat(guard.outbound().preSend(event("votes", 10), channel)).isNull();
+        tracked.sendMessage(new TextMessage("frame"));
+
+        verifyNoInteractions(channel);
+        assertThat(registry.get("websocket.outbound.slow.events").tag("action", "dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void backlogOverMaximum_disconnectsWithResumeHint() throws Exception {
+        guard.outbound().preSend(event("users", 1_200), channel);
+
+        assertThat(guard.outbound().preSend(event("story", 10), channel)).isNull();
+
+        verify(raw, timeout(1_000)).close(SlowConsumerGuard.SLOW_CONSUMER_CLOSE);
+    }
+
+    private static Message<?> event(String eventChannel, int size) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId("s1");
+        accessor.setDestination(TOPIC);
+        accessor.setNativeHeader(WebSocketEventPublisher.HEADER_EVENT_CHANNEL, eventChannel);
+        return MessageBuilder.createMessage(new byte[size], accessor.getMessageHeaders());
+    }
+}
@@ -7,6 +7,8 @@ import com.pandac.planningpoker.security.JwtTokenService;
 import com.pandac.planningpoker.security.SecurityConfig;
 import com.pandac.planningpoker.security.SessionAccessValidator;
 import com.pandac.planningpoker.service.AnalyticsService;
+import com.pandac.planningpoker.service.ReportingLane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -14,13 +16,20 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CountDownLatch;
 
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(AnalyticsController.class)
-@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+@WebMvcTest(controllers = AnalyticsController.class, properties = {
+        "workload.reporting.threads=1",
+        "workload.reporting.queue-capacity=1"
+})
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class, ReportingLane.class, SimpleMeterRegistry.class})
 class AnalyticsControllerTest {
 
     @Autowired MockMvc mockMvc;
@@ -37,11 +46,43 @@ class AnalyticsControllerTest {
         analytics.setTotalStories(5);
         when(analyticsService.getSessionAnalytics("ABC123")).thenReturn(analytics);
 
-        mockMvc.perform(get("/api/sessions/ABC123/analytics"))
+        MvcResult result = mockMvc.perform(get("/api/sessions/ABC123/analytics"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.totalStories").value(5));
     }
 
+    @Test
+    @WithMockUser(roles = "MODERATOR")
+    void getSessionAnalytics_whileTheReportingLaneIsFull_returns503WithRetryAfter() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(analyticsService.getSessionAnalytics("ABC123")).thenAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return new SessionAnalyticsDTO();
+        });
+
+        try {
+            MvcResult first = mockMvc.perform(get("/api/sessions/ABC123/analytics")).andReturn();
+            running.await();
+            MvcResult queued = mockMvc.perform(get("/api/sessions/ABC123/analytics")).andReturn();
+
+            mockMvc.perform(get("/api/sessions/ABC123/analytics"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists("Retry-After"));
+
+            release.countDown();
+            mockMvc.perform(asyncDispatch(first)).andExpect(status().isOk());
+            mockMvc.perform(asyncDispatch(queued)).andExpect(status().isOk());
+        } finally {
+            release.countDown();
+        }
+    }
+
     @Test
     @WithMockUser(roles = "PARTICIPANT")
     void getSessionAnalytics_asParticipant_returns403() throws Exception {
@@ -63,7 +104,11 @@ class AnalyticsControllerTest {
         analytics.setVoteCount(3);
         when(analyticsService.getStoryAnalytics("ABC123", 1L)).thenReturn(analytics);
 
-        mockMvc.perform(get("/api/sessions/ABC123/stories/1/analytics"))
+        MvcResult result = mockMvc.perform(get("/api/sessions/ABC123/stories/1/analytics"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.voteCount").value(3));
     }
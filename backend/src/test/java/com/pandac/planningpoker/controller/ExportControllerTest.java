@@ -6,6 +6,8 @@ import com.pandac.planningpoker.security.JwtTokenService;
 import com.pandac.planningpoker.security.SecurityConfig;
 import com.pandac.planningpoker.security.SessionAccessValidator;
 import com.pandac.planningpoker.service.ExportService;
+import com.pandac.planningpoker.service.ReportingLane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -13,13 +15,15 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ExportController.class)
-@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class, ReportingLane.class, SimpleMeterRegistry.class})
 class ExportControllerTest {
 
     @Autowired MockMvc mockMvc;
@@ -53,7 +57,11 @@ class ExportControllerTest {
     void exportSession_csv_returns200() throws Exception {
         when(exportService.exportSessionAsCsv("ABC123")).thenReturn("title,estimate\nStory1,5");
 
-        mockMvc.perform(get("/api/sessions/ABC123/export").param("format", "csv"))
+        MvcResult result = mockMvc.perform(get("/api/sessions/ABC123/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith("text/csv"));
     }
@@ -1,6 +1,7 @@
 package com.pandac.planningpoker.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandac.planningpoker.config.FairSchedulingConfig;
 import com.pandac.planningpoker.dto.*;
 import com.pandac.planningpoker.exception.SessionNotFoundException;
 import com.pandac.planningpoker.model.Session;
@@ -10,7 +11,10 @@ import com.pandac.planningpoker.security.SecurityConfig;
 import com.pandac.planningpoker.security.JwtAuthenticationFilter;
 import com.pandac.planningpoker.security.JwtTokenService;
 import com.pandac.planningpoker.security.SessionAccessValidator;
+import com.pandac.planningpoker.service.ObserverSnapshotService;
+import com.pandac.planningpoker.service.SessionMailbox;
 import com.pandac.planningpoker.service.interfaces.ISessionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -26,13 +30,15 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(SessionController.class)
-@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class, SessionMailbox.class,
+        FairSchedulingConfig.class, SimpleMeterRegistry.class})
 class SessionControllerTest {
 
     @Autowired MockMvc mockMvc;
     @Autowired ObjectMapper objectMapper;
 
     @MockBean ISessionService sessionService;
+    @MockBean ObserverSnapshotService observerSnapshotService;
     @MockBean JwtTokenService jwtTokenService;
     @MockBean SessionAccessValidator sessionAccessValidator;
 
@@ -74,6 +80,18 @@ class SessionControllerTest {
                 .andExpect(jsonPath("$.sessionCode").value("ABC123"));
     }
 
+    @Test
+    void getSession_acceptCbor_returnsCbor() throws Exception {
+        Session session = new Session();
+        session.setSessionCode("ABC123");
+        session.setName("Test");
+        when(sessionService.getSession("ABC123")).thenReturn(session);
+
+        mockMvc.perform(get("/api/sessions/ABC123").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"));
+    }
+
     @Test
     void getSession_unknownCode_returns404() throws Exception {
         when(sessionService.getSession("XXXXXX")).thenThrow(new SessionNotFoundException("XXXXXX"));
@@ -189,4 +207,17 @@ class SessionControllerTest {
         mockMvc.perform(post("/api/sessions/ABC123/reset-votes"))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    @WithMockUser(roles = "OBSERVER")
+    void getSnapshot_asObserver_returns200() throws Exception {
+        RoomSnapshot snapshot = new RoomSnapshot();
+        snapshot.setSessionCode("ABC123");
+        snapshot.setVoteCount(42L);
+        when(observerSnapshotService.getSnapshot("ABC123")).thenReturn(snapshot);
+
+        mockMvc.perform(get("/api/sessions/ABC123/snapshot"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.voteCount").value(42));
+    }
 }
@@ -0,0 +1,81 @@
+package com.pandac.planningpoker.controller;
+
+import com.pandac.planningpoker.dto.SessionEvent;
+import com.pandac.planningpoker.dto.SessionEventBatch;
+import com.pandac.planningpoker.exception.UnauthorizedAccessException;
+import com.pandac.planningpoker.security.JwtAuthenticationFilter;
+import com.pandac.planningpoker.security.JwtTokenService;
+import com.pandac.planningpoker.security.SecurityConfig;
+import com.pandac.planningpoker.security.SessionAccessValidator;
+import com.pandac.planningpoker.service.SessionEventStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SessionEventController.class)
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+class SessionEventControllerTest {
+
+    @Autowired MockMvc mockMvc;
+
+    @MockBean SessionEventStream sessionEventStream;
+    @MockBean JwtTokenService jwtTokenService;
+    @MockBean SessionAccessValidator sessionAccessValidator;
+
+    @Test
+    @WithMockUser(roles = "VOTER")
+    void poll_resumesFromLastEventIdHeader_onAsyncRequest() throws Exception {
+        DeferredResult<SessionEventBatch> result = new DeferredResult<>();
+        when(sessionEventStream.poll("ABC123", "s1-4")).thenReturn(result);
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/sessions/ABC123/events/poll").header("Last-Event-ID", "s1-4"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.setResult(new SessionEventBatch(
+                List.of(new SessionEvent("s1-5", "votes", Map.of("type", "VOTE_CAST"))), "s1-5", false));
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events[0].channel").value("votes"))
+                .andExpect(jsonPath("$.lastEventId").value("s1-5"));
+        verify(sessionAccessValidator).validateSessionAccess("ABC123");
+    }
+
+    @Test
+    @WithMockUser(roles = "VOTER")
+    void poll_afterParamTakesPrecedence() throws Exception {
+        when(sessionEventStream.poll("ABC123", "s1-9")).thenReturn(new DeferredResult<>());
+
+        mockMvc.perform(get("/api/sessions/ABC123/events/poll").param("after", "s1-9").header("Last-Event-ID", "s1-4"))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    @WithMockUser(roles = "VOTER")
+    void stream_forAnotherSession_returns403() throws Exception {
+        doThrow(new UnauthorizedAccessException("Access denied")).when(sessionAccessValidator).validateSessionAccess("OTHER1");
+
+        mockMvc.perform(get("/api/sessions/OTHER1/events"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(sessionEventStream);
+    }
+
+    @Test
+    void stream_unauthenticated_returns403() throws Exception {
+        mockMvc.perform(get("/api/sessions/ABC123/events"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -1,6 +1,7 @@
 package com.pandac.planningpoker.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandac.planningpoker.config.FairSchedulingConfig;
 import com.pandac.planningpoker.dto.CreateStoryRequest;
 import com.pandac.planningpoker.dto.FinalizeEstimateRequest;
 import com.pandac.planningpoker.dto.UpdateStoryRequest;
@@ -11,7 +12,9 @@ import com.pandac.planningpoker.security.JwtAuthenticationFilter;
 import com.pandac.planningpoker.security.JwtTokenService;
 import com.pandac.planningpoker.security.SecurityConfig;
 import com.pandac.planningpoker.security.SessionAccessValidator;
+import com.pandac.planningpoker.service.SessionMailbox;
 import com.pandac.planningpoker.service.interfaces.IStoryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -29,7 +32,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(StoryController.class)
-@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class, SessionMailbox.class,
+        FairSchedulingConfig.class, SimpleMeterRegistry.class})
 class StoryControllerTest {
 
     @Autowired MockMvc mockMvc;
@@ -1,12 +1,15 @@
 package com.pandac.planningpoker.controller;
 
+import com.pandac.planningpoker.config.FairSchedulingConfig;
 import com.pandac.planningpoker.exception.UserNotFoundException;
 import com.pandac.planningpoker.model.User;
 import com.pandac.planningpoker.security.JwtAuthenticationFilter;
 import com.pandac.planningpoker.security.JwtTokenService;
 import com.pandac.planningpoker.security.SecurityConfig;
 import com.pandac.planningpoker.security.SessionAccessValidator;
+import com.pandac.planningpoker.service.SessionMailbox;
 import com.pandac.planningpoker.service.interfaces.IUserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -22,7 +25,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
-@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class, SessionMailbox.class,
+        FairSchedulingConfig.class, SimpleMeterRegistry.class})
 class UserControllerTest {
 
     @Autowired MockMvc mockMvc;
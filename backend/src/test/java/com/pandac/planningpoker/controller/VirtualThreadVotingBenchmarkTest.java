@@ -0,0 +1,41 @@
+package com.pandac.planningpoker.controller;
+
+import com.pandac.planningpoker.service.diagnostics.VirtualThreadPinningMonitor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * {@link VotingConcurrencyBenchmarkTest} with Tomcat and the STOMP channels on virtual threads,
+ * against the same 10-connection H2 pool, so the two result lines compare platform and virtual
+ * threads under one load. Peak threads count platform threads only. Also prints the pinning
+ * stacks {@link VirtualThreadPinningMonitor} recorded during the run.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "jwt.secret=benchmark-secret-key-for-jwt-token-validation-only",
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN",
+        "spring.threads.virtual.enabled=true",
+        "virtual-threads.pinning-monitor.threshold-ms=5"
+})
+class VirtualThreadVotingBenchmarkTest extends VotingConcurrencyBenchmarkTest {
+
+    @Autowired VirtualThreadPinningMonitor pinningMonitor;
+
+    @Override
+    String mode() {
+        return "virtual";
+    }
+
+    @AfterEach
+    void printPinnedSites() throws InterruptedException {
+        Thread.sleep(1_500); // JFR delivers events about once a second
+        System.out.printf("virtual : %d pinning site(s)%n", pinningMonitor.pinnedSites().size());
+        pinningMonitor.pinnedSites().forEach(site -> System.out.printf("  %,d × max %.1f ms at %s%n",
+                site.count(), site.maxMillis(), String.join("\n      <- ", site.stackTrace().subList(0,
+                        Math.min(8, site.stackTrace().size())))));
+    }
+}
@@ -1,6 +1,7 @@
 package com.pandac.planningpoker.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandac.planningpoker.config.FairSchedulingConfig;
 import com.pandac.planningpoker.dto.VoteRequest;
 import com.pandac.planningpoker.dto.VoteResponse;
 import com.pandac.planningpoker.model.Vote;
@@ -8,12 +9,16 @@ import com.pandac.planningpoker.security.JwtAuthenticationFilter;
 import com.pandac.planningpoker.security.JwtTokenService;
 import com.pandac.planningpoker.security.SecurityConfig;
 import com.pandac.planningpoker.security.SessionAccessValidator;
+import com.pandac.planningpoker.service.SessionMailbox;
 import com.pandac.planningpoker.service.interfaces.IVoteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -26,7 +31,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(VoteController.class)
-@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class, SessionMailbox.class,
+        FairSchedulingConfig.class, SimpleMeterRegistry.class})
 class VoteControllerTest {
 
     @Autowired MockMvc mockMvc;
@@ -79,6 +85,20 @@ class VoteControllerTest {
                 .andExpect(jsonPath("$").isArray());
     }
 
+    @Test
+    @WithMockUser(roles = "PARTICIPANT")
+    void getVotes_withPageAndSize_returnsPage() throws Exception {
+        VoteResponse vote = new VoteResponse();
+        vote.setEstimate("8");
+        when(voteService.getVotesPage(eq("ABC123"), eq(10L), eq(true), eq(PageRequest.of(2, 50))))
+                .thenReturn(new PageImpl<>(List.of(vote), PageRequest.of(2, 50), 101));
+
+        mockMvc.perform(get("/api/sessions/ABC123/stories/10/votes?revealed=true&page=2&size=50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].estimate").value("8"))
+                .andExpect(jsonPath("$.totalElements").value(101));
+    }
+
     // ── deleteVote (caller or moderator) ────────────────────────────────────
     // Note: @PreAuthorize("@sessionAccessValidator.isCallerOrModerator(#userId)")
     // requires full integration context for SpEL parameter name resolution.
@@ -0,0 +1,81 @@
+package com.pandac.planningpoker.controller;
+
+import com.pandac.planningpoker.dto.VoteMessage;
+import com.pandac.planningpoker.dto.VoteReceipt;
+import com.pandac.planningpoker.dto.VoteRequest;
+import com.pandac.planningpoker.exception.ErrorResponse;
+import com.pandac.planningpoker.exception.InvalidVoteException;
+import com.pandac.planningpoker.exception.UnauthorizedAccessException;
+import com.pandac.planningpoker.model.Vote;
+import com.pandac.planningpoker.security.SessionPrincipal;
+import com.pandac.planningpoker.security.UserRole;
+import com.pandac.planningpoker.service.interfaces.IVoteService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.security.Principal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VoteMessageControllerTest {
+
+    @Mock IVoteService voteService;
+
+    @InjectMocks VoteMessageController controller;
+
+    private final Principal participant = new SessionPrincipal("ABC123", 5L, UserRole.PARTICIPANT,
+            Instant.now().plusSeconds(3600));
+
+    @Test
+    void castVote_usesPrincipalAsVoterAndEchoesReceipt() {
+        Vote vote = new Vote();
+        vote.setId(42L);
+        vote.setEstimate("8");
+        when(voteService.castVote(eq("ABC123"), eq(10L), eq(5L), any(VoteRequest.class))).thenReturn(vote);
+
+        VoteReceipt receipt = controller.castVote("ABC123", new VoteMessage(10L, "8", 3), "r-1", participant);
+
+        assertThat(receipt.getReceipt()).isEqualTo("r-1");
+        assertThat(receipt.getVoteId()).isEqualTo(42L);
+        assertThat(receipt.getStoryId()).isEqualTo(10L);
+        verify(voteService).castVote(eq("ABC123"), eq(10L), eq(5L),
+                argThat(r -> r.getUserId().equals(5L) && r.getConfidence() == 3));
+    }
+
+    @Test
+    void castVote_tokenForOtherSession_isRejected() {
+        assertThatThrownBy(() -> controller.castVote("XYZ999", new VoteMessage(10L, "8", null), null, participant))
+                .isInstanceOf(UnauthorizedAccessException.class);
+        verifyNoInteractions(voteService);
+    }
+
+    @Test
+    void castVote_unauthenticated_isRejected() {
+        assertThatThrownBy(() -> controller.castVote("ABC123", new VoteMessage(10L, "8", null), null, null))
+                .isInstanceOf(UnauthorizedAccessException.class);
+    }
+
+    @Test
+    void handleException_mapsDomainErrorsToStatus() {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setDestination("/app/session/ABC123/vote");
+        Message<byte[]> failed = MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+
+        ErrorResponse error = controller.handleException(new InvalidVoteException("Observers cannot vote"), failed);
+
+        assertThat(error.getStatus()).isEqualTo(400);
+        assertThat(error.getMessage()).isEqualTo("Observers cannot vote");
+        assertThat(error.getPath()).isEqualTo("/app/session/ABC123/vote");
+    }
+}
@@ -0,0 +1,126 @@
+package com.pandac.planningpoker.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandac.planningpoker.dto.*;
+import com.pandac.planningpoker.model.SizingMethod;
+import com.pandac.planningpoker.model.Story;
+import com.pandac.planningpoker.service.interfaces.ISessionService;
+import com.pandac.planningpoker.service.interfaces.IStoryService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.MimeTypeUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Per-vote latency and CPU of the REST vote endpoint versus the STOMP
+ * {@code /app/session/{code}/vote} destination, both in-process against H2.
+ * The STOMP figure starts after frame decoding (the socket already exists);
+ * the REST figure includes JWT parsing, the filter chain and JSON binding.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "jwt.secret=benchmark-secret-key-for-jwt-token-validation-only",
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN"
+})
+@AutoConfigureMockMvc
+class VoteTransportBenchmarkTest {
+
+    private static final int WARMUP = 300;
+    private static final int VOTES = 3_000;
+    private static final String[] ESTIMATES = {"1", "2", "3", "5", "8"};
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired ISessionService sessionService;
+    @Autowired IStoryService storyService;
+    @Autowired @Qualifier("simpAnnotationMethodMessageHandler") MessageHandler stompHandler;
+
+    @Test
+    void restVersusStompVoteCost() throws Exception {
+        CreateSessionRequest create = new CreateSessionRequest();
+        create.setName("Benchmark");
+        create.setSizingMethod(SizingMethod.FIBONACCI);
+        create.setModeratorName("Mod");
+        create.setModeratorCanVote(true);
+        CreateSessionResponse created = sessionService.createSession(create);
+        String code = created.getSession().getSessionCode();
+
+        JoinSessionRequest join = new JoinSessionRequest();
+        join.setName("Voter");
+        join.setIsObserver(false);
+        UserSession voter = sessionService.joinSession(code, join);
+
+        CreateStoryRequest storyRequest = new CreateStoryRequest();
+        storyRequest.setTitle("Story");
+        Story story = storyService.createStory(code, storyRequest);
+        sessionService.setCurrentStory(code, story.getId());
+
+        String bearer = "Bearer " + voter.getToken();
+        ThrowingVote rest = i -> mockMvc.perform(post("/api/sessions/{code}/stories/{id}/votes", code, story.getId())
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(
+                                new VoteRequest(voter.getUserId(), ESTIMATES[i % ESTIMATES.length], null))))
+                .andExpect(status().isCreated());
+
+        UsernamePasswordAuthenticationToken principal =
+                new UsernamePasswordAuthenticationToken(code + ":" + voter.getUserId(), null, List.of());
+        ThrowingVote stomp = i -> stompHandler.handleMessage(stompVote(code, principal,
+                objectMapper.writeValueAsBytes(new VoteMessage(story.getId(), ESTIMATES[i % ESTIMATES.length], null))));
+
+        measure("rest ", rest);
+        measure("stomp", stomp);
+    }
+
+    private static Message<byte[]> stompVote(String code, UsernamePasswordAuthenticationToken principal, byte[] body) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination("/app/session/" + code + "/vote");
+        accessor.setSessionId("benchmark");
+        accessor.setSessionAttributes(new ConcurrentHashMap<>());
+        accessor.setUser(principal);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+    }
+
+    private static void measure(String name, ThrowingVote vote) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            vote.cast(i);
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long start = System.nanoTime();
+        for (int i = 0; i < VOTES; i++) {
+            vote.cast(i);
+        }
+        long wallMicros = (System.nanoTime() - start) / 1_000 / VOTES;
+        long cpuMicros = (threads.getCurrentThreadCpuTime() - cpuStart) / 1_000 / VOTES;
+        System.out.printf("%s vote: %,d us latency, %,d us CPU (calling thread)%n", name, wallMicros, cpuMicros);
+    }
+
+    @FunctionalInterface
+    private interface ThrowingVote {
+        void cast(int i) throws Exception;
+    }
+}
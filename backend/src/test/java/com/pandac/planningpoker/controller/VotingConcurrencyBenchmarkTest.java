@@ -0,0 +1,192 @@
+package com.pandac.planningpoker.controller;
+
+import com.pandac.planningpoker.dto.*;
+import com.pandac.planningpoker.model.SizingMethod;
+import com.pandac.planningpoker.model.Story;
+import com.pandac.planningpoker.service.interfaces.ISessionService;
+import com.pandac.planningpoker.service.interfaces.IStoryService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Voting hot path over real HTTP at high concurrency: 1,000 clients in 50 rooms, each
+ * alternating a vote and a read of the story's votes, all in flight at once. Reports peak
+ * JVM and Tomcat threads, peak heap and p50/p99 latency. The reactive module runs the same
+ * load in its own {@code VotingConcurrencyBenchmarkTest}, so the two print side by side.
+ * Both use in-memory H2, clients ramped up over a second, and a client on 8 threads.
+ * {@link VirtualThreadVotingBenchmarkTest} repeats it with virtual threads. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "jwt.secret=benchmark-secret-key-for-jwt-token-validation-only",
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN"
+})
+@DirtiesContext // a cached context's idle Tomcat threads would count towards the next run's peak
+class VotingConcurrencyBenchmarkTest {
+
+    private static final int ROOMS = 50;
+    private static final int VOTERS_PER_ROOM = 20;
+    private static final int REQUESTS_PER_CLIENT = 6;
+    private static final String[] ESTIMATES = {"1", "2", "3", "5", "8"};
+
+    @LocalServerPort int port;
+    @Autowired ISessionService sessionService;
+    @Autowired IStoryService storyService;
+
+    @Test
+    void thousandConcurrentVoters() throws Exception {
+        List<Client> clients = new ArrayList<>();
+        for (int room = 0; room < ROOMS; room++) {
+            CreateSessionRequest create = new CreateSessionRequest();
+            create.setName("Room " + room);
+            create.setSizingMethod(SizingMethod.FIBONACCI);
+            create.setModeratorName("Mod");
+            String code = sessionService.createSession(create).getSession().getSessionCode();
+            CreateStoryRequest storyRequest = new CreateStoryRequest();
+            storyRequest.setTitle("Story");
+            Story story = storyService.createStory(code, storyRequest);
+            sessionService.setCurrentStory(code, story.getId());
+            for (int v = 0; v < VOTERS_PER_ROOM; v++) {
+                JoinSessionRequest join = new JoinSessionRequest();
+                join.setName("Voter " + v);
+                join.setIsObserver(false);
+                UserSession voter = sessionService.joinSession(code, join);
+                clients.add(new Client(code, story.getId(), voter.getUserId(), voter.getToken()));
+            }
+        }
+
+        ExecutorService clientThreads = Executors.newFixedThreadPool(8);
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientThreads).build();
+        try {
+            run(http, clientThreads, clients.subList(0, 100), 4); // warm-up
+            Result result = run(http, clientThreads, clients, REQUESTS_PER_CLIENT);
+            int requests = clients.size() * REQUESTS_PER_CLIENT;
+            System.out.printf("%-8s: %,d requests in %,d ms (%,d/s), p50 %,d us, p99 %,d us, max %,d us (first request "
+                            + "with connect: p99 %,d us), peak threads %d (%d Tomcat), peak heap %,d MB, errors %d%n",
+                    mode(), requests, result.elapsedMillis, requests * 1000L / Math.max(1, result.elapsedMillis),
+                    percentile(result.latencies, 0.50),
+                    percentile(result.latencies, 0.99), result.latencies[result.latencies.length - 1],
+                    percentile(result.firstLatencies, 0.99), result.peakThreads, result.peakServerThreads,
+                    result.peakHeapMb, result.errors);
+            assertThat(result.errors).isZero();
+        } finally {
+            http.shutdownNow();
+            clientThreads.shutdownNow();
+        }
+    }
+
+    /** Label of the printed result line. */
+    String mode() {
+        return "servlet";
+    }
+
+    private Result run(HttpClient http, Executor clientThreads, List<Client> clients, int requestsPerClient)
+            throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        AtomicLong peakHeap = new AtomicLong();
+        AtomicInteger peakServerThreads = new AtomicInteger();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+            peakServerThreads.accumulateAndGet(serverThreads(), Math::max);
+        }, 0, 20, TimeUnit.MILLISECONDS);
+        threads.resetPeakThreadCount();
+
+        long[] latencies = new long[clients.size() * requestsPerClient];
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        CompletableFuture<?>[] done = new CompletableFuture<?>[clients.size()];
+        for (int c = 0; c < clients.size(); c++) {
+            int client = c;
+            // Ramp up 100 clients per 100 ms: a burst of 1,000 connects would time SYN retries instead
+            Executor rampUp = CompletableFuture.delayedExecutor(c / 100 * 100L, TimeUnit.MILLISECONDS, clientThreads);
+            done[c] = CompletableFuture.supplyAsync(() -> client, rampUp)
+                    .thenCompose(i -> next(http, clients.get(i), 0, requestsPerClient, latencies, i * requestsPerClient, errors));
+        }
+        CompletableFuture.allOf(done).get(5, TimeUnit.MINUTES);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        sampler.shutdownNow();
+
+        long[] firstLatencies = new long[clients.size()];
+        long[] laterLatencies = new long[clients.size() * (requestsPerClient - 1)];
+        for (int c = 0; c < clients.size(); c++) {
+            firstLatencies[c] = latencies[c * requestsPerClient];
+            System.arraycopy(latencies, c * requestsPerClient + 1, laterLatencies, c * (requestsPerClient - 1),
+                    requestsPerClient - 1);
+        }
+        Arrays.sort(firstLatencies);
+        Arrays.sort(laterLatencies);
+        return new Result(laterLatencies, firstLatencies, elapsedMillis, threads.getPeakThreadCount(), peakServerThreads.get(),
+                peakHeap.get() / (1024 * 1024), errors.get());
+    }
+
+    /** The client's {@code i}-th request, then the rest of its requests one after another. */
+    private CompletableFuture<Void> next(HttpClient http, Client client, int i, int requests, long[] latencies,
+                                         int slot, AtomicInteger errors) {
+        if (i == requests) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String votes = "http://localhost:" + port + "/api/sessions/" + client.sessionCode + "/stories/"
+                + client.storyId + "/votes";
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(votes))
+                .header("Authorization", "Bearer " + client.token);
+        if (i % 2 == 0) {
+            String body = "{\"userId\":" + client.userId + ",\"estimate\":\"" + ESTIMATES[i / 2 % ESTIMATES.length] + "\"}";
+            request.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body));
+        } else {
+            request.GET();
+        }
+        long sent = System.nanoTime();
+        return http.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                .thenCompose(response -> {
+                    latencies[slot + i] = (System.nanoTime() - sent) / 1_000;
+                    if (response.statusCode() >= 300) {
+                        errors.incrementAndGet();
+                    }
+                    return next(http, client, i + 1, requests, latencies, slot, errors);
+                });
+    }
+
+    private static int serverThreads() {
+        return (int) Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("http-nio-"))
+                .count();
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private record Client(String sessionCode, Long storyId, Long userId, String token) {}
+
+    /** {@code latencies} leave out each client's first request, which also times its connect. */
+    private record Result(long[] latencies, long[] firstLatencies, long elapsedMillis, int peakThreads,
+                          int peakServerThreads, long peakHeapMb, int errors) {}
+}
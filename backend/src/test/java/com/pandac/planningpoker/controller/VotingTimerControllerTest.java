@@ -0,0 +1,74 @@
+package com.pandac.planningpoker.controller;
+
+import com.pandac.planningpoker.dto.TimerState;
+import com.pandac.planningpoker.exception.TimerStateException;
+import com.pandac.planningpoker.security.JwtAuthenticationFilter;
+import com.pandac.planningpoker.security.JwtTokenService;
+import com.pandac.planningpoker.security.SecurityConfig;
+import com.pandac.planningpoker.security.SessionAccessValidator;
+import com.pandac.planningpoker.service.timer.VotingTimerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(VotingTimerController.class)
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+class VotingTimerControllerTest {
+
+    @Autowired MockMvc mockMvc;
+
+    @MockBean VotingTimerService votingTimerService;
+    @MockBean JwtTokenService jwtTokenService;
+    @MockBean SessionAccessValidator sessionAccessValidator;
+
+    @Test
+    @WithMockUser(roles = "MODERATOR")
+    void start_asModerator_returnsRunningTimer() throws Exception {
+        when(votingTimerService.start("ABC123")).thenReturn(
+                new TimerState(TimerState.Status.RUNNING, 1_000_000L, 60, 60, false, 940_000L));
+
+        mockMvc.perform(post("/api/sessions/ABC123/timer/start"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.deadline").value(1_000_000L))
+                .andExpect(jsonPath("$.serverTime").value(940_000L));
+        verify(sessionAccessValidator).validateSessionAccess("ABC123");
+    }
+
+    @Test
+    @WithMockUser(roles = "PARTICIPANT")
+    void start_asParticipant_returns403() throws Exception {
+        mockMvc.perform(post("/api/sessions/ABC123/timer/start"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(votingTimerService);
+    }
+
+    @Test
+    @WithMockUser(roles = "MODERATOR")
+    void extend_outOfRange_returns400() throws Exception {
+        mockMvc.perform(post("/api/sessions/ABC123/timer/extend")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"seconds\":0}"))
+                .andExpect(status().isBadRequest());
+        verify(votingTimerService, never()).extend(any(), anyInt());
+    }
+
+    @Test
+    @WithMockUser(roles = "MODERATOR")
+    void pause_whenNotRunning_returns409() throws Exception {
+        when(votingTimerService.pause("ABC123")).thenThrow(new TimerStateException("The timer is not running"));
+
+        mockMvc.perform(post("/api/sessions/ABC123/timer/pause"))
+                .andExpect(status().isConflict());
+    }
+}
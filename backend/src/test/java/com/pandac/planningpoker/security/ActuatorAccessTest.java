@@ -0,0 +1,37 @@
+package com.pandac.planningpoker.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "jwt.secret=test-secret-key-for-jwt-token-generation-and-validation-12345",
+        "logging.level.root=WARN"
+})
+@AutoConfigureMockMvc
+class ActuatorAccessTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired JwtTokenService jwtTokenService;
+
+    @Test
+    void health_isPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void metrics_needAModeratorToken() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/actuator/sessionqueues")
+                        .header("Authorization", "Bearer " + jwtTokenService.generateToken("ABC123", 2L, UserRole.PARTICIPANT)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics")
+                        .header("Authorization", "Bearer " + jwtTokenService.generateToken("ABC123", 1L, UserRole.MODERATOR)))
+                .andExpect(status().isOk());
+    }
+}
@@ -78,6 +78,19 @@ class JwtTokenServiceTest {
         assertEquals(role.getRoleName(), extractedRole);
     }
 
+    @Test
+    void testParsePrincipal() {
+        String token = jwtTokenService.generateToken(sessionCode, userId, UserRole.OBSERVER);
+
+        SessionPrincipal principal = jwtTokenService.parsePrincipal(token);
+
+        assertEquals(sessionCode, principal.getSessionCode());
+        assertEquals(userId, principal.getUserId());
+        assertEquals(UserRole.OBSERVER, principal.getRole());
+        assertEquals(sessionCode + ":" + userId, principal.getName());
+        assertTrue(principal.getExpiresAt().isAfter(java.time.Instant.now()));
+    }
+
     @Test
     void testTokenWithDifferentRoles() {
         String participantToken = jwtTokenService.generateToken(sessionCode, userId, UserRole.PARTICIPANT);
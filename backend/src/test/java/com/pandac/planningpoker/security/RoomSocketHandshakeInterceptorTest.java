@@ -0,0 +1,118 @@
+package com.pandac.planningpoker.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class RoomSocketHandshakeInterceptorTest {
+
+    private final JwtTokenService jwtTokenService = mock(JwtTokenService.class);
+    private final RoomSocketTickets roomSocketTickets = new RoomSocketTickets(30);
+    private final RoomSocketHandshakeInterceptor interceptor =
+            new RoomSocketHandshakeInterceptor(jwtTokenService, roomSocketTickets);
+
+    @Test
+    void tokenForTheRoom_isAccepted_withIdentityInAttributes() {
+        SessionPrincipal principal = principal("ABC123");
+        when(jwtTokenService.parsePrincipal("tok")).thenReturn(principal);
+        Map<String, Object> attributes = new HashMap<>();
+
+        boolean accepted = handshake(withBearer("/ws-room/ABC123", "tok"), new MockHttpServletResponse(), attributes);
+
+        assertThat(accepted).isTrue();
+        assertThat(attributes).containsEntry(RoomSocketHandshakeInterceptor.PRINCIPAL_ATTRIBUTE, principal);
+    }
+
+    @Test
+    void tokenForAnotherRoom_isRejectedWith403() {
+        when(jwtTokenService.parsePrincipal("tok")).thenReturn(principal("OTHER1"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(handshake(withBearer("/ws-room/ABC123", "tok"), response, new HashMap<>())).isFalse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.FORBIDDEN.value());
+    }
+
+    @Test
+    void missingCredentials_areRejectedWith401() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(handshake(new MockHttpServletRequest("GET", "/ws-room/ABC123"), response, new HashMap<>())).isFalse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+        verifyNoInteractions(jwtTokenService);
+    }
+
+    @Test
+    void invalidToken_isRejectedWith401() {
+        when(jwtTokenService.parsePrincipal("tok")).thenThrow(new JwtValidationException("Token expired"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(handshake(withBearer("/ws-room/ABC123", "tok"), response, new HashMap<>())).isFalse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+    }
+
+    @Test
+    void jwtInTheQuery_isNoLongerAccepted() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(handshake(withQuery("/ws-room/ABC123", "token", "tok"), response, new HashMap<>())).isFalse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+        verifyNoInteractions(jwtTokenService);
+    }
+
+    @Test
+    void ticket_opensTheRoomOnce() {
+        SessionPrincipal principal = principal("ABC123");
+        String ticket = roomSocketTickets.issue(principal);
+        Map<String, Object> attributes = new HashMap<>();
+
+        assertThat(handshake(withQuery("/ws-room/ABC123", "ticket", ticket), new MockHttpServletResponse(), attributes))
+                .isTrue();
+        assertThat(attributes).containsEntry(RoomSocketHandshakeInterceptor.PRINCIPAL_ATTRIBUTE, principal);
+
+        MockHttpServletResponse replay = new MockHttpServletResponse();
+        assertThat(handshake(withQuery("/ws-room/ABC123", "ticket", ticket), replay, new HashMap<>())).isFalse();
+        assertThat(replay.getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+    }
+
+    @Test
+    void ticketForAnotherRoom_isRejectedWith403() {
+        String ticket = roomSocketTickets.issue(principal("OTHER1"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(handshake(withQuery("/ws-room/ABC123", "ticket", ticket), response, new HashMap<>())).isFalse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.FORBIDDEN.value());
+    }
+
+    private static SessionPrincipal principal(String sessionCode) {
+        return new SessionPrincipal(sessionCode, 7L, UserRole.PARTICIPANT, Instant.now().plusSeconds(3600));
+    }
+
+    private static MockHttpServletRequest withBearer(String path, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+
+    private static MockHttpServletRequest withQuery(String path, String name, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setQueryString(name + "=" + value);
+        request.addParameter(name, value);
+        return request;
+    }
+
+    private boolean handshake(MockHttpServletRequest request, MockHttpServletResponse response, Map<String, Object> attributes) {
+        return interceptor.beforeHandshake(new ServletServerHttpRequest(request),
+                new ServletServerHttpResponse(response), null, attributes);
+    }
+}
@@ -0,0 +1,66 @@
+package com.pandac.planningpoker.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomSocketTicketsTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+    private static final SessionPrincipal PRINCIPAL =
+            new SessionPrincipal("ABC123", 7L, UserRole.PARTICIPANT, NOW.plusSeconds(3600));
+
+    @Test
+    void ticket_redeemsOnce() {
+        RoomSocketTickets tickets = new RoomSocketTickets(30, Clock.fixed(NOW, ZoneOffset.UTC));
+        String ticket = tickets.issue(PRINCIPAL);
+
+        assertThat(tickets.redeem(ticket)).isEqualTo(PRINCIPAL);
+        assertThat(tickets.redeem(ticket)).isNull();
+        assertThat(tickets.redeem("made-up")).isNull();
+    }
+
+    @Test
+    void ticket_expiresAfterItsTtl() {
+        MutableClock clock = new MutableClock(NOW);
+        RoomSocketTickets tickets = new RoomSocketTickets(30, clock);
+        String ticket = tickets.issue(PRINCIPAL);
+
+        clock.advance(Duration.ofSeconds(30));
+
+        assertThat(tickets.redeem(ticket)).isNull();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
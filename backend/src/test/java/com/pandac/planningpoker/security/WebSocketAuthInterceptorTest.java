@@ -0,0 +1,84 @@
+package com.pandac.planningpoker.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.security.Principal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WebSocketAuthInterceptorTest {
+
+    private final JwtTokenService jwtTokenService = mock(JwtTokenService.class);
+    private final WebSocketAuthInterceptor interceptor = new WebSocketAuthInterceptor(jwtTokenService);
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    private final SessionPrincipal participant = principal(Instant.now().plusSeconds(3600));
+
+    @Test
+    void connect_parsesTokenOnceIntoSessionPrincipal() {
+        when(jwtTokenService.parsePrincipal("tok")).thenReturn(participant);
+        StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+        connect.addNativeHeader("Authorization", "Bearer tok");
+        connect.setLeaveMutable(true);
+
+        Message<?> result = interceptor.preSend(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()), channel);
+
+        assertThat(StompHeaderAccessor.wrap(result).getUser()).isSameAs(participant);
+        verify(jwtTokenService, times(1)).parsePrincipal("tok");
+    }
+
+    @Test
+    void subscribe_ownSessionTopics_isAllowedWithoutParsingTheToken() {
+        interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/session/ABC123", participant), channel);
+        interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/session/ABC123/votes", participant), channel);
+        interceptor.preSend(frame(StompCommand.SEND, "/app/session/ABC123/vote", participant), channel);
+
+        verifyNoInteractions(jwtTokenService);
+    }
+
+    @Test
+    void subscribe_otherSessionOrAnonymous_isDenied() {
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/session/XYZ789/votes", participant), channel))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/session/ABC123", null), channel))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SEND, "/app/session/XYZ789/vote", participant), channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void frames_afterTokenExpiry_areDenied() {
+        SessionPrincipal expired = principal(Instant.now().minusSeconds(1));
+
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/session/ABC123", expired), channel))
+                .isInstanceOf(AccessDeniedException.class)
+                .hasMessageContaining("expired");
+    }
+
+    @Test
+    void send_toBrokerDestination_isDenied() {
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SEND, "/topic/session/ABC123", participant), channel))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SEND, "/user/ABC123:9/queue/votes", participant), channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    private static Message<?> frame(StompCommand command, String destination, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static SessionPrincipal principal(Instant expiresAt) {
+        return new SessionPrincipal("ABC123", 5L, UserRole.PARTICIPANT, expiresAt);
+    }
+}
@@ -0,0 +1,57 @@
+package com.pandac.planningpoker.security;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class WebSocketSessionExpiryTest {
+
+    private final MessageChannel clientOutboundChannel = mock(MessageChannel.class);
+    private final WebSocketSessionExpiry expiry = new WebSocketSessionExpiry(clientOutboundChannel);
+
+    @Test
+    void expiredConnection_getsErrorFrame_once() {
+        connected("ws-expired", Instant.now().minusSeconds(1));
+        connected("ws-valid", Instant.now().plusSeconds(3600));
+
+        expiry.closeExpired();
+        expiry.closeExpired();
+
+        ArgumentCaptor<Message<?>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(clientOutboundChannel, times(1)).send(sent.capture());
+        StompHeaderAccessor error = StompHeaderAccessor.wrap(sent.getValue());
+        assertThat(error.getCommand()).isEqualTo(StompCommand.ERROR);
+        assertThat(error.getSessionId()).isEqualTo("ws-expired");
+    }
+
+    @Test
+    void disconnectedConnection_isForgotten() {
+        connected("ws-1", Instant.now().minusSeconds(1));
+        expiry.onDisconnect(new SessionDisconnectEvent(this, MessageBuilder.withPayload(new byte[0]).build(),
+                "ws-1", CloseStatus.NORMAL));
+
+        expiry.closeExpired();
+
+        verifyNoInteractions(clientOutboundChannel);
+    }
+
+    private void connected(String sessionId, Instant expiresAt) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECTED);
+        accessor.setSessionId(sessionId);
+        SessionPrincipal principal = new SessionPrincipal("ABC123", 5L, UserRole.PARTICIPANT, expiresAt);
+        expiry.onConnected(new SessionConnectedEvent(this,
+                MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), principal));
+    }
+}
@@ -0,0 +1,210 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.exception.InvalidVoteException;
+import com.pandac.planningpoker.exception.SessionBusyException;
+import com.pandac.planningpoker.service.FairScheduler.SessionQueue;
+import com.pandac.planningpoker.service.FairScheduler.WorkClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FairSchedulerTest {
+
+    private static final Map<WorkClass, Integer> WEIGHTS =
+            Map.of(WorkClass.MODERATOR, 8, WorkClass.VOTE, 2, WorkClass.BULK, 1);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FairScheduler scheduler = new FairScheduler("test", 1, WEIGHTS, 100, registry);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<String> order = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        scheduler.close();
+    }
+
+    @Test
+    void smallSession_waitsAtMostOneRoundBehindABigBacklog() throws Exception {
+        holdTheOnlyThread();
+        for (int i = 0; i < 50; i++) {
+            scheduler.execute("ALLHANDS", WorkClass.BULK, () -> order.add("ALLHANDS"));
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler.execute("SMALL1", WorkClass.VOTE, () -> {
+            order.add("SMALL1");
+            done.countDown();
+        });
+
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(order.indexOf("SMALL1")).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void sessionWork_runsModeratorWorkFirst_thenVotes_thenBulk() throws Exception {
+        holdTheOnlyThread();
+        for (int i = 0; i < 3; i++) {
+            scheduler.execute("ABC123", WorkClass.VOTE, () -> order.add("vote"));
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler.execute("ABC123", WorkClass.BULK, () -> {
+            order.add("bulk");
+            done.countDown();
+        });
+        scheduler.execute("ABC123", WorkClass.MODERATOR, () -> order.add("reveal"));
+
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(order).containsExactly("reveal", "vote", "vote", "vote", "bulk");
+    }
+
+    @Test
+    void inOrder_runsASessionsWorkOneAtATime_onAnyNumberOfThreads() throws Exception {
+        FairScheduler ordered = new FairScheduler("ordered", 4, WEIGHTS, 1000, true,
+                Thread.ofVirtual().factory(), registry);
+        try {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger overlaps = new AtomicInteger();
+            List<Integer> delivered = new CopyOnWriteArrayList<>();
+            CountDownLatch done = new CountDownLatch(200);
+            for (int i = 0; i < 200; i++) {
+                int frame = i;
+                ordered.execute("ABC123", i % 3 == 0 ? WorkClass.MODERATOR : WorkClass.VOTE, () -> {
+                    if (running.incrementAndGet() > 1) {
+                        overlaps.incrementAndGet();
+                    }
+                    delivered.add(frame);
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+            }
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(overlaps).hasValue(0);
+            assertThat(delivered).isSorted().hasSize(200);
+        } finally {
+            ordered.close();
+        }
+    }
+
+    @Test
+    void inOrder_aBlockedConnection_holdsUpOnlyItsOwnFrames() throws Exception {
+        FairScheduler ordered = new FairScheduler("ordered", 2, WEIGHTS, 1000, true,
+                Thread.ofVirtual().factory(), registry);
+        CountDownLatch slow = new CountDownLatch(1);
+        try {
+            CountDownLatch done = new CountDownLatch(3);
+            ordered.execute("ABC123", "ws-1", WorkClass.BULK, () -> await(slow));
+            ordered.execute("ABC123", "ws-1", WorkClass.MODERATOR, () -> order.add("ws-1"));
+            for (int i = 0; i < 3; i++) {
+                ordered.execute("ABC123", "ws-2", WorkClass.MODERATOR, () -> {
+                    order.add("ws-2");
+                    done.countDown();
+                });
+            }
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(order).containsExactly("ws-2", "ws-2", "ws-2");
+        } finally {
+            slow.countDown();
+            ordered.close();
+        }
+    }
+
+    @Test
+    void weights_shareTurnsBetweenSessions() throws Exception {
+        holdTheOnlyThread();
+        for (int i = 0; i < 16; i++) {
+            scheduler.execute("MOD001", WorkClass.MODERATOR, () -> order.add("moderator"));
+            scheduler.execute("BULK01", WorkClass.BULK, () -> order.add("bulk"));
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler.execute("BULK01", WorkClass.BULK, done::countDown);
+
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        // a round is eight moderator actions or one bulk read
+        assertThat(order.subList(0, 9)).containsOnly("moderator", "bulk")
+                .filteredOn("moderator"::equals).hasSize(8);
+    }
+
+    @Test
+    void fullSessionQueue_refusesOnlyThatSession() throws Exception {
+        FairScheduler small = new FairScheduler("small", 1, WEIGHTS, 2, registry);
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            small.execute("GATE01", WorkClass.VOTE, () -> {
+                started.countDown();
+                await(release);
+            });
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            small.execute("ABC123", WorkClass.BULK, () -> {});
+            small.execute("ABC123", WorkClass.BULK, () -> {});
+
+            assertThatThrownBy(() -> small.execute("ABC123", WorkClass.BULK, () -> {}))
+                    .isInstanceOf(SessionBusyException.class);
+            small.execute("XYZ789", WorkClass.BULK, () -> {});
+            assertThat(registry.get("fair.scheduler.rejected").tag("scheduler", "small").counter().count())
+                    .isEqualTo(1);
+        } finally {
+            release.countDown();
+            small.close();
+        }
+    }
+
+    @Test
+    void call_returnsTheResult_andRunsNestedCallsInline() {
+        String result = scheduler.call("ABC123", WorkClass.VOTE,
+                () -> scheduler.call("ABC123", WorkClass.BULK, () -> "inner"));
+        assertThat(result).isEqualTo("inner");
+    }
+
+    @Test
+    void call_rethrowsTheExceptionUnwrapped() {
+        assertThatThrownBy(() -> scheduler.call("ABC123", WorkClass.VOTE, () -> {
+            throw new InvalidVoteException("Observers cannot vote");
+        })).isInstanceOf(InvalidVoteException.class).hasMessage("Observers cannot vote");
+    }
+
+    @Test
+    void queues_reportEachSessionsBacklog_deepestFirst() throws Exception {
+        holdTheOnlyThread();
+        scheduler.execute("SMALL1", WorkClass.VOTE, () -> {});
+        scheduler.execute("ALLHANDS", WorkClass.VOTE, () -> {});
+        scheduler.execute("ALLHANDS", WorkClass.BULK, () -> {});
+
+        List<SessionQueue> queues = scheduler.queues();
+        assertThat(queues).extracting(SessionQueue::session).containsExactly("ALLHANDS", "SMALL1");
+        assertThat(queues.get(0).byClass()).containsEntry(WorkClass.VOTE, 1).containsEntry(WorkClass.BULK, 1);
+        assertThat(scheduler.queued()).isEqualTo(3);
+        assertThat(registry.get("fair.scheduler.queue.max").tag("scheduler", "test").gauge().value()).isEqualTo(2);
+    }
+
+    /** Occupies the scheduler's single thread until {@link #release}, so that work queues up behind it. */
+    private void holdTheOnlyThread() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        scheduler.execute("GATE01", WorkClass.MODERATOR, () -> {
+            started.countDown();
+            await(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.dto.*;
+import com.pandac.planningpoker.model.SizingMethod;
+import com.pandac.planningpoker.model.Story;
+import com.pandac.planningpoker.service.interfaces.ISessionService;
+import com.pandac.planningpoker.service.interfaces.IStoryService;
+import com.pandac.planningpoker.service.interfaces.IVoteService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 1,000 voters joining and voting concurrently in one session, in-process against H2, with
+ * and without large-room mode. Reports per-vote latency for the first and last quarter of
+ * the votes (stable latency means the last quarter is no slower than the first) and the
+ * number of session broadcasts each mode produced. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "jwt.secret=benchmark-secret-key-for-jwt-token-validation-only",
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN",
+        "large-room.broadcast-interval-ms=250"
+})
+class LargeRoomLoadBenchmarkTest {
+
+    private static final int VOTERS = 1_000;
+    private static final int CLIENT_THREADS = 32;
+    private static final String[] ESTIMATES = {"1", "2", "3", "5", "8", "13"};
+
+    @Autowired ISessionService sessionService;
+    @Autowired IStoryService storyService;
+    @Autowired IVoteService voteService;
+    @Autowired LargeRoomBroadcaster largeRoomBroadcaster;
+    @SpyBean WebSocketEventPublisher webSocketEventPublisher;
+
+    @Test
+    void thousandVotersInOneRoom() throws Exception {
+        Result regular = run(false);
+        Result large = run(true);
+
+        print("regular", regular);
+        print("large  ", large);
+
+        assertThat(large.reveal.getSummarized()).isTrue();
+        assertThat(large.reveal.getTotalVotes()).isEqualTo(VOTERS);
+        assertThat(large.broadcasts).isLessThan(regular.broadcasts / 10);
+        assertThat(percentile(large.lastQuarter, 0.5)).isLessThan(3 * percentile(large.firstQuarter, 0.5) + 2_000);
+    }
+
+    private Result run(boolean largeRoom) throws Exception {
+        CreateSessionRequest create = new CreateSessionRequest();
+        create.setName(largeRoom ? "All hands (large)" : "All hands");
+        create.setSizingMethod(SizingMethod.FIBONACCI);
+        create.setModeratorName("Mod");
+        SessionSettings settings = new SessionSettings();
+        settings.setLargeRoom(largeRoom);
+        create.setSettings(settings);
+        String code = sessionService.createSession(create).getSession().getSessionCode();
+
+        CreateStoryRequest storyRequest = new CreateStoryRequest();
+        storyRequest.setTitle("Quarterly epic");
+        Story story = storyService.createStory(code, storyRequest);
+        sessionService.setCurrentStory(code, story.getId());
+
+        clearInvocations(webSocketEventPublisher);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENT_THREADS);
+        try {
+            List<Future<Long>> joins = new ArrayList<>();
+            for (int i = 0; i < VOTERS; i++) {
+                JoinSessionRequest join = new JoinSessionRequest();
+                join.setName("Voter " + i);
+                join.setIsObserver(false);
+                joins.add(clients.submit(() -> sessionService.joinSession(code, join).getUserId()));
+            }
+            List<Future<Long>> votes = new ArrayList<>();
+            for (int i = 0; i < VOTERS; i++) {
+                Long userId = joins.get(i).get();
+                String estimate = ESTIMATES[i % ESTIMATES.length];
+                votes.add(clients.submit(() -> {
+                    long start = System.nanoTime();
+                    voteService.castVote(code, story.getId(), userId, new VoteRequest(userId, estimate, null));
+                    return (System.nanoTime() - start) / 1_000;
+                }));
+            }
+            long[] latencies = new long[VOTERS];
+            for (int i = 0; i < VOTERS; i++) {
+                latencies[i] = votes.get(i).get();
+            }
+            largeRoomBroadcaster.flush();
+
+            long revealStart = System.nanoTime();
+            VoteReveal reveal = sessionService.revealVotes(code);
+            long revealMicros = (System.nanoTime() - revealStart) / 1_000;
+
+            int broadcasts = mockingDetails(webSocketEventPublisher).getInvocations().stream()
+                    .filter(inv -> inv.getMethod().getName().equals("publishSessionEvent"))
+                    .mapToInt(inv -> 1)
+                    .sum();
+            return new Result(Arrays.copyOfRange(latencies, 0, VOTERS / 4),
+                    Arrays.copyOfRange(latencies, VOTERS * 3 / 4, VOTERS), revealMicros, broadcasts, reveal);
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    private static void print(String name, Result result) {
+        System.out.printf("%s vote p50/p99: first quarter %,d/%,d us, last quarter %,d/%,d us | reveal %,d us | %,d broadcasts%n",
+                name,
+                percentile(result.firstQuarter, 0.5), percentile(result.firstQuarter, 0.99),
+                percentile(result.lastQuarter, 0.5), percentile(result.lastQuarter, 0.99),
+                result.revealMicros, result.broadcasts);
+    }
+
+    private static long percentile(long[] values, double p) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+    }
+
+    private record Result(long[] firstQuarter, long[] lastQuarter, long revealMicros, int broadcasts,
+                          VoteReveal reveal) {}
+}
@@ -0,0 +1,118 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.config.ObserverSubscriptions;
+import com.pandac.planningpoker.dto.RoomSnapshot;
+import com.pandac.planningpoker.model.Session;
+import com.pandac.planningpoker.model.Story;
+import com.pandac.planningpoker.repository.SessionRepository;
+import com.pandac.planningpoker.repository.StoryRepository;
+import com.pandac.planningpoker.repository.UserRepository;
+import com.pandac.planningpoker.repository.VoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ObserverSnapshotServiceTest {
+
+    @Mock SessionRepository sessionRepository;
+    @Mock StoryRepository storyRepository;
+    @Mock UserRepository userRepository;
+    @Mock VoteRepository voteRepository;
+    @Mock WebSocketEventPublisher webSocketEventPublisher;
+    @Mock PlatformTransactionManager transactionManager;
+
+    private final ObserverSubscriptions observerSubscriptions = new ObserverSubscriptions();
+    private ObserverSnapshotService service;
+    private Session session;
+
+    @BeforeEach
+    void setUp() {
+        service = new ObserverSnapshotService(sessionRepository, storyRepository, userRepository, voteRepository,
+                new VoteStatisticsCalculator(), webSocketEventPublisher, observerSubscriptions, transactionManager);
+        session = new Session();
+        session.setId(1L);
+        session.setSessionCode("ABC123");
+        session.setName("All hands");
+    }
+
+    @Test
+    void publishDue_onlyForRoomsWithObservers_andOncePerInterval() {
+        stubRoom(false);
+        subscribe("ws-1", "sub-1", "/topic/session/ABC123/snapshot");
+        service.markDirty("ABC123");
+        service.markDirty("ABC123");
+        service.markDirty("NOOBS1");
+
+        service.publishDue();
+        service.publishDue();
+
+        verify(webSocketEventPublisher, times(1)).publish(eq("/topic/session/ABC123/snapshot"), any(RoomSnapshot.class));
+        verify(sessionRepository, never()).findBySessionCodeAndActive(eq("NOOBS1"), anyBoolean());
+    }
+
+    @Test
+    void snapshot_beforeReveal_hasCountButNoDistribution() {
+        stubRoom(false);
+        when(voteRepository.countByStory(any())).thenReturn(250L);
+
+        RoomSnapshot snapshot = service.getSnapshot("ABC123");
+
+        assertThat(snapshot.getVoteCount()).isEqualTo(250);
+        assertThat(snapshot.getActiveVoters()).isEqualTo(300);
+        assertThat(snapshot.getCurrentStoryTitle()).isEqualTo("Epic");
+        assertThat(snapshot.getDistribution()).isNull();
+    }
+
+    @Test
+    void snapshot_afterReveal_hasDistributionAndStatistics() {
+        stubRoom(true);
+        when(voteRepository.countByEstimate(any())).thenReturn(List.of(estimateCount("5", 3), estimateCount("8", 1)));
+
+        RoomSnapshot snapshot = service.getSnapshot("ABC123");
+
+        assertThat(snapshot.getVoteCount()).isEqualTo(4);
+        assertThat(snapshot.getDistribution()).containsEntry("5", 3).containsEntry("8", 1);
+        assertThat(snapshot.getRecommendedEstimate()).isEqualTo("5");
+    }
+
+    private void stubRoom(boolean revealed) {
+        Story story = new Story();
+        story.setId(10L);
+        story.setTitle("Epic");
+        session.setCurrentStoryId(10L);
+        session.setVotesRevealed(revealed);
+        when(sessionRepository.findBySessionCodeAndActive("ABC123", true)).thenReturn(Optional.of(session));
+        when(storyRepository.findById(10L)).thenReturn(Optional.of(story));
+        when(userRepository.countBySessionAndActiveAndObserver(session, true, false)).thenReturn(300L);
+        when(userRepository.countBySessionAndActiveAndObserver(session, true, true)).thenReturn(2_000L);
+    }
+
+    private void subscribe(String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        observerSubscriptions.inbound().preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+    }
+
+    private static VoteRepository.EstimateCount estimateCount(String estimate, long votes) {
+        return new VoteRepository.EstimateCount() {
+            @Override public String getEstimate() { return estimate; }
+            @Override public long getVotes() { return votes; }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.config.PresenceTracker;
+import com.pandac.planningpoker.repository.UserRepository;
+import com.pandac.planningpoker.security.SessionPrincipal;
+import com.pandac.planningpoker.security.UserRole;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PresenceServiceTest {
+
+    private final PresenceTracker presenceTracker = new PresenceTracker();
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final WebSocketEventPublisher webSocketEventPublisher = mock(WebSocketEventPublisher.class);
+    private final PresenceService service = new PresenceService(presenceTracker, userRepository, webSocketEventPublisher);
+
+    @Test
+    void broadcastChanges_publishesNetChangesOnly() {
+        send(SimpMessageType.CONNECT, "ws-1", 5L);
+        service.broadcastChanges();
+        verify(webSocketEventPublisher).presenceChanged("ABC123", List.of(5L), List.of());
+
+        // reconnect within one interval: nothing to tell
+        send(SimpMessageType.DISCONNECT, "ws-1", null);
+        send(SimpMessageType.CONNECT, "ws-2", 5L);
+        service.broadcastChanges();
+        verifyNoMoreInteractions(webSocketEventPublisher);
+
+        send(SimpMessageType.DISCONNECT, "ws-2", null);
+        service.broadcastChanges();
+        verify(webSocketEventPublisher).presenceChanged("ABC123", List.of(), List.of(5L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushLastSeen_writesInBatches_withoutRepeatingIdleUsers() {
+        LongStream.rangeClosed(1, 1_200).forEach(id -> send(SimpMessageType.CONNECT, "ws-" + id, id));
+
+        service.flushLastSeen();
+
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(userRepository, times(3)).updateLastSeenAt(ids.capture(), any(OffsetDateTime.class));
+        assertThat(ids.getAllValues()).extracting(Collection::size).containsExactly(500, 500, 200);
+
+        service.flushLastSeen();
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    private void send(SimpMessageType type, String sessionId, Long userId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        if (userId != null) {
+            accessor.setUser(new SessionPrincipal("ABC123", userId, UserRole.PARTICIPANT, Instant.now().plusSeconds(3600)));
+        }
+        presenceTracker.inbound().preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+    }
+}
@@ -0,0 +1,102 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.dto.SessionEvent;
+import com.pandac.planningpoker.dto.SessionEventBatch;
+import com.pandac.planningpoker.service.WebSocketEventPublisher.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SessionEventStreamTest {
+
+    private SessionEventStream stream;
+
+    @BeforeEach
+    void setUp() {
+        stream = new SessionEventStream(mock(WebSocketEventPublisher.class));
+        ReflectionTestUtils.setField(stream, "replayBufferSize", 4);
+    }
+
+    @Test
+    void poll_withoutCursor_waitsForNextEvent() throws Exception {
+        DeferredResult<SessionEventBatch> pending = stream.poll("ABC123", null);
+        assertThat(pending.hasResult()).isFalse();
+
+        stream.append("ABC123", Channel.VOTES, Map.of("type", "VOTE_CAST", "voteCount", 1), true);
+
+        SessionEventBatch batch = await(pending);
+        assertThat(batch.getResync()).isFalse();
+        assertThat(batch.getEvents()).extracting(SessionEvent::getChannel).containsExactly("votes");
+        assertThat(batch.getLastEventId()).isEqualTo(batch.getEvents().get(0).getId());
+    }
+
+    @Test
+    void poll_withCursor_replaysBufferedEventsImmediately() throws Exception {
+        String cursor = await(pollThenAppend(Channel.USERS)).getLastEventId();
+        stream.append("ABC123", Channel.VOTES, Map.of("type", "VOTE_CAST"), true);
+        stream.append("ABC123", Channel.REVEAL, Map.of("type", "VOTES_REVEALED"), true);
+
+        DeferredResult<SessionEventBatch> replay = stream.poll("ABC123", cursor);
+
+        assertThat(replay.hasResult()).isTrue();
+        SessionEventBatch batch = (SessionEventBatch) replay.getResult();
+        assertThat(batch.getEvents()).extracting(SessionEvent::getChannel).containsExactly("votes", "reveal");
+    }
+
+    @Test
+    void poll_withCursorFromAnotherStreamOrOverwritten_requestsResync() throws Exception {
+        String cursor = await(pollThenAppend(Channel.USERS)).getLastEventId();
+        for (int i = 0; i < 5; i++) {
+            stream.append("ABC123", Channel.VOTES, Map.of("type", "VOTE_CAST", "voteCount", i), true);
+        }
+
+        SessionEventBatch overwritten = (SessionEventBatch) stream.poll("ABC123", cursor).getResult();
+        SessionEventBatch foreign = (SessionEventBatch) stream.poll("ABC123", "deadbeef-3").getResult();
+
+        assertThat(overwritten.getResync()).isTrue();
+        assertThat(foreign.getResync()).isTrue();
+        assertThat(foreign.getLastEventId()).endsWith("-6");
+    }
+
+    @Test
+    void append_forSessionNobodyFollows_isNotBuffered() {
+        stream.append("NOBODY", Channel.VOTES, Map.of("type", "VOTE_CAST"), true);
+
+        SessionEventBatch batch = (SessionEventBatch) stream.poll("NOBODY", "whatever-1").getResult();
+
+        assertThat(batch.getResync()).isTrue();
+        assertThat(batch.getLastEventId()).endsWith("-0");
+    }
+
+    @Test
+    void closeForRestart_completesPendingPolls() {
+        DeferredResult<SessionEventBatch> pending = stream.poll("ABC123", null);
+        assertThat(stream.sessionCodes()).containsExactly("ABC123");
+
+        stream.closeForRestart(5_000);
+
+        assertThat(pending.hasResult()).isTrue();
+        assertThat(((SessionEventBatch) pending.getResult()).getEvents()).isEmpty();
+        assertThat(stream.sessionCodes()).isEmpty();
+    }
+
+    private DeferredResult<SessionEventBatch> pollThenAppend(Channel channel) {
+        DeferredResult<SessionEventBatch> pending = stream.poll("ABC123", null);
+        stream.append("ABC123", channel, Map.of("type", "EVENT"), true);
+        return pending;
+    }
+
+    private static SessionEventBatch await(DeferredResult<SessionEventBatch> result) throws InterruptedException {
+        for (int i = 0; i < 200 && !result.hasResult(); i++) {
+            Thread.sleep(10); // waiters are completed off the publishing thread
+        }
+        assertThat(result.hasResult()).isTrue();
+        return (SessionEventBatch) result.getResult();
+    }
+}
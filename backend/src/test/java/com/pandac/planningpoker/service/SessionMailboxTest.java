@@ -0,0 +1,142 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.exception.InvalidVoteException;
+import com.pandac.planningpoker.exception.SessionBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SessionMailboxTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SessionMailbox mailbox = new SessionMailbox(
+            new FairScheduler("service", 4, Map.of(), 256, registry), registry);
+
+    @Test
+    void changesToOneSession_neverOverlap() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        try (ExecutorService callers = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                calls.add(callers.submit(() -> mailbox.execute("ABC123", () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(5);
+                    running.decrementAndGet();
+                })));
+            }
+            for (Future<?> call : calls) {
+                call.get(5, TimeUnit.SECONDS);
+            }
+        }
+        assertThat(maxRunning.get()).isEqualTo(1);
+        // the worker drops the mailbox just after completing the last change
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (mailbox.activeMailboxes() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(mailbox.activeMailboxes()).isZero();
+    }
+
+    @Test
+    void differentSessions_runInParallel() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        try (ExecutorService callers = Executors.newFixedThreadPool(2)) {
+            Future<Boolean> a = callers.submit(() -> mailbox.submit("AAA111", () -> meet(bothStarted)));
+            Future<Boolean> b = callers.submit(() -> mailbox.submit("BBB222", () -> meet(bothStarted)));
+            assertThat(a.get(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(b.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    void fullMailbox_refusesTheCaller() throws Exception {
+        ReflectionTestUtils.setField(mailbox, "capacity", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        try (ExecutorService callers = Executors.newFixedThreadPool(2)) {
+            Future<?> running = callers.submit(() -> mailbox.execute("ABC123", () -> {
+                started.countDown();
+                await(release);
+            }));
+            started.await(5, TimeUnit.SECONDS);
+            Future<?> queued = callers.submit(() -> mailbox.execute("ABC123", () -> {}));
+            while (mailbox.queued("ABC123") == 0) {
+                Thread.sleep(1);
+            }
+
+            assertThatThrownBy(() -> mailbox.execute("ABC123", () -> {}))
+                    .isInstanceOf(SessionBusyException.class);
+            release.countDown();
+            running.get(5, TimeUnit.SECONDS);
+            queued.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void exceptions_reachTheCallerUnwrapped() {
+        assertThatThrownBy(() -> mailbox.execute("ABC123", () -> {
+            throw new InvalidVoteException("Observers cannot vote");
+        })).isInstanceOf(InvalidVoteException.class).hasMessage("Observers cannot vote");
+    }
+
+    @Test
+    void nestedChange_toTheSameSession_runsInline() {
+        String result = mailbox.submit("ABC123", () -> mailbox.submit("ABC123", () -> "inner"));
+        assertThat(result).isEqualTo("inner");
+    }
+
+    @Test
+    void read_doesNotWaitBehindTheSessionsChanges() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        try (ExecutorService callers = Executors.newFixedThreadPool(1)) {
+            Future<?> running = callers.submit(() -> mailbox.execute("ABC123", () -> {
+                started.countDown();
+                await(release);
+            }));
+            started.await(5, TimeUnit.SECONDS);
+
+            assertThat(mailbox.read("ABC123", () -> "votes")).isEqualTo("votes");
+            release.countDown();
+            running.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static boolean meet(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.pandac.planningpoker.service;
 
 import com.pandac.planningpoker.dto.*;
+import com.pandac.planningpoker.exception.NoActiveStoryException;
 import com.pandac.planningpoker.exception.SessionNotFoundException;
 import com.pandac.planningpoker.model.*;
 import com.pandac.planningpoker.repository.*;
 import com.pandac.planningpoker.security.JwtTokenService;
 import com.pandac.planningpoker.security.SessionAccessValidator;
+import com.pandac.planningpoker.service.cluster.Invalidation;
+import com.pandac.planningpoker.service.cluster.InvalidationBus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,6 +36,8 @@ class SessionServiceImplTest {
     @Mock SessionAccessValidator sessionAccessValidator;
     @Mock VoteStatisticsCalculator voteStatisticsCalculator;
     @Mock VoteResponseMapper voteResponseMapper;
+    @Mock InvalidationBus invalidationBus;
+    @Mock LargeRoomBroadcaster largeRoomBroadcaster;
 
     @InjectMocks
     SessionServiceImpl sessionService;
@@ -193,4 +198,97 @@ class SessionServiceImplTest {
         assertThat(activeStory.getStatus()).isEqualTo(StoryStatus.NOT_ESTIMATED);
         verify(sessionRepository).save(session);
     }
+
+    @Test
+    void deleteSession_publishesSessionInvalidation() {
+        when(sessionRepository.findBySessionCodeAndActive("ABC123", true)).thenReturn(Optional.of(session));
+
+        sessionService.deleteSession("ABC123");
+
+        verify(invalidationBus).publish(Invalidation.Entity.SESSION, 1L, null, "ABC123");
+    }
+
+    // ─── revealVotes ─────────────────────────────────────────────────────────────
+
+    @Test
+    void revealVotes_largeRoom_returnsSummaryWithoutIndividualVotes() {
+        session.getSettings().setLargeRoom(true);
+        session.setCurrentStoryId(3L);
+        Story story = new Story();
+        story.setId(3L);
+        VoteRepository.EstimateCount fives = estimateCount("5", 300);
+        VoteRepository.EstimateCount eights = estimateCount("8", 200);
+
+        when(sessionRepository.findBySessionCodeAndActive("ABC123", true)).thenReturn(Optional.of(session));
+        when(storyRepository.findById(3L)).thenReturn(Optional.of(story));
+        when(voteRepository.countByEstimate(story)).thenReturn(List.of(fives, eights));
+        when(voteStatisticsCalculator.calculate(anyMap()))
+                .thenAnswer(inv -> new VoteStatisticsCalculator().calculate(inv.<java.util.Map<String, Integer>>getArgument(0)));
+
+        VoteReveal reveal = sessionService.revealVotes("ABC123");
+
+        assertThat(reveal.getSummarized()).isTrue();
+        assertThat(reveal.getVotes()).isNull();
+        assertThat(reveal.getTotalVotes()).isEqualTo(500);
+        assertThat(reveal.getDistribution()).containsEntry("5", 300).containsEntry("8", 200);
+        assertThat(reveal.getRecommendedEstimate()).isEqualTo("5");
+        verify(voteRepository, never()).findByStory(any());
+    }
+
+    @Test
+    void revealVotes_announcesOnlyTheCallThatRevealed() {
+        session.setCurrentStoryId(3L);
+        Story story = new Story();
+        story.setId(3L);
+        when(sessionRepository.findBySessionCodeAndActive("ABC123", true)).thenReturn(Optional.of(session));
+        when(storyRepository.findById(3L)).thenReturn(Optional.of(story));
+        when(voteStatisticsCalculator.calculate(anyList()))
+                .thenAnswer(inv -> new VoteStatisticsCalculator().calculate(inv.<List<Vote>>getArgument(0)));
+        when(sessionRepository.markVotesRevealed(1L, 3L)).thenReturn(1, 0);
+
+        sessionService.revealVotes("ABC123");
+        VoteReveal repeated = sessionService.revealVotes("ABC123");
+
+        assertThat(repeated.getStoryId()).isEqualTo(3L);
+        verify(webSocketEventPublisher, times(1)).votesRevealed("ABC123", 3L);
+        verify(storyRepository, times(1)).updateStatus(3L, StoryStatus.IN_PROGRESS);
+        verify(sessionRepository, never()).save(any());
+        // A reveal leaves membership alone, so it must not evict the membership cache
+        verify(invalidationBus, times(1)).publish(Invalidation.Entity.SESSION_STATE, 1L, null, "ABC123");
+        verify(invalidationBus, never()).publish(eq(Invalidation.Entity.SESSION), any(), any(), any());
+    }
+
+    @Test
+    void setCurrentStory_alreadyOpenStory_isNotAnnouncedAgain() {
+        Story story = new Story();
+        story.setId(3L);
+        when(sessionRepository.findBySessionCodeAndActive("ABC123", true)).thenReturn(Optional.of(session));
+        when(storyRepository.findById(3L)).thenReturn(Optional.of(story));
+        when(sessionRepository.activateStory(1L, 3L)).thenReturn(0);
+
+        sessionService.setCurrentStory("ABC123", 3L);
+
+        verify(webSocketEventPublisher, never()).storyActivated(any(), any());
+        verify(sessionRepository, never()).save(any());
+    }
+
+    @Test
+    void resetVotes_whenTheCurrentStoryChangedMeanwhile_conflicts() {
+        session.setCurrentStoryId(3L);
+        Story story = new Story();
+        story.setId(3L);
+        when(sessionRepository.findBySessionCodeAndActive("ABC123", true)).thenReturn(Optional.of(session));
+        when(storyRepository.findById(3L)).thenReturn(Optional.of(story));
+        when(sessionRepository.reopenVoting(1L, 3L)).thenReturn(0);
+
+        assertThatThrownBy(() -> sessionService.resetVotes("ABC123")).isInstanceOf(NoActiveStoryException.class);
+        verify(voteRepository, never()).deleteByStory(any());
+    }
+
+    private static VoteRepository.EstimateCount estimateCount(String estimate, long votes) {
+        return new VoteRepository.EstimateCount() {
+            @Override public String getEstimate() { return estimate; }
+            @Override public long getVotes() { return votes; }
+        };
+    }
 }
@@ -0,0 +1,101 @@
+package com.pandac.planningpoker.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry;
+import org.springframework.messaging.simp.broker.SubscriptionRegistry;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the simple-broker subscription registry under the legacy five-topics-per-session
+ * layout against the multiplexed single topic. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class SessionTopicBenchmarkTest {
+
+    private static final int SESSIONS = 1_000; // stays under the default registry cache limit (1024)
+    private static final int CLIENTS_PER_SESSION = 20;
+    private static final int EVENTS = 100_000;
+
+    @Test
+    void multiplexedTopic_reducesRegistrySizeAndMatchingCost() {
+        Result legacy = run(true);
+        Result multiplexed = run(false);
+
+        System.out.printf("legacy:      %,d subscriptions, %,d ns/event (cold), %,d ns/event (warm)%n",
+                legacy.subscriptions, legacy.coldNanosPerEvent, legacy.warmNanosPerEvent);
+        System.out.printf("multiplexed: %,d subscriptions, %,d ns/event (cold), %,d ns/event (warm)%n",
+                multiplexed.subscriptions, multiplexed.coldNanosPerEvent, multiplexed.warmNanosPerEvent);
+
+        assertThat(multiplexed.subscriptions * 5).isEqualTo(legacy.subscriptions);
+    }
+
+    private Result run(boolean legacy) {
+        DefaultSubscriptionRegistry registry = new DefaultSubscriptionRegistry();
+        String[] suffixes = legacy
+                ? new String[] {"/users", "/votes", "/reveal", "/story", "/timer"}
+                : new String[] {""};
+
+        int subscriptions = 0;
+        for (int s = 0; s < SESSIONS; s++) {
+            String topic = WebSocketEventPublisher.sessionTopic(code(s));
+            for (int c = 0; c < CLIENTS_PER_SESSION; c++) {
+                String sessionId = s + "-" + c;
+                for (int i = 0; i < suffixes.length; i++) {
+                    registry.registerSubscription(subscribe(sessionId, "sub-" + i, topic + suffixes[i]));
+                    subscriptions++;
+                }
+            }
+        }
+
+        // One event per session on the votes channel — the hottest event type.
+        List<Message<?>> events = new ArrayList<>(SESSIONS);
+        for (int s = 0; s < SESSIONS; s++) {
+            String topic = WebSocketEventPublisher.sessionTopic(code(s));
+            events.add(message(legacy ? topic + "/votes" : topic));
+        }
+
+        long cold = timeLookups(registry, events, SESSIONS);
+        long warm = timeLookups(registry, events, EVENTS);
+        return new Result(subscriptions, cold, warm);
+    }
+
+    private static long timeLookups(SubscriptionRegistry registry, List<Message<?>> events, int count) {
+        long start = System.nanoTime();
+        int matched = 0;
+        for (int i = 0; i < count; i++) {
+            matched += registry.findSubscriptions(events.get(i % events.size())).size();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertThat(matched).isEqualTo(count * CLIENTS_PER_SESSION);
+        return elapsed / count;
+    }
+
+    private static String code(int s) {
+        return String.format("S%05d", s);
+    }
+
+    private static Message<?> subscribe(String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<?> message(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private record Result(int subscriptions, long coldNanosPerEvent, long warmNanosPerEvent) {}
+}
@@ -0,0 +1,64 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.config.DrainFilter;
+import com.pandac.planningpoker.config.PresenceTracker;
+import com.pandac.planningpoker.config.RoomSocketHandler;
+import com.pandac.planningpoker.dto.RoomSnapshot;
+import com.pandac.planningpoker.exception.SessionNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ShutdownDrainServiceTest {
+
+    private final DrainFilter drainFilter = new DrainFilter();
+    private final PresenceTracker presenceTracker = mock(PresenceTracker.class);
+    private final RoomSocketHandler roomSocketHandler = mock(RoomSocketHandler.class);
+    private final SessionEventStream sessionEventStream = mock(SessionEventStream.class);
+    private final ObserverSnapshotService observerSnapshotService = mock(ObserverSnapshotService.class);
+    private final WebSocketEventPublisher webSocketEventPublisher = mock(WebSocketEventPublisher.class);
+    private final ShutdownDrainService service = new ShutdownDrainService(drainFilter, presenceTracker,
+            roomSocketHandler, sessionEventStream, observerSnapshotService, webSocketEventPublisher);
+
+    @Test
+    void drain_notifiesEveryRoomOnceWithItsResumeToken_thenClosesTransports() {
+        ReflectionTestUtils.setField(service, "noticeGraceMs", 0L);
+        when(presenceTracker.sessionCodes()).thenReturn(Set.of("ABC123", "XYZ789"));
+        when(roomSocketHandler.roomCodes()).thenReturn(Set.of("ABC123"));
+        when(sessionEventStream.sessionCodes()).thenReturn(Set.of("GONE00"));
+        RoomSnapshot snapshot = new RoomSnapshot();
+        snapshot.setStateHash("1a2b3c");
+        when(observerSnapshotService.getSnapshot(anyString())).thenReturn(snapshot);
+        when(observerSnapshotService.getSnapshot("GONE00")).thenThrow(new SessionNotFoundException("GONE00"));
+
+        service.drain();
+
+        assertThat(drainFilter.isDraining()).isTrue();
+        verify(webSocketEventPublisher).serverDraining("ABC123", 30_000L, "1a2b3c");
+        verify(webSocketEventPublisher).serverDraining("XYZ789", 30_000L, "1a2b3c");
+        verify(webSocketEventPublisher).serverDraining("GONE00", 30_000L, null);
+        InOrder order = inOrder(webSocketEventPublisher, roomSocketHandler, sessionEventStream);
+        order.verify(webSocketEventPublisher, times(3)).serverDraining(anyString(), anyLong(), any());
+        order.verify(roomSocketHandler).closeForRestart(30_000L);
+        order.verify(sessionEventStream).closeForRestart(30_000L);
+    }
+
+    @Test
+    void drain_withoutClients_onlyStopsAcceptingWork() {
+        when(presenceTracker.sessionCodes()).thenReturn(Set.of());
+        when(roomSocketHandler.roomCodes()).thenReturn(Set.of());
+        when(sessionEventStream.sessionCodes()).thenReturn(Set.of());
+
+        service.drain();
+
+        assertThat(drainFilter.isDraining()).isTrue();
+        verifyNoInteractions(webSocketEventPublisher, observerSnapshotService);
+        verify(roomSocketHandler, never()).closeForRestart(anyLong());
+    }
+}
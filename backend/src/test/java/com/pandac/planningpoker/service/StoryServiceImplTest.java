@@ -9,6 +9,7 @@ import com.pandac.planningpoker.repository.VoteRepository;
 import com.pandac.planningpoker.repository.SessionRepository;
 import com.pandac.planningpoker.security.SessionAccessValidator;
 import com.pandac.planningpoker.service.interfaces.ISessionService;
+import com.pandac.planningpoker.service.cluster.InvalidationBus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,6 +37,7 @@ class StoryServiceImplTest {
     @Mock ISessionService sessionService;
     @Mock WebSocketEventPublisher webSocketEventPublisher;
     @Mock SessionAccessValidator sessionAccessValidator;
+    @Mock InvalidationBus invalidationBus;
 
     @InjectMocks StoryServiceImpl storyService;
 
@@ -11,6 +11,7 @@ import com.pandac.planningpoker.repository.UserRepository;
 import com.pandac.planningpoker.repository.VoteRepository;
 import com.pandac.planningpoker.security.SessionAccessValidator;
 import com.pandac.planningpoker.service.interfaces.ISessionService;
+import com.pandac.planningpoker.service.cluster.InvalidationBus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +21,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.LongConsumer;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -37,6 +39,9 @@ class VoteServiceImplTest {
     @Mock SessionAccessValidator sessionAccessValidator;
     @Mock VoteStatisticsCalculator voteStatisticsCalculator;
     @Mock VoteResponseMapper voteResponseMapper;
+    @Mock InvalidationBus invalidationBus;
+    @Mock VoteTally voteTally;
+    @Mock LargeRoomBroadcaster largeRoomBroadcaster;
 
     @InjectMocks VoteServiceImpl voteService;
 
@@ -86,7 +91,7 @@ class VoteServiceImplTest {
         when(userRepository.findById(5L)).thenReturn(Optional.of(voter));
         when(voteRepository.findByStoryAndUser(story, voter)).thenReturn(Optional.empty());
         when(voteRepository.save(any(Vote.class))).thenReturn(savedVote);
-        when(voteRepository.findByStory(story)).thenReturn(List.of(savedVote));
+        when(voteRepository.countByStory(story)).thenReturn(1L);
         doNothing().when(sessionAccessValidator).requireStoryBelongsToSession(story, session);
         doNothing().when(sessionAccessValidator).requireUserBelongsToSession(voter, session);
 
@@ -97,6 +102,52 @@ class VoteServiceImplTest {
         verify(webSocketEventPublisher).voteCast(eq("VOT001"), eq(10L), anyInt());
     }
 
+    @Test
+    void castVote_lastVoter_autoRevealsOnlyIfTheConditionalUpdateWins() {
+        session.getSettings().setAutoReveal(true);
+        Vote savedVote = new Vote();
+        savedVote.setId(1L);
+
+        when(sessionService.getSession("VOT001")).thenReturn(session);
+        when(storyRepository.findById(10L)).thenReturn(Optional.of(story));
+        when(userRepository.findById(5L)).thenReturn(Optional.of(voter));
+        when(voteRepository.findByStoryAndUser(story, voter)).thenReturn(Optional.empty());
+        when(voteRepository.save(any(Vote.class))).thenReturn(savedVote);
+        when(voteRepository.countByStory(story)).thenReturn(2L);
+        when(userRepository.countBySessionAndActiveAndObserver(session, true, false)).thenReturn(2L);
+        when(sessionRepository.markVotesRevealed(1L, 10L)).thenReturn(1, 0);
+
+        voteService.castVote("VOT001", 10L, 5L, voteRequest);
+        voteService.castVote("VOT001", 10L, 5L, voteRequest); // concurrent last vote: already revealed
+
+        verify(webSocketEventPublisher, times(1)).votesRevealed("VOT001", 10L);
+        verify(sessionRepository, never()).save(any());
+    }
+
+    @Test
+    void castVote_largeRoom_countsInMemoryAndCoalescesBroadcast() {
+        session.getSettings().setLargeRoom(true);
+        Vote savedVote = new Vote();
+        savedVote.setId(1L);
+        savedVote.setEstimate("5");
+
+        when(sessionService.getSession("VOT001")).thenReturn(session);
+        when(storyRepository.findById(10L)).thenReturn(Optional.of(story));
+        when(userRepository.findById(5L)).thenReturn(Optional.of(voter));
+        when(voteRepository.findByStoryAndUser(story, voter)).thenReturn(Optional.empty());
+        when(voteRepository.save(any(Vote.class))).thenReturn(savedVote);
+        doAnswer(call -> {
+            call.<LongConsumer>getArgument(3).accept(250L);
+            return null;
+        }).when(voteTally).recordNewVote(eq("VOT001"), eq(10L), any(), any());
+
+        voteService.castVote("VOT001", 10L, 5L, voteRequest);
+
+        verify(largeRoomBroadcaster).voteCast("VOT001", 10L, 250L);
+        verify(voteRepository, never()).countByStory(any());
+        verify(webSocketEventPublisher, never()).voteCast(any(), any(), anyInt());
+    }
+
     @Test
     void castVote_observer_throwsInvalidVoteException() {
         voter.setObserver(true);
@@ -161,7 +212,7 @@ class VoteServiceImplTest {
         when(userRepository.findById(5L)).thenReturn(Optional.of(voter));
         when(voteRepository.findByStoryAndUser(story, voter)).thenReturn(Optional.of(existingVote));
         when(voteRepository.save(any(Vote.class))).thenReturn(existingVote);
-        when(voteRepository.findByStory(story)).thenReturn(List.of(existingVote));
+        when(voteRepository.countByStory(story)).thenReturn(1L);
         doNothing().when(sessionAccessValidator).requireStoryBelongsToSession(story, session);
         doNothing().when(sessionAccessValidator).requireUserBelongsToSession(voter, session);
 
@@ -0,0 +1,63 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.service.cluster.InvalidationBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class VoteTallyTest {
+
+    private final VoteTally tally = new VoteTally(mock(InvalidationBus.class));
+    private final List<Long> totals = new ArrayList<>();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void newVotes_outsideATransaction_countAtOnce() {
+        tally.recordNewVote("ABC123", 10L, () -> 3, totals::add);
+        tally.recordNewVote("ABC123", 10L, () -> 99, totals::add);
+
+        assertThat(totals).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void votes_countOnlyOnceCommitted() {
+        tally.recordNewVote("ABC123", 10L, () -> 3, totals::add);
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK,
+                () -> tally.recordNewVote("ABC123", 10L, () -> 99, totals::add));
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> tally.recordDeletedVote(10L));
+        assertThat(totals).containsExactly(3L);
+
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> tally.recordDeletedVote(10L));
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED,
+                () -> tally.recordNewVote("ABC123", 10L, () -> 99, totals::add));
+        assertThat(totals).containsExactly(3L, 3L);
+    }
+
+    private static void inTransaction(int outcome, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (outcome == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            synchronizations.forEach(s -> s.afterCompletion(outcome));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.pandac.planningpoker.service;
+
+import com.pandac.planningpoker.config.PayloadFormatNegotiator;
+import com.pandac.planningpoker.service.cluster.ClusterBus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketEventPublisherTest {
+
+    @Mock SimpMessagingTemplate messagingTemplate;
+    @Mock ClusterBus clusterBus;
+    @Mock PayloadFormatNegotiator payloadFormatNegotiator;
+
+    @InjectMocks WebSocketEventPublisher publisher;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void voteCast_publishesToMultiplexedTopicWithVersionHeaders() {
+        publisher.voteCast("ABC123", 10L, 3);
+
+        ArgumentCaptor<Map<String, Object>> headers = ArgumentCaptor.forClass(Map.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/session/ABC123"), any(Object.class), headers.capture());
+        assertThat(headers.getValue())
+                .containsEntry(WebSocketEventPublisher.HEADER_EVENT_VERSION, WebSocketEventPublisher.EVENT_VERSION)
+                .containsEntry(WebSocketEventPublisher.HEADER_EVENT_CHANNEL, "votes");
+    }
+
+    @Test
+    void voteCast_stillPublishesToLegacyTopic() {
+        publisher.voteCast("ABC123", 10L, 3);
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/session/ABC123/votes"), any(Object.class), ArgumentMatchers.<Map<String, Object>>isNull());
+    }
+
+    @Test
+    void legacyTopicsDisabled_publishesOnlyMultiplexedTopic() {
+        ReflectionTestUtils.setField(publisher, "legacyTopicsEnabled", false);
+
+        publisher.userJoined("ABC123", 1L, "Alice");
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/session/ABC123"), any(Object.class), anyMap());
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    @Test
+    void sessionEvent_isRelayedToCluster() {
+        publisher.voteCast("ABC123", 10L, 3);
+
+        verify(clusterBus).relay(eq("ABC123"), eq(WebSocketEventPublisher.Channel.VOTES), anyMap());
+    }
+
+    @Test
+    void sessionEventInTransaction_isDeliveredAndRelayedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            publisher.voteCast("ABC123", 10L, 3);
+
+            verifyNoInteractions(messagingTemplate, clusterBus);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/session/ABC123"), any(Object.class), anyMap());
+        verify(clusterBus).relay(eq("ABC123"), eq(WebSocketEventPublisher.Channel.VOTES), anyMap());
+    }
+
+    @Test
+    void remoteEvent_isDeliveredLocallyWithoutRelay() {
+        publisher.deliverRemote("ABC123", WebSocketEventPublisher.Channel.REVEAL, Map.of("type", "VOTES_REVEALED"));
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/session/ABC123"), any(Object.class), anyMap());
+        verifyNoInteractions(clusterBus);
+    }
+
+    @Test
+    void publishFailure_isSwallowed() {
+        doThrow(new IllegalStateException("broker down"))
+                .when(messagingTemplate).convertAndSend(anyString(), any(Object.class), ArgumentMatchers.<Map<String, Object>>any());
+
+        assertThatCode(() -> publisher.votesReset("ABC123", 10L)).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,80 @@
+package com.pandac.planningpoker.service.cluster;
+
+import com.pandac.planningpoker.service.cluster.Invalidation.Entity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class InvalidationBusTest {
+
+    private final ClusterBus clusterBus = mock(ClusterBus.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final InvalidationBus bus = new InvalidationBus(clusterBus, registry);
+    private final List<Invalidation> applied = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        bus.register(applied::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        bus.shutdown();
+    }
+
+    @Test
+    void publish_appliesLocallyAndRelaysInSequence() {
+        bus.publish(Entity.STORY, 1L, null, "ABC123");
+        bus.publish(Entity.STORY, 2L, null, "ABC123");
+
+        assertThat(applied).extracting(Invalidation::sequence).containsExactly(1L, 2L);
+        verify(clusterBus, timeout(1_000).times(2)).relayInvalidation(any());
+    }
+
+    @Test
+    void publish_insideTransaction_waitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        bus.publish(Entity.USER, 5L, null, "ABC123");
+        assertThat(applied).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(applied).singleElement().extracting(Invalidation::id).isEqualTo(5L);
+    }
+
+    @Test
+    void remote_duplicatesAreSkipped() {
+        bus.onRemoteInvalidation(remote(1));
+        bus.onRemoteInvalidation(remote(1));
+
+        assertThat(applied).hasSize(1);
+        assertThat(registry.get("cache.invalidation.lag").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void remote_gapInvalidatesWholeSessionFirst() {
+        bus.onRemoteInvalidation(remote(1));
+        bus.onRemoteInvalidation(remote(4));
+
+        assertThat(applied).extracting(Invalidation::entity)
+                .containsExactly(Entity.VOTE, Entity.SESSION, Entity.VOTE);
+        assertThat(registry.get("cache.invalidation.gaps").counter().count()).isEqualTo(1);
+    }
+
+    private static Invalidation remote(long sequence) {
+        return new Invalidation(Entity.VOTE, 9L, null, "ABC123", "peer", sequence, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,104 @@
+package com.pandac.planningpoker.service.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pandac.planningpoker.service.WebSocketEventPublisher.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresClusterBusTest {
+
+    @Mock JdbcTemplate jdbcTemplate;
+    @Mock DataSourceProperties dataSourceProperties;
+    @Mock PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> received = new ArrayList<>();
+    private PostgresClusterBus bus;
+
+    @BeforeEach
+    void setUp() {
+        bus = new PostgresClusterBus(jdbcTemplate, transactionManager, objectMapper, dataSourceProperties, new SimpleMeterRegistry());
+        bus.subscribe((sessionCode, channel, payload) -> received.add(sessionCode + "/" + channel + "/" + payload.get("type").asText()));
+    }
+
+    @Test
+    void relay_smallEvent_notifiesInline() throws Exception {
+        bus.relay("ABC123", Channel.VOTES, Map.of("type", "VOTE_CAST", "voteCount", 3));
+
+        ArgumentCaptor<Object> args = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).queryForRowSet(eq("SELECT pg_notify(?, ?)"), args.capture(), args.capture());
+        JsonNode envelope = objectMapper.readTree((String) args.getAllValues().get(1));
+        assertThat(envelope.get("sessionCode").asText()).isEqualTo("ABC123");
+        assertThat(envelope.get("channel").asText()).isEqualTo("votes");
+        verify(jdbcTemplate, never()).queryForObject(startsWith("INSERT"), eq(Long.class), any(Object[].class));
+    }
+
+    @Test
+    void relay_notifiesInItsOwnTransaction() {
+        bus.relay("ABC123", Channel.VOTES, Map.of("type", "VOTE_CAST", "voteCount", 3));
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().getPropagationBehavior()).isEqualTo(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void relay_largeEvent_spillsToTableAndNotifiesId() throws Exception {
+        when(jdbcTemplate.queryForObject(startsWith("INSERT"), eq(Long.class), any(Object[].class))).thenReturn(42L);
+
+        bus.relay("ABC123", Channel.STORY, Map.of("type", "STORY_ACTIVATED", "text", "x".repeat(10_000)));
+
+        ArgumentCaptor<Object> args = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).queryForRowSet(eq("SELECT pg_notify(?, ?)"), args.capture(), args.capture());
+        JsonNode envelope = objectMapper.readTree((String) args.getAllValues().get(1));
+        assertThat(envelope.get("spillId").asLong()).isEqualTo(42L);
+        assertThat(envelope.has("payload")).isFalse();
+    }
+
+    @Test
+    void notificationFromPeer_isDelivered() {
+        bus.handleNotification("{\"origin\":\"other-node\",\"sessionCode\":\"ABC123\",\"channel\":\"reveal\","
+                + "\"payload\":{\"type\":\"VOTES_REVEALED\"}}");
+
+        assertThat(received).containsExactly("ABC123/REVEAL/VOTES_REVEALED");
+    }
+
+    @Test
+    void ownNotification_isIgnored() {
+        bus.handleNotification("{\"origin\":\"" + bus.getNodeId() + "\",\"sessionCode\":\"ABC123\",\"channel\":\"reveal\","
+                + "\"payload\":{\"type\":\"VOTES_REVEALED\"}}");
+
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    void spilledNotification_isLoadedFromTable() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT payload"), eq(String.class), eq(7L)))
+                .thenReturn("{\"origin\":\"other-node\",\"sessionCode\":\"ABC123\",\"channel\":\"story\","
+                        + "\"payload\":{\"type\":\"STORY_ACTIVATED\"}}");
+
+        bus.handleNotification("{\"origin\":\"other-node\",\"spillId\":7}");
+
+        assertThat(received).containsExactly("ABC123/STORY/STORY_ACTIVATED");
+    }
+}
@@ -0,0 +1,76 @@
+package com.pandac.planningpoker.service.diagnostics;
+
+import com.pandac.planningpoker.service.diagnostics.VirtualThreadPinningMonitor.PinnedSite;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(10, meterRegistry);
+    private final Object monitorLock = new Object();
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void sleepInsideSynchronized_isReportedWithTheApplicationFrame() throws Exception {
+        monitor.start();
+
+        for (int i = 0; i < 3; i++) {
+            Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join();
+        }
+
+        List<PinnedSite> sites = awaitSites();
+        assertThat(sites).hasSize(1);
+        PinnedSite site = sites.get(0);
+        assertThat(site.frame()).startsWith(getClass().getName() + ".sleepWhileHoldingMonitor");
+        assertThat(site.count()).isEqualTo(3);
+        assertThat(site.maxMillis()).isGreaterThanOrEqualTo(10); // the threshold; JFR may time the 30 ms sleep a hair short
+        assertThat(site.stackTrace()).anyMatch(frame -> frame.startsWith("java.lang.Thread.sleep"));
+        assertThat(meterRegistry.get("virtual.threads.pinned").tag("frame", site.frame()).timer().count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void shortPinning_belowTheThreshold_isNotReported() throws Exception {
+        monitor.start();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (monitorLock) {
+                Thread.onSpinWait();
+            }
+        }).join();
+        Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join(); // marks the end of the stream
+
+        assertThat(awaitSites()).extracting(PinnedSite::frame)
+                .allMatch(frame -> frame.contains("sleepWhileHoldingMonitor"));
+    }
+
+    private void sleepWhileHoldingMonitor() {
+        synchronized (monitorLock) {
+            try {
+                Thread.sleep(30);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /** JFR delivers events about once a second. */
+    private List<PinnedSite> awaitSites() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (monitor.pinnedSites().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        Thread.sleep(1_500); // let the rest of the batch arrive
+        return monitor.pinnedSites();
+    }
+}
@@ -0,0 +1,105 @@
+package com.pandac.planningpoker.service.groupcommit;
+
+import com.pandac.planningpoker.controller.VoteController;
+import com.pandac.planningpoker.dto.VoteRequest;
+import com.pandac.planningpoker.model.Vote;
+import com.pandac.planningpoker.repository.StoryRepository;
+import com.pandac.planningpoker.repository.UserRepository;
+import com.pandac.planningpoker.repository.VoteRepository;
+import com.pandac.planningpoker.service.SessionMailbox;
+import com.pandac.planningpoker.service.VoteServiceImpl;
+import com.pandac.planningpoker.service.groupcommit.GroupCommitVoteWriter.PendingVote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GroupCommitVoteWriterTest {
+
+    private final VoteRepository voteRepository = mock(VoteRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final GroupCommitVoteWriter writer = new GroupCommitVoteWriter(voteRepository, mock(StoryRepository.class),
+            mock(UserRepository.class), transactionManager, new SimpleMeterRegistry(), 100);
+
+    @BeforeEach
+    void setUp() {
+        when(voteRepository.findByStoryAndUser(any(), any())).thenReturn(Optional.empty());
+        when(voteRepository.save(any(Vote.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.shutdown();
+    }
+
+    @Test
+    void votesQueuedTogether_areCommittedInOneTransaction() throws Exception {
+        ReflectionTestUtils.setField(writer, "maxDelayMs", 500L);
+        ReflectionTestUtils.setField(writer, "maxBatch", 3);
+        writer.start();
+
+        try (ExecutorService callers = Executors.newFixedThreadPool(3)) {
+            List<Future<Vote>> votes = List.of(
+                    callers.submit(() -> writer.write(10L, 1L, "3", null)),
+                    callers.submit(() -> writer.write(10L, 2L, "5", null)),
+                    callers.submit(() -> writer.write(11L, 3L, "8", 4)));
+            assertThat(votes.get(2).get(5, TimeUnit.SECONDS).getEstimate()).isEqualTo("8");
+            assertThat(votes.get(0).get(5, TimeUnit.SECONDS).getEstimate()).isEqualTo("3");
+        }
+
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager, times(1)).commit(any());
+        verify(voteRepository, times(3)).save(any(Vote.class));
+    }
+
+    @Test
+    void votesOfOneRoom_castThroughTheController_shareABatch() throws Exception {
+        ReflectionTestUtils.setField(writer, "maxDelayMs", 500L);
+        ReflectionTestUtils.setField(writer, "maxBatch", 3);
+        writer.start();
+        SessionMailbox mailbox = mock(SessionMailbox.class);
+        VoteController controller = new VoteController(
+                new GroupCommitVoteService(mock(VoteServiceImpl.class), writer), mailbox);
+
+        try (ExecutorService callers = Executors.newFixedThreadPool(3)) {
+            List<Future<?>> votes = List.of(
+                    callers.submit(() -> controller.castVote("ABC123", 10L, new VoteRequest(1L, "3", null))),
+                    callers.submit(() -> controller.castVote("ABC123", 10L, new VoteRequest(2L, "5", null))),
+                    callers.submit(() -> controller.castVote("ABC123", 10L, new VoteRequest(3L, "8", null))));
+            for (Future<?> vote : votes) {
+                vote.get(5, TimeUnit.SECONDS);
+            }
+        }
+
+        verify(transactionManager, times(1)).commit(any());
+        verifyNoInteractions(mailbox);
+    }
+
+    @Test
+    void failedBatch_isRetriedVoteByVote() {
+        when(voteRepository.save(argThat(v -> v != null && "bad".equals(v.getEstimate()))))
+                .thenThrow(new DataIntegrityViolationException("constraint"));
+        PendingVote bad = new PendingVote(10L, 1L, "bad", null, new CompletableFuture<>());
+        PendingVote good = new PendingVote(10L, 2L, "5", null, new CompletableFuture<>());
+
+        writer.commit(List.of(bad, good));
+
+        assertThat(bad.result()).isCompletedExceptionally();
+        assertThat(good.result().join().getEstimate()).isEqualTo("5");
+    }
+}
@@ -0,0 +1,123 @@
+package com.pandac.planningpoker.service.room;
+
+import com.pandac.planningpoker.model.StoryStatus;
+import com.pandac.planningpoker.service.room.RoomChange.RoomStateChanged;
+import com.pandac.planningpoker.service.room.RoomChange.StoryStatusChanged;
+import com.pandac.planningpoker.service.room.RoomChange.VoteCast;
+import com.pandac.planningpoker.service.room.RoomChange.VoteDeleted;
+import com.pandac.planningpoker.service.room.RoomChange.VotesCleared;
+import com.pandac.planningpoker.service.room.RoomJournal.Mark;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedRoomJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private final VoteCast vote = new VoteCast("ABC123", 10L, 1L, "5", 3);
+    private final VoteDeleted deleted = new VoteDeleted("ABC123", 10L, 2L);
+    private final VotesCleared cleared = new VotesCleared("ABC123", 11L);
+    private final RoomStateChanged state = new RoomStateChanged("ABC123", 7L, null, true);
+    private final StoryStatusChanged status = new StoryStatusChanged("XYZ789", 20L, StoryStatus.IN_PROGRESS);
+
+    @Test
+    void reopenedJournal_returnsEveryChange_inOrder() throws IOException {
+        MappedRoomJournal journal = open();
+        List.of(vote, deleted, cleared, state, status).forEach(journal::append);
+        journal.close();
+
+        assertThat(open().recover()).containsExactly(vote, deleted, cleared, state, status);
+    }
+
+    @Test
+    void checkpoint_dropsTheFlushedChanges() throws IOException {
+        MappedRoomJournal journal = open();
+        journal.append(vote);
+        Mark mark = journal.mark();
+        journal.append(state); // recorded while the flush runs
+        journal.checkpoint(mark);
+        journal.close();
+
+        assertThat(open().recover()).containsExactly(state);
+    }
+
+    @Test
+    void snapshot_replacesTheJournal_andLaterChangesFollowIt() throws IOException {
+        MappedRoomJournal journal = open();
+        journal.append(vote);
+        journal.append(deleted);
+        Mark beforeSnapshot = journal.mark();
+        journal.snapshot(List.of(vote, deleted));
+        journal.append(status);
+        journal.checkpoint(beforeSnapshot); // a flush from before the snapshot must not drop anything
+        journal.close();
+
+        assertThat(open().recover()).containsExactly(vote, deleted, status);
+    }
+
+    @Test
+    void checkpointAfterSnapshot_dropsTheSnapshot() throws IOException {
+        MappedRoomJournal journal = open();
+        journal.append(vote);
+        journal.snapshot(List.of(vote));
+        Mark mark = journal.mark();
+        journal.append(state);
+        journal.checkpoint(mark);
+        journal.close();
+
+        assertThat(dir.resolve("room.snapshot")).doesNotExist();
+        assertThat(open().recover()).containsExactly(state);
+    }
+
+    @Test
+    void tornRecord_endsTheJournal() throws IOException {
+        MappedRoomJournal journal = open();
+        journal.append(vote);
+        Mark end = journal.mark();
+        journal.append(state);
+        journal.close();
+        try (FileChannel file = FileChannel.open(dir.resolve("room.journal"), StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.wrap(new byte[] {1, 2, 3, 4}), end.offset() + 10); // inside the second record
+        }
+
+        MappedRoomJournal reopened = open();
+        assertThat(reopened.recover()).containsExactly(vote);
+        reopened.append(status);
+        reopened.close();
+        assertThat(open().recover()).containsExactly(vote, status);
+    }
+
+    @Test
+    void fullJournal_refusesTheAppend_untilSnapshotted() throws IOException {
+        MappedRoomJournal journal = open();
+        int appended = 0;
+        while (journal.append(vote)) {
+            appended++;
+        }
+        assertThat(appended).isGreaterThan(1000);
+        assertThat(journal.snapshotDue()).isTrue();
+
+        journal.snapshot(List.of(vote));
+        assertThat(journal.append(state)).isTrue();
+        assertThat(journal.usedBytes()).isLessThan(100);
+        journal.close();
+        assertThat(Files.size(dir.resolve("room.snapshot"))).isLessThan(100);
+        assertThat(open().recover()).containsExactly(vote, state);
+    }
+
+    private MappedRoomJournal open() throws IOException {
+        return new MappedRoomJournal(dir, 1, 0, 60, new SimpleMeterRegistry());
+    }
+}
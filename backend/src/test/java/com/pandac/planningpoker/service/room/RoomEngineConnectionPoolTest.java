@@ -0,0 +1,96 @@
+package com.pandac.planningpoker.service.room;
+
+import com.pandac.planningpoker.dto.CreateSessionRequest;
+import com.pandac.planningpoker.dto.CreateStoryRequest;
+import com.pandac.planningpoker.dto.JoinSessionRequest;
+import com.pandac.planningpoker.dto.VoteRequest;
+import com.pandac.planningpoker.model.SizingMethod;
+import com.pandac.planningpoker.service.interfaces.ISessionService;
+import com.pandac.planningpoker.service.interfaces.IStoryService;
+import com.pandac.planningpoker.service.interfaces.IUserService;
+import com.pandac.planningpoker.service.interfaces.IVoteService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reads of live rooms from more callers than there are connections: each read flushes the
+ * room's pending votes before its transaction begins, so no caller ever holds two connections.
+ */
+@SpringBootTest(properties = {
+        "jwt.secret=test-secret-key-for-jwt-token-generation-and-validation-12345",
+        "logging.level.root=WARN",
+        "spring.datasource.url=jdbc:h2:mem:room-engine-pool",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=1000",
+        "room-engine.enabled=true",
+        "room-engine.flush-interval-ms=60000" // only the reads flush
+})
+class RoomEngineConnectionPoolTest {
+
+    private static final int CALLERS = 8;
+
+    @Autowired ISessionService sessionService;
+    @Autowired IStoryService storyService;
+    @Autowired IUserService userService;
+    @Autowired IVoteService voteService;
+
+    @Test
+    void readsAfterVotes_neverWaitForASecondConnection() throws Exception {
+        CreateSessionRequest create = new CreateSessionRequest();
+        create.setName("Pool starvation");
+        create.setSizingMethod(SizingMethod.FIBONACCI);
+        create.setModeratorName("Moderator");
+        String code = sessionService.createSession(create).getSession().getSessionCode();
+        Long storyId = storyService.createStory(code, story()).getId();
+        List<Long> voters = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            voters.add(sessionService.joinSession(code, new JoinSessionRequest("Voter " + i, null, false)).getUserId());
+        }
+
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (Long userId : voters) {
+                results.add(callers.submit(() -> {
+                    for (int round = 0; round < 20; round++) {
+                        voteService.castVote(code, storyId, userId, vote(userId, round % 2 == 0 ? "3" : "5"));
+                        voteService.getVotes(code, storyId, false);
+                        storyService.getStories(code, null);
+                        userService.getActiveUsers(code, true);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS); // rethrows a caller's "Connection is not available"
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertThat(voteService.getVotes(code, storyId, false)).hasSize(CALLERS);
+    }
+
+    private static CreateStoryRequest story() {
+        CreateStoryRequest request = new CreateStoryRequest();
+        request.setTitle("Checkout");
+        return request;
+    }
+
+    private static VoteRequest vote(Long userId, String estimate) {
+        VoteRequest request = new VoteRequest();
+        request.setUserId(userId);
+        request.setEstimate(estimate);
+        return request;
+    }
+}
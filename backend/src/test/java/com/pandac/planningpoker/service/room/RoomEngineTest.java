@@ -0,0 +1,149 @@
+package com.pandac.planningpoker.service.room;
+
+import com.pandac.planningpoker.dto.VoteRequest;
+import com.pandac.planningpoker.exception.InvalidVoteException;
+import com.pandac.planningpoker.exception.RoomStateUnavailableException;
+import com.pandac.planningpoker.model.Session;
+import com.pandac.planningpoker.model.Story;
+import com.pandac.planningpoker.model.User;
+import com.pandac.planningpoker.repository.SessionRepository;
+import com.pandac.planningpoker.repository.StoryRepository;
+import com.pandac.planningpoker.repository.UserRepository;
+import com.pandac.planningpoker.repository.VoteRepository;
+import com.pandac.planningpoker.service.LargeRoomBroadcaster;
+import com.pandac.planningpoker.service.VoteResponseMapper;
+import com.pandac.planningpoker.service.VoteStatisticsCalculator;
+import com.pandac.planningpoker.service.WebSocketEventPublisher;
+import com.pandac.planningpoker.service.cluster.InvalidationBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomEngineTest {
+
+    @Mock SessionRepository sessionRepository;
+    @Mock StoryRepository storyRepository;
+    @Mock UserRepository userRepository;
+    @Mock VoteRepository voteRepository;
+    @Mock RoomWriteBehind writeBehind;
+    @Mock WebSocketEventPublisher webSocketEventPublisher;
+    @Mock LargeRoomBroadcaster largeRoomBroadcaster;
+    @Mock InvalidationBus invalidationBus;
+    @Mock PlatformTransactionManager transactionManager;
+
+    private RoomEngine engine;
+    private Session session;
+
+    @BeforeEach
+    void setUp() {
+        engine = new RoomEngine(sessionRepository, storyRepository, userRepository, voteRepository, writeBehind,
+                webSocketEventPublisher, largeRoomBroadcaster, new VoteStatisticsCalculator(),
+                new VoteResponseMapper(), invalidationBus, transactionManager, new SimpleMeterRegistry());
+        session = new Session();
+        session.setId(7L);
+        session.setSessionCode("ABC123");
+        session.setCurrentStoryId(10L);
+        Story story = new Story();
+        story.setId(10L);
+        story.setSession(session);
+        when(sessionRepository.findBySessionCodeAndActive("ABC123", true)).thenReturn(Optional.of(session));
+        when(storyRepository.findBySessionOrderByOrderIndex(session)).thenReturn(List.of(story));
+        when(userRepository.findBySession(session)).thenReturn(List.of(user(1L, false), user(2L, false), user(3L, true)));
+    }
+
+    @Test
+    void votes_loadTheRoomOnce_andOnlyRecordWrites() {
+        engine.castVote("ABC123", 10L, 1L, vote("3"));
+        engine.castVote("ABC123", 10L, 1L, vote("5"));
+
+        verify(sessionRepository, times(1)).findBySessionCodeAndActive("ABC123", true);
+        verify(voteRepository, times(1)).findByStory(any());
+        verify(voteRepository, never()).save(any());
+        verify(writeBehind).voteCast("ABC123", 10L, 1L, "5", null);
+        verify(webSocketEventPublisher, times(2)).voteCast("ABC123", 10L, 1);
+        assertThat(engine.liveRooms()).isEqualTo(1);
+    }
+
+    @Test
+    void autoReveal_whenEveryActiveVoterHasVoted() {
+        session.getSettings().setAutoReveal(true);
+
+        engine.castVote("ABC123", 10L, 1L, vote("3"));
+        verify(webSocketEventPublisher, never()).votesRevealed(any(), any());
+        engine.castVote("ABC123", 10L, 2L, vote("5")); // user 3 is an observer
+
+        verify(webSocketEventPublisher).votesRevealed("ABC123", 10L);
+        verify(writeBehind).roomState("ABC123", 7L, 10L, true);
+    }
+
+    @Test
+    void observers_cannotVote() {
+        assertThatThrownBy(() -> engine.castVote("ABC123", 10L, 3L, vote("3")))
+                .isInstanceOf(InvalidVoteException.class);
+        verify(writeBehind, never()).voteCast(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void exclusive_flushesFirst_andEvictsSoTheNextCallReloads() {
+        when(writeBehind.flush("ABC123")).thenReturn(true);
+        engine.castVote("ABC123", 10L, 1L, vote("3"));
+
+        String result = engine.exclusive("ABC123", () -> {
+            verify(writeBehind).flush("ABC123");
+            return "done";
+        });
+        assertThat(result).isEqualTo("done");
+        assertThat(engine.liveRooms()).isZero();
+
+        engine.castVote("ABC123", 10L, 2L, vote("5"));
+        verify(sessionRepository, times(2)).findBySessionCodeAndActive("ABC123", true);
+    }
+
+    @Test
+    void roomIsKept_whenItsWritesCannotBeSaved() {
+        engine.castVote("ABC123", 10L, 1L, vote("3"));
+        when(writeBehind.flush("ABC123")).thenReturn(false);
+
+        assertThatThrownBy(() -> engine.exclusive("ABC123", () -> "never"))
+                .isInstanceOf(RoomStateUnavailableException.class);
+        assertThat(engine.liveRooms()).isEqualTo(1);
+    }
+
+    @Test
+    void reads_flushOnlyTheirSession_andFailRatherThanServeUnwrittenState() {
+        engine.castVote("ABC123", 10L, 1L, vote("3"));
+        when(writeBehind.hasPending("ABC123")).thenReturn(true);
+        when(writeBehind.flush("ABC123")).thenReturn(true, false);
+
+        engine.flushIfPending("ABC123");
+        assertThatThrownBy(() -> engine.flushIfPending("ABC123"))
+                .isInstanceOf(RoomStateUnavailableException.class);
+        verify(writeBehind, never()).flush();
+    }
+
+    private static User user(Long id, boolean observer) {
+        User user = new User();
+        user.setId(id);
+        user.setObserver(observer);
+        return user;
+    }
+
+    private static VoteRequest vote(String estimate) {
+        VoteRequest request = new VoteRequest();
+        request.setEstimate(estimate);
+        return request;
+    }
+}
@@ -0,0 +1,155 @@
+package com.pandac.planningpoker.service.room;
+
+import com.pandac.planningpoker.model.Story;
+import com.pandac.planningpoker.model.StoryStatus;
+import com.pandac.planningpoker.model.User;
+import com.pandac.planningpoker.model.Vote;
+import com.pandac.planningpoker.repository.SessionRepository;
+import com.pandac.planningpoker.repository.StoryRepository;
+import com.pandac.planningpoker.repository.UserRepository;
+import com.pandac.planningpoker.repository.VoteRepository;
+import com.pandac.planningpoker.service.ObserverSnapshotService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RoomWriteBehindTest {
+
+    private final VoteRepository voteRepository = mock(VoteRepository.class);
+    private final StoryRepository storyRepository = mock(StoryRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SessionRepository sessionRepository = mock(SessionRepository.class);
+    private final ObserverSnapshotService observerSnapshotService = mock(ObserverSnapshotService.class);
+    private final RoomWriteBehind writeBehind = new RoomWriteBehind(voteRepository, storyRepository, userRepository,
+            sessionRepository, observerSnapshotService, new NoopRoomJournal(), mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry());
+
+    private final Story story = new Story();
+
+    @BeforeEach
+    void setUp() {
+        story.setId(10L);
+        when(storyRepository.getReferenceById(10L)).thenReturn(story);
+        when(userRepository.getReferenceById(anyLong())).thenAnswer(inv -> user(inv.getArgument(0)));
+    }
+
+    @Test
+    void flush_coalescesPerRow_andClearsBeforeWriting() {
+        writeBehind.voteCast("ABC123", 10L, 1L, "3", null);
+        writeBehind.voteCast("ABC123", 10L, 2L, "5", null);
+        writeBehind.votesCleared("ABC123", 10L);          // drops both votes above
+        writeBehind.voteCast("ABC123", 10L, 1L, "8", null);
+        writeBehind.voteCast("ABC123", 10L, 1L, "13", 4); // only the latest is written
+        writeBehind.roomState("ABC123", 7L, 10L, true);
+        writeBehind.roomState("ABC123", 7L, 10L, false);
+        writeBehind.storyStatus("ABC123", 10L, StoryStatus.NOT_ESTIMATED);
+
+        assertThat(writeBehind.hasPending("ABC123")).isTrue();
+        assertThat(writeBehind.flush()).isTrue();
+
+        InOrder order = inOrder(voteRepository, sessionRepository, storyRepository);
+        order.verify(voteRepository).deleteByStoryId(10L);
+        ArgumentCaptor<Vote> saved = ArgumentCaptor.forClass(Vote.class);
+        order.verify(voteRepository).save(saved.capture());
+        order.verify(sessionRepository).updateRoomState(7L, 10L, false);
+        order.verify(storyRepository).updateStatus(10L, StoryStatus.NOT_ESTIMATED);
+        assertThat(saved.getValue().getUser().getId()).isEqualTo(1L);
+        assertThat(saved.getValue().getEstimate()).isEqualTo("13");
+        assertThat(saved.getValue().getConfidence()).isEqualTo(4);
+        verify(observerSnapshotService).markDirty("ABC123");
+        assertThat(writeBehind.hasPending("ABC123")).isFalse();
+    }
+
+    @Test
+    void failedFlush_isRetried_withNewerWritesWinning() {
+        writeBehind.voteCast("ABC123", 10L, 1L, "3", null);
+        writeBehind.voteCast("ABC123", 10L, 2L, "5", null);
+        when(voteRepository.findByStory(story)).thenThrow(new QueryTimeoutException("timeout")).thenReturn(List.of());
+
+        assertThat(writeBehind.flush()).isFalse();
+        writeBehind.voteCast("ABC123", 10L, 2L, "8", null); // recorded while the batch was failing
+        assertThat(writeBehind.pendingWrites()).isEqualTo(2);
+        assertThat(writeBehind.flush()).isTrue();
+
+        ArgumentCaptor<Vote> saved = ArgumentCaptor.forClass(Vote.class);
+        verify(voteRepository, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues()).extracting(Vote::getEstimate).containsExactly("3", "8");
+    }
+
+    @Test
+    void sessionFlush_writesOnlyThatSession() {
+        writeBehind.roomState("ABC123", 7L, 10L, true);
+        writeBehind.roomState("XYZ789", 8L, 20L, false);
+
+        assertThat(writeBehind.flush("ABC123")).isTrue();
+
+        verify(sessionRepository).updateRoomState(7L, 10L, true);
+        verify(sessionRepository, never()).updateRoomState(eq(8L), any(), anyBoolean());
+        assertThat(writeBehind.hasPending("ABC123")).isFalse();
+        assertThat(writeBehind.hasPending("XYZ789")).isTrue();
+        assertThat(writeBehind.pendingWrites()).isEqualTo(1);
+    }
+
+    @Test
+    void deletedVote_removesTheStoredRow() {
+        Vote stored = new Vote();
+        stored.setUser(user(1L));
+        when(voteRepository.findByStory(story)).thenReturn(List.of(stored));
+
+        writeBehind.voteDeleted("ABC123", 10L, 1L);
+        writeBehind.flush();
+
+        verify(voteRepository).delete(stored);
+        verify(voteRepository, never()).save(any());
+    }
+
+    @Test
+    void start_writesTheChangesRecoveredFromTheJournal() {
+        RoomJournal journal = mock(RoomJournal.class);
+        when(journal.recover()).thenReturn(List.of(
+                new RoomChange.VoteCast("ABC123", 10L, 1L, "3", null),
+                new RoomChange.RoomStateChanged("ABC123", 7L, 10L, true)));
+        when(journal.mark()).thenReturn(new RoomJournal.Mark(0, 64));
+        RoomWriteBehind recovering = new RoomWriteBehind(voteRepository, storyRepository, userRepository,
+                sessionRepository, observerSnapshotService, journal, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry());
+
+        recovering.start();
+        recovering.shutdown();
+
+        verify(voteRepository).save(any(Vote.class));
+        verify(sessionRepository).updateRoomState(7L, 10L, true);
+        verify(journal).checkpoint(new RoomJournal.Mark(0, 64));
+        verify(journal, never()).append(any());
+    }
+
+    @Test
+    void fullJournal_isSnapshottedWithEverythingUnwritten() {
+        RoomJournal journal = mock(RoomJournal.class);
+        when(journal.append(any())).thenReturn(true, false);
+        RoomWriteBehind journaled = new RoomWriteBehind(voteRepository, storyRepository, userRepository,
+                sessionRepository, observerSnapshotService, journal, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry());
+
+        journaled.voteCast("ABC123", 10L, 1L, "3", null);
+        journaled.voteCast("ABC123", 10L, 1L, "5", null); // does not fit
+
+        verify(journal).snapshot(List.of(new RoomChange.VoteCast("ABC123", 10L, 1L, "5", null)));
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
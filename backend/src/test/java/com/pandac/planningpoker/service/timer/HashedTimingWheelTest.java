@@ -0,0 +1,56 @@
+package com.pandac.planningpoker.service.timer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimingWheelTest {
+
+    // 8 buckets of 10 ms: one rotation is 80 ms, so longer delays wait for extra rounds
+    private final HashedTimingWheel wheel = new HashedTimingWheel("test-wheel", 10, 8, Runnable::run);
+
+    @AfterEach
+    void tearDown() {
+        wheel.stop();
+    }
+
+    @Test
+    void timeout_runsNoEarlierThanItsDelay_evenAcrossRotations() throws Exception {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        wheel.schedule(fired::countDown, 250, TimeUnit.MILLISECONDS);
+
+        assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(250);
+    }
+
+    @Test
+    void cancelledTimeout_neverRuns_andIsDropped() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        HashedTimingWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+
+        assertThat(timeout.cancel()).isTrue();
+        Thread.sleep(200);
+
+        assertThat(runs).hasValue(0);
+        assertThat(wheel.pendingCount()).isZero();
+    }
+
+    @Test
+    void manyTimeouts_allRunOnce() throws Exception {
+        int count = 20_000;
+        CountDownLatch fired = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            wheel.schedule(fired::countDown, i % 300, TimeUnit.MILLISECONDS);
+        }
+
+        assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(wheel.pendingCount()).isZero();
+    }
+}
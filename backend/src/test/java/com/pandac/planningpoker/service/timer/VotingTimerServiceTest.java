@@ -0,0 +1,141 @@
+package com.pandac.planningpoker.service.timer;
+
+import com.pandac.planningpoker.dto.TimerState;
+import com.pandac.planningpoker.exception.TimerStateException;
+import com.pandac.planningpoker.model.Session;
+import com.pandac.planningpoker.repository.SessionRepository;
+import com.pandac.planningpoker.service.FairScheduler;
+import com.pandac.planningpoker.service.SessionMailbox;
+import com.pandac.planningpoker.service.WebSocketEventPublisher;
+import com.pandac.planningpoker.service.WebSocketEventPublisher.Channel;
+import com.pandac.planningpoker.service.WebSocketEventPublisher.SessionEventListener;
+import com.pandac.planningpoker.service.interfaces.ISessionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class VotingTimerServiceTest {
+
+    private final SessionRepository sessionRepository = mock(SessionRepository.class);
+    private final ISessionService sessionService = mock(ISessionService.class);
+    private final WebSocketEventPublisher webSocketEventPublisher = mock(WebSocketEventPublisher.class);
+    private final VotingTimerService service = new VotingTimerService(sessionRepository, sessionService,
+            webSocketEventPublisher, new SessionMailbox(
+            new FairScheduler("service", 4, Map.of(), 256, new SimpleMeterRegistry()), new SimpleMeterRegistry()));
+    private Session session;
+
+    @BeforeEach
+    void setUp() {
+        service.start();
+        session = new Session();
+        session.setSessionCode("ABC123");
+        session.setCurrentStoryId(7L);
+        session.getSettings().setTimerEnabled(true);
+        session.getSettings().setTimerDuration(60);
+        when(sessionService.getSession("ABC123")).thenReturn(session);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void start_persistsDeadline_andBroadcastsIt() {
+        when(sessionRepository.startTimer(eq("ABC123"), any())).thenReturn(1);
+
+        TimerState timer = service.start("ABC123");
+
+        ArgumentCaptor<OffsetDateTime> deadline = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(sessionRepository).startTimer(eq("ABC123"), deadline.capture());
+        assertThat(timer.getStatus()).isEqualTo(TimerState.Status.RUNNING);
+        assertThat(timer.getDeadline()).isEqualTo(deadline.getValue().toInstant().toEpochMilli());
+        assertThat(timer.getRemainingSeconds()).isEqualTo(60);
+        verify(webSocketEventPublisher).timerUpdated("ABC123", VotingTimerService.TIMER_STARTED, timer);
+    }
+
+    @Test
+    void start_whenDisabledOrRunning_isRejected() {
+        session.getSettings().setTimerEnabled(false);
+        assertThatThrownBy(() -> service.start("ABC123")).isInstanceOf(TimerStateException.class);
+
+        session.getSettings().setTimerEnabled(true);
+        session.setTimerDeadline(OffsetDateTime.now().plusSeconds(30));
+        assertThatThrownBy(() -> service.start("ABC123")).isInstanceOf(TimerStateException.class);
+        verify(sessionRepository, never()).startTimer(any(), any());
+    }
+
+    @Test
+    void pause_keepsRemainingSeconds_andResumeStartsFromThem() {
+        OffsetDateTime deadline = OffsetDateTime.now().plusSeconds(42);
+        session.setTimerDeadline(deadline);
+        when(sessionRepository.updateRunningTimer("ABC123", deadline, null, 42)).thenReturn(1);
+
+        assertThat(service.pause("ABC123").getRemainingSeconds()).isEqualTo(42);
+
+        session.setTimerDeadline(null);
+        session.setTimerRemainingSeconds(42);
+        when(sessionRepository.startTimer(eq("ABC123"), any())).thenReturn(1);
+        assertThat(service.start("ABC123").getRemainingSeconds()).isEqualTo(42);
+    }
+
+    @Test
+    void expiry_claimsTheDeadline_broadcasts_andAutoReveals() {
+        session.getSettings().setTimerDuration(1);
+        session.getSettings().setTimerAutoReveal(true);
+        when(sessionRepository.startTimer(eq("ABC123"), any())).thenReturn(1);
+        when(sessionRepository.updateRunningTimer(eq("ABC123"), any(), isNull(), isNull())).thenReturn(1);
+
+        service.start("ABC123");
+
+        verify(webSocketEventPublisher, timeout(3_000)).timerUpdated(eq("ABC123"), eq(VotingTimerService.TIMER_EXPIRED), any());
+        verify(sessionService, timeout(1_000)).revealVotes("ABC123");
+    }
+
+    @Test
+    void expiry_lostToAnotherInstance_doesNothing() {
+        session.getSettings().setTimerDuration(1);
+        session.getSettings().setTimerAutoReveal(true);
+        when(sessionRepository.startTimer(eq("ABC123"), any())).thenReturn(1);
+        when(sessionRepository.updateRunningTimer(eq("ABC123"), any(), isNull(), isNull())).thenReturn(0);
+
+        service.start("ABC123");
+
+        verify(sessionRepository, timeout(3_000)).updateRunningTimer(eq("ABC123"), any(), isNull(), isNull());
+        verify(webSocketEventPublisher, after(200).never()).timerUpdated(any(), eq(VotingTimerService.TIMER_EXPIRED), any());
+        verify(sessionService, never()).revealVotes(any());
+    }
+
+    @Test
+    void roundEvents_stopTheTimer() {
+        ArgumentCaptor<SessionEventListener> listener = ArgumentCaptor.forClass(SessionEventListener.class);
+        verify(webSocketEventPublisher).addSessionEventListener(listener.capture());
+        when(sessionRepository.clearTimer("ABC123")).thenReturn(1);
+
+        listener.getValue().onSessionEvent("ABC123", Channel.STORY, Map.of("type", "STORY_ACTIVATED"), true);
+        listener.getValue().onSessionEvent("ABC123", Channel.VOTES, Map.of("type", "VOTE_CAST"), true);
+
+        verify(sessionRepository, times(1)).clearTimer("ABC123");
+        verify(webSocketEventPublisher).timerUpdated(eq("ABC123"), eq(VotingTimerService.TIMER_STOPPED), any());
+    }
+
+    @Test
+    void relayedRoundEvents_leaveTheStoredTimerToThePeer() {
+        ArgumentCaptor<SessionEventListener> listener = ArgumentCaptor.forClass(SessionEventListener.class);
+        verify(webSocketEventPublisher).addSessionEventListener(listener.capture());
+
+        listener.getValue().onSessionEvent("ABC123", Channel.STORY, Map.of("type", "STORY_ACTIVATED"), false);
+
+        verify(sessionRepository, never()).clearTimer(any());
+        verify(webSocketEventPublisher, never()).timerUpdated(any(), any(), any());
+    }
+}
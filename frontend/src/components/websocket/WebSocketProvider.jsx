@@ -27,9 +27,11 @@ export const WebSocketProvider = ({ children, sessionCode }) => {
   const subscriptionsRef = useRef(new Map());
   const reconnectTimeoutRef = useRef(null);
   const reconnectAttemptsRef = useRef(0);
+  const drainRef = useRef(null);
 
   const MAX_RECONNECT_ATTEMPTS = 5;
   const RECONNECT_DELAY = 3000;
+  const DEFAULT_RECONNECT_WINDOW = 30000;
 
   // Initialize WebSocket connection
   useEffect(() => {
@@ -37,10 +39,12 @@ export const WebSocketProvider = ({ children, sessionCode }) => {
 
     const wsUrl = import.meta.env.VITE_WS_URL || 'http://localhost:8080/ws';
     const token = tokenManager.get();
-    
+    let disposed = false;
+    let draining = false;
+
     const stompClient = new Client({
       webSocketFactory: () => new SockJS(wsUrl),
-      reconnectDelay: RECONNECT_DELAY,
+      reconnectDelay: 0, // reconnects are scheduled below, with jitter
       heartbeatIncoming: 4000,
       heartbeatOutgoing: 4000,
       connectHeaders: token ? {
@@ -55,38 +59,67 @@ export const WebSocketProvider = ({ children, sessionCode }) => {
       },
       onStompError: (frame) => {
         console.error('[WebSocket] STOMP error:', frame);
-        handleReconnect();
       },
       onWebSocketError: (error) => {
         console.error('[WebSocket] WebSocket error:', error);
-        handleReconnect();
+      },
+      onWebSocketClose: () => {
+        setConnected(false);
+        if (!disposed && !draining) {
+          handleReconnect();
+        }
       },
     });
 
+    const reconnectAfter = (delay) => {
+      clearTimeout(reconnectTimeoutRef.current);
+      reconnectTimeoutRef.current = setTimeout(async () => {
+        await stompClient.deactivate();
+        draining = false;
+        if (!disposed) {
+          stompClient.activate();
+        }
+      }, delay);
+    };
+
+    // Linear backoff with jitter, so clients dropped together do not all come back at once
+    const handleReconnect = () => {
+      if (reconnectAttemptsRef.current >= MAX_RECONNECT_ATTEMPTS) {
+        console.error('[WebSocket] Max reconnection attempts reached');
+        return;
+      }
+
+      reconnectAttemptsRef.current += 1;
+      const delay = RECONNECT_DELAY * reconnectAttemptsRef.current;
+      reconnectAfter(delay / 2 + Math.random() * delay);
+    };
+
+    // SERVER_DRAINING: this server is shutting down; move to another one at a random moment within its window
+    drainRef.current = (message) => {
+      if (draining || disposed) return;
+      draining = true;
+      let reconnectWindowMs = DEFAULT_RECONNECT_WINDOW;
+      try {
+        reconnectWindowMs = JSON.parse(message.body).reconnectWindowMs ?? DEFAULT_RECONNECT_WINDOW;
+      } catch {
+        // keep the default window
+      }
+      reconnectAttemptsRef.current = 0;
+      stompClient.deactivate();
+      reconnectAfter(Math.random() * reconnectWindowMs);
+    };
+
     stompClient.activate();
     setClient(stompClient);
 
     return () => {
-      if (reconnectTimeoutRef.current) {
-        clearTimeout(reconnectTimeoutRef.current);
-      }
+      disposed = true;
+      drainRef.current = null;
+      clearTimeout(reconnectTimeoutRef.current);
       stompClient.deactivate();
     };
   }, [sessionCode]);
 
-  const handleReconnect = useCallback(() => {
-    if (reconnectAttemptsRef.current >= MAX_RECONNECT_ATTEMPTS) {
-      console.error('[WebSocket] Max reconnection attempts reached');
-      return;
-    }
-
-    reconnectAttemptsRef.current += 1;
-
-    reconnectTimeoutRef.current = setTimeout(() => {
-      client?.activate();
-    }, RECONNECT_DELAY * reconnectAttemptsRef.current);
-  }, [client]);
-
   // Subscribe to a topic
   const subscribe = useCallback(
     (topic, callback) => {
@@ -97,6 +130,9 @@ export const WebSocketProvider = ({ children, sessionCode }) => {
       const fullTopic = topic.startsWith('/topic') ? topic : `/topic${topic}`;
       
       const subscription = client.subscribe(fullTopic, (message) => {
+        if (message.headers['server-draining']) {
+          drainRef.current?.(message);
+        }
         try {
           callback(message);
         } catch (error) {
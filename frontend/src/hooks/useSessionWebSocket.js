@@ -1,8 +1,13 @@
 import { useEffect } from 'react';
 import { useWebSocket } from '../components/websocket/WebSocketProvider';
 
+// Opt-in: one SUBSCRIBE to /topic/session/{code} instead of one per channel.
+const MULTIPLEXED = import.meta.env.VITE_WS_MULTIPLEXED === 'true';
+
 /**
- * Consolidates all four session WebSocket topic subscriptions.
+ * Consolidates all session WebSocket topic subscriptions.
+ * With VITE_WS_MULTIPLEXED=true a single multiplexed subscription is used and events
+ * are routed by their `event-channel` header.
  *
  * @param {Object}   params
  * @param {string}   params.sessionCode
@@ -34,6 +39,21 @@ export function useSessionWebSocket({
       }
     };
 
+    if (MULTIPLEXED) {
+      const handlers = {
+        story:  onStoryChange,
+        reveal: onReveal,
+        users:  onUserChange,
+        timer:  onTimerSettings,
+        votes:  onVoteChange,
+      };
+      const unsub = subscribe(`/topic/session/${sessionCode}`, (message) => {
+        const handler = handlers[message.headers['event-channel']];
+        if (handler) parse(handler)(message);
+      });
+      return () => unsub?.();
+    }
+
     const subs = [
       subscribe(`/topic/session/${sessionCode}/story`,  parse(onStoryChange)),
       subscribe(`/topic/session/${sessionCode}/reveal`, parse(onReveal)),
@@ -1,5 +1,5 @@
 import { describe, it, expect, vi } from 'vitest';
-import { parseError, handleError, ErrorTypes, ErrorMessages } from '../utils/errorHandler';
+import { parseError, handleError, isRetryableError, ErrorTypes, ErrorMessages } from '../utils/errorHandler';
 
 describe('parseError', () => {
   it('returns NETWORK_ERROR when there is no response', () => {
@@ -47,6 +47,12 @@ describe('parseError', () => {
     expect(parseError({ response: { status: 503, data: {} } }).type).toBe(ErrorTypes.SERVER_ERROR);
   });
 
+  it('returns RATE_LIMITED for 429 status', () => {
+    const result = parseError({ response: { status: 429, data: {} } });
+    expect(result.type).toBe(ErrorTypes.RATE_LIMITED);
+    expect(result.message).toBe(ErrorMessages[ErrorTypes.RATE_LIMITED]);
+  });
+
   it('returns UNKNOWN_ERROR for unhandled status codes', () => {
     const error = { response: { status: 418, data: {} } };
     const result = parseError(error);
@@ -86,3 +92,12 @@ describe('handleError', () => {
     expect(() => handleError(error)).not.toThrow();
   });
 });
+
+describe('isRetryableError', () => {
+  it('retries network, rate-limit and server errors only', () => {
+    expect(isRetryableError(new Error('Network Error'))).toBe(true);
+    expect(isRetryableError({ response: { status: 429, data: {} } })).toBe(true);
+    expect(isRetryableError({ response: { status: 503, data: {} } })).toBe(true);
+    expect(isRetryableError({ response: { status: 400, data: {} } })).toBe(false);
+  });
+});
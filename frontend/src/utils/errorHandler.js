@@ -9,6 +9,7 @@ export const ErrorTypes = {
   NOT_FOUND: 'NOT_FOUND',
   FORBIDDEN: 'FORBIDDEN',
   UNAUTHORIZED: 'UNAUTHORIZED',
+  RATE_LIMITED: 'RATE_LIMITED',
   SERVER_ERROR: 'SERVER_ERROR',
   UNKNOWN_ERROR: 'UNKNOWN_ERROR',
 };
@@ -20,6 +21,7 @@ export const ErrorMessages = {
   [ErrorTypes.NOT_FOUND]: 'Resource not found.',
   [ErrorTypes.FORBIDDEN]: 'You do not have permission to perform this action.',
   [ErrorTypes.UNAUTHORIZED]: 'Please log in to continue.',
+  [ErrorTypes.RATE_LIMITED]: 'The session is busy. Please try again in a moment.',
   [ErrorTypes.SERVER_ERROR]: 'Server error. Please try again later.',
   [ErrorTypes.UNKNOWN_ERROR]: 'An unexpected error occurred.',
 };
@@ -56,6 +58,9 @@ export const parseError = (error) => {
     case 404:
       errorType = ErrorTypes.NOT_FOUND;
       break;
+    case 429:
+      errorType = ErrorTypes.RATE_LIMITED;
+      break;
     case 500:
     case 502:
     case 503:
@@ -131,6 +136,7 @@ export const isRetryableError = (error) => {
   const parsedError = parseError(error);
   return [
     ErrorTypes.NETWORK_ERROR,
+    ErrorTypes.RATE_LIMITED,
     ErrorTypes.SERVER_ERROR,
   ].includes(parsedError.type);
 };
@@ -181,8 +187,9 @@ export const retryRequest = async (
         throw error;
       }
       
-      // Wait with exponential backoff
-      const delay = initialDelay * Math.pow(2, attempt);
+      // Wait as long as the server asks (Retry-After, in seconds), otherwise back off exponentially
+      const retryAfter = Number(error.response?.headers?.['retry-after']);
+      const delay = retryAfter > 0 ? retryAfter * 1000 : initialDelay * Math.pow(2, attempt);
       await new Promise(resolve => setTimeout(resolve, delay));
     }
   }